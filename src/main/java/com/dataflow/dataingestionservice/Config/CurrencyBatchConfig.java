@@ -2,14 +2,19 @@ package com.dataflow.dataingestionservice.Config;
 
 import com.dataflow.dataingestionservice.Config.ItemProcessor.CurrencyProcessor;
 import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Services.CurrencyRegistry;
 import com.dataflow.dataingestionservice.Utils.ColumnFormatter;
+import com.dataflow.dataingestionservice.Utils.UploadPipeRegistry;
 import jakarta.persistence.EntityManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
@@ -30,6 +35,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 
 import java.beans.PropertyEditor;
 import java.beans.PropertyEditorSupport;
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -38,13 +44,22 @@ import java.util.UUID;
 public class CurrencyBatchConfig {
     private static final Logger logger = LoggerFactory.getLogger(TransactionBatchConfig.class);
 
+    private final UploadPipeRegistry uploadPipeRegistry;
+    private final CurrencyRegistry currencyRegistry;
+
+    public CurrencyBatchConfig(UploadPipeRegistry uploadPipeRegistry, CurrencyRegistry currencyRegistry) {
+        this.uploadPipeRegistry = uploadPipeRegistry;
+        this.currencyRegistry = currencyRegistry;
+    }
+
     @Bean
     @StepScope
     @Qualifier("currencyReader")
-    public FlatFileItemReader<Currency> csvItemReader( @Value("#{jobParameters['filePath']}") String filePath) {
+    public FlatFileItemReader<Currency> csvItemReader( @Value("#{jobParameters['filePath']}") String filePath,
+                                                       @Value("#{jobParameters['uploadId']}") String uploadId) {
         FlatFileItemReader<Currency> reader = new FlatFileItemReader<>();
         reader.setSaveState(false);
-        reader.setResource(new FileSystemResource(filePath));
+        reader.setResource(uploadId != null ? uploadPipeRegistry.resource(uploadId) : new FileSystemResource(filePath));
         reader.setLinesToSkip(1);
         reader.setLineMapper(lineMapper());
         return reader;
@@ -97,13 +112,52 @@ public class CurrencyBatchConfig {
                 .writer(currencyJpaItemWriter)
                 .build();
     }
+    /**
+     * Creates a listener that discards the pipe or deletes the temporary file of a currency upload once the job ends.
+     * Currency imports are not restarted, so the file is deleted whatever the outcome of the job.
+     *
+     * @param filePath the path to the uploaded file (injected from job parameters)
+     * @param uploadId the id of the pipe of a streamed upload (injected from job parameters)
+     * @return a {@link JobExecutionListener} for cleanup after job execution
+     */
+    @Bean
+    @JobScope
+    public JobExecutionListener currencyJobExecutionListener(@Value("#{jobParameters['filePath']}") String filePath,
+                                                             @Value("#{jobParameters['uploadId']}") String uploadId) {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                if (uploadId != null) {
+                    uploadPipeRegistry.discard(uploadId);
+                }
+                if (filePath == null) {
+                    return;
+                }
+                if (new File(filePath).delete()) {
+                    logger.info("File from " + filePath + " deleted.");
+                } else {
+                    logger.error("Failed to delete " + filePath);
+                }
+            }
+        };
+    }
+
     @Bean
     @Qualifier("currencyJob")
-    public Job currencyInsertJob(JobRepository jobRepository,@Qualifier("currencyInsertStep") Step currencyInsertStep, JobExecutionListener jobExecutionListener) {
+    public Job currencyInsertJob(JobRepository jobRepository,@Qualifier("currencyInsertStep") Step currencyInsertStep, @Qualifier("currencyJobExecutionListener") JobExecutionListener currencyJobExecutionListener) {
         logger.info("🚀 currencyInsertJob() is being initialized...");
         return new JobBuilder("currencyInsertJob", jobRepository)
                 .start(currencyInsertStep)
-                .listener(jobExecutionListener)
+                .listener(currencyJobExecutionListener)
+                .listener(new JobExecutionListener() {
+                    @Override
+                    public void afterJob(JobExecution jobExecution) {
+                        // Publish the imported currencies to the lookups served from memory
+                        if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                            currencyRegistry.refresh();
+                        }
+                    }
+                })
                 .build();
     }
 }
@@ -1,18 +1,94 @@
 package com.dataflow.dataingestionservice.Config;
 
+import com.dataflow.dataingestionservice.Config.ServiceProperties.HttpClientProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.ssl.SslBundles;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import javax.net.ssl.SSLContext;
+
+/**
+ * Builds the {@link RestTemplate}s used for outgoing calls.
+ * <p>
+ * The reporting service and the BT API each get their own pool of keep-alive connections, configured under
+ * {@code http.client.reporting} and {@code http.client.bt}, so a slow peer cannot use up the connections of the other
+ * one and TLS handshakes are only paid when a pool opens a new connection. Both trust the "trust" SSL bundle.
+ * The state of each pool is published as {@code httpcomponents.httpclient.pool.*} metrics tagged with
+ * {@code httpclient=reporting} or {@code httpclient=bt}.
+ * </p>
+ */
 @Configuration
 public class CustomRestTemplateConfiguration {
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory reportingRequestFactory(HttpClientProperties properties,
+                                                                          SslBundles sslBundles,
+                                                                          MeterRegistry meterRegistry) {
+        return pooledRequestFactory("reporting", properties.getReporting(),
+                sslBundles.getBundle("trust").createSslContext(), meterRegistry);
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory btRequestFactory(HttpClientProperties properties,
+                                                                   SslBundles sslBundles,
+                                                                   MeterRegistry meterRegistry) {
+        return pooledRequestFactory("bt", properties.getBt(),
+                sslBundles.getBundle("trust").createSslContext(), meterRegistry);
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder, SslBundles sslBundles) {
-        sslBundles.getBundleNames().forEach(name -> System.out.println("Available SSL Bundle: " + name));
-        return builder
-                .sslBundle(sslBundles.getBundle("trust"))
+    public RestTemplate reportingRestTemplate(RestTemplateBuilder builder,
+                                              @Qualifier("reportingRequestFactory") HttpComponentsClientHttpRequestFactory requestFactory) {
+        return builder.requestFactory(() -> requestFactory).build();
+    }
+
+    @Bean
+    public RestTemplate btRestTemplate(RestTemplateBuilder builder,
+                                       @Qualifier("btRequestFactory") HttpComponentsClientHttpRequestFactory requestFactory) {
+        return builder.requestFactory(() -> requestFactory).build();
+    }
+
+    /**
+     * Creates a request factory backed by its own connection pool. The factory closes the pool when the
+     * application context is closed.
+     */
+    static HttpComponentsClientHttpRequestFactory pooledRequestFactory(String name,
+                                                                       HttpClientProperties.Pool pool,
+                                                                       SSLContext sslContext,
+                                                                       MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setTlsSocketStrategy(new DefaultClientTlsStrategy(sslContext))
+                .setMaxConnTotal(pool.getMaxConnections())
+                .setMaxConnPerRoute(pool.getMaxConnectionsPerHost())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(pool.getConnectTimeoutMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(pool.getReadTimeoutMillis()))
+                        .build())
                 .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name).bindTo(meterRegistry);
+
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(pool.getConnectionRequestTimeoutMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(pool.getReadTimeoutMillis()))
+                        .build())
+                .evictIdleConnections(TimeValue.ofMilliseconds(pool.getIdleTimeoutMillis()))
+                .build());
     }
 }
@@ -0,0 +1,130 @@
+package com.dataflow.dataingestionservice.Config.ItemProcessor;
+
+import com.dataflow.dataingestionservice.Models.Category;
+import com.dataflow.dataingestionservice.Repositories.CategoryRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves category names of imported rows to the {@link Category} entities of the importing user.
+ * <p>
+ * All categories of a user can be loaded with a single query by {@link #preload(String)}, or only the ones a chunk of
+ * rows needs by {@link #load(String, Collection)}. Names are resolved in memory, case-insensitively, keyed by the
+ * user id and the lowercased name. A name that is not cached is looked up once in the database, in case the category
+ * was created after the preload, and the result, found or not, is cached so the lookup is never repeated.
+ * </p>
+ * <p>
+ * When the user has several categories whose names only differ in case, the one with the smallest id is used, as by
+ * the merge of {@code STAGING} imports.
+ * </p>
+ * <p>
+ * Instances are not thread-safe; every import step uses its own cache.
+ * </p>
+ */
+public class CategoryCache {
+
+    private record Key(String userId, String name) {
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final Map<Key, Optional<Category>> categories = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    public CategoryCache(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Loads all the categories of the user into the cache.
+     *
+     * @param userId the id of the user owning the categories
+     */
+    public void preload(String userId) {
+        for (Category category : categoryRepository.findAllByUserId(userId)) {
+            put(userId, category);
+        }
+    }
+
+    /**
+     * Looks up, with a single query, all the given names of the user that are not cached yet.
+     * Names without a matching category are cached as missing.
+     *
+     * @param userId the id of the user owning the categories
+     * @param names  the category names
+     */
+    public void load(String userId, Collection<String> names) {
+        Set<String> missing = new HashSet<>();
+        for (String name : names) {
+            Key key = key(userId, name);
+            if (!categories.containsKey(key)) {
+                missing.add(key.name());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        misses += missing.size();
+        for (Category category : categoryRepository.findAllByUserIdAndLowerNameIn(userId, missing)) {
+            put(userId, category);
+        }
+        for (String name : missing) {
+            categories.putIfAbsent(new Key(userId, name), Optional.empty());
+        }
+    }
+
+    /**
+     * Returns the category of the user with the given name, ignoring case.
+     *
+     * @param userId the id of the user owning the category
+     * @param name   the category name
+     * @return the matching {@link Category}, or {@code null} if the user has no category with this name
+     */
+    public Category resolve(String userId, String name) {
+        Key key = key(userId, name);
+        Optional<Category> category = categories.get(key);
+
+        if (category != null) {
+            hits++;
+            return category.orElse(null);
+        }
+
+        misses++;
+        category = Optional.ofNullable(categoryRepository.findFirstByUserIdAndNameIgnoreCaseOrderByIdAsc(userId, name));
+        categories.put(key, category);
+        return category.orElse(null);
+    }
+
+    /**
+     * @return the number of names resolved from the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of names that had to be looked up in the database
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Caches a category, unless a category with the same name and a smaller id is cached already.
+     */
+    private void put(String userId, Category category) {
+        categories.merge(key(userId, category.getName()), Optional.of(category), (cached, found) ->
+                cached.isPresent() && cached.get().getId().compareTo(category.getId()) <= 0 ? cached : found);
+    }
+
+    private static Key key(String userId, String name) {
+        return new Key(userId, name.toLowerCase(Locale.ROOT));
+    }
+}
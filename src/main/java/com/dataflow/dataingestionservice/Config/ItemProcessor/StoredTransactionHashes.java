@@ -0,0 +1,133 @@
+package com.dataflow.dataingestionservice.Config.ItemProcessor;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The content hashes of the transactions a user already has, used to leave out the imported rows that would not
+ * change anything.
+ * <p>
+ * A transaction is identified by its user and date. Its hash covers the columns an import writes: the lowercased
+ * category name, description, amount, currency, payment mode and type. Hashes are computed from the stored columns,
+ * not stored themselves, so a transaction edited after it was imported is compared as edited.
+ * </p>
+ * <p>
+ * The stored transactions are loaded one month at a time: the first row of a month loads the hashes of all the
+ * user's transactions of that month with one query on {@code uk_user_transaction_date}, so a statement costs one
+ * query per month it spans. The last {@value #CACHED_MONTHS} months loaded are kept. A row only replaces the hash of
+ * its date once it has been written, so a later row of the same import with that date is compared with it. The check
+ * itself changes nothing: a chunk that is processed again after a skip finds the same hashes as the first time.
+ * </p>
+ * <p>
+ * Instances are not thread-safe; every import step uses its own.
+ * </p>
+ */
+public class StoredTransactionHashes {
+
+    static final int CACHED_MONTHS = 12;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String userId;
+    private final Map<YearMonth, Map<LocalDateTime, Long>> months = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, Map<LocalDateTime, Long>> eldest) {
+            return size() > CACHED_MONTHS;
+        }
+    };
+
+    /**
+     * @param jdbcTemplate the template used to read the stored transactions
+     * @param userId       the id of the user importing the rows
+     */
+    public StoredTransactionHashes(JdbcTemplate jdbcTemplate, String userId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userId = userId;
+    }
+
+    /**
+     * Returns whether the user already has a transaction with the date and content of the processed row.
+     *
+     * @param item a row whose currency, amount and type have been set by the {@link TransactionProcessor}
+     */
+    public boolean isUnchanged(Transaction item) {
+        LocalDateTime date = item.getTransactionDate();
+        if (date == null) {
+            return false;
+        }
+        Long stored = months.computeIfAbsent(YearMonth.from(date), this::load).get(date);
+        return stored != null && stored == hash(item);
+    }
+
+    /**
+     * Makes a written row the transaction its date is compared with.
+     *
+     * @param item a row written by the import
+     */
+    public void record(Transaction item) {
+        LocalDateTime date = item.getTransactionDate();
+        if (date != null) {
+            months.computeIfAbsent(YearMonth.from(date), this::load).put(date, hash(item));
+        }
+    }
+
+    private static long hash(Transaction item) {
+        return hash(item.getCategoryName(), item.getDescription(), item.getAmount(),
+                item.getCurrency() != null ? item.getCurrency().getId() : null,
+                item.getPaymentMode() != null ? item.getPaymentMode().name() : null,
+                item.getType() != null ? item.getType().name() : null);
+    }
+
+    private Map<LocalDateTime, Long> load(YearMonth month) {
+        Map<LocalDateTime, Long> hashes = new HashMap<>();
+        jdbcTemplate.query("SELECT t.transaction_date, c.name, t.description, t.amount, t.currency_id, t.payment_mode, t.type " +
+                        "FROM transactions t LEFT JOIN categories c ON c.id = t.category_id " +
+                        "WHERE t.user_id = ? AND t.transaction_date >= ? AND t.transaction_date < ?",
+                rs -> {
+                    hashes.put(rs.getTimestamp(1).toLocalDateTime(), hash(rs.getString(2), rs.getString(3),
+                            rs.getBigDecimal(4), rs.getString(5), rs.getString(6), rs.getString(7)));
+                },
+                userId,
+                Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+        return hashes;
+    }
+
+    /**
+     * Hashes the written columns of a transaction with 64-bit FNV-1a. Category names are compared case-insensitively,
+     * as the import resolves them, and amounts by value, so {@code 12.5} and the stored {@code 12.50} are equal.
+     */
+    static long hash(String categoryName, String description, BigDecimal amount, String currencyId,
+                     String paymentMode, String type) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, categoryName != null && !categoryName.isEmpty() ? categoryName.toLowerCase(Locale.ROOT) : null);
+        hash = hash(hash, description);
+        hash = hash(hash, amount != null ? amount.stripTrailingZeros().toPlainString() : null);
+        hash = hash(hash, currencyId);
+        hash = hash(hash, paymentMode);
+        return hash(hash, type);
+    }
+
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            // Distinguishes null from the empty string
+            return (hash ^ 0xff) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // Separates the columns, so ("ab", "c") and ("a", "bc") differ
+        return (hash ^ 0x1f) * FNV_PRIME;
+    }
+}
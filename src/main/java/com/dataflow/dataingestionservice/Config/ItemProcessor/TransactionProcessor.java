@@ -1,69 +1,74 @@
 package com.dataflow.dataingestionservice.Config.ItemProcessor;
 
-import com.dataflow.dataingestionservice.Models.Category;
 import com.dataflow.dataingestionservice.Models.Currency;
 import com.dataflow.dataingestionservice.Models.Transaction;
-import com.dataflow.dataingestionservice.Repositories.CategoryRepository;
-import com.dataflow.dataingestionservice.Repositories.CurrencyRepository;
+import com.dataflow.dataingestionservice.Services.CurrencyRegistry;
 import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
-import com.dataflow.dataingestionservice.Utils.SecurityUtils;
-import jakarta.annotation.PostConstruct;
+import com.dataflow.dataingestionservice.Utils.TimeOrderedUuid;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemProcessor;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * A Spring Batch {@code ItemProcessor} implementation for processing {@link Transaction} items.
  * <p>
- * This processor assigns a new random UUID to the {@code id} field of each {@code Transaction} before it is written.
+ * This processor assigns a new time-ordered UUID to the {@code id} field of each {@code Transaction} before it is written.
  * This ensures that each transaction record has a unique identifier when persisted.
  * </p>
+ * <p>
+ * Categories are not resolved here but for whole chunks at once by
+ * {@link com.dataflow.dataingestionservice.Config.ItemWriter.TransactionEnrichmentWriter}.
+ * </p>
+ * <p>
+ * Given {@link StoredTransactionHashes}, rows the user already has with the same content are filtered out, so a
+ * re-uploaded or overlapping statement only writes its new and changed rows. The rows are only added to the hashes
+ * once they have been written, so the processor must also be registered as an {@link ItemWriteListener} of its step.
+ * </p>
  *
  *
  * @see ItemProcessor
  */
 
-public class TransactionProcessor implements ItemProcessor<Transaction, Transaction> {
+public class TransactionProcessor implements ItemProcessor<Transaction, Transaction>, ItemWriteListener<Transaction> {
 
-    private final Map<String, Currency> currencyCache = new HashMap<>();
-    private final CurrencyRepository currencyRepository;
-    private final CategoryRepository categoryRepository;
+    private final CurrencyRegistry currencyRegistry;
+    private final String userId;
+    private final StoredTransactionHashes storedHashes;
 
-    public TransactionProcessor(CurrencyRepository currencyRepository, CategoryRepository categoryRepository){
-        this.currencyRepository=currencyRepository;
-        this.categoryRepository = categoryRepository;
+    public TransactionProcessor(CurrencyRegistry currencyRegistry, String userId){
+        this(currencyRegistry, userId, null);
     }
+
     /**
-     * Processes a {@link Transaction} by assigning it a new random UUID.
+     * @param currencyRegistry the registry resolving currency codes
+     * @param userId           the id of the user who uploaded the file
+     * @param storedHashes     the hashes of the user's transactions, or {@code null} to write unchanged rows too
+     */
+    public TransactionProcessor(CurrencyRegistry currencyRegistry, String userId, StoredTransactionHashes storedHashes){
+        this.currencyRegistry = currencyRegistry;
+        this.userId = userId;
+        this.storedHashes = storedHashes;
+    }
+    /**
+     * Processes a {@link Transaction} by assigning it a new time-ordered UUID.
      *
      * @param item the {@link Transaction} item to process
-     * @return the processed {@link Transaction} with a new UUID assigned to its {@code id} field
+     * @return the processed {@link Transaction} with a new UUID assigned to its {@code id} field, or {@code null} if
+     *         the user already has the same transaction
      * @throws Exception if an error occurs during processing
      */
     @Override
     public Transaction process(Transaction item) throws Exception {
         String currencyCode = item.getCurrencyCode();
-        String categoryName = item.getCategoryName();
-        Currency currency;
-        currency=currencyCache.get(currencyCode);
+        Currency currency = currencyRegistry.findByCode(currencyCode);
 
-        if(currency == null) {
-            currency = currencyRepository.findByCodeContainingIgnoreCase(currencyCode);
-        }
         if(currency  == null){
             throw new IllegalStateException("Currency not found for code: " + currencyCode);
         }
 
-        Category category = null;
-
-        if(categoryName != null && !categoryName.isEmpty()){
-            category = categoryRepository.findByNameIgnoreCase(categoryName);
-        }
-
         if(item.getAmount().compareTo(BigDecimal.ZERO) > 0){
             item.setType(TransactionType.INCOME);
         }else{
@@ -71,17 +76,27 @@ public class TransactionProcessor implements ItemProcessor<Transaction, Transact
         }
 
         item.setAmount(item.getAmount().abs());
-        item.setCategory(category);
         item.setCurrency(currency);
-        item.setId(UUID.randomUUID().toString());
-        item.setUserId(SecurityUtils.getCurrentUserUuid());
+
+        if (storedHashes != null && storedHashes.isUnchanged(item)) {
+            return null;
+        }
+
+        item.setId(TimeOrderedUuid.next());
+        item.setUserId(userId);
         return item;
     }
 
-    @PostConstruct
-    public void init(){
-        for (Currency currency : currencyRepository.findAll()) {
-            currencyCache.put(currency.getCode(), currency);
+    /**
+     * Records the hashes of the written rows, so later rows of the import with the same date are compared with them.
+     * Called in the chunk transaction, after every successful write, including the single-item writes of a scan.
+     */
+    @Override
+    public void afterWrite(Chunk<? extends Transaction> items) {
+        if (storedHashes != null) {
+            for (Transaction item : items) {
+                storedHashes.record(item);
+            }
         }
     }
 }
@@ -0,0 +1,223 @@
+package com.dataflow.dataingestionservice.Config.ItemWriter;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.TimeOrderedUuid;
+import com.dataflow.dataingestionservice.Utils.TransactionImportSkipListener;
+import com.mysql.cj.jdbc.JdbcStatement;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@link ItemWriter} that writes a chunk of {@link Transaction}s with MySQL's bulk loader instead of one
+ * {@code INSERT} per row.
+ * <p>
+ * Every chunk is encoded in memory as tab-separated text, with the binary ids in hexadecimal, and streamed with
+ * {@code LOAD DATA LOCAL INFILE} into a temporary staging table of the chunk transaction's connection. Rows the
+ * {@code transactions} table would reject are looked up in the staging table with set-based checks; they are removed
+ * from the chunk, reported to the skip listeners as write skips and counted in the step's
+ * {@link TransactionImportSkipListener#REJECTED_ROW_COUNT_CONTEXT_KEY}. The remaining rows are merged into
+ * {@code transactions} with a single {@code INSERT ... SELECT ... ON DUPLICATE KEY UPDATE}, and the ids of the merged
+ * rows are read back into the items, so the reporting sync and the other write listeners see the keys that were
+ * actually stored.
+ * </p>
+ * <p>
+ * Everything runs in the chunk transaction, so a failed chunk leaves neither staged nor merged rows behind.
+ * The connection URL needs {@code allowLoadLocalInfile=true} and the server {@code local_infile=ON}.
+ * </p>
+ */
+public class TransactionBulkLoadWriter implements ItemWriter<Transaction> {
+
+    static final String STAGING_TABLE = "transaction_import_staging";
+
+    private static final int DESCRIPTION_MAX_LENGTH = 255;
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMPORARY TABLE IF NOT EXISTS " + STAGING_TABLE + " (" +
+                    "row_no INT NOT NULL PRIMARY KEY, " +
+                    "id BINARY(16), " +
+                    "user_id VARCHAR(36), " +
+                    "transaction_date DATETIME(6), " +
+                    "category_id VARCHAR(36), " +
+                    "description TEXT, " +
+                    "amount DECIMAL(38,2), " +
+                    "currency_id VARCHAR(36), " +
+                    "payment_mode VARCHAR(255), " +
+                    "created_at DATETIME(6), " +
+                    "type VARCHAR(255))";
+
+    private static final String LOAD_STAGING_TABLE =
+            "LOAD DATA LOCAL INFILE 'transactions.tsv' INTO TABLE " + STAGING_TABLE + " " +
+                    "CHARACTER SET utf8mb4 " +
+                    "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' " +
+                    "LINES TERMINATED BY '\\n' " +
+                    "(row_no, @id, user_id, transaction_date, category_id, description, amount, currency_id, payment_mode, created_at, type) " +
+                    "SET id = UNHEX(@id)";
+
+    private static final String FIND_INVALID_ROWS =
+            "SELECT row_no, CASE " +
+                    "WHEN user_id IS NULL THEN 'User id is missing' " +
+                    "WHEN transaction_date IS NULL THEN 'Transaction date is missing' " +
+                    "WHEN amount IS NULL THEN 'Amount is missing' " +
+                    "WHEN type IS NULL THEN 'Transaction type is missing' " +
+                    "ELSE 'Description is longer than " + DESCRIPTION_MAX_LENGTH + " characters' END AS reason " +
+                    "FROM " + STAGING_TABLE + " " +
+                    "WHERE user_id IS NULL OR transaction_date IS NULL OR amount IS NULL OR type IS NULL " +
+                    "OR CHAR_LENGTH(description) > " + DESCRIPTION_MAX_LENGTH;
+
+    private static final String MERGE_STAGING_TABLE =
+            "INSERT INTO transactions (id, user_id, transaction_date, category_id, description, amount, currency_id, payment_mode, created_at, type) " +
+                    "SELECT id, user_id, transaction_date, category_id, description, amount, currency_id, payment_mode, created_at, type " +
+                    "FROM " + STAGING_TABLE + " s ORDER BY s.row_no " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    "category_id = s.category_id, " +
+                    "description = s.description, " +
+                    "amount = s.amount, " +
+                    "currency_id = s.currency_id, " +
+                    "payment_mode = s.payment_mode, " +
+                    "created_at = s.created_at, " +
+                    "type = s.type";
+
+    private static final String FIND_MERGED_KEYS =
+            "SELECT s.row_no, t.id FROM " + STAGING_TABLE + " s " +
+                    "JOIN transactions t ON t.user_id = s.user_id AND t.transaction_date = s.transaction_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param jdbcTemplate the template used for all statements; it must use the data source of the step's
+     *                     transaction manager, so the statements join the chunk transaction
+     */
+    public TransactionBulkLoadWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(Chunk<? extends Transaction> chunk) throws Exception {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+        jdbcTemplate.update("DELETE FROM " + STAGING_TABLE);
+
+        // Staging row numbers are the positions of the items before invalid rows are removed from the chunk
+        List<Transaction> staged = new ArrayList<>(chunk.getItems());
+        byte[] rows = encode(staged);
+        jdbcTemplate.execute((Statement statement) -> {
+            statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(new ByteArrayInputStream(rows));
+            return statement.executeUpdate(LOAD_STAGING_TABLE);
+        });
+
+        removeInvalidRows(chunk);
+
+        if (!chunk.isEmpty()) {
+            jdbcTemplate.update(MERGE_STAGING_TABLE);
+            jdbcTemplate.query(FIND_MERGED_KEYS, rs -> {
+                staged.get(rs.getInt("row_no")).setId(TimeOrderedUuid.fromBytes(rs.getBytes("id")));
+            });
+        }
+
+        jdbcTemplate.update("DELETE FROM " + STAGING_TABLE);
+    }
+
+    /**
+     * Removes the rows the {@code transactions} table would reject from the staging table and from the chunk.
+     * The removed items are passed to the skip listeners as write skips.
+     */
+    private void removeInvalidRows(Chunk<? extends Transaction> chunk) {
+        Map<Integer, String> invalidRows = new HashMap<>();
+        jdbcTemplate.query(FIND_INVALID_ROWS, rs -> {
+            invalidRows.put(rs.getInt("row_no"), rs.getString("reason"));
+        });
+
+        if (invalidRows.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update("DELETE FROM " + STAGING_TABLE + " WHERE row_no IN ("
+                + String.join(",", invalidRows.keySet().stream().map(String::valueOf).toList()) + ")");
+
+        Chunk<? extends Transaction>.ChunkIterator iterator = chunk.iterator();
+        int rowNo = 0;
+        int removed = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            String reason = invalidRows.get(rowNo++);
+            if (reason != null) {
+                iterator.remove(new DataIntegrityViolationException(reason));
+                removed++;
+            }
+        }
+
+        // Skips registered on the chunk reach the skip listeners, but are not counted by the chunk processor
+        var context = StepSynchronizationManager.getContext();
+        if (context != null) {
+            ExecutionContext executionContext = context.getStepExecution().getExecutionContext();
+            executionContext.putLong(TransactionImportSkipListener.REJECTED_ROW_COUNT_CONTEXT_KEY,
+                    executionContext.getLong(TransactionImportSkipListener.REJECTED_ROW_COUNT_CONTEXT_KEY, 0) + removed);
+        }
+    }
+
+    /**
+     * Encodes the items as the tab-separated rows expected by {@link #LOAD_STAGING_TABLE}, numbered from zero.
+     */
+    static byte[] encode(List<? extends Transaction> items) {
+        StringBuilder rows = new StringBuilder(items.size() * 160);
+        int rowNo = 0;
+        for (Transaction item : items) {
+            rows.append(rowNo++);
+            appendField(rows, item.getId() != null ? HexFormat.of().formatHex(TimeOrderedUuid.toBytes(item.getId())) : null);
+            appendField(rows, item.getUserId());
+            appendField(rows, item.getTransactionDate());
+            appendField(rows, item.getCategory() != null ? item.getCategory().getId() : null);
+            appendField(rows, item.getDescription());
+            appendField(rows, item.getAmount() != null ? item.getAmount().toPlainString() : null);
+            appendField(rows, item.getCurrency() != null ? item.getCurrency().getIdAsString() : null);
+            appendField(rows, item.getPaymentMode() != null ? item.getPaymentMode().name() : null);
+            appendField(rows, item.getCreatedAt());
+            appendField(rows, item.getType() != null ? item.getType().name() : null);
+            rows.append('\n');
+        }
+        return rows.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendField(StringBuilder rows, LocalDateTime value) {
+        appendField(rows, value != null ? DATE_TIME_FORMAT.format(value) : null);
+    }
+
+    private static void appendField(StringBuilder rows, String value) {
+        rows.append('\t');
+        if (value == null) {
+            rows.append("\\N");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> rows.append("\\\\");
+                case '\t' -> rows.append("\\t");
+                case '\n' -> rows.append("\\n");
+                case '\r' -> rows.append("\\r");
+                case '\0' -> rows.append("\\0");
+                default -> rows.append(c);
+            }
+        }
+    }
+}
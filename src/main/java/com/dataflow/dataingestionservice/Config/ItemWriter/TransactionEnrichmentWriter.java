@@ -0,0 +1,87 @@
+package com.dataflow.dataingestionservice.Config.ItemWriter;
+
+import com.dataflow.dataingestionservice.Config.ItemProcessor.CategoryCache;
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Repositories.CategoryRepository;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An {@link ItemWriter} that resolves the categories of a whole chunk of imported {@link Transaction}s before handing
+ * the chunk to the actual writer.
+ * <p>
+ * The distinct category names of the chunk that are not cached yet are resolved with a single {@code IN} query,
+ * then every item is enriched from the {@link CategoryCache}, so an import makes at most one category query per chunk.
+ * Users with few categories get their whole category set preloaded when the step starts, which usually leaves
+ * nothing to query at all. The cache hit and miss counts are stored in the step execution context when the step ends.
+ * </p>
+ * <p>
+ * Unknown category names are not an error; such rows are imported without a category.
+ * </p>
+ */
+public class TransactionEnrichmentWriter implements ItemWriter<Transaction>, StepExecutionListener {
+
+    public static final String CATEGORY_CACHE_HITS_CONTEXT_KEY = "categoryCacheHits";
+    public static final String CATEGORY_CACHE_MISSES_CONTEXT_KEY = "categoryCacheMisses";
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final String userId;
+    private final int categoryPreloadLimit;
+    private final ItemWriter<Transaction> delegate;
+
+    /**
+     * @param categoryRepository   the repository used to load the user's categories
+     * @param userId               the id of the user who uploaded the file
+     * @param categoryPreloadLimit the largest category count of a user that is preloaded when the step starts
+     * @param delegate             the writer persisting the enriched items
+     */
+    public TransactionEnrichmentWriter(CategoryRepository categoryRepository, String userId,
+                                       int categoryPreloadLimit, ItemWriter<Transaction> delegate) {
+        this.categoryRepository = categoryRepository;
+        this.categoryCache = new CategoryCache(categoryRepository);
+        this.userId = userId;
+        this.categoryPreloadLimit = categoryPreloadLimit;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        if (categoryRepository.countByUserId(userId) <= categoryPreloadLimit) {
+            categoryCache.preload(userId);
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        stepExecution.getExecutionContext().putLong(CATEGORY_CACHE_HITS_CONTEXT_KEY, categoryCache.getHits());
+        stepExecution.getExecutionContext().putLong(CATEGORY_CACHE_MISSES_CONTEXT_KEY, categoryCache.getMisses());
+        return stepExecution.getExitStatus();
+    }
+
+    @Override
+    public void write(Chunk<? extends Transaction> chunk) throws Exception {
+        Set<String> categoryNames = new HashSet<>();
+        for (Transaction item : chunk) {
+            if (item.getCategoryName() != null && !item.getCategoryName().isEmpty()) {
+                categoryNames.add(item.getCategoryName());
+            }
+        }
+
+        categoryCache.load(userId, categoryNames);
+
+        for (Transaction item : chunk) {
+            if (item.getCategoryName() != null && !item.getCategoryName().isEmpty()) {
+                item.setCategory(categoryCache.resolve(userId, item.getCategoryName()));
+            }
+        }
+
+        delegate.write(chunk);
+    }
+}
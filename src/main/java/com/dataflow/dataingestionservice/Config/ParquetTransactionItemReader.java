@@ -0,0 +1,460 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Utils.DateTimeColumnParser;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+import org.springframework.batch.core.step.skip.NonSkippableReadException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads {@link Transaction}s from a Parquet file, one row group at a time.
+ * <p>
+ * Only the columns of a transaction are read, so the other columns of the file are never decompressed. They are
+ * named as in {@link TransactionXmlItemReader}: {@code transactionDate}, {@code categoryName}, {@code description},
+ * {@code amount}, {@code currencyCode} and {@code paymentMode}, or their snake case forms. Their values are converted
+ * straight into the transaction, without building an intermediate record. Dates may be timestamps (local or UTC, in
+ * any unit, or the legacy {@code INT96} of Spark and Impala, read as UTC), dates or text parsed with
+ * {@code formatDateTime}; amounts may be decimals, integers, floating-point numbers or text. The text of
+ * dictionary-encoded columns, such as categories and currencies, is decoded once per dictionary entry.
+ * </p>
+ * <p>
+ * The reader can be limited to the row groups starting in a byte range, which is how the partitioned import splits a
+ * file between its workers. A row with a value that cannot be converted is thrown as a {@link FlatFileParseException}
+ * with its row number in the range, so the step can skip it. A file that cannot be read ends the read with a
+ * {@link NonSkippableReadException}.
+ * </p>
+ */
+public class ParquetTransactionItemReader extends AbstractItemCountingItemStreamItemReader<Transaction> {
+
+    private static final long JULIAN_EPOCH_DAY = 2_440_588;
+
+    private final Resource resource;
+    private final long startOffset;
+    private final long endOffset;
+    private final DateTimeColumnParser dateTimeParser;
+
+    private ParquetFileReader fileReader;
+    private MessageColumnIO columnIO;
+    private TransactionMaterializer materializer;
+    private RecordReader<Transaction> recordReader;
+    private long rowsLeftInGroup;
+    private int nextRowGroup;
+    private int rowNumber;
+
+    /**
+     * @param resource       the Parquet file, which must be a file
+     * @param startOffset    the first byte of the range whose row groups are read
+     * @param endOffset      the byte after the range whose row groups are read
+     * @param formatDateTime the date-time format of the date columns holding text
+     */
+    public ParquetTransactionItemReader(Resource resource, long startOffset, long endOffset, String formatDateTime) {
+        this.resource = resource;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.dateTimeParser = new DateTimeColumnParser(formatDateTime);
+        setName(ClassUtils.getShortName(ParquetTransactionItemReader.class));
+    }
+
+    /**
+     * Returns whether a file is a Parquet file, judging by its name.
+     */
+    public static boolean isParquet(String fileName) {
+        return fileName.toLowerCase().endsWith(".parquet");
+    }
+
+    /**
+     * Returns the row groups of a Parquet file, in file order, read from its footer.
+     *
+     * @param file the Parquet file
+     * @return the metadata of its row groups, with their offsets and row counts
+     * @throws IOException if the file is not a Parquet file
+     */
+    public static List<BlockMetaData> findRowGroups(File file) throws IOException {
+        try (ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(file.toPath()),
+                ParquetReadOptions.builder(new PlainParquetConfiguration()).build())) {
+            return reader.getRowGroups();
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read the row groups of " + file, e);
+        }
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        try {
+            fileReader = ParquetFileReader.open(new LocalInputFile(resource.getFile().toPath()),
+                    ParquetReadOptions.builder(new PlainParquetConfiguration()).withRange(startOffset, endOffset).build());
+        } catch (IOException | RuntimeException e) {
+            throw new NonSkippableReadException("Malformed Parquet file " + resource.getDescription(), e);
+        }
+
+        MessageType fileSchema = fileReader.getFooter().getFileMetaData().getSchema();
+        List<Type> columns = new ArrayList<>();
+        List<PrimitiveConverter> converters = new ArrayList<>();
+        materializer = new TransactionMaterializer();
+        for (Type field : fileSchema.getFields()) {
+            PrimitiveConverter converter = field.isPrimitive() && !field.isRepetition(Type.Repetition.REPEATED)
+                    ? converter(field.getName(), field.asPrimitiveType())
+                    : null;
+            if (converter != null) {
+                columns.add(field);
+                converters.add(converter);
+            }
+        }
+        materializer.converters = converters.toArray(PrimitiveConverter[]::new);
+
+        MessageType projection = new MessageType(fileSchema.getName(), columns);
+        fileReader.setRequestedSchema(projection);
+        columnIO = new ColumnIOFactory().getColumnIO(projection);
+        rowsLeftInGroup = 0;
+        nextRowGroup = 0;
+        rowNumber = 0;
+    }
+
+    @Override
+    protected Transaction doRead() throws Exception {
+        try {
+            while (rowsLeftInGroup == 0) {
+                PageReadStore rowGroup = fileReader.readNextRowGroup();
+                if (rowGroup == null) {
+                    return null;
+                }
+                nextRowGroup++;
+                rowsLeftInGroup = rowGroup.getRowCount();
+                recordReader = columnIO.getRecordReader(rowGroup, materializer);
+            }
+            rowsLeftInGroup--;
+            rowNumber++;
+            Transaction transaction = recordReader.read();
+
+            if (materializer.failure != null) {
+                throw new FlatFileParseException("Parsing error at row: " + rowNumber + " in resource=["
+                        + resource.getDescription() + "], input=[" + materializer.input + "]",
+                        materializer.failure, materializer.input, rowNumber);
+            }
+            return transaction;
+        } catch (IOException | ParquetDecodingException e) {
+            throw new NonSkippableReadException("Malformed Parquet file " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Skips the items read before a restart, passing over whole row groups without reading them. Rows that could not
+     * be converted were already reported by the run that read them, so their errors are not thrown again.
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        long remaining = itemIndex;
+        List<BlockMetaData> rowGroups = fileReader.getRowGroups();
+        while (rowsLeftInGroup == 0 && nextRowGroup < rowGroups.size()
+                && rowGroups.get(nextRowGroup).getRowCount() <= remaining) {
+            long rowCount = rowGroups.get(nextRowGroup).getRowCount();
+            fileReader.skipNextRowGroup();
+            nextRowGroup++;
+            remaining -= rowCount;
+            rowNumber += (int) rowCount;
+        }
+        for (; remaining > 0; remaining--) {
+            try {
+                if (doRead() == null) {
+                    return;
+                }
+            } catch (FlatFileParseException e) {
+                // Skipped and reported before the restart
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        recordReader = null;
+        if (fileReader != null) {
+            try {
+                fileReader.close();
+            } finally {
+                fileReader = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the converter setting the transaction field of a column, or {@code null} for the columns that are not
+     * read.
+     */
+    private PrimitiveConverter converter(String name, PrimitiveType type) {
+        return switch (name) {
+            case "transactionDate", "transaction_date" -> dateConverter(name, type);
+            case "categoryName", "category" -> new TextConverter(name, type, Transaction::setCategoryName);
+            case "description" -> new TextConverter(name, type, Transaction::setDescription);
+            case "amount" -> amountConverter(name, type);
+            case "currencyCode", "currency" -> new TextConverter(name, type, Transaction::setCurrencyCode);
+            case "paymentMode", "payment_mode" -> new TextConverter(name, type, (transaction, value) ->
+                    transaction.setPaymentMode(PaymentMethod.valueOf(value.trim().toUpperCase())));
+            default -> null;
+        };
+    }
+
+    private PrimitiveConverter dateConverter(String name, PrimitiveType type) {
+        LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+        if (annotation instanceof TimestampLogicalTypeAnnotation timestamp) {
+            long perSecond = switch (timestamp.getUnit()) {
+                case MILLIS -> 1_000L;
+                case MICROS -> 1_000_000L;
+                case NANOS -> 1_000_000_000L;
+            };
+            // Local timestamps are stored as if they were in UTC
+            return new FieldConverter(name, (transaction, value) -> transaction.setTransactionDate(LocalDateTime.ofEpochSecond(
+                    Math.floorDiv(value.longValue(), perSecond),
+                    (int) (Math.floorMod(value.longValue(), perSecond) * (1_000_000_000L / perSecond)),
+                    ZoneOffset.UTC)));
+        }
+        if (annotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+            return new FieldConverter(name, (transaction, value) ->
+                    transaction.setTransactionDate(LocalDate.ofEpochDay(value.longValue()).atStartOfDay()));
+        }
+        if (type.getPrimitiveTypeName() == PrimitiveTypeName.INT96) {
+            return new PrimitiveConverter() {
+                @Override
+                public void addBinary(Binary value) {
+                    ByteBuffer buffer = value.toByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+                    long nanosOfDay = buffer.getLong();
+                    int julianDay = buffer.getInt();
+                    materializer.current.setTransactionDate(
+                            LocalDate.ofEpochDay(julianDay - JULIAN_EPOCH_DAY).atStartOfDay().plusNanos(nanosOfDay));
+                }
+            };
+        }
+        return new TextConverter(name, type, (transaction, value) -> transaction.setTransactionDate(dateTimeParser.parse(value)));
+    }
+
+    private PrimitiveConverter amountConverter(String name, PrimitiveType type) {
+        if (type.getLogicalTypeAnnotation() instanceof DecimalLogicalTypeAnnotation decimal) {
+            int scale = decimal.getScale();
+            return new PrimitiveConverter() {
+                @Override
+                public void addInt(int value) {
+                    materializer.current.setAmount(BigDecimal.valueOf(value, scale));
+                }
+
+                @Override
+                public void addLong(long value) {
+                    materializer.current.setAmount(BigDecimal.valueOf(value, scale));
+                }
+
+                @Override
+                public void addBinary(Binary value) {
+                    materializer.current.setAmount(new BigDecimal(new BigInteger(value.getBytes()), scale));
+                }
+            };
+        }
+        return switch (type.getPrimitiveTypeName()) {
+            case BINARY, FIXED_LEN_BYTE_ARRAY -> new TextConverter(name, type, (transaction, value) ->
+                    transaction.setAmount(TransactionLineMapper.parseAmount(value)));
+            case DOUBLE, FLOAT -> new FieldConverter(name, (transaction, value) ->
+                    transaction.setAmount(BigDecimal.valueOf(value.doubleValue())));
+            default -> new FieldConverter(name, (transaction, value) ->
+                    transaction.setAmount(BigDecimal.valueOf(value.longValue())));
+        };
+    }
+
+    /**
+     * Assembles one transaction per row from the converters of its columns.
+     */
+    private static class TransactionMaterializer extends RecordMaterializer<Transaction> {
+
+        private PrimitiveConverter[] converters;
+        private Transaction current;
+        private RuntimeException failure;
+        private String input;
+
+        private final GroupConverter root = new GroupConverter() {
+            @Override
+            public Converter getConverter(int fieldIndex) {
+                return converters[fieldIndex];
+            }
+
+            @Override
+            public void start() {
+                current = new Transaction();
+                failure = null;
+                input = null;
+            }
+
+            @Override
+            public void end() {
+            }
+        };
+
+        @Override
+        public Transaction getCurrentRecord() {
+            return current;
+        }
+
+        @Override
+        public GroupConverter getRootConverter() {
+            return root;
+        }
+
+        private void fail(String name, Object value, RuntimeException e) {
+            if (failure == null) {
+                failure = e;
+                input = name + "=" + value;
+            }
+        }
+    }
+
+    /**
+     * Sets a field from a numeric column, keeping the first conversion failure of the row.
+     */
+    private class FieldConverter extends PrimitiveConverter {
+
+        private final String name;
+        private final BiConsumer<Transaction, Number> setter;
+
+        FieldConverter(String name, BiConsumer<Transaction, Number> setter) {
+            this.name = name;
+            this.setter = setter;
+        }
+
+        private void set(Number value) {
+            try {
+                setter.accept(materializer.current, value);
+            } catch (RuntimeException e) {
+                materializer.fail(name, value, e);
+            }
+        }
+
+        @Override
+        public void addInt(int value) {
+            set(value);
+        }
+
+        @Override
+        public void addLong(long value) {
+            set(value);
+        }
+
+        @Override
+        public void addFloat(float value) {
+            set(value);
+        }
+
+        @Override
+        public void addDouble(double value) {
+            set(value);
+        }
+    }
+
+    /**
+     * Sets a field from a text column, keeping the first conversion failure of the row. Dictionary entries are decoded
+     * once, when the dictionary of a column chunk is read.
+     */
+    private class TextConverter extends PrimitiveConverter {
+
+        private final String name;
+        private final boolean binary;
+        private final BiConsumer<Transaction, String> setter;
+        private String[] dictionary;
+
+        TextConverter(String name, PrimitiveType type, BiConsumer<Transaction, String> setter) {
+            this.name = name;
+            this.binary = type.getPrimitiveTypeName() == PrimitiveTypeName.BINARY
+                    || type.getPrimitiveTypeName() == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY;
+            this.setter = setter;
+        }
+
+        private void set(String value) {
+            try {
+                setter.accept(materializer.current, value);
+            } catch (RuntimeException e) {
+                materializer.fail(name, value, e);
+            }
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return binary;
+        }
+
+        @Override
+        public void setDictionary(Dictionary dictionary) {
+            this.dictionary = new String[dictionary.getMaxId() + 1];
+            for (int id = 0; id < this.dictionary.length; id++) {
+                this.dictionary[id] = dictionary.decodeToBinary(id).toStringUsingUTF8();
+            }
+        }
+
+        @Override
+        public void addValueFromDictionary(int dictionaryId) {
+            set(dictionary[dictionaryId]);
+        }
+
+        @Override
+        public void addBinary(Binary value) {
+            set(value.toStringUsingUTF8());
+        }
+
+        @Override
+        public void addBoolean(boolean value) {
+            set(Boolean.toString(value));
+        }
+
+        @Override
+        public void addInt(int value) {
+            set(Integer.toString(value));
+        }
+
+        @Override
+        public void addLong(long value) {
+            set(Long.toString(value));
+        }
+
+        @Override
+        public void addFloat(float value) {
+            set(Float.toString(value));
+        }
+
+        @Override
+        public void addDouble(double value) {
+            set(Double.toString(value));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.dataflow.dataingestionservice.Config.Partitioner;
+
+import com.dataflow.dataingestionservice.Config.ParquetTransactionItemReader;
+import com.dataflow.dataingestionservice.Config.TransactionJsonItemReader;
+import com.dataflow.dataingestionservice.Config.XlsTransactionItemReader;
+import com.dataflow.dataingestionservice.Config.XlsxTransactionItemReader;
+import com.dataflow.dataingestionservice.Utils.CompressedFileResource;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A {@link Partitioner} that splits an uploaded transaction file into byte ranges for the partitioned import step.
+ * <p>
+ * CSV files are cut into roughly equal byte ranges whose boundaries are moved forward to the start of the next line,
+ * so that no record is split between two workers. Line breaks inside quoted fields do not end a record and are passed
+ * over. Each partition also records how many lines of the file precede it, which lets the workers report absolute
+ * row numbers for skipped records. Newline-delimited JSON files hold one record per line as well and are split the
+ * same way.
+ * </p>
+ * <p>
+ * Excel workbooks get one partition per data sheet, named in the partition's {@link #SHEET_NAME_KEY}, whatever the
+ * requested partition count; the bounded executor running the workers limits how many sheets are read at once.
+ * {@code .zip} archives get one partition per CSV, XML or NDJSON entry, named in the partition's
+ * {@link #ENTRY_NAME_KEY}; other entries, such as folders, are ignored.
+ * </p>
+ * <p>
+ * Parquet files are split between row groups. The row groups listed in the footer are shared out into contiguous
+ * ranges holding about the same number of rows. Each partition covers the bytes of its row groups and counts the rows
+ * before them as its line offset.
+ * </p>
+ * <p>
+ * Gzip and Zstandard files cannot be split without decompressing them. These files, other file types (XML) and
+ * streamed uploads always produce a single partition covering the whole input.
+ * </p>
+ * <p>
+ * Partitions are numbered in file order in their {@link #PARTITION_INDEX_KEY}. Line offsets restart at 0 for every
+ * sheet or archive entry, so rows are only identified by their partition index together with their line.
+ * </p>
+ */
+public class TransactionFilePartitioner implements Partitioner {
+
+    public static final String START_OFFSET_KEY = "startOffset";
+    public static final String END_OFFSET_KEY = "endOffset";
+    public static final String LINE_OFFSET_KEY = "lineOffset";
+    public static final String SHEET_NAME_KEY = "sheetName";
+    public static final String ENTRY_NAME_KEY = "entryName";
+    public static final String PARTITION_INDEX_KEY = "partitionIndex";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String filePath;
+    private final int partitions;
+
+    /**
+     * @param filePath   the path to the uploaded file, or {@code null} for a streamed upload
+     * @param partitions the requested number of partitions; values below 1 are treated as 1
+     */
+    public TransactionFilePartitioner(String filePath, int partitions) {
+        this.filePath = filePath;
+        this.partitions = Math.max(1, partitions);
+    }
+
+    /**
+     * Creates the execution contexts of the worker steps.
+     * <p>
+     * The {@code gridSize} argument is ignored, the partition count is taken from the job parameters instead.
+     * Fewer partitions than requested are returned when the file has fewer lines, or row groups, than partitions.
+     * Workbooks without any data sheet get a single partition reading all of them.
+     * </p>
+     *
+     * @param gridSize ignored
+     * @return the execution context of each partition keyed by partition name
+     * @throws IllegalStateException if an archive holds no CSV, XML or NDJSON file
+     */
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> result = createPartitions();
+        int index = 0;
+        for (ExecutionContext context : result.values()) {
+            context.putInt(PARTITION_INDEX_KEY, index++);
+        }
+        return result;
+    }
+
+    private Map<String, ExecutionContext> createPartitions() {
+        if (filePath == null) {
+            Map<String, ExecutionContext> single = new LinkedHashMap<>();
+            single.put("partition0", context(0, 0, 0));
+            return single;
+        }
+
+        File file = new File(filePath);
+        long size = file.length();
+
+        String extension = filePath.toLowerCase();
+        if (CompressedFileResource.isArchive(filePath)) {
+            List<String> entries = findStatementEntries(file);
+            if (entries.isEmpty()) {
+                throw new IllegalStateException("Archive " + file.getName() + " holds no CSV, XML or NDJSON file");
+            }
+            Map<String, ExecutionContext> result = new LinkedHashMap<>();
+            for (String entry : entries) {
+                ExecutionContext context = context(0, size, 0);
+                context.putString(ENTRY_NAME_KEY, entry);
+                result.put("partition" + result.size(), context);
+            }
+            return result;
+        }
+
+        if (size > 0 && (extension.endsWith(".xlsx") || extension.endsWith(".xls"))) {
+            List<String> sheets = findDataSheets(file, extension.endsWith(".xls"));
+            if (!sheets.isEmpty()) {
+                Map<String, ExecutionContext> result = new LinkedHashMap<>();
+                for (String sheet : sheets) {
+                    ExecutionContext context = context(0, size, 0);
+                    context.putString(SHEET_NAME_KEY, sheet);
+                    result.put("partition" + result.size(), context);
+                }
+                return result;
+            }
+        }
+
+        if (size > 0 && ParquetTransactionItemReader.isParquet(filePath)) {
+            return partitionRowGroups(file, size);
+        }
+
+        boolean lineDelimited = extension.endsWith(".csv") || TransactionJsonItemReader.isNdjson(filePath);
+        if (partitions == 1 || size == 0 || !lineDelimited || CompressedFileResource.isCompressed(filePath)) {
+            Map<String, ExecutionContext> single = new LinkedHashMap<>();
+            single.put("partition0", context(0, size, 0));
+            return single;
+        }
+
+        List<long[]> boundaries = findLineBoundaries(file, size, extension.endsWith(".csv"));
+
+        Map<String, ExecutionContext> result = new LinkedHashMap<>();
+        long start = 0;
+        long lineOffset = 0;
+        for (long[] boundary : boundaries) {
+            result.put("partition" + result.size(), context(start, boundary[0], lineOffset));
+            start = boundary[0];
+            lineOffset = boundary[1];
+        }
+        if (start < size) {
+            result.put("partition" + result.size(), context(start, size, lineOffset));
+        }
+        return result;
+    }
+
+    /**
+     * Shares the row groups of a Parquet file out into at most {@code partitions} contiguous ranges of about the same
+     * number of rows. A file without rows gets a single partition.
+     */
+    private Map<String, ExecutionContext> partitionRowGroups(File file, long size) {
+        List<BlockMetaData> rowGroups;
+        try {
+            rowGroups = ParquetTransactionItemReader.findRowGroups(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to partition " + filePath, e);
+        }
+
+        Map<String, ExecutionContext> result = new LinkedHashMap<>();
+        long totalRows = rowGroups.stream().mapToLong(BlockMetaData::getRowCount).sum();
+        if (totalRows == 0) {
+            result.put("partition0", context(0, size, 0));
+            return result;
+        }
+
+        int count = Math.min(partitions, rowGroups.size());
+        int first = 0;
+        long lineOffset = 0;
+        long rows = 0;
+        for (int i = 0; i < rowGroups.size(); i++) {
+            rows += rowGroups.get(i).getRowCount();
+            int remaining = count - result.size() - 1;
+            // Close the range once it holds its share of the rows, keeping a row group for each later range
+            boolean full = rows >= totalRows * (result.size() + 1) / count && rowGroups.size() - i - 1 >= remaining;
+            if (full || rowGroups.size() - i - 1 == remaining) {
+                BlockMetaData last = rowGroups.get(i);
+                result.put("partition" + result.size(), context(rowGroups.get(first).getStartingPos(),
+                        last.getStartingPos() + last.getCompressedSize(), lineOffset));
+                first = i + 1;
+                lineOffset = rows;
+            }
+        }
+        return result;
+    }
+
+    private List<String> findDataSheets(File file, boolean legacyFormat) {
+        try {
+            return legacyFormat
+                    ? XlsTransactionItemReader.findDataSheets(file)
+                    : XlsxTransactionItemReader.findDataSheets(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to partition " + filePath, e);
+        }
+    }
+
+    /**
+     * Returns the names of the CSV, XML and NDJSON entries of an archive, in archive order. Folders and the hidden
+     * files added by some archivers, such as the {@code __MACOSX} resource forks, are passed over.
+     */
+    private List<String> findStatementEntries(File file) {
+        List<String> entries = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(file)) {
+            zipFile.stream()
+                    .filter(entry -> !entry.isDirectory())
+                    .map(ZipEntry::getName)
+                    .filter(name -> !name.startsWith("__MACOSX/") && !name.substring(name.lastIndexOf('/') + 1).startsWith("."))
+                    .filter(name -> name.toLowerCase().endsWith(".csv") || name.toLowerCase().endsWith(".xml")
+                            || TransactionJsonItemReader.isNdjson(name) && !CompressedFileResource.isCompressed(name))
+                    .forEach(entries::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to partition " + filePath, e);
+        }
+        return entries;
+    }
+
+    /**
+     * Scans the file once and returns, for every split point, the offset of the first byte of a line
+     * together with the number of lines that precede it.
+     * <p>
+     * In CSV files, line breaks between an opening and a closing double quote belong to a quoted field, so they are
+     * counted as lines, as the reader numbers lines, but never split points. An escaped quote, written twice, toggles
+     * the state twice and leaves it unchanged. NDJSON lines cannot hold a raw line break, and escape their quotes with
+     * backslashes, so every line break of them counts.
+     * </p>
+     */
+    private List<long[]> findLineBoundaries(File file, long size, boolean quoted) {
+        List<long[]> boundaries = new ArrayList<>(partitions - 1);
+        int nextSplit = 1;
+        long target = size / partitions;
+        long position = 0;
+        long lines = 0;
+        boolean inQuotes = false;
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while (nextSplit < partitions && (read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read && nextSplit < partitions; i++) {
+                    position++;
+                    if (quoted && buffer[i] == '"') {
+                        inQuotes = !inQuotes;
+                    }
+                    if (buffer[i] != '\n') {
+                        continue;
+                    }
+                    lines++;
+                    if (!inQuotes && position >= target && position < size) {
+                        boundaries.add(new long[]{position, lines});
+                        // Skip split points already covered by a long line
+                        while (nextSplit < partitions && size * nextSplit / partitions <= position) {
+                            nextSplit++;
+                        }
+                        target = size * nextSplit / partitions;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to partition " + filePath, e);
+        }
+        return boundaries;
+    }
+
+    private ExecutionContext context(long start, long end, long lineOffset) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(START_OFFSET_KEY, start);
+        context.putLong(END_OFFSET_KEY, end);
+        context.putLong(LINE_OFFSET_KEY, lineOffset);
+        return context;
+    }
+}
@@ -0,0 +1,53 @@
+package com.dataflow.dataingestionservice.Config.ServiceProperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "http.client")
+@Data
+public class HttpClientProperties {
+        /**
+         * Connection pool used for the reporting service.
+         */
+        private Pool reporting = new Pool();
+
+        /**
+         * Connection pool used for the BT API.
+         */
+        private Pool bt = new Pool();
+
+        @Data
+        public static class Pool {
+                /**
+                 * Largest number of open connections in the pool, across all hosts.
+                 */
+                private int maxConnections = 50;
+
+                /**
+                 * Largest number of open connections to one host.
+                 */
+                private int maxConnectionsPerHost = 10;
+
+                /**
+                 * How long opening a connection, including the TLS handshake, may take.
+                 */
+                private long connectTimeoutMillis = 2_000;
+
+                /**
+                 * How long to wait for the response once a request has been sent.
+                 */
+                private long readTimeoutMillis = 30_000;
+
+                /**
+                 * How long a request waits for a pooled connection when all of them are in use.
+                 */
+                private long connectionRequestTimeoutMillis = 5_000;
+
+                /**
+                 * How long an unused connection is kept open for reuse before it is closed.
+                 */
+                private long idleTimeoutMillis = 60_000;
+        }
+}
@@ -0,0 +1,35 @@
+package com.dataflow.dataingestionservice.Config.ServiceProperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "reporting.outbox")
+@Data
+public class ReportingOutboxProperties {
+        /**
+         * Largest number of outbox events sent to the reporting service in one request.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Delay between two runs of the outbox relay.
+         */
+        private long pollIntervalMillis = 1000;
+
+        /**
+         * Delay before the first retry of a failed batch; it doubles with every further failure.
+         */
+        private long initialBackoffMillis = 1000;
+
+        /**
+         * Upper bound of the delay between two retries of a failed batch.
+         */
+        private long maxBackoffMillis = 300_000;
+
+        /**
+         * Number of failed attempts after which a batch is dead-lettered instead of retried again.
+         */
+        private int maxAttempts = 50;
+}
@@ -0,0 +1,36 @@
+package com.dataflow.dataingestionservice.Config.ServiceProperties;
+
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncEncoding;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "reporting.sync")
+@Data
+public class ReportingSyncProperties {
+        /**
+         * Number of transactions waiting to be sent before imports block until the queue drains.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Largest number of transactions sent to the reporting service in one request.
+         */
+        private int batchSize = 500;
+
+        /**
+         * How long a partially filled batch waits for more transactions before it is sent.
+         */
+        private long lingerMillis = 200;
+
+        /**
+         * Number of sync requests that may be in flight at the same time.
+         */
+        private int maxConcurrentRequests = 2;
+
+        /**
+         * Encoding of the sync request bodies. Endpoints that reject it with 415 get plain JSON instead.
+         */
+        private ReportingSyncEncoding encoding = ReportingSyncEncoding.SMILE;
+}
@@ -0,0 +1,94 @@
+package com.dataflow.dataingestionservice.Config.ServiceProperties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "transaction.import")
+@Data
+public class TransactionImportProperties {
+        /**
+         * Number of threads shared by all partition workers of the transaction import job.
+         */
+        private int workerThreads = 4;
+
+        /**
+         * Partition count used when the upload request does not specify one.
+         */
+        private int defaultPartitions = 1;
+
+        /**
+         * Upper bound for the partition count a single upload may request.
+         */
+        private int maxPartitions = 16;
+
+        /**
+         * Number of asynchronous imports that may run at the same time.
+         */
+        private int maxConcurrentImports = 2;
+
+        /**
+         * Number of asynchronous imports that may wait for a free slot before uploads are rejected.
+         */
+        private int maxQueuedImports = 10;
+
+        /**
+         * Bytes of a streamed upload buffered in memory before the upload waits for the import to catch up.
+         */
+        private int streamBufferSize = 4 * 1024 * 1024;
+
+        /**
+         * How long a streamed upload waits for the import to free buffer space before it is aborted.
+         */
+        private long streamWriteTimeoutMillis = 120_000;
+
+        /**
+         * Largest number of categories of a user that are all loaded when an import step starts.
+         * Users with more categories only get the categories named in each chunk looked up.
+         */
+        private int categoryPreloadLimit = 1000;
+
+        /**
+         * Number of rows written per chunk by imports in {@code BULK_LOAD} mode. Each chunk is one
+         * {@code LOAD DATA} and one merge statement, so larger chunks mean fewer round trips but longer transactions.
+         */
+        private int bulkLoadChunkSize = 5000;
+
+        /**
+         * Directory holding the compressed error reports of imports, one sub-directory per job execution.
+         */
+        private String errorReportDirectory = System.getProperty("java.io.tmpdir") + "/transaction-import-errors";
+
+        /**
+         * Hours an error report is kept after it was last written.
+         */
+        private int errorReportRetentionHours = 24;
+
+        /**
+         * Whether imported rows identical to a transaction the user already has are left out instead of rewritten.
+         */
+        private boolean skipUnchangedRows = true;
+
+        /**
+         * Directory the uploaded files are stored in while they are imported.
+         */
+        private String uploadDirectory = System.getProperty("java.io.tmpdir") + "/transaction-import-uploads";
+
+        /**
+         * Hours the uploaded file and staging table of a failed import are kept for a restart.
+         */
+        private int failedImportRetentionHours = 24;
+
+        /**
+         * Number of error rows of each import step kept in its execution context and returned with the import result.
+         * All error rows are in the downloadable error report.
+         */
+        private int errorSampleSize = 20;
+
+        /**
+         * Bytes of the shared strings of an {@code .xlsx} import kept on the heap. Larger shared string tables are
+         * moved to a temporary file and read from there.
+         */
+        private long excelSharedStringsMemoryLimit = 16 * 1024 * 1024;
+}
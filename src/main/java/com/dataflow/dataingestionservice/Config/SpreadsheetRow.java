@@ -0,0 +1,188 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Utils.DateTimeColumnParser;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+
+/**
+ * The cells of one spreadsheet row, filled by the event-model Excel readers and mapped straight to a
+ * {@link Transaction}.
+ * <p>
+ * The columns are those of the CSV imports: transaction date, category, description, amount, currency and payment
+ * mode. Cells beyond them are ignored. A numeric cell in the date column is an Excel date serial; other numeric cells
+ * are converted to the text Excel shows in the General format (at most 15 significant digits), so {@code 12.5} stays
+ * {@code 12.5} and does not become {@code 12.4999999...}. The text is then converted as by
+ * {@link TransactionLineMapper}.
+ * </p>
+ * <p>
+ * A single instance is reused for all the rows of a reader.
+ * </p>
+ */
+class SpreadsheetRow {
+
+    static final int COLUMNS = 6;
+
+    private static final int DATE_COLUMN = 0;
+    private static final MathContext GENERAL_FORMAT = new MathContext(15);
+
+    private final String[] values = new String[COLUMNS];
+    private final DateTimeColumnParser dateTimeParser;
+
+    private double dateSerial;
+    private boolean numericDate;
+    private boolean empty = true;
+    private int rowNumber;
+
+    /**
+     * @param formatDateTime the date-time format of the date cells holding text
+     */
+    SpreadsheetRow(String formatDateTime) {
+        this.dateTimeParser = new DateTimeColumnParser(formatDateTime);
+    }
+
+    /**
+     * Starts a new row.
+     *
+     * @param rowNumber the 1-based row number shown by Excel
+     */
+    void reset(int rowNumber) {
+        this.rowNumber = rowNumber;
+        Arrays.fill(values, null);
+        numericDate = false;
+        empty = true;
+    }
+
+    int getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Returns whether no cell of the row holds a value.
+     */
+    boolean isEmpty() {
+        return empty;
+    }
+
+    void setText(int column, String value) {
+        if (column < COLUMNS && value != null) {
+            values[column] = value;
+            numericDate &= column != DATE_COLUMN;
+            empty &= value.isEmpty();
+        }
+    }
+
+    void setNumber(int column, double value) {
+        if (column == DATE_COLUMN) {
+            values[column] = numberText(value);
+            dateSerial = value;
+            numericDate = true;
+            empty = false;
+        } else {
+            setText(column, numberText(value));
+        }
+    }
+
+    /**
+     * Sets a numeric cell from the text of its value, as stored in {@code .xlsx} sheets.
+     */
+    void setNumber(int column, String value) {
+        if (column == DATE_COLUMN) {
+            setNumber(column, Double.parseDouble(value));
+        } else {
+            setText(column, numberText(value));
+        }
+    }
+
+    void setBoolean(int column, boolean value) {
+        setText(column, value ? "TRUE" : "FALSE");
+    }
+
+    /**
+     * Maps the row to a {@link Transaction}.
+     *
+     * @param date1904 whether the date serials of the workbook count from 1904
+     * @param source   the sheet and file, for the error message
+     * @throws FlatFileParseException if a cell cannot be converted, with the row number and the cell values
+     */
+    Transaction toTransaction(boolean date1904, String source) {
+        Transaction transaction = new Transaction();
+        try {
+            transaction.setTransactionDate(numericDate
+                    ? DateUtil.getLocalDateTime(dateSerial, date1904, true)
+                    : dateTimeParser.parse(value(DATE_COLUMN)));
+            transaction.setCategoryName(values[1]);
+            transaction.setDescription(values[2]);
+            transaction.setAmount(TransactionLineMapper.parseAmount(value(3)));
+            transaction.setCurrencyCode(values[4]);
+            transaction.setPaymentMode(PaymentMethod.valueOf(value(5).trim().toUpperCase()));
+        } catch (RuntimeException e) {
+            String input = String.join(",", Arrays.stream(values).map(this::nullToEmpty).toList());
+            throw new FlatFileParseException("Parsing error at row: " + rowNumber + " in " + source
+                    + ", input=[" + input + "]", e, input, rowNumber);
+        }
+        return transaction;
+    }
+
+    private String value(int column) {
+        return nullToEmpty(values[column]);
+    }
+
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Converts a numeric cell to the text of the General format: whole numbers without a fraction, others rounded
+     * to 15 significant digits without an exponent.
+     */
+    static String numberText(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        BigDecimal decimal = BigDecimal.valueOf(value);
+        if (decimal.precision() > GENERAL_FORMAT.getPrecision()) {
+            decimal = decimal.round(GENERAL_FORMAT);
+        }
+        return decimal.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Converts the stored text of a numeric cell to the text of the General format. Plain values of at most 15 digits,
+     * which are most of them, are only stripped of a trailing {@code .0}.
+     */
+    static String numberText(String value) {
+        int digits = 0;
+        int point = -1;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && point < 0) {
+                point = i;
+            } else if (c != '-' || i > 0) {
+                return numberText(Double.parseDouble(value));
+            }
+        }
+        if (digits > GENERAL_FORMAT.getPrecision()) {
+            return numberText(Double.parseDouble(value));
+        }
+        if (point < 0) {
+            return value;
+        }
+
+        int end = value.length();
+        while (end > point + 1 && value.charAt(end - 1) == '0') {
+            end--;
+        }
+        if (end == point + 1) {
+            end = point;
+        }
+        return end == value.length() ? value : value.substring(0, end);
+    }
+}
@@ -0,0 +1,46 @@
+package com.dataflow.dataingestionservice.Config.Staging;
+
+import com.dataflow.dataingestionservice.Utils.TransactionImportSkipListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+/**
+ * Validates the staged rows of an import and merges the valid ones into {@code transactions}, in one transaction.
+ * <p>
+ * Merged rows are counted as written and rows the user already has as filtered by this step. Rejected rows are
+ * counted in its {@link TransactionImportSkipListener#REJECTED_ROW_COUNT_CONTEXT_KEY}.
+ * </p>
+ */
+public class StagedTransactionMergeTasklet implements Tasklet {
+
+    private static final Logger logger = LoggerFactory.getLogger(StagedTransactionMergeTasklet.class);
+
+    private final TransactionStagingTable stagingTable;
+
+    public StagedTransactionMergeTasklet(TransactionStagingTable stagingTable) {
+        this.stagingTable = stagingTable;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        StepExecution stepExecution = contribution.getStepExecution();
+        long jobInstanceId = stepExecution.getJobExecution().getJobInstance().getInstanceId();
+        String userId = stepExecution.getJobParameters().getString("userId");
+
+        int rejected = stagingTable.rejectInvalidRows(jobInstanceId, stepExecution.getJobExecutionId());
+        int unchanged = stagingTable.markUnchangedRows(jobInstanceId, userId);
+        int merged = stagingTable.merge(jobInstanceId, userId);
+
+        contribution.incrementWriteCount(merged);
+        contribution.incrementFilterCount(unchanged);
+        stepExecution.getExecutionContext().putLong(TransactionImportSkipListener.REJECTED_ROW_COUNT_CONTEXT_KEY, rejected);
+
+        logger.info("Merged {} staged transactions, rejected {}, left {} unchanged", merged, rejected, unchanged);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,53 @@
+package com.dataflow.dataingestionservice.Config.Staging;
+
+import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
+import com.dataflow.dataingestionservice.Services.ReportingSyncQueue;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands the transactions merged from the staging table of an import to the {@link ReportingSyncQueue}.
+ * <p>
+ * Runs as its own step after the merge has committed, and streams the merged rows, so a large import is never
+ * held in memory and never synced before it is stored.
+ * </p>
+ */
+public class StagedTransactionSyncTasklet implements Tasklet {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final TransactionStagingTable stagingTable;
+    private final ReportingSyncQueue reportingSyncQueue;
+
+    public StagedTransactionSyncTasklet(TransactionStagingTable stagingTable, ReportingSyncQueue reportingSyncQueue) {
+        this.stagingTable = stagingTable;
+        this.reportingSyncQueue = reportingSyncQueue;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        StepExecution stepExecution = contribution.getStepExecution();
+        List<FactTransactionDTO> batch = new ArrayList<>(BATCH_SIZE);
+
+        stagingTable.forEachMerged(stepExecution.getJobExecution().getJobInstance().getInstanceId(),
+                stepExecution.getJobParameters().getString("userId"),
+                dto -> {
+                    batch.add(dto);
+                    if (batch.size() == BATCH_SIZE) {
+                        reportingSyncQueue.enqueue(List.copyOf(batch));
+                        batch.clear();
+                    }
+                });
+
+        if (!batch.isEmpty()) {
+            reportingSyncQueue.enqueue(batch);
+        }
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,262 @@
+package com.dataflow.dataingestionservice.Config.Staging;
+
+import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Utils.Constants.SyncOperation;
+import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
+import com.dataflow.dataingestionservice.Utils.TimeOrderedUuid;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The per-job staging table of imports in {@code STAGING} mode, and the set-based statements run on it.
+ * <p>
+ * Worker steps only insert the raw parsed rows. Each row is keyed by its partition and its line, and stored with the
+ * sheet or archive entry it comes from, because every sheet and entry numbers its lines from the start.
+ * <p>
+ * Everything the {@code TransactionProcessor} and the category enrichment do row by row in chunk mode is then done by
+ * a few statements over the whole table:
+ * </p>
+ * <ul>
+ *     <li>Rows with an unknown currency, a missing amount or a too long description are marked as rejected, and so
+ *     are rows whose transaction date is repeated later in the file, in partition then line order. Rejected rows are
+ *     copied to {@code transaction_import_errors}.</li>
+ *     <li>Rows the user already has with the same content are marked as unchanged.</li>
+ *     <li>The remaining rows are merged into {@code transactions}. Their currency and category are resolved by joins
+ *     and their type is derived from the sign of the amount.</li>
+ * </ul>
+ * <p>
+ * The table is named after the job instance, so concurrent imports never share one and a restarted import goes on
+ * with the rows staged by its previous runs. It is dropped when the job completes.
+ * </p>
+ */
+@Component
+public class TransactionStagingTable {
+
+    static final int DESCRIPTION_MAX_LENGTH = 255;
+
+    private static final String REJECTED_PHASE = "VALIDATE";
+    private static final String TABLE_PREFIX = "transaction_staging_";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public TransactionStagingTable(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // Makes MySQL Connector/J stream the rows instead of reading the whole result set into memory
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    static String name(long jobInstanceId) {
+        return TABLE_PREFIX + jobInstanceId;
+    }
+
+    public void create(long jobInstanceId) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name(jobInstanceId) + " (" +
+                "part INT NOT NULL, " +
+                "row_num BIGINT NOT NULL, " +
+                "sheet VARCHAR(255), " +
+                "id BINARY(16) NOT NULL, " +
+                "transaction_date DATETIME(6), " +
+                "category_name VARCHAR(255), " +
+                "description TEXT, " +
+                "amount DECIMAL(38,2), " +
+                "currency_code VARCHAR(255), " +
+                "payment_mode VARCHAR(255), " +
+                "error VARCHAR(255), " +
+                "unchanged BOOLEAN NOT NULL DEFAULT FALSE, " +
+                "PRIMARY KEY (part, row_num), " +
+                "INDEX idx_transaction_date (transaction_date))");
+    }
+
+    public void drop(long jobInstanceId) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name(jobInstanceId));
+    }
+
+    /**
+     * Returns the job instances with a staging table: the running imports and the failed ones kept for a restart.
+     */
+    public List<Long> findJobInstanceIds() {
+        return jdbcTemplate.queryForList("SELECT table_name FROM information_schema.tables " +
+                        "WHERE table_schema = DATABASE() AND table_name LIKE 'transaction\\_staging\\_%'", String.class)
+                .stream()
+                .map(table -> Long.parseLong(table.substring(TABLE_PREFIX.length())))
+                .toList();
+    }
+
+    /**
+     * Inserts parsed rows without any validation or enrichment. Each row gets the time-ordered id it will be merged
+     * with, as MySQL can only generate random ones.
+     *
+     * @param jobInstanceId the import job instance
+     * @param part          the index of the partition the rows were read by
+     * @param sheet         the sheet or archive entry the rows were read from, or {@code null}
+     * @param items         the parsed rows
+     * @param rowNumbers    the line of each row in the imported file, or in its sheet or entry
+     */
+    public void insert(long jobInstanceId, int part, String sheet, List<? extends Transaction> items, long[] rowNumbers) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO " + name(jobInstanceId) +
+                        " (part, row_num, sheet, id, transaction_date, category_name, description, amount, currency_code, payment_mode) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Transaction item = items.get(i);
+                        ps.setInt(1, part);
+                        ps.setLong(2, rowNumbers[i]);
+                        ps.setString(3, sheet);
+                        ps.setBytes(4, TimeOrderedUuid.toBytes(TimeOrderedUuid.next()));
+                        ps.setTimestamp(5, item.getTransactionDate() != null ? Timestamp.valueOf(item.getTransactionDate()) : null);
+                        ps.setString(6, item.getCategoryName());
+                        ps.setString(7, item.getDescription());
+                        ps.setBigDecimal(8, item.getAmount());
+                        ps.setString(9, item.getCurrencyCode());
+                        ps.setString(10, item.getPaymentMode() != null ? item.getPaymentMode().name() : null);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                });
+    }
+
+    /**
+     * Marks the rows that cannot be merged and copies them to {@code transaction_import_errors}.
+     *
+     * @param jobInstanceId  the import job instance
+     * @param jobExecutionId the job execution the rejected rows are reported with
+     * @return the number of rejected rows
+     */
+    public int rejectInvalidRows(long jobInstanceId, long jobExecutionId) {
+        String table = name(jobInstanceId);
+
+        jdbcTemplate.update("UPDATE " + table + " s LEFT JOIN currencies c ON c.code = UPPER(TRIM(s.currency_code)) " +
+                "SET s.error = CONCAT('Currency not found for code: ', IFNULL(s.currency_code, 'null')) " +
+                "WHERE s.error IS NULL AND c.id IS NULL");
+        jdbcTemplate.update("UPDATE " + table + " SET error = 'Amount is missing' " +
+                "WHERE error IS NULL AND amount IS NULL");
+        jdbcTemplate.update("UPDATE " + table + " SET error = 'Transaction date is missing' " +
+                "WHERE error IS NULL AND transaction_date IS NULL");
+        jdbcTemplate.update("UPDATE " + table + " SET error = 'Description is longer than " + DESCRIPTION_MAX_LENGTH + " characters' " +
+                "WHERE error IS NULL AND CHAR_LENGTH(description) > " + DESCRIPTION_MAX_LENGTH);
+        // A later valid row with the same date would overwrite this one, as the user and date identify a transaction
+        jdbcTemplate.update("UPDATE " + table + " s JOIN (" +
+                "SELECT part, row_num, " +
+                "FIRST_VALUE(part) OVER latest AS last_part, " +
+                "FIRST_VALUE(row_num) OVER latest AS last_row, " +
+                "FIRST_VALUE(sheet) OVER latest AS last_sheet " +
+                "FROM " + table + " WHERE error IS NULL " +
+                "WINDOW latest AS (PARTITION BY transaction_date ORDER BY part DESC, row_num DESC)" +
+                ") d ON d.part = s.part AND d.row_num = s.row_num AND (d.part <> d.last_part OR d.row_num <> d.last_row) " +
+                "SET s.error = CONCAT('Duplicate transaction date, replaced by row ', d.last_row, " +
+                "IFNULL(CONCAT(' of ', d.last_sheet), '')) " +
+                "WHERE s.error IS NULL");
+
+        // Stamped with the clock the expired rows are deleted by
+        return jdbcTemplate.update("INSERT INTO transaction_import_errors (job_execution_id, created_at, sheet, row_num, phase, error, raw_data) " +
+                "SELECT ?, ?, sheet, row_num, '" + REJECTED_PHASE + "', error, CONCAT(" +
+                "'transactionDate=', IFNULL(transaction_date, 'null'), " +
+                "', categoryName=', IFNULL(category_name, 'null'), " +
+                "', description=', IFNULL(description, 'null'), " +
+                "', amount=', IFNULL(amount, 'null'), " +
+                "', currencyCode=', IFNULL(currency_code, 'null'), " +
+                "', paymentMode=', IFNULL(payment_mode, 'null')) " +
+                "FROM " + table + " WHERE error IS NOT NULL ORDER BY part, row_num",
+                jobExecutionId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Marks the valid rows whose transaction the user already has with the same category, description, amount,
+     * currency, payment mode and type, so they are neither merged nor synced again.
+     *
+     * @return the number of unchanged rows
+     */
+    public int markUnchangedRows(long jobInstanceId, String userId) {
+        return jdbcTemplate.update("UPDATE " + name(jobInstanceId) + " s " +
+                "JOIN transactions t ON t.user_id = ? AND t.transaction_date = s.transaction_date " +
+                "JOIN currencies cur ON cur.id = t.currency_id " +
+                "LEFT JOIN categories c ON c.id = t.category_id " +
+                "SET s.unchanged = TRUE " +
+                "WHERE s.error IS NULL " +
+                "AND cur.code = UPPER(TRIM(s.currency_code)) " +
+                "AND t.amount = ABS(s.amount) " +
+                "AND t.type = CASE WHEN s.amount > 0 THEN '" + TransactionType.INCOME.name() + "' ELSE '" + TransactionType.EXPENSE.name() + "' END " +
+                "AND t.description <=> s.description " +
+                "AND t.payment_mode <=> s.payment_mode " +
+                "AND LOWER(c.name) <=> LOWER(NULLIF(s.category_name, ''))",
+                userId);
+    }
+
+    /**
+     * Merges the rows that were neither rejected nor unchanged into {@code transactions}, replacing existing
+     * transactions of the user with the same date.
+     *
+     * @return the number of merged rows
+     */
+    public int merge(long jobInstanceId, String userId) {
+        String table = name(jobInstanceId);
+
+        jdbcTemplate.update("INSERT INTO transactions " +
+                "(id, user_id, transaction_date, category_id, description, amount, currency_id, payment_mode, created_at, type) " +
+                "SELECT s.id, ?, s.transaction_date, cat.id, s.description, ABS(s.amount), cur.id, s.payment_mode, NOW(6), " +
+                "CASE WHEN s.amount > 0 THEN '" + TransactionType.INCOME.name() + "' ELSE '" + TransactionType.EXPENSE.name() + "' END " +
+                "FROM " + table + " s " +
+                "JOIN currencies cur ON cur.code = UPPER(TRIM(s.currency_code)) " +
+                "LEFT JOIN (SELECT LOWER(name) AS name, MIN(id) AS id FROM categories WHERE user_id = ? GROUP BY LOWER(name)) cat " +
+                "ON cat.name = LOWER(s.category_name) " +
+                "WHERE s.error IS NULL AND NOT s.unchanged " +
+                "ORDER BY s.part, s.row_num " +
+                "ON DUPLICATE KEY UPDATE " +
+                "category_id = VALUES(category_id), " +
+                "description = VALUES(description), " +
+                "amount = VALUES(amount), " +
+                "currency_id = VALUES(currency_id), " +
+                "payment_mode = VALUES(payment_mode), " +
+                "created_at = VALUES(created_at), " +
+                "type = VALUES(type)",
+                userId, userId);
+
+        // The affected row count of an upsert counts updated rows twice, so the merged rows are counted instead
+        Integer merged = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE error IS NULL AND NOT unchanged", Integer.class);
+        return merged != null ? merged : 0;
+    }
+
+    /**
+     * Streams the merged transactions, as stored in {@code transactions}, to the consumer.
+     */
+    public void forEachMerged(long jobInstanceId, String userId, Consumer<FactTransactionDTO> consumer) {
+        streamingJdbcTemplate.query("SELECT t.id, t.amount, t.category_id, t.transaction_date, t.payment_mode, cur.code, t.type " +
+                        "FROM " + name(jobInstanceId) + " s " +
+                        "JOIN transactions t ON t.user_id = ? AND t.transaction_date = s.transaction_date " +
+                        "JOIN currencies cur ON cur.id = t.currency_id " +
+                        "WHERE s.error IS NULL AND NOT s.unchanged",
+                rs -> {
+                    FactTransactionDTO dto = new FactTransactionDTO();
+                    dto.setId(TimeOrderedUuid.fromBytes(rs.getBytes("id")).toString());
+                    dto.setAmount(rs.getBigDecimal("amount"));
+                    dto.setCategoryId(rs.getString("category_id"));
+                    dto.setTransaction_date(rs.getTimestamp("transaction_date").toLocalDateTime());
+                    dto.setPaymentMode(rs.getString("payment_mode") != null ? PaymentMethod.valueOf(rs.getString("payment_mode")) : null);
+                    dto.setCurrencyCode(rs.getString("code"));
+                    dto.setOperation(SyncOperation.CREATE);
+                    dto.setUserId(userId);
+                    dto.setDateKey(dto.getTransaction_date().toLocalDate());
+                    dto.setType(TransactionType.valueOf(rs.getString("type")));
+                    consumer.accept(dto);
+                },
+                userId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.dataflow.dataingestionservice.Config.Staging;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+
+import java.util.List;
+
+/**
+ * An {@link ItemWriter} that inserts the parsed rows of a partition into the staging table of its import.
+ * <p>
+ * Rows are stored as read, without currency or category resolution. Each row is numbered with its line in the
+ * imported file, or in its sheet or archive entry. The line is computed from the position of the item in the
+ * partition, which the reader sets through {@link org.springframework.batch.item.ItemCountAware}. Rows are also
+ * stored with the index of their partition, because every sheet of a workbook and every entry of an archive numbers
+ * its lines from 1.
+ * </p>
+ */
+public class TransactionStagingWriter implements ItemWriter<Transaction> {
+
+    private final TransactionStagingTable stagingTable;
+    private final long jobInstanceId;
+    private final int part;
+    private final String sheet;
+    private final long firstLine;
+
+    /**
+     * @param stagingTable  the staging table of the import
+     * @param jobInstanceId the import job instance
+     * @param part          the index of the partition
+     * @param sheet         the sheet or archive entry read by the partition, or {@code null}
+     * @param firstLine     the line of the file, or of the sheet, preceding the first item of the partition
+     */
+    public TransactionStagingWriter(TransactionStagingTable stagingTable, long jobInstanceId, int part, String sheet,
+                                    long firstLine) {
+        this.stagingTable = stagingTable;
+        this.jobInstanceId = jobInstanceId;
+        this.part = part;
+        this.sheet = sheet;
+        this.firstLine = firstLine;
+    }
+
+    @Override
+    public void write(Chunk<? extends Transaction> chunk) throws Exception {
+        List<? extends Transaction> items = chunk.getItems();
+        long[] rowNumbers = new long[items.size()];
+        for (int i = 0; i < rowNumbers.length; i++) {
+            rowNumbers[i] = firstLine + items.get(i).getItemCount();
+        }
+        stagingTable.insert(jobInstanceId, part, sheet, items, rowNumbers);
+    }
+}
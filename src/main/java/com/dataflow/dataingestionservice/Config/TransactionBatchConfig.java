@@ -1,57 +1,69 @@
 package com.dataflow.dataingestionservice.Config;
 
+import com.dataflow.dataingestionservice.Config.ItemProcessor.StoredTransactionHashes;
 import com.dataflow.dataingestionservice.Config.ItemProcessor.TransactionProcessor;
+import com.dataflow.dataingestionservice.Config.ItemWriter.TransactionBulkLoadWriter;
+import com.dataflow.dataingestionservice.Config.ItemWriter.TransactionEnrichmentWriter;
+import com.dataflow.dataingestionservice.Config.Partitioner.TransactionFilePartitioner;
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
+import com.dataflow.dataingestionservice.Config.Staging.StagedTransactionMergeTasklet;
+import com.dataflow.dataingestionservice.Config.Staging.StagedTransactionSyncTasklet;
+import com.dataflow.dataingestionservice.Config.Staging.TransactionStagingTable;
+import com.dataflow.dataingestionservice.Config.Staging.TransactionStagingWriter;
 import com.dataflow.dataingestionservice.Models.Transaction;
 import com.dataflow.dataingestionservice.Repositories.CategoryRepository;
-import com.dataflow.dataingestionservice.Repositories.CurrencyRepository;
-import com.dataflow.dataingestionservice.Utils.ColumnFormatter;
-import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Services.CurrencyRegistry;
+import com.dataflow.dataingestionservice.Services.ReportingSyncQueue;
+import com.dataflow.dataingestionservice.Services.TransactionImportService;
+import com.dataflow.dataingestionservice.Utils.CompressedFileResource;
+import com.dataflow.dataingestionservice.Utils.FileRangeResource;
+import com.dataflow.dataingestionservice.Utils.Constants.ImportMode;
 import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
+import com.dataflow.dataingestionservice.Utils.ImportFingerprintListener;
 import com.dataflow.dataingestionservice.Utils.LoggingItemWriteListener;
 import com.dataflow.dataingestionservice.Utils.ReportingSyncItemWriteListener;
+import com.dataflow.dataingestionservice.Utils.TimeOrderedUuid;
 import com.dataflow.dataingestionservice.Utils.TransactionImportSkipListener;
+import com.dataflow.dataingestionservice.Utils.UploadPipeRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.*;
+import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.extensions.excel.streaming.StreamingXlsxItemReader;
-import org.springframework.batch.extensions.excel.support.rowset.DefaultRowSetFactory;
-import org.springframework.batch.extensions.excel.support.rowset.StaticColumnNameExtractor;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.BeanPropertyItemSqlParameterSourceProvider;
 import org.springframework.batch.item.database.JdbcBatchItemWriter;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.LineMapper;
-import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
-import org.springframework.batch.item.file.mapping.DefaultLineMapper;
-import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
-import org.springframework.batch.item.support.SynchronizedItemStreamReader;
-import org.springframework.batch.item.xml.StaxEventItemReader;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.oxm.xstream.XStreamMarshaller;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 import javax.sql.DataSource;
-import java.beans.PropertyEditor;
-import java.beans.PropertyEditorSupport;
 import java.io.File;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -61,18 +73,73 @@ import java.util.UUID;
  * {@code ItemReader} for each type. It also configures the {@code ItemProcessor}, {@code JdbcBatchItemWriter},
  * and the job/step definitions.
  * </p>
+ * <p>
+ * The import step is partitioned: CSV files are split into line-aligned byte ranges by
+ * {@link TransactionFilePartitioner} and every range is processed by its own worker step with its own reader,
+ * processor and writer on the bounded {@code importTaskExecutor}.
+ * </p>
+ * <p>
+ * The {@code importMode} job parameter selects how rows are written: in chunks of 50 rows with batched
+ * {@code INSERT}s ({@link ImportMode#CHUNK}, the default), or in large chunks loaded through a staging table
+ * ({@link ImportMode#BULK_LOAD}). In {@link ImportMode#STAGING} mode the job takes another path: the file is
+ * partitioned the same way, but the workers only store the raw rows in a per-job staging table, which is then
+ * validated and merged by set-based statements, and the merged rows are synced to the reporting service.
+ * </p>
+ * <p>
+ * With the {@code dryRun} job parameter set, whatever the import mode, the job only validates the file: its partitions
+ * are read, converted and resolved like those of an import, but nothing is written to the database or synced to the
+ * reporting service. The failed rows are reported as they would be by an import.
+ * </p>
  */
 @Configuration
 public class TransactionBatchConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionBatchConfig.class);
 
+    /**
+     * Name of the partition manager step. Its {@link StepExecution} aggregates the counts of all worker steps.
+     */
+    public static final String IMPORT_STEP_NAME = "insertStep";
+
+    /**
+     * Name of the partition manager step of {@link ImportMode#STAGING} imports.
+     */
+    public static final String STAGE_STEP_NAME = "stageStep";
+
+    /**
+     * Name of the worker step of {@link ImportMode#STAGING} imports. Its writes go to the staging table, so they
+     * are not imported rows.
+     */
+    public static final String STAGE_WORKER_STEP_NAME = "stageWorkerStep";
+
+    /**
+     * Name of the step merging the staging table of {@link ImportMode#STAGING} imports. Its write count is the
+     * number of imported rows, its write skip count the number of rejected rows.
+     */
+    public static final String MERGE_STEP_NAME = "mergeStagedTransactionsStep";
+
+    /**
+     * Name of the partition manager step of dry runs.
+     */
+    public static final String VALIDATE_STEP_NAME = "validateStep";
+
+    /**
+     * The job status selecting the steps of dry runs.
+     */
+    private static final String DRY_RUN_STATUS = "DRY_RUN";
+
     @Autowired
-    private CurrencyRepository currencyRepository;
+    private CurrencyRegistry currencyRegistry;
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private UploadPipeRegistry uploadPipeRegistry;
+
+    @Autowired
+    private TransactionStagingTable stagingTable;
+
     /**
      * Creates a {@link FlatFileItemReader} for reading transactions from a CSV file.
      *
@@ -81,173 +148,293 @@ public class TransactionBatchConfig {
      * @return a configured {@link FlatFileItemReader} for {@link Transaction} objects
      */
     public FlatFileItemReader<Transaction> csvItemReader(String filePath, String formatDateTime) {
+        return csvItemReader(new FileSystemResource(filePath), 1, formatDateTime);
+    }
+
+    /**
+     * Creates a {@link FlatFileItemReader} for reading transactions from a CSV resource. The number of rows read is
+     * saved with every committed chunk, so a restarted worker skips them.
+     *
+     * @param resource       the CSV resource, possibly a byte range of the uploaded file
+     * @param linesToSkip    the number of header lines at the start of the resource
+     * @param formatDateTime the date-time format to be used for parsing date fields
+     * @return a configured {@link FlatFileItemReader} for {@link Transaction} objects
+     */
+    public FlatFileItemReader<Transaction> csvItemReader(Resource resource, int linesToSkip, String formatDateTime) {
         FlatFileItemReader<Transaction> reader = new FlatFileItemReader<>();
-        reader.setSaveState(false);
-        reader.setResource(new FileSystemResource(filePath));
-        reader.setLinesToSkip(1);
+        reader.setName("transactionCsvItemReader");
+        reader.setResource(resource);
+        reader.setLinesToSkip(linesToSkip);
         reader.setLineMapper(lineMapper(formatDateTime));
         return reader;
     }
 
-    public StaxEventItemReader<Transaction> xmlItemReader(String filePath, String formatDateTime){
-        StaxEventItemReader<Transaction> itemReader = new StaxEventItemReader<>();
-        itemReader.setResource(new FileSystemResource(filePath));
-        itemReader.setFragmentRootElementName("transaction");
-        itemReader.setUnmarshaller(transactionMarshaller());
-
-        return itemReader;
-    }
-
-    public XStreamMarshaller transactionMarshaller(){
-        Map<String,Class> aliases = new HashMap<>();
-        aliases.put("transaction", Transaction.class);
-        aliases.put("amount", BigDecimal.class);
-        aliases.put("currency", String.class);
-        aliases.put("transaction_date", LocalDateTime.class);
-        aliases.put("category", String.class);
-        aliases.put("description", String.class);
-        aliases.put("payment_mode", String.class);
-
-        XStreamMarshaller marshaller = new XStreamMarshaller();
-
-        marshaller.setAliases(aliases);
-
-        return marshaller;
+    /**
+     * Creates a {@link TransactionXmlItemReader} for reading transactions from an XML file.
+     *
+     * @param filePath       the path to the XML file
+     * @param formatDateTime the date-time format to be used for parsing date fields
+     * @return a configured {@link TransactionXmlItemReader}
+     */
+    public TransactionXmlItemReader xmlItemReader(String filePath, String formatDateTime) {
+        return new TransactionXmlItemReader(new FileSystemResource(filePath), formatDateTime);
     }
 
     /**
-     * Creates a {@link StreamingXlsxItemReader} for reading transactions from an Excel file.
+     * Creates the reader of an Excel file: an {@link XlsxTransactionItemReader} for {@code .xlsx} workbooks and an
+     * {@link XlsTransactionItemReader} for legacy {@code .xls} workbooks.
      *
-     * @param filePath       the path to the Excel file
-     * @param formatDateTime the date-time format to be used for parsing date fields.<b>Format is not required but will speed up the job</b>
-     * @return a configured {@link StreamingXlsxItemReader} for {@link Transaction} objects
+     * @param filePath                 the path to the Excel file
+     * @param sheetName                the sheet to read, or {@code null} to read all sheets
+     * @param formatDateTime           the date-time format to be used for parsing date fields.<b>Format is not required but will speed up the job</b>
+     * @param sharedStringsMemoryLimit the number of shared string bytes of an {@code .xlsx} workbook kept on the heap
+     * @return a configured {@link ItemStreamReader} for {@link Transaction} objects
      */
-    public StreamingXlsxItemReader<Transaction> excelItemReader(String filePath, String formatDateTime) {
-        StreamingXlsxItemReader<Transaction> poiItemReader = new StreamingXlsxItemReader<>();
-
-        // Define the column names expected in the Excel file
-        String[] columns = new String[] { "transactionDate", "categoryName", "description", "amount", "currencyCode", "paymentMode"};
-        StaticColumnNameExtractor columnNameExtractor = new StaticColumnNameExtractor(columns);
-        DefaultRowSetFactory rowSetFactory = new DefaultRowSetFactory();
-        rowSetFactory.setColumnNameExtractor(columnNameExtractor);
-
-        poiItemReader.setLinesToSkip(1);
-        poiItemReader.setRowMapper(rowMapper(formatDateTime));
-        poiItemReader.setSaveState(false);
-        poiItemReader.setResource(new FileSystemResource(filePath));
-        poiItemReader.setRowSetFactory(rowSetFactory);
-
-        return poiItemReader;
+    public ItemStreamReader<Transaction> excelItemReader(String filePath, String sheetName, String formatDateTime, long sharedStringsMemoryLimit) {
+        if (filePath.toLowerCase().endsWith(".xls")) {
+            return new XlsTransactionItemReader(new FileSystemResource(filePath), sheetName, formatDateTime);
+        }
+        return new XlsxTransactionItemReader(new FileSystemResource(filePath), sheetName, formatDateTime, sharedStringsMemoryLimit);
     }
 
     /**
-     * Creates an {@link ExcelTransactionRowMapper} for mapping rows from an Excel file to {@link Transaction} objects.
+     * Creates the reader of a text file: a {@link TransactionXmlItemReader} for XML, a {@link TransactionJsonItemReader}
+     * for newline-delimited JSON and a CSV reader otherwise.
      *
+     * @param resource       the file, possibly a byte range, a decompressed file or an archive entry
+     * @param fileName       the name of the file, which selects its reader
+     * @param startOffset    the first byte of the resource in the file; CSV files only have a header line at offset zero
      * @param formatDateTime the date-time format to be used for parsing date fields
-     * @return a configured {@link ExcelTransactionRowMapper}
+     * @return a configured {@link ItemStreamReader} for {@link Transaction} objects
      */
-    private ExcelTransactionRowMapper rowMapper(String formatDateTime) {
-        ExcelTransactionRowMapper rowMapper = new ExcelTransactionRowMapper(formatDateTime);
-        rowMapper.setTargetType(Transaction.class);
-        rowMapper.setStrict(false);
-        return rowMapper;
+    private ItemStreamReader<Transaction> textItemReader(Resource resource, String fileName, long startOffset, String formatDateTime) {
+        if (fileName.toLowerCase().endsWith(".xml")) {
+            return new TransactionXmlItemReader(resource, formatDateTime);
+        } else if (TransactionJsonItemReader.isNdjson(fileName)) {
+            return new TransactionJsonItemReader(resource, formatDateTime);
+        }
+        return csvItemReader(resource, startOffset == 0 ? 1 : 0, formatDateTime);
     }
 
     /**
-     * Creates a thread-safe {@link SynchronizedItemStreamReader} that delegates to either a CSV or Excel reader based on the file extension.
+     * Creates the reader of a single worker step, delegating to either a CSV, Excel, XML, NDJSON or Parquet reader based
+     * on the file extension.
      * <p>
-     * The appropriate reader is chosen based on the file extension provided in the job parameters.
+     * CSV and NDJSON workers only read the byte range assigned to them by {@link TransactionFilePartitioner}; the CSV
+     * header line is skipped by the worker that starts at offset zero. Excel workers read the sheet assigned to them.
+     * Parquet workers read the row groups starting in their byte range. XML files are always read as a single partition.
+     * Compressed CSV, XML and NDJSON files are decompressed while they are read: gzip and Zstandard files as a single
+     * partition, {@code .zip} archives one entry per partition.
+     * Streamed CSV and NDJSON uploads have no file; they are read from their {@link UploadPipeRegistry} pipe as a single
+     * partition.
+     * </p>
+     * <p>
+     * File readers save their position with every committed chunk, so a restarted import resumes each unfinished
+     * partition after its last commit. A streamed upload cannot be read twice, so its reader saves nothing.
      * </p>
      *
-     * @param filePath       the path to the input file (CSV or Excel)
+     * @param filePath       the path to the input file, or {@code null} for a streamed upload
+     * @param uploadId       the id of the pipe of a streamed upload, or {@code null} for a file upload
+     * @param contentType    the media type of a streamed upload
      * @param formatDateTime the date-time format to be used for parsing date fields
-     * @return a configured {@link SynchronizedItemStreamReader} for {@link Transaction} objects
+     * @param startOffset    the first byte of the partition
+     * @param endOffset      the byte after the end of the partition
+     * @param sheetName      the sheet of an Excel partition, or {@code null} to read all sheets
+     * @param entryName      the archive entry of a {@code .zip} partition
+     * @param properties     the import settings providing the shared strings memory limit of Excel files
+     * @return a configured {@link ItemStreamReader} for {@link Transaction} objects
      */
     @Bean
     @StepScope
-    public SynchronizedItemStreamReader<Transaction> transactionItemReader(
+    public ItemStreamReader<Transaction> transactionItemReader(
             @Value("#{jobParameters['filePath']}") String filePath,
-            @Value("#{jobParameters['formatDateTime']}") String formatDateTime) {
-
-        SynchronizedItemStreamReader<Transaction> syncReader = new SynchronizedItemStreamReader<>();
+            @Value("#{jobParameters['uploadId']}") String uploadId,
+            @Value("#{jobParameters['contentType']}") String contentType,
+            @Value("#{jobParameters['formatDateTime']}") String formatDateTime,
+            @Value("#{stepExecutionContext['startOffset']}") Long startOffset,
+            @Value("#{stepExecutionContext['endOffset']}") Long endOffset,
+            @Value("#{stepExecutionContext['sheetName']}") String sheetName,
+            @Value("#{stepExecutionContext['entryName']}") String entryName,
+            TransactionImportProperties properties) {
+
+        if (uploadId != null) {
+            if (TransactionJsonItemReader.MEDIA_TYPE.equals(contentType)) {
+                TransactionJsonItemReader reader = new TransactionJsonItemReader(uploadPipeRegistry.resource(uploadId), formatDateTime);
+                reader.setSaveState(false);
+                return reader;
+            }
+            FlatFileItemReader<Transaction> reader = csvItemReader(uploadPipeRegistry.resource(uploadId), 1, formatDateTime);
+            reader.setSaveState(false);
+            return reader;
+        }
+        if (CompressedFileResource.isCompressed(filePath)) {
+            CompressedFileResource resource = new CompressedFileResource(filePath, entryName);
+            return textItemReader(resource, resource.getContentName(), 0, formatDateTime);
+        }
         if (filePath.toLowerCase().endsWith(".xlsx") || filePath.toLowerCase().endsWith(".xls")) {
-            StreamingXlsxItemReader<Transaction> excelReader = excelItemReader(filePath, formatDateTime);
-            syncReader.setDelegate(excelReader);
+            return excelItemReader(filePath, sheetName, formatDateTime, properties.getExcelSharedStringsMemoryLimit());
         } else if(filePath.toLowerCase().endsWith(".xml")) {
-            StaxEventItemReader<Transaction> xmlReader = xmlItemReader(filePath, formatDateTime);
-            syncReader.setDelegate(xmlReader);
-        } else{
-            FlatFileItemReader<Transaction> csvReader = csvItemReader(filePath, formatDateTime);
-            syncReader.setDelegate(csvReader);
+            return xmlItemReader(filePath, formatDateTime);
+        } else if (ParquetTransactionItemReader.isParquet(filePath)) {
+            return new ParquetTransactionItemReader(new FileSystemResource(filePath), startOffset, endOffset, formatDateTime);
         }
-        return syncReader;
+        return textItemReader(new FileRangeResource(filePath, startOffset, endOffset), filePath, startOffset, formatDateTime);
+    }
+
+    /**
+     * Creates the {@link TransactionFilePartitioner} that splits the uploaded file between the worker steps.
+     *
+     * @param filePath   the path to the input file, or {@code null} for a streamed upload
+     * @param partitions the partition count requested for this job, or {@code null} to use the configured default, or
+     *                   for dry runs one partition per worker thread
+     * @param dryRun     whether the job only validates the file
+     * @param properties the import settings
+     * @return a {@link TransactionFilePartitioner} for the current job
+     */
+    @Bean
+    @StepScope
+    public TransactionFilePartitioner transactionFilePartitioner(
+            @Value("#{jobParameters['filePath']}") String filePath,
+            @Value("#{jobParameters['partitions']}") Long partitions,
+            @Value("#{jobParameters['dryRun']}") String dryRun,
+            TransactionImportProperties properties) {
+        // Dry runs write nothing, so nothing keeps them from reading with every worker thread
+        int requested = partitions != null ? partitions.intValue()
+                : Boolean.parseBoolean(dryRun) ? properties.getWorkerThreads() : properties.getDefaultPartitions();
+        return new TransactionFilePartitioner(filePath, Math.min(requested, properties.getMaxPartitions()));
+    }
+
+    /**
+     * Creates the bounded executor that runs the worker steps of all transaction imports.
+     *
+     * @param properties the import settings providing the thread count
+     * @return the {@link ThreadPoolTaskExecutor} for partition workers
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importTaskExecutor(TransactionImportProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkerThreads());
+        executor.setMaxPoolSize(properties.getWorkerThreads());
+        executor.setThreadNamePrefix("import-worker-");
+        return executor;
     }
 
     /**
      * Creates a {@link LineMapper} for parsing CSV file lines into {@link Transaction} objects.
      *
      * @param formatDateTime the date-time format to be used for parsing date fields
-     * @return a configured {@link LineMapper} for {@link Transaction} objects
+     * @return a {@link TransactionLineMapper} for {@link Transaction} objects
      */
     private LineMapper<Transaction> lineMapper(String formatDateTime) {
-        DefaultLineMapper<Transaction> lineMapper = new DefaultLineMapper<>();
-        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
-
-        tokenizer.setDelimiter(",");
-        tokenizer.setNames("transactionDate", "categoryName", "description", "amount", "currencyCode", "paymentMode");
-        tokenizer.setStrict(false);
-
-        BeanWrapperFieldSetMapper<Transaction> mapper = new BeanWrapperFieldSetMapper<>();
-        mapper.setTargetType(Transaction.class);
-
-        // Register custom editors for LocalDateTime and UUID conversion
-        Map<Class<?>, PropertyEditor> customEditors = new HashMap<>();
-        customEditors.put(LocalDateTime.class, new PropertyEditorSupport() {
-            @Override
-            public void setAsText(String text) {
-                setValue(ColumnFormatter.convertToLocalDateTime(text, formatDateTime));
-            }
-        });
-        customEditors.put(PaymentMethod.class, new PropertyEditorSupport() {
-            @Override
-            public void setAsText(String text) {
-                setValue(PaymentMethod.valueOf(text.toUpperCase()));
-            }
-        });
-
-        mapper.setCustomEditors(customEditors);
+        return new TransactionLineMapper(formatDateTime);
+    }
 
-        lineMapper.setLineTokenizer(tokenizer);
-        lineMapper.setFieldSetMapper(mapper);
+    /**
+     * Creates an {@link ItemProcessor} to process {@link Transaction} objects.
+     * <p>
+     * Unless {@code transaction.import.skip-unchanged-rows} is off, rows the user already has with the same content are
+     * filtered out by {@link StoredTransactionHashes}, so they are counted as filtered instead of being rewritten.
+     * </p>
+     *
+     * @param userId     the id of the user who uploaded the file
+     * @param dataSource the {@link DataSource} the stored transactions are read from
+     * @param properties the import settings
+     * @return a {@link TransactionProcessor} that processes transactions
+     */
+    @Bean
+    @StepScope
+    public TransactionProcessor transactionProcessor(@Value("#{jobParameters['userId']}") String userId,
+                                                     DataSource dataSource,
+                                                     TransactionImportProperties properties) {
+        StoredTransactionHashes storedHashes = properties.isSkipUnchangedRows()
+                ? new StoredTransactionHashes(new JdbcTemplate(dataSource), userId)
+                : null;
+        return new TransactionProcessor(currencyRegistry, userId, storedHashes);
+    }
 
-        return lineMapper;
+    /**
+     * Creates the bounded executor that runs asynchronously launched import jobs.
+     * <p>
+     * The pool size caps the number of imports running at the same time. Once its queue is full,
+     * further launches are rejected.
+     * </p>
+     *
+     * @param properties the import settings providing the pool and queue sizes
+     * @return the {@link ThreadPoolTaskExecutor} for import jobs
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importLauncherExecutor(TransactionImportProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getMaxConcurrentImports());
+        executor.setMaxPoolSize(properties.getMaxConcurrentImports());
+        executor.setQueueCapacity(properties.getMaxQueuedImports());
+        executor.setThreadNamePrefix("import-launcher-");
+        return executor;
     }
 
     /**
-     * Creates an {@link ItemProcessor} to process {@link Transaction} objects.
+     * Creates the {@link JobLauncher} used for asynchronous imports.
+     * <p>
+     * When the launcher executor rejects a job, the returned execution is marked as failed.
+     * </p>
      *
-     * @return an {@link ItemProcessor} that processes transactions
+     * @param jobRepository          the {@link JobRepository} to use
+     * @param importLauncherExecutor the bounded executor running the jobs
+     * @return a {@link JobLauncher} that returns as soon as the job has been queued
      */
     @Bean
-    public ItemProcessor<Transaction, Transaction> transactionProcessor() {
-        return new TransactionProcessor(currencyRepository, categoryRepository);
+    @Qualifier("asyncJobLauncher")
+    public JobLauncher asyncJobLauncher(JobRepository jobRepository,
+                                        @Qualifier("importLauncherExecutor") ThreadPoolTaskExecutor importLauncherExecutor) throws Exception {
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(importLauncherExecutor);
+        jobLauncher.afterPropertiesSet();
+        return jobLauncher;
     }
 
     /**
      * Defines the Spring Batch job for inserting transactions.
+     * <p>
+     * Dry runs only run the {@code validateStep}. Otherwise {@link ImportMode#STAGING} imports run the staging, merge
+     * and sync steps; all other imports run the {@code insertStep}.
+     * </p>
      *
      * @param jobRepository        the {@link JobRepository} to use
-     * @param insertStep           the {@link Step} to execute
+     * @param insertStep           the {@link Step} writing the rows chunk by chunk
+     * @param validateStep         the {@link Step} validating the rows of dry runs
+     * @param stageStep            the {@link Step} writing the raw rows to the staging table
+     * @param mergeStagedTransactionsStep the {@link Step} merging the staging table
+     * @param syncStagedTransactionsStep  the {@link Step} syncing the merged rows
      * @param jobExecutionListener a listener for job execution events
+     * @param fingerprintListener  the listener recording the fingerprints of completed imports
      * @return a configured {@link Job} for inserting transactions
      */
     @Bean
     @Qualifier("transactionJob")
-    public Job insertJob(JobRepository jobRepository, Step insertStep, JobExecutionListener jobExecutionListener) {
+    public Job insertJob(JobRepository jobRepository,
+                         Step insertStep,
+                         Step validateStep,
+                         Step stageStep,
+                         Step mergeStagedTransactionsStep,
+                         Step syncStagedTransactionsStep,
+                         @Qualifier("jobExecutionListener") JobExecutionListener jobExecutionListener,
+                         ImportFingerprintListener fingerprintListener) {
         logger.info("🚀 insertJob() is being initialized...");
+        JobExecutionDecider importModeDecider = (jobExecution, stepExecution) ->
+                new FlowExecutionStatus(Boolean.parseBoolean(jobExecution.getJobParameters().getString("dryRun"))
+                        ? DRY_RUN_STATUS
+                        : importMode(jobExecution.getJobParameters().getString("importMode")).name());
+
         return new JobBuilder("insertJob", jobRepository)
-                .start(insertStep)
+                .start(importModeDecider)
+                .on(DRY_RUN_STATUS).to(validateStep)
+                .from(importModeDecider)
+                .on(ImportMode.STAGING.name()).to(stageStep).next(mergeStagedTransactionsStep).next(syncStagedTransactionsStep)
+                .from(importModeDecider).on("*").to(insertStep)
+                .end()
                 .listener(jobExecutionListener)
+                .listener(fingerprintListener)
                 .build();
     }
 
@@ -258,6 +445,7 @@ public class TransactionBatchConfig {
      * @return a configured {@link JdbcBatchItemWriter} for {@link Transaction} objects
      */
     @Bean
+    @StepScope
     public JdbcBatchItemWriter<Transaction> jdbcBatchItemWriter(DataSource dataSource) {
         JdbcBatchItemWriter<Transaction> writer = new JdbcBatchItemWriter<>();
         writer.setDataSource(dataSource);
@@ -277,7 +465,7 @@ public class TransactionBatchConfig {
             @Override
             public SqlParameterSource createSqlParameterSource(Transaction item) {
                 MapSqlParameterSource paramSource = new MapSqlParameterSource();
-                paramSource.addValue("id", item.getId());
+                paramSource.addValue("id", TimeOrderedUuid.toBytes(item.getId()));
                 paramSource.addValue("userId", item.getUserId());
                 paramSource.addValue("transactionDate", item.getTransactionDate());
                 paramSource.addValue("category_id", item.getCategory() != null ? item.getCategory().getId() : null);
@@ -295,30 +483,81 @@ public class TransactionBatchConfig {
     }
 
     /**
-     * Defines the step that processes transactions.
+     * Creates the writer that resolves the categories of each chunk before it is written by the {@code jdbcBatchItemWriter},
+     * or by a {@link TransactionBulkLoadWriter} in {@link ImportMode#BULK_LOAD} mode.
+     *
+     * @param userId              the id of the user who uploaded the file
+     * @param importMode          the import mode of the job, or {@code null} for {@link ImportMode#CHUNK}
+     * @param jdbcBatchItemWriter the writer persisting the enriched transactions in {@link ImportMode#CHUNK} mode
+     * @param dataSource          the {@link DataSource} used by the bulk loader
+     * @param properties          the import settings providing the category preload limit
+     * @return a {@link TransactionEnrichmentWriter} delegating to the writer of the import mode
+     */
+    @Bean
+    @StepScope
+    public TransactionEnrichmentWriter transactionEnrichmentWriter(@Value("#{jobParameters['userId']}") String userId,
+                                                                   @Value("#{jobParameters['importMode']}") String importMode,
+                                                                   JdbcBatchItemWriter<Transaction> jdbcBatchItemWriter,
+                                                                   DataSource dataSource,
+                                                                   TransactionImportProperties properties) {
+        ItemWriter<Transaction> delegate = importMode(importMode) == ImportMode.BULK_LOAD
+                ? new TransactionBulkLoadWriter(new JdbcTemplate(dataSource))
+                : jdbcBatchItemWriter;
+        return new TransactionEnrichmentWriter(categoryRepository, userId, properties.getCategoryPreloadLimit(), delegate);
+    }
+
+    /**
+     * Creates the policy deciding how many rows a worker step writes per chunk.
+     *
+     * @param importMode the import mode of the job, or {@code null} for {@link ImportMode#CHUNK}
+     * @param dryRun     whether the job only validates the file
+     * @param properties the import settings providing the bulk load chunk size
+     * @return a {@link SimpleCompletionPolicy} completing chunks of 50 rows, or of the bulk load chunk size
+     *         for the modes writing through a staging table and for dry runs
+     */
+    @Bean
+    @StepScope
+    public SimpleCompletionPolicy importCompletionPolicy(@Value("#{jobParameters['importMode']}") String importMode,
+                                                         @Value("#{jobParameters['dryRun']}") String dryRun,
+                                                         TransactionImportProperties properties) {
+        return new SimpleCompletionPolicy(importMode(importMode) != ImportMode.CHUNK || Boolean.parseBoolean(dryRun)
+                ? properties.getBulkLoadChunkSize()
+                : 50);
+    }
+
+    private static ImportMode importMode(String importMode) {
+        return importMode == null || importMode.isEmpty() ? ImportMode.CHUNK : ImportMode.valueOf(importMode);
+    }
+
+    /**
+     * Defines the worker step that processes one partition of the transaction file.
      * <p>
      * This step reads transactions using the {@code transactionItemReader}, processes them via the configured
-     * {@code ItemProcessor}, and writes them to the database using the {@code JdbcBatchItemWriter}.
+     * {@code ItemProcessor}, resolves their categories chunk by chunk and writes them to the database using the
+     * {@code JdbcBatchItemWriter}.
+     * All of them are step scoped, so every partition gets its own instances.
      * </p>
      *
      * @param jobRepository     the {@link JobRepository} for the job
      * @param transactionManager the {@link PlatformTransactionManager} for managing transactions
-     * @param itemReader        the thread-safe reader for {@link Transaction} objects
+     * @param itemReader        the reader for the partition's {@link Transaction} objects
      * @param transactionProcessor     the processor for {@link Transaction} objects
      * @param itemWriter        the writer for {@link Transaction} objects
+     * @param importCompletionPolicy the policy deciding the chunk size of the import mode
      * @return a configured {@link Step} for processing transactions
      */
     @Bean
-    public Step insertStep(JobRepository jobRepository,
-                           PlatformTransactionManager transactionManager,
-                           SynchronizedItemStreamReader<Transaction> itemReader,
-                           ItemProcessor<Transaction, Transaction> transactionProcessor,
-                           JdbcBatchItemWriter<Transaction> itemWriter,
-                           ReportingSyncItemWriteListener syncListener,
-                           TransactionImportSkipListener importSkipListener) {
-
-        return new StepBuilder("insertStep", jobRepository)
-                .<Transaction, Transaction>chunk(50, transactionManager)
+    public Step insertWorkerStep(JobRepository jobRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 SimpleCompletionPolicy importCompletionPolicy,
+                                 ItemStreamReader<Transaction> itemReader,
+                                 TransactionProcessor transactionProcessor,
+                                 @Qualifier("transactionEnrichmentWriter") TransactionEnrichmentWriter itemWriter,
+                                 ReportingSyncItemWriteListener syncListener,
+                                 TransactionImportSkipListener importSkipListener) {
+
+        return new StepBuilder("insertWorkerStep", jobRepository)
+                .<Transaction, Transaction>chunk(importCompletionPolicy, transactionManager)
                 .reader(itemReader)
                 .processor(transactionProcessor)
                 .writer(itemWriter)
@@ -327,31 +566,291 @@ public class TransactionBatchConfig {
                 .skipLimit(1000)
                 .listener((SkipListener<? super Transaction, ? super Transaction>) importSkipListener)
                 .listener((StepExecutionListener) importSkipListener)
+                .listener((StepExecutionListener) itemWriter)
+                .listener((ItemWriteListener<Transaction>) transactionProcessor)
                 .listener(syncListener)
                 .listener(new LoggingItemWriteListener<>())
                 .build();
     }
 
     /**
-     * Creates a {@link JobExecutionListener} that performs post-job cleanup.
+     * Defines the partition manager step that splits the transaction file and runs the worker steps in parallel.
+     *
+     * @param jobRepository    the {@link JobRepository} for the job
+     * @param partitioner      the partitioner that splits the input file
+     * @param insertWorkerStep the step executed for every partition
+     * @param importTaskExecutor the bounded executor running the workers
+     * @return a configured partitioned {@link Step}
+     */
+    @Bean
+    public Step insertStep(JobRepository jobRepository,
+                           TransactionFilePartitioner partitioner,
+                           Step insertWorkerStep,
+                           @Qualifier("importTaskExecutor") ThreadPoolTaskExecutor importTaskExecutor) {
+
+        return new StepBuilder(IMPORT_STEP_NAME, jobRepository)
+                .partitioner(insertWorkerStep.getName(), partitioner)
+                .step(insertWorkerStep)
+                .taskExecutor(importTaskExecutor)
+                .build();
+    }
+
+    /**
+     * Creates the writer of dry runs, which resolves the categories of each chunk like an import and then drops it.
+     *
+     * @param userId     the id of the user who uploaded the file
+     * @param properties the import settings providing the category preload limit
+     * @return a {@link TransactionEnrichmentWriter} writing nothing
+     */
+    @Bean
+    @StepScope
+    public TransactionEnrichmentWriter transactionValidationWriter(@Value("#{jobParameters['userId']}") String userId,
+                                                                   TransactionImportProperties properties) {
+        return new TransactionEnrichmentWriter(categoryRepository, userId, properties.getCategoryPreloadLimit(), chunk -> {
+            // Dry runs write nothing
+        });
+    }
+
+    /**
+     * Defines the worker step of dry runs, which validates one partition of the transaction file.
+     * <p>
+     * The rows are read, processed and their categories resolved as by the {@code insertWorkerStep}, so the same rows
+     * fail, but they are dropped instead of being written and are not synced to the reporting service. Its write count
+     * is the number of rows an import would write. Unlike an import, it has no skip limit.
+     * </p>
+     *
+     * @param jobRepository          the {@link JobRepository} for the job
+     * @param transactionManager     the {@link PlatformTransactionManager} for managing transactions
+     * @param importCompletionPolicy the policy deciding the chunk size of dry runs
+     * @param itemReader             the reader for the partition's {@link Transaction} objects
+     * @param transactionProcessor   the processor for {@link Transaction} objects
+     * @param validationWriter       the writer resolving the categories of the rows
+     * @param importSkipListener     the listener recording skipped rows
+     * @return a configured {@link Step} validating transactions
+     */
+    @Bean
+    public Step validateWorkerStep(JobRepository jobRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   SimpleCompletionPolicy importCompletionPolicy,
+                                   ItemStreamReader<Transaction> itemReader,
+                                   TransactionProcessor transactionProcessor,
+                                   @Qualifier("transactionValidationWriter") TransactionEnrichmentWriter validationWriter,
+                                   TransactionImportSkipListener importSkipListener) {
+
+        return new StepBuilder("validateWorkerStep", jobRepository)
+                .<Transaction, Transaction>chunk(importCompletionPolicy, transactionManager)
+                .reader(itemReader)
+                .processor(transactionProcessor)
+                .writer(validationWriter)
+                .faultTolerant()
+                .skip(Exception.class)
+                // A dry run reports every invalid row instead of failing after the import's skip limit
+                .skipLimit(Integer.MAX_VALUE)
+                .listener((SkipListener<? super Transaction, ? super Transaction>) importSkipListener)
+                .listener((StepExecutionListener) importSkipListener)
+                .listener((StepExecutionListener) validationWriter)
+                .listener((ItemWriteListener<Transaction>) transactionProcessor)
+                .build();
+    }
+
+    /**
+     * Defines the partition manager step of dry runs.
+     *
+     * @param jobRepository      the {@link JobRepository} for the job
+     * @param partitioner        the partitioner that splits the input file
+     * @param validateWorkerStep the step executed for every partition
+     * @param importTaskExecutor the bounded executor running the workers
+     * @return a configured partitioned {@link Step}
+     */
+    @Bean
+    public Step validateStep(JobRepository jobRepository,
+                             TransactionFilePartitioner partitioner,
+                             Step validateWorkerStep,
+                             @Qualifier("importTaskExecutor") ThreadPoolTaskExecutor importTaskExecutor) {
+
+        return new StepBuilder(VALIDATE_STEP_NAME, jobRepository)
+                .partitioner(validateWorkerStep.getName(), partitioner)
+                .step(validateWorkerStep)
+                .taskExecutor(importTaskExecutor)
+                .build();
+    }
+
+    /**
+     * Creates the writer storing the raw rows of a partition in the staging table of its import.
+     *
+     * @param jobInstanceId the id of the import job instance, shared by all runs of the import
+     * @param filePath      the path to the input file, or {@code null} for a streamed upload
+     * @param contentType   the media type of a streamed upload
+     * @param entryName     the archive entry of a {@code .zip} partition
+     * @param sheetName     the sheet of an Excel partition
+     * @param partitionIndex the index of the partition in file order
+     * @param startOffset   the first byte of the partition
+     * @param lineOffset    the number of file lines preceding the partition
+     * @return a {@link TransactionStagingWriter} for the partition
+     */
+    @Bean
+    @StepScope
+    public TransactionStagingWriter transactionStagingWriter(
+            @Value("#{stepExecution.jobExecution.jobInstance.instanceId}") Long jobInstanceId,
+            @Value("#{jobParameters['filePath']}") String filePath,
+            @Value("#{jobParameters['contentType']}") String contentType,
+            @Value("#{stepExecutionContext['entryName']}") String entryName,
+            @Value("#{stepExecutionContext['sheetName']}") String sheetName,
+            @Value("#{stepExecutionContext['partitionIndex']}") Integer partitionIndex,
+            @Value("#{stepExecutionContext['startOffset']}") Long startOffset,
+            @Value("#{stepExecutionContext['lineOffset']}") Long lineOffset) {
+        // The first partition starts with the header line, which NDJSON and Parquet files do not have
+        String fileName = entryName != null ? entryName : Objects.toString(filePath, "");
+        boolean headerless = TransactionJsonItemReader.MEDIA_TYPE.equals(contentType)
+                || TransactionJsonItemReader.isNdjson(fileName) || ParquetTransactionItemReader.isParquet(fileName);
+        long firstLine = (lineOffset != null ? lineOffset : 0) + (!headerless && (startOffset == null || startOffset == 0) ? 1 : 0);
+        // Every sheet or archive entry numbers its lines from the start, so rejected rows are reported with its name
+        return new TransactionStagingWriter(stagingTable, jobInstanceId, partitionIndex != null ? partitionIndex : 0,
+                sheetName != null ? sheetName : entryName, firstLine);
+    }
+
+    /**
+     * Defines the worker step of {@link ImportMode#STAGING} imports, which stores the rows of one partition in the
+     * staging table as they were read. Rows the reader cannot parse are skipped and reported as in the {@code insertWorkerStep}.
+     *
+     * @param jobRepository          the {@link JobRepository} for the job
+     * @param transactionManager     the {@link PlatformTransactionManager} for managing transactions
+     * @param importCompletionPolicy the policy deciding the chunk size of the import mode
+     * @param itemReader             the reader for the partition's {@link Transaction} objects
+     * @param stagingWriter          the writer storing the rows in the staging table
+     * @param importSkipListener     the listener recording skipped rows
+     * @return a configured {@link Step} staging transactions
+     */
+    @Bean
+    public Step stageWorkerStep(JobRepository jobRepository,
+                                PlatformTransactionManager transactionManager,
+                                SimpleCompletionPolicy importCompletionPolicy,
+                                ItemStreamReader<Transaction> itemReader,
+                                TransactionStagingWriter stagingWriter,
+                                TransactionImportSkipListener importSkipListener) {
+
+        return new StepBuilder(STAGE_WORKER_STEP_NAME, jobRepository)
+                .<Transaction, Transaction>chunk(importCompletionPolicy, transactionManager)
+                .reader(itemReader)
+                .writer(stagingWriter)
+                .faultTolerant()
+                .skip(Exception.class)
+                .skipLimit(1000)
+                .listener((SkipListener<? super Transaction, ? super Transaction>) importSkipListener)
+                .listener((StepExecutionListener) importSkipListener)
+                .build();
+    }
+
+    /**
+     * Defines the partition manager step of {@link ImportMode#STAGING} imports.
+     *
+     * @param jobRepository      the {@link JobRepository} for the job
+     * @param partitioner        the partitioner that splits the input file
+     * @param stageWorkerStep    the step executed for every partition
+     * @param importTaskExecutor the bounded executor running the workers
+     * @return a configured partitioned {@link Step}
+     */
+    @Bean
+    public Step stageStep(JobRepository jobRepository,
+                          TransactionFilePartitioner partitioner,
+                          Step stageWorkerStep,
+                          @Qualifier("importTaskExecutor") ThreadPoolTaskExecutor importTaskExecutor) {
+
+        return new StepBuilder(STAGE_STEP_NAME, jobRepository)
+                .partitioner(stageWorkerStep.getName(), partitioner)
+                .step(stageWorkerStep)
+                .taskExecutor(importTaskExecutor)
+                .build();
+    }
+
+    /**
+     * Defines the step validating the staging table of a {@link ImportMode#STAGING} import and merging it into
+     * {@code transactions}.
+     *
+     * @param jobRepository      the {@link JobRepository} for the job
+     * @param transactionManager the {@link PlatformTransactionManager} for managing transactions
+     * @return a {@link Step} running the {@link StagedTransactionMergeTasklet}
+     */
+    @Bean
+    public Step mergeStagedTransactionsStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
+        return new StepBuilder(MERGE_STEP_NAME, jobRepository)
+                .tasklet(new StagedTransactionMergeTasklet(stagingTable), transactionManager)
+                .build();
+    }
+
+    /**
+     * Defines the step syncing the transactions merged by a {@link ImportMode#STAGING} import to the reporting service.
+     *
+     * @param jobRepository      the {@link JobRepository} for the job
+     * @param transactionManager the {@link PlatformTransactionManager} for managing transactions
+     * @param reportingSyncQueue the queue of the reporting sync
+     * @return a {@link Step} running the {@link StagedTransactionSyncTasklet}
+     */
+    @Bean
+    public Step syncStagedTransactionsStep(JobRepository jobRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           ReportingSyncQueue reportingSyncQueue) {
+        return new StepBuilder("syncStagedTransactionsStep", jobRepository)
+                .tasklet(new StagedTransactionSyncTasklet(stagingTable, reportingSyncQueue), transactionManager)
+                .build();
+    }
+
+    /**
+     * Creates a {@link JobExecutionListener} that prepares and cleans up after the transaction import job.
      * <p>
-     * This listener deletes the input file after the job execution is complete.
+     * This listener deletes the input file once the job has completed. For streamed uploads it discards
+     * the upload pipe instead, which also releases the uploading request if the job stopped before reading everything.
+     * For {@link ImportMode#STAGING} imports other than dry runs it also creates the staging table before the job
+     * starts and drops it once the job has completed.
+     * </p>
+     * <p>
+     * The input file and staging table of a file import that failed or was stopped are kept, so the import can be
+     * restarted from its last commit. Its file is touched, and {@link TransactionImportService} deletes both once the
+     * file has not been touched for {@code transaction.import.failed-import-retention-hours}.
      * </p>
      *
-     * @param filePath the path to the input file (injected from job parameters)
+     * @param filePath   the path to the input file (injected from job parameters)
+     * @param uploadId   the id of the pipe of a streamed upload (injected from job parameters)
+     * @param importMode the import mode of the job (injected from job parameters)
+     * @param dryRun     whether the job only validates the file (injected from job parameters)
      * @return a {@link JobExecutionListener} for cleanup after job execution
      */
     @Bean
     @JobScope
-    public JobExecutionListener jobExecutionListener(@Value("#{jobParameters['filePath']}") String filePath) {
+    public JobExecutionListener jobExecutionListener(@Value("#{jobParameters['filePath']}") String filePath,
+                                                     @Value("#{jobParameters['uploadId']}") String uploadId,
+                                                     @Value("#{jobParameters['importMode']}") String importMode,
+                                                     @Value("#{jobParameters['dryRun']}") String dryRun) {
+        boolean staging = importMode(importMode) == ImportMode.STAGING && !Boolean.parseBoolean(dryRun);
+
         return new JobExecutionListener() {
             @Override
             public void beforeJob(JobExecution jobExecution) {
-                // No action required before the job starts.
+                if (staging) {
+                    stagingTable.create(jobExecution.getJobInstance().getInstanceId());
+                }
             }
 
             @Override
             public void afterJob(JobExecution jobExecution) {
+                if (uploadId != null) {
+                    uploadPipeRegistry.discard(uploadId);
+                }
+
+                boolean restartable = uploadId == null && jobExecution.getStatus() != BatchStatus.COMPLETED;
+                if (restartable) {
+                    if (filePath != null && new File(filePath).setLastModified(System.currentTimeMillis())) {
+                        logger.info("File from " + filePath + " kept to restart import " + jobExecution.getId() + ".");
+                    }
+                    return;
+                }
+
+                if (staging) {
+                    stagingTable.drop(jobExecution.getJobInstance().getInstanceId());
+                }
+                if (filePath == null) {
+                    return;
+                }
                 File file = new File(filePath);
                 if (file.delete()) {
                     logger.info("File from " + filePath + " deleted.");
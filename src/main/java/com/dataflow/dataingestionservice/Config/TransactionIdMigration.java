@@ -0,0 +1,75 @@
+package com.dataflow.dataingestionservice.Config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Converts the {@code transactions.id} column of existing databases from {@code VARCHAR(36)} to {@code BINARY(16)}.
+ * <p>
+ * Hibernate's schema update does not change the type of existing columns, so this runs once the schema has been
+ * updated and before the application starts serving requests. The ids keep their value: existing random UUIDs are
+ * converted with {@code UUID_TO_BIN} and are still returned as the same strings, only new ids are time-ordered.
+ * </p>
+ * <p>
+ * MySQL commits every {@code ALTER TABLE}, so each step checks which columns exist and a migration interrupted
+ * halfway is completed on the next start. Nothing is done when the column is already binary.
+ * </p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class TransactionIdMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIdMigration.class);
+
+    private static final String BINARY_ID_COLUMN = "id_bin";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionIdMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        String idType = columnType("id");
+
+        if ("varchar".equals(idType) || "char".equals(idType)) {
+            logger.info("Converting transactions.id to BINARY(16)");
+            if (columnType(BINARY_ID_COLUMN) == null) {
+                jdbcTemplate.execute("ALTER TABLE transactions ADD COLUMN " + BINARY_ID_COLUMN + " BINARY(16) NULL AFTER id");
+            }
+            jdbcTemplate.update("UPDATE transactions SET " + BINARY_ID_COLUMN + " = UUID_TO_BIN(id) " +
+                    "WHERE " + BINARY_ID_COLUMN + " IS NULL");
+            jdbcTemplate.execute("ALTER TABLE transactions DROP PRIMARY KEY, DROP COLUMN id");
+        } else if (idType != null && columnType(BINARY_ID_COLUMN) != null) {
+            // Interrupted after dropping the old column, and the schema update has added an empty one since
+            jdbcTemplate.execute("ALTER TABLE transactions DROP COLUMN id");
+        }
+
+        if (columnType(BINARY_ID_COLUMN) != null) {
+            jdbcTemplate.execute("ALTER TABLE transactions " +
+                    "CHANGE COLUMN " + BINARY_ID_COLUMN + " id BINARY(16) NOT NULL FIRST, " +
+                    "ADD PRIMARY KEY (id)");
+            logger.info("Converted transactions.id to BINARY(16)");
+        }
+    }
+
+    /**
+     * @return the data type of the column of {@code transactions}, or {@code null} if there is no such column
+     */
+    private String columnType(String column) {
+        List<String> types = jdbcTemplate.queryForList(
+                "SELECT LOWER(DATA_TYPE) FROM information_schema.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions' AND COLUMN_NAME = ?",
+                String.class,
+                column);
+        return types.isEmpty() ? null : types.get(0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Utils.DateTimeColumnParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads {@link Transaction}s from newline-delimited JSON ({@code .ndjson} or {@code .jsonl}), one JSON object per line.
+ * <p>
+ * Every line is parsed with Jackson's streaming {@link JsonParser}, so no tree or map is built. The fields of the
+ * object are mapped straight to the transaction fields, with the same names and conversions as
+ * {@link TransactionXmlItemReader}: {@code transactionDate}, {@code categoryName}, {@code description},
+ * {@code amount}, {@code currencyCode} and {@code paymentMode}, or their snake case forms. Amounts may be JSON numbers
+ * or strings; numbers are converted from their text, so no precision is lost. {@code null} values leave the field
+ * empty; other fields, nested objects included, are ignored. Blank lines are skipped.
+ * </p>
+ * <p>
+ * Only the line being read is held in memory. As every line stands on its own, a line that is not valid JSON, or holds
+ * a value that cannot be converted, is thrown as a {@link FlatFileParseException} with its line number, so the step can
+ * skip it and go on with the next one.
+ * </p>
+ */
+public class TransactionJsonItemReader extends AbstractItemCountingItemStreamItemReader<Transaction> {
+
+    /**
+     * The media type of a streamed NDJSON upload.
+     */
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Resource resource;
+    private final DateTimeColumnParser dateTimeParser;
+
+    private BufferedReader reader;
+    private int lineNumber;
+
+    /**
+     * @param resource       the NDJSON document, possibly a line-aligned byte range of the uploaded file
+     * @param formatDateTime the date-time format to be used for parsing date fields
+     */
+    public TransactionJsonItemReader(Resource resource, String formatDateTime) {
+        this.resource = resource;
+        this.dateTimeParser = new DateTimeColumnParser(formatDateTime);
+        setName(ClassUtils.getShortName(TransactionJsonItemReader.class));
+    }
+
+    /**
+     * Returns whether a file holds newline-delimited JSON, possibly compressed with gzip or Zstandard, judging by its
+     * name.
+     */
+    public static boolean isNdjson(String fileName) {
+        String name = fileName.toLowerCase().replaceFirst("\\.(gz|zst)$", "");
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        lineNumber = 0;
+    }
+
+    @Override
+    protected Transaction doRead() throws Exception {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (!line.isBlank()) {
+                return readTransaction(line);
+            }
+        }
+        return null;
+    }
+
+    private Transaction readTransaction(String line) {
+        Transaction transaction = new Transaction();
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Line is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                } else if (value != JsonToken.VALUE_NULL) {
+                    setField(transaction, name, parser.getText());
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after the JSON object");
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new FlatFileParseException("Parsing error at line: " + lineNumber + " in resource=["
+                    + resource.getDescription() + "], input=[" + line + "]", e, line, lineNumber);
+        }
+        return transaction;
+    }
+
+    private void setField(Transaction transaction, String name, String value) {
+        switch (name) {
+            case "transactionDate", "transaction_date" -> transaction.setTransactionDate(dateTimeParser.parse(value));
+            case "categoryName", "category" -> transaction.setCategoryName(value);
+            case "description" -> transaction.setDescription(value);
+            case "amount" -> transaction.setAmount(TransactionLineMapper.parseAmount(value));
+            case "currencyCode", "currency" -> transaction.setCurrencyCode(value);
+            case "paymentMode", "payment_mode" -> transaction.setPaymentMode(PaymentMethod.valueOf(value.trim().toUpperCase()));
+            default -> {
+                // Unknown fields are ignored
+            }
+        }
+    }
+
+    /**
+     * Skips the items read before a restart. Lines that could not be converted were already reported by the run that
+     * read them, so their errors are not thrown again.
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex; i++) {
+            try {
+                if (doRead() == null) {
+                    return;
+                }
+            } catch (FlatFileParseException e) {
+                // Skipped and reported before the restart
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (reader != null) {
+            try {
+                reader.close();
+            } finally {
+                reader = null;
+            }
+        }
+    }
+}
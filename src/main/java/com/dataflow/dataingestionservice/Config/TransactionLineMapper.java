@@ -0,0 +1,114 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.DateTimeColumnParser;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+
+import java.math.BigDecimal;
+
+/**
+ * A {@link LineMapper} for the fixed six-column transaction CSV layout:
+ * {@code transactionDate, categoryName, description, amount, currencyCode, paymentMode}.
+ * <p>
+ * Replaces the {@code DelimitedLineTokenizer}/{@code BeanWrapperFieldSetMapper} pair. Lines are scanned once and each
+ * field is set on the {@link Transaction} directly as soon as it has been sliced, without building a token list,
+ * a {@code FieldSet} or doing any bean introspection. Lines containing quote characters are rare, so they are
+ * tokenized by a {@link DelimitedLineTokenizer} to keep the exact quoting rules, and then mapped the same way.
+ * </p>
+ * <p>
+ * Field conversion follows the previous bean-wrapper mapping: missing trailing columns are treated as empty,
+ * extra columns are ignored, an empty amount maps to {@code null}, and an empty or invalid date or payment mode
+ * is rejected. The date format detected on the first rows is reused for the rest of the input.
+ * Any exception thrown here is wrapped in a {@code FlatFileParseException} by the reader.
+ * </p>
+ */
+public class TransactionLineMapper implements LineMapper<Transaction> {
+
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+    private static final int COLUMNS = 6;
+
+    private final DateTimeColumnParser dateTimeParser;
+    private final DelimitedLineTokenizer quotedLineTokenizer;
+
+    /**
+     * @param formatDateTime the date-time format to be used for parsing date fields
+     */
+    public TransactionLineMapper(String formatDateTime) {
+        this.dateTimeParser = new DateTimeColumnParser(formatDateTime);
+        this.quotedLineTokenizer = new DelimitedLineTokenizer(String.valueOf(DELIMITER));
+        this.quotedLineTokenizer.setStrict(false);
+    }
+
+    @Override
+    public Transaction mapLine(String line, int lineNumber) throws Exception {
+        Transaction transaction = new Transaction();
+
+        if (line.indexOf(QUOTE) >= 0) {
+            String[] values = quotedLineTokenizer.tokenize(line).getValues();
+            for (int column = 0; column < COLUMNS; column++) {
+                setField(transaction, column, column < values.length ? values[column] : "");
+            }
+            return transaction;
+        }
+
+        int start = 0;
+        int column = 0;
+        int length = line.length();
+        while (column < COLUMNS && start <= length) {
+            int end = line.indexOf(DELIMITER, start);
+            if (end < 0) {
+                end = length;
+            }
+            setField(transaction, column++, line.substring(start, end));
+            start = end + 1;
+        }
+        while (column < COLUMNS) {
+            setField(transaction, column++, "");
+        }
+        return transaction;
+    }
+
+    private void setField(Transaction transaction, int column, String value) {
+        switch (column) {
+            case 0 -> transaction.setTransactionDate(dateTimeParser.parse(value));
+            case 1 -> transaction.setCategoryName(value);
+            case 2 -> transaction.setDescription(value);
+            case 3 -> transaction.setAmount(parseAmount(value));
+            case 4 -> transaction.setCurrencyCode(value);
+            case 5 -> transaction.setPaymentMode(PaymentMethod.valueOf(value.toUpperCase()));
+            default -> throw new IllegalStateException("Unexpected column " + column);
+        }
+    }
+
+    /**
+     * Parses an amount the way Spring's {@code CustomNumberEditor} does: blank values map to {@code null}
+     * and all whitespace is ignored.
+     */
+    static BigDecimal parseAmount(String value) {
+        int length = value.length();
+        int whitespace = 0;
+        for (int i = 0; i < length; i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                whitespace++;
+            }
+        }
+        if (whitespace == length) {
+            return null;
+        }
+        if (whitespace == 0) {
+            return new BigDecimal(value);
+        }
+
+        StringBuilder trimmed = new StringBuilder(length - whitespace);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                trimmed.append(c);
+            }
+        }
+        return new BigDecimal(trimmed.toString());
+    }
+}
@@ -0,0 +1,194 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Utils.DateTimeColumnParser;
+import org.springframework.batch.core.step.skip.NonSkippableReadException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+
+/**
+ * Reads {@link Transaction}s from an XML export with a cursor-based StAX {@link XMLStreamReader}.
+ * <p>
+ * Every {@code <transaction>} element, at any depth, is one item. Its child elements are mapped straight to the
+ * transaction fields, with the same conversions as {@link TransactionLineMapper}: an empty amount maps to
+ * {@code null}, dates go through a shared {@link DateTimeColumnParser}, so {@code formatDateTime} is honoured, and
+ * payment modes are case-insensitive. The children may be named after the fields ({@code transactionDate},
+ * {@code categoryName}, {@code currencyCode}, {@code paymentMode}) or in snake case ({@code transaction_date},
+ * {@code category}, {@code currency}, {@code payment_mode}); other elements are ignored.
+ * </p>
+ * <p>
+ * Only the element being read is held in memory, so exports of any size are read in constant memory. A transaction
+ * with a value that cannot be converted is consumed entirely before a {@link FlatFileParseException} with its line
+ * number is thrown, so the step can skip it and go on with the next one. Malformed XML ends the read with a
+ * {@link NonSkippableReadException}, as the rest of the document cannot be trusted. DTDs and external entities are
+ * not resolved.
+ * </p>
+ */
+public class TransactionXmlItemReader extends AbstractItemCountingItemStreamItemReader<Transaction> {
+
+    private static final String TRANSACTION_ELEMENT = "transaction";
+
+    private final Resource resource;
+    private final DateTimeColumnParser dateTimeParser;
+
+    private InputStream inputStream;
+    private XMLStreamReader reader;
+
+    /**
+     * @param resource       the XML document
+     * @param formatDateTime the date-time format to be used for parsing date fields
+     */
+    public TransactionXmlItemReader(Resource resource, String formatDateTime) {
+        this.resource = resource;
+        this.dateTimeParser = new DateTimeColumnParser(formatDateTime);
+        setName(ClassUtils.getShortName(TransactionXmlItemReader.class));
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+        inputStream = new BufferedInputStream(resource.getInputStream(), 64 * 1024);
+        reader = factory.createXMLStreamReader(inputStream);
+    }
+
+    @Override
+    protected Transaction doRead() throws Exception {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && TRANSACTION_ELEMENT.equals(reader.getLocalName())) {
+                    return readTransaction();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new NonSkippableReadException("Malformed XML in " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Reads the children of the current {@code <transaction>} element, leaving the cursor on its end tag.
+     */
+    private Transaction readTransaction() throws XMLStreamException {
+        int lineNumber = reader.getLocation().getLineNumber();
+        Transaction transaction = new Transaction();
+        StringBuilder input = new StringBuilder();
+        RuntimeException failure = null;
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = reader.getLocalName();
+            String value = readText();
+
+            if (!input.isEmpty()) {
+                input.append(", ");
+            }
+            input.append(name).append('=').append(value);
+
+            if (failure == null) {
+                try {
+                    setField(transaction, name, value);
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw new FlatFileParseException("Parsing error at line: " + lineNumber + " in resource=["
+                    + resource.getDescription() + "], input=[" + input + "]", failure, input.toString(), lineNumber);
+        }
+        return transaction;
+    }
+
+    /**
+     * Returns the text of the current element, skipping any nested elements, and leaves the cursor on its end tag.
+     */
+    private String readText() throws XMLStreamException {
+        StringBuilder text = null;
+        String first = null;
+        int depth = 1;
+
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                    if (depth == 1) {
+                        if (first == null) {
+                            first = reader.getText();
+                        } else {
+                            if (text == null) {
+                                text = new StringBuilder(first);
+                            }
+                            text.append(reader.getText());
+                        }
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        return text != null ? text.toString() : first != null ? first : "";
+    }
+
+    private void setField(Transaction transaction, String name, String value) {
+        switch (name) {
+            case "transactionDate", "transaction_date" -> transaction.setTransactionDate(dateTimeParser.parse(value));
+            case "categoryName", "category" -> transaction.setCategoryName(value);
+            case "description" -> transaction.setDescription(value);
+            case "amount" -> transaction.setAmount(TransactionLineMapper.parseAmount(value));
+            case "currencyCode", "currency" -> transaction.setCurrencyCode(value);
+            case "paymentMode", "payment_mode" -> transaction.setPaymentMode(PaymentMethod.valueOf(value.trim().toUpperCase()));
+            default -> {
+                // Unknown elements are ignored
+            }
+        }
+    }
+
+    /**
+     * Skips the items read before a restart. Rows that could not be converted were already reported by the run that
+     * read them, so their errors are not thrown again.
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex; i++) {
+            try {
+                if (doRead() == null) {
+                    return;
+                }
+            } catch (FlatFileParseException e) {
+                // Skipped and reported before the restart
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } finally {
+            reader = null;
+            if (inputStream != null) {
+                inputStream.close();
+                inputStream = null;
+            }
+        }
+    }
+}
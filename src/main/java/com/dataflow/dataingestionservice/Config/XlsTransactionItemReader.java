@@ -0,0 +1,323 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.springframework.batch.core.step.skip.NonSkippableReadException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@link Transaction}s from a legacy Excel 97-2003 ({@code .xls}) workbook by pulling the BIFF8 records of its
+ * workbook stream one at a time, without building POI's {@link HSSFWorkbook}.
+ * <p>
+ * The cells of a row are collected until a cell of another row, or the end of the sheet, is reached. As in
+ * {@link XlsxTransactionItemReader}, all sheets are read in workbook order, or only the given one, the first row of each
+ * sheet is its header, empty rows are skipped and rows are mapped by {@link SpreadsheetRow}. Charts embedded in a sheet
+ * are substreams of their own, which are passed over. String cells refer to the shared strings
+ * record of the workbook, which BIFF8 stores before the sheets and which POI keeps on the heap; the rows themselves
+ * are never held in memory. Formula cells are read through their cached result.
+ * </p>
+ * <p>
+ * A row with a value that cannot be converted is thrown as a
+ * {@link org.springframework.batch.item.file.FlatFileParseException} with its row number, so the step can skip it.
+ * A workbook that cannot be read ends the read with a {@link NonSkippableReadException}.
+ * </p>
+ */
+public class XlsTransactionItemReader extends AbstractItemCountingItemStreamItemReader<Transaction> {
+
+    /**
+     * The cached result types reported by {@link FormulaRecord#getCachedResultType()}, the codes of the numeric and
+     * boolean cell types, as the enum no longer maps them.
+     */
+    private static final int NUMERIC_RESULT = 0;
+    private static final int BOOLEAN_RESULT = 4;
+
+    private final Resource resource;
+    private final String sheetName;
+    private final SpreadsheetRow row;
+
+    private POIFSFileSystem fileSystem;
+    private InputStream workbookStream;
+    private RecordFactoryInputStream records;
+
+    private SSTRecord sharedStrings;
+    private boolean date1904;
+    private final List<String> sheetNames = new ArrayList<>();
+    private int sheetIndex;
+    private boolean inSheet;
+    private boolean headerRead;
+
+    /**
+     * The nesting of the current substream: 1 in the workbook globals and in a sheet, 2 in a chart embedded in a sheet.
+     */
+    private int depth;
+
+    /**
+     * The 0-based index of the row being collected, or -1 if no cell has been read since the last row.
+     */
+    private int rowIndex;
+
+    /**
+     * The column of the string formula whose result is in the next {@link StringRecord}, or -1.
+     */
+    private int stringFormulaColumn;
+
+    /**
+     * The first record of the next row, read while looking for the end of the current one.
+     */
+    private Record pending;
+
+    /**
+     * @param resource       the workbook, which must be a file
+     * @param sheetName      the sheet to read, or {@code null} to read all sheets
+     * @param formatDateTime the date-time format of the date cells holding text
+     */
+    public XlsTransactionItemReader(Resource resource, String sheetName, String formatDateTime) {
+        this.resource = resource;
+        this.sheetName = sheetName;
+        this.row = new SpreadsheetRow(formatDateTime);
+        setName(ClassUtils.getShortName(XlsTransactionItemReader.class));
+    }
+
+    /**
+     * Returns the names of the worksheets of a workbook holding at least one row besides their header, in workbook
+     * order. The workbook stream is read once.
+     *
+     * @param file the workbook
+     * @return the names of the data sheets
+     * @throws IOException if the workbook cannot be read
+     */
+    public static List<String> findDataSheets(File file) throws IOException {
+        List<String> sheetNames = new ArrayList<>();
+        List<String> dataSheets = new ArrayList<>();
+
+        try (POIFSFileSystem fileSystem = new POIFSFileSystem(file, true);
+             InputStream in = fileSystem.createDocumentInputStream(HSSFWorkbook.getWorkbookDirEntryName(fileSystem.getRoot()))) {
+            RecordFactoryInputStream records = new RecordFactoryInputStream(in, false);
+            int depth = 0;
+            int sheet = -1;
+            int rows = 0;
+            int lastRow = -1;
+
+            Record record;
+            while ((record = records.nextRecord()) != null) {
+                if (record instanceof BoundSheetRecord boundSheet) {
+                    sheetNames.add(boundSheet.getSheetname());
+                } else if (record instanceof BOFRecord bof) {
+                    if (depth++ == 0 && bof.getType() != BOFRecord.TYPE_WORKBOOK) {
+                        sheet++;
+                        rows = 0;
+                        lastRow = -1;
+                    }
+                } else if (record instanceof EOFRecord) {
+                    depth--;
+                } else if (depth == 1 && sheet >= 0 && rows < 2 && hasValue(record)) {
+                    int cellRow = ((CellValueRecordInterface) record).getRow();
+                    if (cellRow != lastRow) {
+                        lastRow = cellRow;
+                        if (++rows == 2 && sheet < sheetNames.size()) {
+                            dataSheets.add(sheetNames.get(sheet));
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read the sheets of workbook " + file, e);
+        }
+        return dataSheets;
+    }
+
+    private static boolean hasValue(Record record) {
+        return record instanceof LabelSSTRecord || record instanceof NumberRecord || record instanceof FormulaRecord
+                || record instanceof BoolErrRecord || record instanceof LabelRecord;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        fileSystem = new POIFSFileSystem(resource.getFile(), true);
+        workbookStream = fileSystem.createDocumentInputStream(HSSFWorkbook.getWorkbookDirEntryName(fileSystem.getRoot()));
+        records = new RecordFactoryInputStream(workbookStream, false);
+
+        sheetNames.clear();
+        sheetIndex = -1;
+        depth = 0;
+        inSheet = false;
+        rowIndex = -1;
+        stringFormulaColumn = -1;
+        pending = null;
+    }
+
+    @Override
+    protected Transaction doRead() throws Exception {
+        while (true) {
+            Record record = nextRecord();
+            if (record == null) {
+                return rowIndex >= 0 ? endRow() : null;
+            }
+
+            if (record instanceof CellValueRecordInterface cell) {
+                if (!inSheet || depth != 1) {
+                    continue;
+                }
+                if (rowIndex >= 0 && cell.getRow() != rowIndex) {
+                    pending = record;
+                    Transaction transaction = endRow();
+                    if (transaction != null) {
+                        return transaction;
+                    }
+                    continue;
+                }
+                if (rowIndex < 0) {
+                    rowIndex = cell.getRow();
+                    row.reset(rowIndex + 1);
+                }
+                readCell(cell);
+            } else if (record instanceof StringRecord string) {
+                if (stringFormulaColumn >= 0) {
+                    row.setText(stringFormulaColumn, string.getString());
+                    stringFormulaColumn = -1;
+                }
+            } else if (record instanceof BOFRecord bof) {
+                if (depth++ == 0 && bof.getType() != BOFRecord.TYPE_WORKBOOK) {
+                    sheetIndex++;
+                    inSheet = bof.getType() == BOFRecord.TYPE_WORKSHEET
+                            && (sheetName == null || sheetName.equals(currentSheetName()));
+                    headerRead = false;
+                }
+            } else if (record instanceof EOFRecord) {
+                if (--depth == 0 && inSheet) {
+                    inSheet = false;
+                    if (rowIndex >= 0) {
+                        Transaction transaction = endRow();
+                        if (transaction != null) {
+                            return transaction;
+                        }
+                    }
+                }
+            } else if (record instanceof SSTRecord sst) {
+                sharedStrings = sst;
+            } else if (record instanceof BoundSheetRecord boundSheet) {
+                sheetNames.add(boundSheet.getSheetname());
+            } else if (record instanceof DateWindow1904Record window) {
+                date1904 = window.getWindowing() == 1;
+            }
+        }
+    }
+
+    private Record nextRecord() {
+        if (pending != null) {
+            Record record = pending;
+            pending = null;
+            return record;
+        }
+        try {
+            return records.nextRecord();
+        } catch (RuntimeException e) {
+            throw new NonSkippableReadException("Malformed workbook " + resource.getDescription(), e);
+        }
+    }
+
+    private void readCell(CellValueRecordInterface cell) {
+        int column = cell.getColumn();
+        if (column >= SpreadsheetRow.COLUMNS) {
+            return;
+        }
+
+        if (cell instanceof LabelSSTRecord label) {
+            row.setText(column, sharedStrings.getString(label.getSSTIndex()).getString());
+        } else if (cell instanceof NumberRecord number) {
+            row.setNumber(column, number.getValue());
+        } else if (cell instanceof FormulaRecord formula) {
+            if (formula.hasCachedResultString()) {
+                stringFormulaColumn = column;
+            } else if (formula.getCachedResultType() == BOOLEAN_RESULT) {
+                row.setBoolean(column, formula.getCachedBooleanValue());
+            } else if (formula.getCachedResultType() == NUMERIC_RESULT) {
+                row.setNumber(column, formula.getValue());
+            }
+        } else if (cell instanceof BoolErrRecord boolErr) {
+            if (boolErr.isBoolean()) {
+                row.setBoolean(column, boolErr.getBooleanValue());
+            }
+        } else if (cell instanceof LabelRecord label) {
+            row.setText(column, label.getValue());
+        }
+    }
+
+    /**
+     * Ends the row being collected, returning its transaction, or {@code null} for a header or empty row.
+     */
+    private Transaction endRow() {
+        rowIndex = -1;
+        stringFormulaColumn = -1;
+        if (row.isEmpty()) {
+            return null;
+        }
+        if (!headerRead) {
+            headerRead = true;
+            return null;
+        }
+        return row.toTransaction(date1904, "sheet [" + currentSheetName() + "] of " + resource.getDescription());
+    }
+
+    private String currentSheetName() {
+        return sheetIndex < sheetNames.size() ? sheetNames.get(sheetIndex) : Integer.toString(sheetIndex);
+    }
+
+    /**
+     * Skips the items read before a restart. Rows that could not be converted were already reported by the run that
+     * read them, so their errors are not thrown again.
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex; i++) {
+            try {
+                if (doRead() == null) {
+                    return;
+                }
+            } catch (FlatFileParseException e) {
+                // Skipped and reported before the restart
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        records = null;
+        sharedStrings = null;
+        try {
+            if (workbookStream != null) {
+                workbookStream.close();
+            }
+        } finally {
+            workbookStream = null;
+            if (fileSystem != null) {
+                fileSystem.close();
+                fileSystem = null;
+            }
+        }
+    }
+}
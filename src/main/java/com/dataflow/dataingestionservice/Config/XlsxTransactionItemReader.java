@@ -0,0 +1,440 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.SharedStringStore;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.springframework.batch.core.step.skip.NonSkippableReadException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@link Transaction}s from an Excel 2007+ ({@code .xlsx}) workbook with StAX cursors over the XML parts of
+ * the package, without building POI's user model.
+ * <p>
+ * The shared strings table is read once into a {@link SharedStringStore}, which moves it to a temporary file once it
+ * takes more than {@code sharedStringsMemoryLimit} bytes, so workbooks with millions of distinct strings are read
+ * within a fixed heap. The sheets are then read one row at a time. All sheets are read in workbook order, or only the
+ * given one when the workbook is split into one partition per sheet; every partition then loads its own shared strings.
+ * The first row of each sheet is its header. Empty rows are skipped.
+ * </p>
+ * <p>
+ * Rows are mapped by {@link SpreadsheetRow}. A row with a value that cannot be converted is thrown as a
+ * {@link org.springframework.batch.item.file.FlatFileParseException} with its row number, so the step can skip it.
+ * A package that cannot be read ends the read with a {@link NonSkippableReadException}.
+ * </p>
+ */
+public class XlsxTransactionItemReader extends AbstractItemCountingItemStreamItemReader<Transaction> {
+
+    private final Resource resource;
+    private final String sheetName;
+    private final long sharedStringsMemoryLimit;
+    private final SpreadsheetRow row;
+
+    private final XMLInputFactory factory = inputFactory();
+
+    private OPCPackage workbookPackage;
+    private SharedStringStore sharedStrings;
+    private XSSFReader.SheetIterator sheets;
+    private boolean date1904;
+
+    private String currentSheetName;
+    private InputStream sheetStream;
+    private XMLStreamReader sheet;
+    private boolean headerRead;
+
+    /**
+     * @param resource                 the workbook, which must be a file
+     * @param sheetName                the sheet to read, or {@code null} to read all sheets
+     * @param formatDateTime           the date-time format of the date cells holding text
+     * @param sharedStringsMemoryLimit the number of shared string bytes kept on the heap
+     */
+    public XlsxTransactionItemReader(Resource resource, String sheetName, String formatDateTime, long sharedStringsMemoryLimit) {
+        this.resource = resource;
+        this.sheetName = sheetName;
+        this.sharedStringsMemoryLimit = sharedStringsMemoryLimit;
+        this.row = new SpreadsheetRow(formatDateTime);
+        setName(ClassUtils.getShortName(XlsxTransactionItemReader.class));
+    }
+
+    /**
+     * Returns the names of the sheets of a workbook holding at least one row besides their header, in workbook order.
+     * Every sheet is only read up to its second row with a value.
+     *
+     * @param file the workbook
+     * @return the names of the data sheets
+     * @throws IOException if the workbook cannot be read
+     */
+    public static List<String> findDataSheets(File file) throws IOException {
+        XMLInputFactory factory = inputFactory();
+        List<String> dataSheets = new ArrayList<>();
+        OPCPackage workbookPackage;
+        try {
+            workbookPackage = OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Failed to open workbook " + file, e);
+        }
+
+        try {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(workbookPackage).getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream in = sheets.next()) {
+                    if (countRowsWithValues(factory, in, 2) == 2) {
+                        dataSheets.add(sheets.getSheetName());
+                    }
+                }
+            }
+        } catch (OpenXML4JException | XMLStreamException e) {
+            throw new IOException("Failed to read the sheets of workbook " + file, e);
+        } finally {
+            workbookPackage.revert();
+        }
+        return dataSheets;
+    }
+
+    /**
+     * Counts the {@code <row>} elements of a sheet with at least one cell value, up to {@code limit}.
+     */
+    private static int countRowsWithValues(XMLInputFactory factory, InputStream sheet, int limit) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(sheet);
+        try {
+            int rows = 0;
+            boolean rowHasValue = false;
+            while (rows < limit && reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        switch (reader.getLocalName()) {
+                            case "row" -> rowHasValue = false;
+                            case "v", "is" -> rowHasValue = true;
+                            default -> {
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        if (rowHasValue && "row".equals(reader.getLocalName())) {
+                            rows++;
+                            rowHasValue = false;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+            return rows;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static XMLInputFactory inputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        workbookPackage = OPCPackage.open(resource.getFile(), PackageAccess.READ);
+        XSSFReader reader = new XSSFReader(workbookPackage);
+
+        try (InputStream workbook = reader.getWorkbookData()) {
+            date1904 = readDate1904(workbook);
+        }
+
+        sharedStrings = new SharedStringStore(sharedStringsMemoryLimit);
+        for (PackagePart part : workbookPackage.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType())) {
+            try (InputStream in = part.getInputStream()) {
+                readSharedStrings(in);
+            }
+        }
+        sharedStrings.seal();
+
+        sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+    }
+
+    @Override
+    protected Transaction doRead() throws Exception {
+        try {
+            while (true) {
+                if (sheet == null) {
+                    if (!sheets.hasNext()) {
+                        return null;
+                    }
+                    sheetStream = sheets.next();
+                    currentSheetName = sheets.getSheetName();
+                    if (sheetName != null && !sheetName.equals(currentSheetName)) {
+                        sheetStream.close();
+                        sheetStream = null;
+                        continue;
+                    }
+                    sheet = factory.createXMLStreamReader(sheetStream);
+                    headerRead = false;
+                }
+
+                if (!readRow()) {
+                    closeSheet();
+                } else if (!row.isEmpty()) {
+                    if (headerRead) {
+                        return row.toTransaction(date1904, "sheet [" + currentSheetName + "] of " + resource.getDescription());
+                    }
+                    headerRead = true;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new NonSkippableReadException("Malformed sheet [" + currentSheetName + "] in " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Reads the next {@code <row>} of the current sheet into {@link #row}.
+     *
+     * @return {@code false} at the end of the sheet
+     */
+    private boolean readRow() throws XMLStreamException {
+        while (true) {
+            if (!sheet.hasNext()) {
+                return false;
+            }
+            if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                break;
+            }
+        }
+
+        String rowReference = sheet.getAttributeValue(null, "r");
+        row.reset(rowReference != null ? Integer.parseInt(rowReference) : row.getRowNumber() + 1);
+
+        int column = -1;
+        while (sheet.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            // Cells are <c> elements; anything else in a row (e.g. extension lists) is skipped
+            if (!"c".equals(sheet.getLocalName())) {
+                skipElement();
+                continue;
+            }
+            String reference = null;
+            String type = null;
+            for (int i = 0; i < sheet.getAttributeCount(); i++) {
+                switch (sheet.getAttributeLocalName(i)) {
+                    case "r" -> reference = sheet.getAttributeValue(i);
+                    case "t" -> type = sheet.getAttributeValue(i);
+                    default -> {
+                    }
+                }
+            }
+            column = reference != null ? columnIndex(reference) : column + 1;
+            if (column < SpreadsheetRow.COLUMNS) {
+                readCell(column, type);
+            } else {
+                skipElement();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the current {@code <c>} element into {@link #row}, leaving the cursor on its end tag.
+     */
+    private void readCell(int column, String type) throws XMLStreamException {
+        String value = null;
+        String inlineString = null;
+
+        while (sheet.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (sheet.getLocalName()) {
+                case "v" -> value = sheet.getElementText();
+                case "is" -> inlineString = readStringItem(sheet);
+                default -> skipElement();
+            }
+        }
+
+        if ("inlineStr".equals(type)) {
+            row.setText(column, inlineString);
+        } else if (value == null) {
+            // A cell without a value only carries a style
+        } else if ("s".equals(type)) {
+            row.setText(column, sharedStrings.get(Integer.parseInt(value.trim())));
+        } else if ("b".equals(type)) {
+            row.setBoolean(column, "1".equals(value.trim()));
+        } else if ("str".equals(type) || "e".equals(type)) {
+            row.setText(column, value);
+        } else {
+            row.setNumber(column, value.trim());
+        }
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            switch (sheet.next()) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the column letters of a cell reference such as {@code AB12} to a 0-based column index.
+     */
+    static int columnIndex(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private void readSharedStrings(InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(in);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "si".equals(reader.getLocalName())) {
+                    sharedStrings.add(readStringItem(reader));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Returns the text of a string item ({@code <si>} or {@code <is>}): the concatenated {@code <t>} elements of its
+     * runs, without the phonetic guides ({@code <rPh>}). Leaves the cursor on the end tag of the item.
+     */
+    private static String readStringItem(XMLStreamReader reader) throws XMLStreamException {
+        String first = null;
+        StringBuilder text = null;
+        int depth = 1;
+        int phoneticDepth = 0;
+
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    depth++;
+                    if (phoneticDepth > 0 || "rPh".equals(reader.getLocalName())) {
+                        phoneticDepth++;
+                    } else if ("t".equals(reader.getLocalName())) {
+                        String value = reader.getElementText();
+                        depth--;
+                        if (first == null) {
+                            first = value;
+                        } else {
+                            if (text == null) {
+                                text = new StringBuilder(first);
+                            }
+                            text.append(value);
+                        }
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    depth--;
+                    if (phoneticDepth > 0) {
+                        phoneticDepth--;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        return text != null ? text.toString() : first != null ? first : "";
+    }
+
+    private boolean readDate1904(InputStream workbook) throws XMLStreamException {
+        XMLStreamReader reader = factory.createXMLStreamReader(workbook);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "workbookPr" -> {
+                            String date1904 = reader.getAttributeValue(null, "date1904");
+                            return "1".equals(date1904) || "true".equalsIgnoreCase(date1904);
+                        }
+                        case "sheets" -> {
+                            // workbookPr comes before the sheet list
+                            return false;
+                        }
+                        default -> {
+                        }
+                    }
+                }
+            }
+            return false;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void closeSheet() throws Exception {
+        try {
+            if (sheet != null) {
+                sheet.close();
+            }
+        } finally {
+            sheet = null;
+            if (sheetStream != null) {
+                sheetStream.close();
+                sheetStream = null;
+            }
+        }
+    }
+
+    /**
+     * Skips the items read before a restart. Rows that could not be converted were already reported by the run that
+     * read them, so their errors are not thrown again.
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex; i++) {
+            try {
+                if (doRead() == null) {
+                    return;
+                }
+            } catch (FlatFileParseException e) {
+                // Skipped and reported before the restart
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        try {
+            closeSheet();
+        } finally {
+            sheets = null;
+            try {
+                if (sharedStrings != null) {
+                    sharedStrings.close();
+                    sharedStrings = null;
+                }
+            } finally {
+                if (workbookPackage != null) {
+                    workbookPackage.revert();
+                    workbookPackage = null;
+                }
+            }
+        }
+    }
+}
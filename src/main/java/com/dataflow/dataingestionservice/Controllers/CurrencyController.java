@@ -4,17 +4,23 @@ package com.dataflow.dataingestionservice.Controllers;
 import com.dataflow.dataingestionservice.Config.TransactionBatchConfig;
 import com.dataflow.dataingestionservice.DTO.CurrencyDTO;
 import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Errors.ServiceBusyException;
 import com.dataflow.dataingestionservice.Services.CurrencyService;
+import com.dataflow.dataingestionservice.Services.TransactionImportService;
+import com.dataflow.dataingestionservice.Utils.UploadPipeRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -27,13 +33,22 @@ public class CurrencyController {
     private static final List<String> ALLOWED_EXTENSIONS = List.of("csv");
     private static final Logger logger = LoggerFactory.getLogger(TransactionBatchConfig.class);
     private final JobLauncher jobLauncher;
+    private final JobLauncher asyncJobLauncher;
+    private final ThreadPoolTaskExecutor importLauncherExecutor;
     private final Job job;
     private final CurrencyService currencyService;
+    private final UploadPipeRegistry uploadPipeRegistry;
 
-    public CurrencyController(JobLauncher jobLauncher, @Qualifier("currencyInsertJob") Job job, CurrencyService currencyService) {
+    public CurrencyController(JobLauncher jobLauncher, @Qualifier("asyncJobLauncher") JobLauncher asyncJobLauncher,
+                              @Qualifier("importLauncherExecutor") ThreadPoolTaskExecutor importLauncherExecutor,
+                              @Qualifier("currencyInsertJob") Job job, CurrencyService currencyService,
+                              UploadPipeRegistry uploadPipeRegistry) {
         this.jobLauncher = jobLauncher;
+        this.asyncJobLauncher = asyncJobLauncher;
+        this.importLauncherExecutor = importLauncherExecutor;
         this.job = job;
         this.currencyService=currencyService;
+        this.uploadPipeRegistry = uploadPipeRegistry;
     }
     @PostMapping("/currency/upload")
     public ResponseEntity<String> importCurrencies(@RequestParam("file") MultipartFile file) throws Exception {
@@ -67,6 +82,41 @@ public class CurrencyController {
         return ResponseEntity.ok("File uploaded and job started.");
     }
 
+    /**
+     * Imports currencies from a CSV sent as the raw request body. The job reads the body while it is
+     * being received instead of waiting for a temporary copy on disk. The upload is refused unless a launcher thread
+     * is free to start reading it right away.
+     */
+    @PostMapping(value = "/currency/upload/stream", consumes = "text/csv")
+    public ResponseEntity<String> streamCurrencies(HttpServletRequest request) throws Exception {
+        if (!TransactionImportService.hasIdleThread(importLauncherExecutor)) {
+            throw new ServiceBusyException("Too many imports in progress.");
+        }
+
+        String uploadId = uploadPipeRegistry.open();
+
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("uploadId", uploadId)
+                .toJobParameters();
+
+        JobExecution jobExecution;
+        try {
+            jobExecution = asyncJobLauncher.run(job, jobParameters);
+        } catch (Exception e) {
+            uploadPipeRegistry.discard(uploadId);
+            throw e;
+        }
+
+        if (TransactionImportService.wasRejected(jobExecution)) {
+            uploadPipeRegistry.discard(uploadId);
+            throw new ServiceBusyException("Too many imports in progress.");
+        }
+
+        uploadPipeRegistry.transfer(uploadId, request.getInputStream());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body("File uploaded and job started.");
+    }
+
     @GetMapping("/currency")
     public List<Currency> getCurrencies(){
         return currencyService.getCurrencies();
@@ -1,44 +1,47 @@
 package com.dataflow.dataingestionservice.Controllers;
 
 import com.dataflow.dataingestionservice.Config.TransactionBatchConfig;
-import com.dataflow.dataingestionservice.DTO.ImportErrorRowDTO;
+import com.dataflow.dataingestionservice.Config.TransactionJsonItemReader;
 import com.dataflow.dataingestionservice.DTO.ImportResultDTO;
+import com.dataflow.dataingestionservice.DTO.ImportStatusDTO;
 import com.dataflow.dataingestionservice.DTO.TransactionDTO;
 import com.dataflow.dataingestionservice.DTO.TransactionFilter;
 import com.dataflow.dataingestionservice.DTO.UpdateTransactionDTO;
-import com.dataflow.dataingestionservice.Errors.UpstreamServiceException;
 import com.dataflow.dataingestionservice.Models.Transaction;
 import com.dataflow.dataingestionservice.Services.ImportErrorReportService;
+import com.dataflow.dataingestionservice.Services.TransactionExportService;
+import com.dataflow.dataingestionservice.Services.TransactionImportService;
+import com.dataflow.dataingestionservice.Services.TransactionImportService.StoredUpload;
 import com.dataflow.dataingestionservice.Services.TransactionService;
+import com.dataflow.dataingestionservice.Utils.Constants.ImportMode;
 import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
 import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
 import com.dataflow.dataingestionservice.Utils.SecurityUtils;
-import com.dataflow.dataingestionservice.Utils.TransactionImportSkipListener;
+import com.dataflow.dataingestionservice.Utils.TransactionParquetWriter;
+import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.io.FilenameUtils;
-import org.springframework.batch.core.BatchStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.batch.core.Job;
-import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.StepExecution;
-import org.springframework.batch.core.launch.JobLauncher;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 
@@ -48,6 +51,10 @@ import java.util.Objects;
  * This controller provides endpoints to:
  * <ul>
  *     <li>Upload a transaction file (CSV/Excel), which creates a temporary file and launches a Spring Batch job.</li>
+ *     <li>Poll the status and result of an upload that was started asynchronously.</li>
+ *     <li>Restart a failed upload from its last committed chunk.</li>
+ *     <li>Download the report of the rows an upload could not import.</li>
+ *     <li>Export the current user's transactions to a Parquet file.</li>
  *     <li>Submit a list of {@link Transaction} objects for direct persistence.</li>
  * </ul>
  * Input is validated and sanitized; descriptive responses are returned when errors occur.
@@ -60,28 +67,29 @@ public class TransactionController {
     private static final Logger logger = LoggerFactory.getLogger(TransactionBatchConfig.class);
 
     // List of allowed file extensions.
-    private static final List<String> ALLOWED_EXTENSIONS = List.of("csv", "xlsx", "xls", "xml");
+    private static final List<String> ALLOWED_EXTENSIONS = List.of("csv", "xlsx", "xls", "xml", "ndjson", "jsonl", "parquet", "zip");
+
+    // Compressions of a single file, whose own extension comes before theirs
+    private static final List<String> COMPRESSED_EXTENSIONS = List.of("gz", "zst");
+    private static final List<String> COMPRESSIBLE_EXTENSIONS = List.of("csv", "xml", "ndjson", "jsonl");
 
     private final TransactionService transactionService;
-    private final ImportErrorReportService importErrorReportService;
-    private final JobLauncher jobLauncher;
-    private final Job job;
+    private final TransactionImportService transactionImportService;
+    private final TransactionExportService transactionExportService;
 
     /**
      * Constructs a new TransactionController.
      *
-     * @param jobLauncher        the {@link JobLauncher} used to launch batch jobs
-     * @param job                the {@link Job} that processes the transaction file
-     * @param transactionService the service used to save transactions directly
+     * @param transactionService       the service used to save transactions directly
+     * @param transactionImportService the service used to launch and monitor import jobs
+     * @param transactionExportService the service used to export transactions to files
      */
-    public TransactionController(JobLauncher jobLauncher,
-                                 @Qualifier("transactionJob") Job job,
-                                 TransactionService transactionService,
-                                 ImportErrorReportService importErrorReportService) {
-        this.jobLauncher = jobLauncher;
-        this.job = job;
+    public TransactionController(TransactionService transactionService,
+                                 TransactionImportService transactionImportService,
+                                 TransactionExportService transactionExportService) {
         this.transactionService = transactionService;
-        this.importErrorReportService = importErrorReportService;
+        this.transactionImportService = transactionImportService;
+        this.transactionExportService = transactionExportService;
     }
 
     /**
@@ -90,15 +98,53 @@ public class TransactionController {
      * The endpoint expects a multipart file parameter named "file" and an optional "formatDateTime"
      * parameter (e.g., "ISO", "YYYY-MM-DD HH:mm:ss") for parsing date fields.
      * The file is validated for presence, non-emptiness, and acceptable extension.
+     * Newline-delimited JSON files ({@code .ndjson} or {@code .jsonl}) hold one transaction object per line, with the
+     * field names of {@link TransactionDTO}.
+     * Parquet files are read column by column; the columns are named like the fields of {@link TransactionDTO}, and
+     * other columns are ignored.
+     * CSV, NDJSON and Parquet files can be imported in parallel by passing the number of "partitions" to split them
+     * into; Parquet files are split between their row groups.
+     * Very large files can be written with MySQL's bulk loader by passing {@code mode=BULK_LOAD}.
+     * </p>
+     * <p>
+     * CSV, XML and NDJSON files can be uploaded compressed with gzip or Zstandard, as in {@code statement.csv.gz} or
+     * {@code statement.csv.zst}, and several of them in a {@code .zip} archive. They are decompressed while they are
+     * read; every file of an archive is imported by its own partition.
+     * </p>
+     * <p>
+     * With {@code async=true} the job is queued and {@code 202 Accepted} is returned right away with the job
+     * execution id; progress and the final {@link ImportResultDTO} are then available from
+     * {@code GET /api/income/upload/{executionId}}.
+     * </p>
+     * <p>
+     * A file the user already imported, with the same date-time format, is not imported again: the result of the
+     * completed import is returned, with {@code 200 OK} also in async mode. Pass {@code force=true} to import it anyway;
+     * rows equal to the stored transactions are still left out.
+     * </p>
+     * <p>
+     * With {@code dryRun=true} the file is only validated: it is read, converted and its currencies and categories
+     * resolved in parallel, one partition per worker thread unless "partitions" is given, but nothing is written or
+     * synced to the reporting service. The {@link ImportResultDTO} counts the rows an import would write and links
+     * the report of the rows it would fail on. Dry runs are never taken for imports of the file.
      * </p>
      *
      * @param file           the uploaded file containing transaction data
      * @param formatDateTime an optional date-time format string
-     * @return a {@link ResponseEntity} with a success message or an error message describing the issue
+     * @param partitions     an optional number of partitions processed in parallel (CSV, NDJSON and Parquet only)
+     * @param mode           how the rows are written to the database
+     * @param async          whether to return before the import has finished
+     * @param force          whether to import a file that was already imported
+     * @param dryRun         whether to only validate the file
+     * @return a {@link ResponseEntity} with the import result, or the import status in async mode
      */
     @PostMapping("/income/upload")
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file,
-                                        @RequestParam(value = "formatDateTime", required = false) String formatDateTime) throws Exception {
+                                        @RequestParam(value = "formatDateTime", required = false) String formatDateTime,
+                                        @RequestParam(value = "partitions", required = false) Integer partitions,
+                                        @RequestParam(value = "mode", defaultValue = "CHUNK") ImportMode mode,
+                                        @RequestParam(value = "async", defaultValue = "false") boolean async,
+                                        @RequestParam(value = "force", defaultValue = "false") boolean force,
+                                        @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun) throws Exception {
         // Validate that the file is present and not empty
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is missing or empty.");
@@ -109,87 +155,175 @@ public class TransactionController {
             throw new IllegalArgumentException("Invalid file name.");
         }
 
-        // Validate file extension
+        // Validate file extension, keeping the extension of a compressed file's content
         String extension = FilenameUtils.getExtension(originalFilename).toLowerCase();
-        if (!ALLOWED_EXTENSIONS.contains(extension)) {
+        if (COMPRESSED_EXTENSIONS.contains(extension)) {
+            String contentExtension = FilenameUtils.getExtension(FilenameUtils.getBaseName(originalFilename)).toLowerCase();
+            if (!COMPRESSIBLE_EXTENSIONS.contains(contentExtension)) {
+                throw new IllegalArgumentException("Unsupported file extension.");
+            }
+            extension = contentExtension + "." + extension;
+        } else if (!ALLOWED_EXTENSIONS.contains(extension)) {
             throw new IllegalArgumentException("Unsupported file extension.");
         }
 
-        // Create a temporary file with the proper extension
-        File tempFile = File.createTempFile("upload-", "." + extension);
-        file.transferTo(tempFile);
-
-        // Build job parameters
-        JobParameters jobParameters = new JobParametersBuilder()
-                .addString("filePath", tempFile.getAbsolutePath())
-                .addString("formatDateTime", Objects.requireNonNullElse(formatDateTime, ""))
-                .toJobParameters();
-
-        JobExecution jobExecution = jobLauncher.run(job, jobParameters);
-
-        if (jobExecution.getStatus() == BatchStatus.FAILED) {
-            throw new UpstreamServiceException("File processing failed.");
+        if (partitions != null && partitions < 1) {
+            throw new IllegalArgumentException("Partition count must be positive.");
         }
 
-        int importedRows = Math.toIntExact(jobExecution.getStepExecutions()
-                .stream()
-                .mapToLong(StepExecution::getWriteCount)
-                .sum());
-
-        List<ImportErrorRowDTO> errors = getImportErrors(jobExecution);
-        int skippedRows = Math.toIntExact(jobExecution.getStepExecutions()
-                .stream()
-                .mapToLong(step -> step.getReadSkipCount() + step.getProcessSkipCount() + step.getWriteSkipCount())
-                .sum());
-
-        if (errors.isEmpty() && skippedRows > 0) {
-            errors.add(new ImportErrorRowDTO(
-                    null,
-                    "IMPORT",
-                    "Some rows were skipped during import. Check the service logs for detailed row-level errors.",
-                    ""
-            ));
+        // Store the upload with the proper extension until the import has completed, fingerprinting its content
+        StoredUpload upload;
+        try (InputStream in = file.getInputStream()) {
+            upload = transactionImportService.storeUpload(in, extension);
         }
 
-        int failedRows = skippedRows > 0 ? skippedRows : errors.size();
-
-        String errorReportFileName = null;
-        String errorReportBase64 = null;
+        // Build job parameters. The user id travels with the job, as workers do not see the request's security context.
+        JobParametersBuilder parametersBuilder = new JobParametersBuilder()
+                .addString("filePath", upload.file().getAbsolutePath())
+                .addString("formatDateTime", Objects.requireNonNullElse(formatDateTime, ""))
+                .addString("userId", SecurityUtils.getCurrentUserUuid())
+                .addString("importMode", mode.name());
+        if (dryRun) {
+            // Without a fingerprint, a dry run is neither answered by nor taken for an import of the file
+            parametersBuilder.addString("dryRun", Boolean.TRUE.toString());
+        } else {
+            parametersBuilder.addString(TransactionImportService.FINGERPRINT_PARAMETER, upload.sha256(), false);
+        }
+        if (partitions != null) {
+            parametersBuilder.addLong("partitions", partitions.longValue());
+        }
+        JobParameters jobParameters = parametersBuilder.toJobParameters();
 
-        if (failedRows > 0) {
-            String report = importErrorReportService.toCsv(errors);
-            errorReportFileName = "transaction-import-errors.csv";
-            errorReportBase64 = Base64.getEncoder()
-                    .encodeToString(report.getBytes(StandardCharsets.UTF_8));
+        if (async) {
+            ImportStatusDTO status = transactionImportService.startImport(jobParameters, !force);
+            if (BatchStatus.COMPLETED.name().equals(status.status())) {
+                return ResponseEntity.ok(status);
+            }
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/income/upload/" + status.executionId()))
+                    .body(status);
         }
 
-        String message = failedRows == 0
-                ? "File imported successfully."
-                : "File imported with skipped rows.";
+        return ResponseEntity.ok(transactionImportService.runImport(jobParameters, !force));
+    }
 
-        return ResponseEntity.ok(new ImportResultDTO(
-                message,
-                importedRows,
-                failedRows,
-                errorReportFileName,
-                errorReportBase64
-        ));
+    /**
+     * Imports a CSV or NDJSON file sent as the raw request body, without spooling it to disk first.
+     * <p>
+     * The import job starts while the body is still being received and reads it through a bounded in-memory pipe,
+     * so upload and parsing overlap. The response is {@code 202 Accepted} once the whole body has been received;
+     * progress and the result are available from {@code GET /api/income/upload/{executionId}}.
+     * </p>
+     * <p>
+     * The body is read as CSV for {@code Content-Type: text/csv} and as newline-delimited JSON for
+     * {@code Content-Type: application/x-ndjson}. Unlike {@code POST /api/income}, the transactions are never all held
+     * in memory: they go through the chunked import job as they arrive.
+     * </p>
+     *
+     * @param request        the request whose body contains the CSV file, header line included, or the NDJSON lines
+     * @param formatDateTime an optional date-time format string
+     * @param mode           how the rows are written to the database
+     * @return a {@link ResponseEntity} with the import status
+     */
+    @PostMapping(value = "/income/upload/stream", consumes = {"text/csv", TransactionJsonItemReader.MEDIA_TYPE})
+    public ResponseEntity<ImportStatusDTO> streamFile(HttpServletRequest request,
+                                                      @RequestParam(value = "formatDateTime", required = false) String formatDateTime,
+                                                      @RequestParam(value = "mode", defaultValue = "CHUNK") ImportMode mode) throws Exception {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        JobParametersBuilder parametersBuilder = new JobParametersBuilder()
+                .addString("formatDateTime", Objects.requireNonNullElse(formatDateTime, ""))
+                .addString("userId", SecurityUtils.getCurrentUserUuid())
+                .addString("importMode", mode.name())
+                // Without its parameters, such as the charset
+                .addString("contentType", contentType.getType() + "/" + contentType.getSubtype());
+
+        ImportStatusDTO status = transactionImportService.startStreamingImport(parametersBuilder, request.getInputStream());
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/income/upload/" + status.executionId()))
+                .body(status);
     }
 
-    @SuppressWarnings("unchecked")
-    private List<ImportErrorRowDTO> getImportErrors(JobExecution jobExecution) {
-        List<ImportErrorRowDTO> errors = new ArrayList<>();
+    /**
+     * Returns the progress of an import started through {@code /income/upload}.
+     * <p>
+     * The read, write and skip counts are updated after every committed chunk. Once the job has completed,
+     * the response also contains the {@link ImportResultDTO}.
+     * </p>
+     *
+     * @param executionId the job execution id returned by the upload
+     * @return the {@link ImportStatusDTO} of the import
+     */
+    @GetMapping("/income/upload/{executionId}")
+    public ResponseEntity<ImportStatusDTO> getUploadStatus(@PathVariable Long executionId) {
+        return ResponseEntity.ok(transactionImportService.getStatus(executionId, SecurityUtils.getCurrentUserUuid()));
+    }
 
-        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
-            Object value = stepExecution.getExecutionContext()
-                    .get(TransactionImportSkipListener.IMPORT_ERRORS_CONTEXT_KEY);
+    /**
+     * Restarts a failed upload from the last chunk committed by each of its partitions.
+     * <p>
+     * The uploaded file of a failed import is kept for {@code transaction.import.failed-import-retention-hours}, so
+     * it does not have to be uploaded again. The restart runs asynchronously: {@code 202 Accepted} is returned with
+     * the id of the new job execution, whose status and error report cover the rows of all runs of the upload.
+     * Streamed uploads cannot be restarted.
+     * </p>
+     *
+     * @param executionId the id of the last job execution of the upload
+     * @return a {@link ResponseEntity} with the status of the restarted import
+     */
+    @PostMapping("/income/upload/{executionId}/restart")
+    public ResponseEntity<ImportStatusDTO> restartUpload(@PathVariable Long executionId) throws Exception {
+        ImportStatusDTO status = transactionImportService.restartImport(executionId, SecurityUtils.getCurrentUserUuid());
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/income/upload/" + status.executionId()))
+                .body(status);
+    }
 
-            if (value instanceof List<?>) {
-                errors.addAll((List<ImportErrorRowDTO>) value);
-            }
-        }
+    /**
+     * Downloads the CSV report of the rows an import could not import.
+     * <p>
+     * The report is streamed from the compressed error files of the import, so its size does not depend on the memory
+     * of the service. Its URL is part of the {@link ImportResultDTO} of imports with failed rows.
+     * </p>
+     *
+     * @param executionId the job execution id returned by the upload
+     * @return a {@link ResponseEntity} streaming the report
+     */
+    @GetMapping(value = "/income/upload/{executionId}/errors", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> downloadErrorReport(@PathVariable Long executionId) {
+        StreamingResponseBody report = transactionImportService.getErrorReport(executionId, SecurityUtils.getCurrentUserUuid());
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(ImportErrorReportService.REPORT_FILE_NAME)
+                        .build()
+                        .toString())
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(report);
+    }
 
-        return errors;
+    /**
+     * Exports the current user's transactions, by date, as a Parquet file.
+     * <p>
+     * The file is written straight to the response while the transactions are read, see
+     * {@link TransactionExportService#writeParquet}. Its columns can be imported again with
+     * {@code POST /api/income/upload}.
+     * </p>
+     *
+     * @return a {@link ResponseEntity} streaming the file as an attachment
+     */
+    @GetMapping(value = "/incomes/export", produces = TransactionParquetWriter.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportTransactions() {
+        String userId = SecurityUtils.getCurrentUserUuid();
+        StreamingResponseBody file = out -> transactionExportService.writeParquet(userId, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions.parquet")
+                        .build()
+                        .toString())
+                .contentType(MediaType.parseMediaType(TransactionParquetWriter.MEDIA_TYPE))
+                .body(file);
     }
 
     /**
@@ -3,6 +3,7 @@ package com.dataflow.dataingestionservice.DTO;
 import java.io.Serializable;
 
 public record ImportErrorRowDTO(
+        String sheet,
         Integer rowNumber,
         String phase,
         String error,
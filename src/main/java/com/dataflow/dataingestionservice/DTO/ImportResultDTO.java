@@ -1,10 +1,14 @@
 package com.dataflow.dataingestionservice.DTO;
 
+import java.util.List;
+
 public record ImportResultDTO(
         String message,
         int importedRows,
+        int unchangedRows,
         int failedRows,
         String errorReportFileName,
-        String errorReportBase64
+        String errorReportUrl,
+        List<ImportErrorRowDTO> errorSample
 ) {
 }
@@ -0,0 +1,11 @@
+package com.dataflow.dataingestionservice.DTO;
+
+public record ImportStatusDTO(
+        Long executionId,
+        String status,
+        long readCount,
+        long writeCount,
+        long skipCount,
+        ImportResultDTO result
+) {
+}
@@ -7,5 +7,6 @@ public enum ApiErrorCode {
     FORBIDDEN,
     BAD_REQUEST,
     UPSTREAM_SERVICE_ERROR,
+    SERVICE_BUSY,
     INTERNAL_ERROR
 }
@@ -62,6 +62,12 @@ public class GlobalExceptionHandler {
                 "A required upstream service could not complete the request.", ex, request);
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiErrorResponse> handleServiceBusy(Exception ex, HttpServletRequest request) {
+        return build(HttpStatus.SERVICE_UNAVAILABLE, ApiErrorCode.SERVICE_BUSY,
+                "The service is busy. Please retry the request later.", ex, request);
+    }
+
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<ApiErrorResponse> handleMethodNotAllowed(Exception ex, HttpServletRequest request) {
         return build(HttpStatus.METHOD_NOT_ALLOWED, ApiErrorCode.BAD_REQUEST,
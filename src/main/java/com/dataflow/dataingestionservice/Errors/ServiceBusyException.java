@@ -0,0 +1,7 @@
+package com.dataflow.dataingestionservice.Errors;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
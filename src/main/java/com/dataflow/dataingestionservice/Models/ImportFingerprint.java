@@ -0,0 +1,48 @@
+package com.dataflow.dataingestionservice.Models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The SHA-256 fingerprint of a file a user uploaded, and the import job that read it.
+ * <p>
+ * A user uploading the same file again gets the result of that import instead of a new one, as long as it
+ * completed. The fingerprint is computed while the upload is stored, so it costs no extra read of the file.
+ * </p>
+ */
+@Table(name = "import_fingerprints", uniqueConstraints = {
+        @UniqueConstraint(
+                name = "uk_import_fingerprint_user_sha256",
+                columnNames = {"user_id", "sha256"}
+        )
+})
+@Entity
+@NoArgsConstructor
+@Data
+public class ImportFingerprint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", length = 36, nullable = false)
+    private String userId;
+
+    /**
+     * The hex-encoded SHA-256 digest of the uploaded file.
+     */
+    @Column(name = "sha256", length = 64, nullable = false)
+    private String sha256;
+
+    /**
+     * The job execution that last completed an import of the file.
+     */
+    @Column(name = "job_execution_id", nullable = false)
+    private Long jobExecutionId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
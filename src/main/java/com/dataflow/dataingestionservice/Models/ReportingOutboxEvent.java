@@ -0,0 +1,68 @@
+package com.dataflow.dataingestionservice.Models;
+
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change waiting to be sent to the reporting service.
+ * <p>
+ * Events are written in the same database transaction as the change they describe and deleted once the reporting
+ * service has accepted them. The auto-incremented id gives the order in which events of a target are sent.
+ * </p>
+ * <p>
+ * Events the reporting service rejects for good are kept with {@code dead_lettered_at} set and are no longer sent.
+ * </p>
+ */
+@Table(name = "reporting_outbox",
+        indexes = {
+            @Index(name = "idx_reporting_outbox_target", columnList = "target, dead_lettered_at, id")
+        }
+)
+@Entity
+@NoArgsConstructor
+@Data
+public class ReportingOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReportingSyncTarget target;
+
+    /**
+     * The JSON of the DTO sent to the target endpoint.
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "dead_lettered_at")
+    private LocalDateTime deadLetteredAt;
+
+    /**
+     * Why the event was dead-lettered.
+     */
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    public ReportingOutboxEvent(ReportingSyncTarget target, String payload, LocalDateTime createdAt) {
+        this.target = target;
+        this.payload = payload;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+}
@@ -4,11 +4,15 @@ import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
 import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.type.SqlTypes;
+import org.springframework.batch.item.ItemCountAware;
 import org.springframework.batch.item.database.JdbcBatchItemWriter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * Represents a financial transaction record.
@@ -20,7 +24,8 @@ import java.time.LocalDateTime;
  * </p>
  *
  * <p>
- * The entity uses UUID for its primary key generation and for identifying the user.
+ * The entity uses a time-ordered UUID, stored as {@code BINARY(16)}, for its primary key and a UUID for identifying
+ * the user.
  * Some fields (like {@code userId} and {@code transactionDate}) are annotated as natural IDs
  * to denote that they have unique business meaning.
  * </p>
@@ -35,14 +40,16 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
-public class Transaction {
+public class Transaction implements ItemCountAware {
 
     /**
-     * The unique identifier for the transaction.
+     * The unique identifier for the transaction, generated by
+     * {@link com.dataflow.dataingestionservice.Utils.TimeOrderedUuid}.
      */
     @Id
-    @Column(name = "id", length = 36, nullable = false)
-    private String id;
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "id", length = 16, nullable = false)
+    private UUID id;
 
     /**
      * The unique identifier of the user associated with the transaction.
@@ -87,6 +94,12 @@ public class Transaction {
     @Transient
     private String categoryName;
 
+    /**
+     * The position of the transaction in the part of the file read by an import step, set by the reader.
+     */
+    @Transient
+    private int itemCount;
+
     @ManyToOne(targetEntity = Currency.class)
     @JoinColumn(name = "currency_id")
     private Currency currency;
@@ -0,0 +1,59 @@
+package com.dataflow.dataingestionservice.Models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of a staged transaction import that was rejected by the set-based validation.
+ * <p>
+ * Rows are copied here straight from the staging table of the import, so this entity is only read; the error
+ * report of the import is built from the rows of its job execution.
+ * </p>
+ */
+@Table(name = "transaction_import_errors",
+        indexes = {
+            @Index(name = "idx_transaction_import_errors_job", columnList = "job_execution_id, row_num"),
+            @Index(name = "idx_transaction_import_errors_created_at", columnList = "created_at")
+        }
+)
+@Entity
+@NoArgsConstructor
+@Data
+public class TransactionImportError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_execution_id", nullable = false)
+    private Long jobExecutionId;
+
+    /**
+     * The sheet of the row in the imported workbook, or its entry in the imported archive, or {@code null}.
+     */
+    private String sheet;
+
+    /**
+     * The line of the row in the imported file, or in its sheet.
+     */
+    @Column(name = "row_num")
+    private Integer rowNumber;
+
+    @Column(nullable = false, length = 20)
+    private String phase;
+
+    @Column(nullable = false)
+    private String error;
+
+    @Column(name = "raw_data", columnDefinition = "TEXT")
+    private String rawData;
+
+    /**
+     * When the row was rejected; rows are deleted with the error files of the import once they expire.
+     */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
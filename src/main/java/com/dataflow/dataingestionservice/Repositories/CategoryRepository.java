@@ -4,8 +4,10 @@ import com.dataflow.dataingestionservice.Models.Category;
 import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +21,12 @@ public interface CategoryRepository extends JpaRepository<Category, String> {
 
     boolean existsByUserIdAndName(String userId, String name);
 
-    Category findByNameIgnoreCase(String name);
+    Category findFirstByUserIdAndNameIgnoreCaseOrderByIdAsc(String userId, String name);
+
+    @Query("SELECT c FROM Category c WHERE c.userId = :userId AND LOWER(c.name) IN :names")
+    List<Category> findAllByUserIdAndLowerNameIn(@Param("userId") String userId, @Param("names") Collection<String> names);
+
+    long countByUserId(String userId);
 
     boolean existsByUserIdAndNameAndIdNot(String userId, String name, String id);
 }
@@ -0,0 +1,12 @@
+package com.dataflow.dataingestionservice.Repositories;
+
+import com.dataflow.dataingestionservice.Models.ImportFingerprint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportFingerprintRepository extends JpaRepository<ImportFingerprint, Long> {
+    Optional<ImportFingerprint> findByUserIdAndSha256(String userId, String sha256);
+}
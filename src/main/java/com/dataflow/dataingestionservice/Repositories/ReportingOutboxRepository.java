@@ -0,0 +1,29 @@
+package com.dataflow.dataingestionservice.Repositories;
+
+import com.dataflow.dataingestionservice.Models.ReportingOutboxEvent;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReportingOutboxRepository extends JpaRepository<ReportingOutboxEvent, Long> {
+    List<ReportingOutboxEvent> findByTargetAndDeadLetteredAtIsNullOrderByIdAsc(ReportingSyncTarget target, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportingOutboxEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt WHERE e.id IN :ids")
+    void scheduleRetry(@Param("ids") List<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportingOutboxEvent e SET e.attempts = e.attempts + 1, e.deadLetteredAt = :deadLetteredAt, e.lastError = :lastError WHERE e.id IN :ids")
+    void deadLetter(@Param("ids") List<Long> ids, @Param("lastError") String lastError, @Param("deadLetteredAt") LocalDateTime deadLetteredAt);
+}
@@ -0,0 +1,23 @@
+package com.dataflow.dataingestionservice.Repositories;
+
+import com.dataflow.dataingestionservice.Models.TransactionImportError;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransactionImportErrorRepository extends JpaRepository<TransactionImportError, Long> {
+    List<TransactionImportError> findByJobExecutionIdAndIdGreaterThanOrderByIdAsc(Long jobExecutionId, Long id, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TransactionImportError e WHERE e.createdAt < :expiry")
+    int deleteCreatedBefore(@Param("expiry") LocalDateTime expiry);
+}
@@ -1,25 +1,39 @@
 package com.dataflow.dataingestionservice.Repositories;
 
 import com.dataflow.dataingestionservice.Models.Transaction;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction,String>, JpaSpecificationExecutor<Transaction> {
+public interface TransactionRepository extends JpaRepository<Transaction,UUID>, JpaSpecificationExecutor<Transaction> {
     @Modifying
     @Query("DELETE FROM Transaction t WHERE t.id IN :ids AND t.userId = :userId")
-    void deleteAllByIdAndUserId(@Param("ids") List<String> ids, @Param("userId") String userId);
+    void deleteAllByIdAndUserId(@Param("ids") List<UUID> ids, @Param("userId") String userId);
 
     @Query("SELECT t.btTransactionId FROM Transaction t WHERE t.btTransactionId IN :btIds AND t.userId = :userId")
     List<String> getTransactionsIdsByBtTransactionId(List<String> btIds, String userId);
+
+    /**
+     * Streams the transactions of a user by date, with their category and currency. The stream must be read in a
+     * transaction and closed.
+     */
+    // Makes MySQL Connector/J stream the rows instead of reading the whole result set into memory
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE))
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.category LEFT JOIN FETCH t.currency "
+            + "WHERE t.userId = :userId ORDER BY t.transactionDate")
+    Stream<Transaction> streamByUserId(@Param("userId") String userId);
 }
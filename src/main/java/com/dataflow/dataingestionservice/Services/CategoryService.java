@@ -1,23 +1,16 @@
 package com.dataflow.dataingestionservice.Services;
 
-import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingServiceApiProperties;
 import com.dataflow.dataingestionservice.DTO.CategoryDimensionDTO;
-import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
 import com.dataflow.dataingestionservice.Errors.BusinessConflictException;
 import com.dataflow.dataingestionservice.Errors.ForbiddenOperationException;
 import com.dataflow.dataingestionservice.Errors.ResourceNotFoundException;
-import com.dataflow.dataingestionservice.Errors.UpstreamServiceException;
 import com.dataflow.dataingestionservice.Models.Category;
 import com.dataflow.dataingestionservice.Repositories.CategoryRepository;
 import com.dataflow.dataingestionservice.Utils.Constants.SyncOperation;
 import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
 import com.dataflow.dataingestionservice.Utils.SecurityUtils;
 import jakarta.transaction.Transactional;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Collections;
 import java.util.List;
@@ -29,12 +22,11 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
-    private final ReportingServiceApiProperties reportingServiceApiProperties;
-    private final RestTemplate restTemplate;
-    public CategoryService(CategoryRepository categoryRepository, ReportingServiceApiProperties reportingServiceApiProperties, RestTemplate restTemplate) {
+    private final ReportingOutbox reportingOutbox;
+
+    public CategoryService(CategoryRepository categoryRepository, ReportingOutbox reportingOutbox) {
         this.categoryRepository = categoryRepository;
-        this.reportingServiceApiProperties = reportingServiceApiProperties;
-        this.restTemplate = restTemplate;
+        this.reportingOutbox = reportingOutbox;
     }
 
     @Transactional
@@ -56,7 +48,7 @@ public class CategoryService {
         Category saved =  categoryRepository.save(category);
 
         CategoryDimensionDTO dto = mapToCategoryDimensionDTO(category, SyncOperation.CREATE);
-        sendToReportingService(Collections.singletonList(dto));
+        reportingOutbox.addCategories(Collections.singletonList(dto));
 
         return saved;
     }
@@ -89,7 +81,7 @@ public class CategoryService {
         Category saved = categoryRepository.save(existing);
 
         CategoryDimensionDTO dto = mapToCategoryDimensionDTO(saved, SyncOperation.UPDATE);
-        sendToReportingService(Collections.singletonList(dto));
+        reportingOutbox.addCategories(Collections.singletonList(dto));
 
         return saved;
     }
@@ -129,23 +121,4 @@ public class CategoryService {
 
         return dto;
     }
-
-    public void sendToReportingService(List<CategoryDimensionDTO> dto) {
-        System.out.println(reportingServiceApiProperties.getApiBase());
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-REPORTING-API-KEY", reportingServiceApiProperties.getApiKey());
-
-        HttpEntity<List<CategoryDimensionDTO>> request = new HttpEntity<>(dto,headers);
-
-        ResponseEntity<String> response = restTemplate.postForEntity(
-                reportingServiceApiProperties.getApiBase() + "/api/categories/sync",
-                request,
-                String.class
-        );
-
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new UpstreamServiceException("Failed to sync with Reporting Service.");
-        }
-    }
 }
@@ -0,0 +1,103 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Repositories.CurrencyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Application-wide, in-memory view of the {@code currencies} table.
+ * <p>
+ * Currencies are looked up by code or id with a single hash lookup instead of a database query. The lookup maps are
+ * immutable and replaced as a whole by {@link #refresh()}, so readers never lock and always see a consistent snapshot.
+ * The snapshot is loaded on first use and refreshed whenever the currency import job completes, which is the only way
+ * currencies are changed by this service.
+ * </p>
+ * <p>
+ * The returned {@link Currency} instances are shared between threads and detached from any persistence context;
+ * they must not be modified.
+ * </p>
+ */
+@Component
+public class CurrencyRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyRegistry.class);
+
+    private record Snapshot(Map<String, Currency> byCode, Map<String, Currency> byId) {
+    }
+
+    private final CurrencyRepository currencyRepository;
+    private volatile Snapshot snapshot;
+
+    public CurrencyRegistry(CurrencyRepository currencyRepository) {
+        this.currencyRepository = currencyRepository;
+    }
+
+    /**
+     * Returns the currency with the given code, ignoring case and surrounding whitespace.
+     *
+     * @param code the currency code, e.g. "RON"
+     * @return the matching {@link Currency}, or {@code null} if the code is {@code null} or unknown
+     */
+    public Currency findByCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        return getSnapshot().byCode().get(code.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the currency with the given id.
+     *
+     * @param id the currency id
+     * @return the matching {@link Currency}, or {@code null} if the id is {@code null} or unknown
+     */
+    public Currency findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        return getSnapshot().byId().get(id);
+    }
+
+    /**
+     * Reloads all currencies from the database and atomically replaces the current snapshot.
+     */
+    public void refresh() {
+        snapshot = load();
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Concurrent first lookups may load the table more than once, the last load wins
+            current = load();
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        List<Currency> currencies = currencyRepository.findAll();
+        Map<String, Currency> byCode = new HashMap<>();
+        Map<String, Currency> byId = new HashMap<>();
+
+        for (Currency currency : currencies) {
+            byId.put(currency.getId(), currency);
+            // A currency without a code can still be found by id, but no imported row can refer to it
+            if (currency.getCode() == null || currency.getCode().isBlank()) {
+                logger.warn("Currency {} has no code", currency.getId());
+                continue;
+            }
+            byCode.put(currency.getCode().trim().toUpperCase(Locale.ROOT), currency);
+        }
+
+        logger.info("Loaded {} currencies", currencies.size());
+        return new Snapshot(Map.copyOf(byCode), Map.copyOf(byId));
+    }
+}
@@ -1,31 +1,242 @@
 package com.dataflow.dataingestionservice.Services;
 
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
 import com.dataflow.dataingestionservice.DTO.ImportErrorRowDTO;
+import com.dataflow.dataingestionservice.Models.TransactionImportError;
+import com.dataflow.dataingestionservice.Repositories.TransactionImportErrorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Stores the error rows of transaction imports and streams them as a CSV report.
+ * <p>
+ * Every import step writes the rows it skips to its own gzip-compressed file in a per-job directory under
+ * {@code transaction.import.error-report-directory}, as they occur, so the errors of an import never have to be held
+ * in memory or in the step execution context. The report of a job is the concatenation of these files followed by
+ * the rows rejected by the set-based checks of {@code STAGING} imports, which are read from
+ * {@code transaction_import_errors} page by page.
+ * </p>
+ * <p>
+ * Report files are deleted {@code transaction.import.error-report-retention-hours} after they were last written, and
+ * rejected rows the same time after they were rejected. The error file of a step that crashed may end in a truncated
+ * gzip member; the rows recovered from it are still reported.
+ * </p>
+ */
 @Service
 public class ImportErrorReportService {
 
-    public String toCsv(List<ImportErrorRowDTO> errors) {
-        StringBuilder csv = new StringBuilder("rowNumber,phase,error,rawData\n");
+    private static final Logger logger = LoggerFactory.getLogger(ImportErrorReportService.class);
 
-        for (ImportErrorRowDTO error : errors) {
-            csv.append(escape(error.rowNumber() == null ? "" : error.rowNumber().toString()))
-                    .append(',')
-                    .append(escape(error.phase()))
-                    .append(',')
-                    .append(escape(error.error()))
-                    .append(',')
-                    .append(escape(error.rawData()))
-                    .append('\n');
+    public static final String REPORT_FILE_NAME = "transaction-import-errors.csv";
+
+    private static final String HEADER = "sheet,rowNumber,phase,error,rawData\n";
+    private static final String ERROR_FILE_SUFFIX = ".csv.gz";
+    private static final int REJECTED_ROWS_PAGE_SIZE = 1000;
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    private final Path directory;
+    private final Duration retention;
+    private final TransactionImportErrorRepository importErrorRepository;
+
+    public ImportErrorReportService(TransactionImportProperties properties,
+                                    TransactionImportErrorRepository importErrorRepository) {
+        this.directory = Paths.get(properties.getErrorReportDirectory());
+        this.retention = Duration.ofHours(properties.getErrorReportRetentionHours());
+        this.importErrorRepository = importErrorRepository;
+    }
+
+    /**
+     * Opens the error file of an import step. Rows are appended to an existing file, so a restarted step keeps
+     * the rows of its previous runs.
+     *
+     * @param jobExecutionId the import job execution
+     * @param stepName       the name of the step, unique within the job
+     * @return the writer of the step's error file, to be closed when the step ends
+     * @throws IOException if the file cannot be created
+     */
+    public ErrorFileWriter openErrorFile(long jobExecutionId, String stepName) throws IOException {
+        Path jobDirectory = Files.createDirectories(jobDirectory(jobExecutionId));
+        Path file = jobDirectory.resolve(stepName.replaceAll("[^A-Za-z0-9_.-]", "_") + ERROR_FILE_SUFFIX);
+
+        OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return new ErrorFileWriter(new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(out), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Writes the CSV report of an import, with a header line, to the stream. The errors of an import that was
+     * restarted are spread over its executions, which are reported in the given order.
+     *
+     * @param jobExecutionIds the executions of the import job
+     * @param out             the stream to write to; it is flushed but not closed
+     * @throws IOException if an error file cannot be read or the stream cannot be written
+     */
+    public void writeReport(List<Long> jobExecutionIds, OutputStream out) throws IOException {
+        out.write(HEADER.getBytes(StandardCharsets.UTF_8));
+
+        // Gzip members can be concatenated, so a file that was appended to by a restarted step is read as a whole
+        for (long jobExecutionId : jobExecutionIds) {
+            for (Path file : errorFiles(jobExecutionId)) {
+                copyCompleteRows(file, out);
+            }
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (long jobExecutionId : jobExecutionIds) {
+            long lastId = 0;
+            List<TransactionImportError> page;
+            do {
+                page = importErrorRepository.findByJobExecutionIdAndIdGreaterThanOrderByIdAsc(
+                        jobExecutionId, lastId, PageRequest.of(0, REJECTED_ROWS_PAGE_SIZE));
+                for (TransactionImportError error : page) {
+                    appendRow(writer, toRow(error));
+                    lastId = error.getId();
+                }
+            } while (page.size() == REJECTED_ROWS_PAGE_SIZE);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Returns the first rows rejected by the set-based checks of a {@code STAGING} import.
+     */
+    public List<ImportErrorRowDTO> getRejectedRows(long jobExecutionId, int limit) {
+        return importErrorRepository.findByJobExecutionIdAndIdGreaterThanOrderByIdAsc(jobExecutionId, 0L, PageRequest.of(0, limit))
+                .stream()
+                .map(ImportErrorReportService::toRow)
+                .toList();
+    }
+
+    /**
+     * Deletes the error files of imports that have not been written to for longer than the retention period, and the
+     * rows rejected before it.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    public void deleteExpiredReports() {
+        int deletedRows = importErrorRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deletedRows > 0) {
+            logger.info("Deleted {} expired rejected import rows", deletedRows);
+        }
+
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        Instant expiry = Instant.now().minus(retention);
+        try (Stream<Path> jobDirectories = Files.list(directory)) {
+            for (Path jobDirectory : jobDirectories.toList()) {
+                if (lastModified(jobDirectory).isBefore(expiry)) {
+                    FileSystemUtils.deleteRecursively(jobDirectory);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to delete expired import error reports", e);
+        }
+    }
+
+    /**
+     * Copies the rows of an error file. A file left by a crashed step ends early, within its last gzip member; the
+     * rows read before that point are copied, the incomplete last one is left out.
+     */
+    private static void copyCompleteRows(Path file, OutputStream out) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        ByteArrayOutputStream incompleteRow = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                int end = read - 1;
+                while (end >= 0 && buffer[end] != '\n') {
+                    end--;
+                }
+                if (end >= 0) {
+                    incompleteRow.writeTo(out);
+                    incompleteRow.reset();
+                    out.write(buffer, 0, end + 1);
+                }
+                incompleteRow.write(buffer, end + 1, read - end - 1);
+            }
+        } catch (EOFException e) {
+            logger.warn("Error file {} is truncated, reporting the rows written before the end", file);
+            return;
+        }
+        incompleteRow.writeTo(out);
+    }
+
+    private Path jobDirectory(long jobExecutionId) {
+        return directory.resolve(Long.toString(jobExecutionId));
+    }
+
+    /**
+     * Appending to a file does not change the modification time of its directory, so the files are checked too.
+     */
+    private static Instant lastModified(Path jobDirectory) throws IOException {
+        Instant lastModified = Files.getLastModifiedTime(jobDirectory).toInstant();
+        try (Stream<Path> files = Files.list(jobDirectory)) {
+            for (Path file : files.toList()) {
+                Instant fileModified = Files.getLastModifiedTime(file).toInstant();
+                if (fileModified.isAfter(lastModified)) {
+                    lastModified = fileModified;
+                }
+            }
         }
+        return lastModified;
+    }
+
+    private List<Path> errorFiles(long jobExecutionId) throws IOException {
+        Path jobDirectory = jobDirectory(jobExecutionId);
+        if (!Files.isDirectory(jobDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(jobDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(ERROR_FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
 
-        return csv.toString();
+    private static ImportErrorRowDTO toRow(TransactionImportError error) {
+        return new ImportErrorRowDTO(error.getSheet(), error.getRowNumber(), error.getPhase(), error.getError(), error.getRawData());
     }
 
-    private String escape(String value) {
+    static void appendRow(Writer writer, ImportErrorRowDTO error) throws IOException {
+        writer.append(escape(error.sheet()))
+                .append(',')
+                .append(escape(error.rowNumber() == null ? "" : error.rowNumber().toString()))
+                .append(',')
+                .append(escape(error.phase()))
+                .append(',')
+                .append(escape(error.error()))
+                .append(',')
+                .append(escape(error.rawData()))
+                .append('\n');
+    }
+
+    private static String escape(String value) {
         if (value == null) {
             return "";
         }
@@ -37,4 +248,25 @@ public class ImportErrorReportService {
 
         return escaped;
     }
+
+    /**
+     * Appends the error rows of one import step to its compressed error file.
+     */
+    public static class ErrorFileWriter implements Closeable {
+
+        private final Writer writer;
+
+        ErrorFileWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        public void write(ImportErrorRowDTO error) throws IOException {
+            appendRow(writer, error);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.DTO.CategoryDimensionDTO;
+import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
+import com.dataflow.dataingestionservice.Models.ReportingOutboxEvent;
+import com.dataflow.dataingestionservice.Repositories.ReportingOutboxRepository;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records changes that must be synced to the reporting service.
+ * <p>
+ * The changes are stored as {@link ReportingOutboxEvent}s in the caller's database transaction, so they are synced
+ * if and only if the change itself commits. The {@link ReportingOutboxRelay} sends them afterwards.
+ * </p>
+ */
+@Service
+public class ReportingOutbox {
+
+    private final ReportingOutboxRepository reportingOutboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public ReportingOutbox(ReportingOutboxRepository reportingOutboxRepository, ObjectMapper objectMapper) {
+        this.reportingOutboxRepository = reportingOutboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records transaction changes to be sent to {@code /api/transactions/sync}.
+     *
+     * @param dtos the transaction changes
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addTransactions(List<FactTransactionDTO> dtos) {
+        add(ReportingSyncTarget.TRANSACTIONS, dtos);
+    }
+
+    /**
+     * Records transaction changes that could not be sent to {@code /api/transactions/sync} directly, so the
+     * {@link ReportingOutboxRelay} retries them.
+     *
+     * @param dtos the transaction changes
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void addUnsentTransactions(List<FactTransactionDTO> dtos) {
+        add(ReportingSyncTarget.TRANSACTIONS, dtos);
+    }
+
+    /**
+     * Records category changes to be sent to {@code /api/categories/sync}.
+     *
+     * @param dtos the category changes
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addCategories(List<CategoryDimensionDTO> dtos) {
+        add(ReportingSyncTarget.CATEGORIES, dtos);
+    }
+
+    private void add(ReportingSyncTarget target, List<?> dtos) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReportingOutboxEvent> events = new ArrayList<>(dtos.size());
+
+        for (Object dto : dtos) {
+            try {
+                events.add(new ReportingOutboxEvent(target, objectMapper.writeValueAsString(dto), now));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize reporting sync payload", e);
+            }
+        }
+
+        reportingOutboxRepository.saveAll(events);
+    }
+}
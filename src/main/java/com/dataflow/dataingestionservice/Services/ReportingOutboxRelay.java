@@ -0,0 +1,165 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingOutboxProperties;
+import com.dataflow.dataingestionservice.Models.ReportingOutboxEvent;
+import com.dataflow.dataingestionservice.Repositories.ReportingOutboxRepository;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drains the {@link ReportingOutbox} to the reporting service.
+ * <p>
+ * Every run sends the pending events of each {@link ReportingSyncTarget} in id order, in batches of up to
+ * {@code reporting.outbox.batch-size} events, and deletes them once the reporting service has accepted them.
+ * A failed batch is retried after {@code reporting.outbox.initial-backoff-millis}, doubling on every further failure
+ * up to {@code reporting.outbox.max-backoff-millis}. Until it succeeds, newer events of the same target wait behind it,
+ * so the reporting service always receives the changes of a target in the order they were made.
+ * </p>
+ * <p>
+ * A batch the reporting service rejects as invalid ({@code 400}, {@code 413} or {@code 422}) is resent one event at a
+ * time, and only the events it rejects on their own are dead-lettered. A batch that still fails after
+ * {@code reporting.outbox.max-attempts} attempts is dead-lettered as a whole. Dead-lettered events stay in the outbox
+ * for inspection but no longer hold back the events behind them.
+ * </p>
+ * <p>
+ * No database transaction is held while the reporting service is called. Each instance relays independently,
+ * so with several instances an event may occasionally be sent twice.
+ * </p>
+ */
+@Component
+public class ReportingOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportingOutboxRelay.class);
+
+    /**
+     * Status codes with which the reporting service rejects the content of a batch, so resending it cannot succeed.
+     */
+    private static final Set<Integer> REJECTED_STATUS_CODES = Set.of(400, 413, 422);
+
+    private final ReportingOutboxRepository reportingOutboxRepository;
+    private final ReportingOutboxProperties properties;
+    private final ReportingSyncClient reportingSyncClient;
+    private final ObjectMapper objectMapper;
+
+    public ReportingOutboxRelay(ReportingOutboxRepository reportingOutboxRepository,
+                                ReportingOutboxProperties properties,
+                                ReportingSyncClient reportingSyncClient,
+                                ObjectMapper objectMapper) {
+        this.reportingOutboxRepository = reportingOutboxRepository;
+        this.properties = properties;
+        this.reportingSyncClient = reportingSyncClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Scheduled(fixedDelayString = "${reporting.outbox.poll-interval-millis:1000}")
+    public void relay() {
+        for (ReportingSyncTarget target : ReportingSyncTarget.values()) {
+            try {
+                relay(target);
+            } catch (Exception e) {
+                logger.error("Failed to relay reporting outbox for " + target, e);
+            }
+        }
+    }
+
+    private void relay(ReportingSyncTarget target) {
+        while (true) {
+            List<ReportingOutboxEvent> batch = reportingOutboxRepository
+                    .findByTargetAndDeadLetteredAtIsNullOrderByIdAsc(target, PageRequest.of(0, properties.getBatchSize()));
+
+            if (batch.isEmpty() || batch.get(0).getNextAttemptAt().isAfter(LocalDateTime.now())) {
+                return;
+            }
+
+            List<Long> ids = batch.stream().map(ReportingOutboxEvent::getId).toList();
+
+            try {
+                send(target, batch);
+                reportingOutboxRepository.deleteAllByIdInBatch(ids);
+            } catch (Exception e) {
+                if (isRejected(e) && batch.size() > 1) {
+                    if (!sendOneByOne(target, batch)) {
+                        return;
+                    }
+                } else if (isRejected(e) || batch.get(0).getAttempts() + 1 >= properties.getMaxAttempts()) {
+                    deadLetter(target, ids, e);
+                } else {
+                    scheduleRetry(target, batch, e);
+                    return;
+                }
+            }
+
+            if (batch.size() < properties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends the events of a rejected batch separately to find the ones the reporting service rejects.
+     *
+     * @return {@code false} if an event failed for another reason and was scheduled for a retry with the rest
+     */
+    private boolean sendOneByOne(ReportingSyncTarget target, List<ReportingOutboxEvent> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            ReportingOutboxEvent event = batch.get(i);
+
+            try {
+                send(target, List.of(event));
+                reportingOutboxRepository.deleteAllByIdInBatch(List.of(event.getId()));
+            } catch (Exception e) {
+                if (!isRejected(e)) {
+                    scheduleRetry(target, batch.subList(i, batch.size()), e);
+                    return false;
+                }
+                deadLetter(target, List.of(event.getId()), e);
+            }
+        }
+        return true;
+    }
+
+    private void send(ReportingSyncTarget target, List<ReportingOutboxEvent> batch) throws JsonProcessingException {
+        List<JsonNode> body = new ArrayList<>(batch.size());
+        for (ReportingOutboxEvent event : batch) {
+            body.add(objectMapper.readTree(event.getPayload()));
+        }
+
+        reportingSyncClient.send(target, body);
+    }
+
+    private static boolean isRejected(Exception e) {
+        return e instanceof JsonProcessingException
+                || e instanceof HttpClientErrorException clientError
+                && REJECTED_STATUS_CODES.contains(clientError.getStatusCode().value());
+    }
+
+    private void scheduleRetry(ReportingSyncTarget target, List<ReportingOutboxEvent> batch, Exception e) {
+        logger.warn("Failed to send {} {} events to reporting service: {}", batch.size(), target, e.getMessage());
+
+        List<Long> ids = batch.stream().map(ReportingOutboxEvent::getId).toList();
+        reportingOutboxRepository.scheduleRetry(ids, LocalDateTime.now().plusNanos(backoffMillis(batch.get(0)) * 1_000_000));
+    }
+
+    private void deadLetter(ReportingSyncTarget target, List<Long> ids, Exception e) {
+        logger.error("Dead-lettering {} events {} that the reporting service did not accept: {}", target, ids, e.getMessage());
+        reportingOutboxRepository.deadLetter(ids, String.valueOf(e.getMessage()), LocalDateTime.now());
+    }
+
+    private long backoffMillis(ReportingOutboxEvent head) {
+        int exponent = Math.min(head.getAttempts(), 30);
+        return Math.min(properties.getMaxBackoffMillis(), properties.getInitialBackoffMillis() << exponent);
+    }
+}
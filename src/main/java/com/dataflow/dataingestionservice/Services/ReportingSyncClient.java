@@ -0,0 +1,129 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingServiceApiProperties;
+import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingSyncProperties;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncEncoding;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Posts sync batches to the reporting service in the encoding configured by {@code reporting.sync.encoding}.
+ * <p>
+ * The compact encodings are selected through the {@code Content-Type} and {@code Content-Encoding} headers. When the
+ * reporting service answers {@code 415 Unsupported Media Type}, the batch is resent as plain JSON and that endpoint
+ * keeps receiving plain JSON until the application restarts.
+ * </p>
+ */
+@Component
+public class ReportingSyncClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportingSyncClient.class);
+
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final RestTemplate restTemplate;
+    private final ReportingServiceApiProperties apiProperties;
+    private final ReportingSyncEncoding encoding;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final Set<ReportingSyncTarget> jsonOnlyTargets = ConcurrentHashMap.newKeySet();
+
+    public ReportingSyncClient(@Qualifier("reportingRestTemplate") RestTemplate restTemplate,
+                               ReportingServiceApiProperties apiProperties,
+                               ReportingSyncProperties properties,
+                               ObjectMapper objectMapper) {
+        this.restTemplate = restTemplate;
+        this.apiProperties = apiProperties;
+        this.encoding = properties.getEncoding();
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build());
+    }
+
+    /**
+     * Posts a batch to the sync endpoint of the target.
+     *
+     * @param target the sync endpoint
+     * @param body   the batch, any value Jackson can serialize
+     * @throws RuntimeException if the request fails or the reporting service does not accept the batch
+     */
+    public void send(ReportingSyncTarget target, Object body) {
+        ReportingSyncEncoding targetEncoding = jsonOnlyTargets.contains(target) ? ReportingSyncEncoding.JSON : encoding;
+
+        try {
+            post(target, body, targetEncoding);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() != HttpStatus.UNSUPPORTED_MEDIA_TYPE || targetEncoding == ReportingSyncEncoding.JSON) {
+                throw e;
+            }
+            logger.warn("Reporting service does not accept {} on {}, falling back to JSON", targetEncoding, target.getPath());
+            jsonOnlyTargets.add(target);
+            post(target, body, ReportingSyncEncoding.JSON);
+        }
+    }
+
+    private void post(ReportingSyncTarget target, Object body, ReportingSyncEncoding encoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-REPORTING-API-KEY", apiProperties.getApiKey());
+
+        byte[] content;
+        try {
+            switch (encoding) {
+                case SMILE -> {
+                    headers.setContentType(APPLICATION_SMILE);
+                    content = smileMapper.writeValueAsBytes(body);
+                }
+                case GZIP -> {
+                    headers.setContentType(MediaType.APPLICATION_JSON);
+                    headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    content = gzip(jsonMapper.writeValueAsBytes(body));
+                }
+                default -> {
+                    headers.setContentType(MediaType.APPLICATION_JSON);
+                    content = jsonMapper.writeValueAsBytes(body);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode reporting sync batch", e);
+        }
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                apiProperties.getApiBase() + target.getPath(),
+                new HttpEntity<>(content, headers),
+                String.class
+        );
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("Reporting service answered " + response.getStatusCode());
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,216 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingSyncProperties;
+import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends imported transactions to the reporting service in the background.
+ * <p>
+ * Producers hand {@link FactTransactionDTO}s to a bounded in-memory queue and return immediately. A dispatcher thread
+ * coalesces queued transactions into batches of up to {@code reporting.sync.batch-size} items, waiting at most
+ * {@code reporting.sync.linger-millis} for a batch to fill, and posts them with at most
+ * {@code reporting.sync.max-concurrent-requests} requests in flight. Producers only block when the queue is full,
+ * so a slow reporting service slows imports down instead of letting the queue grow without bounds.
+ * </p>
+ * <p>
+ * Batches the reporting service does not accept are handed to the {@link ReportingOutbox}, whose relay retries them
+ * with backoff, and only dropped if they cannot be stored there either. Whatever is still queued when the
+ * application stops goes the same way. Transactions queued when the process dies are lost, as they never left memory.
+ * The queue depth, the age of the oldest queued transaction and the number of sent, outboxed and failed transactions
+ * are published as {@code reporting.sync.*} metrics.
+ * </p>
+ */
+@Component
+public class ReportingSyncQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportingSyncQueue.class);
+
+    private record Pending(FactTransactionDTO dto, long enqueuedAt) {
+    }
+
+    private final ReportingSyncClient reportingSyncClient;
+    private final ReportingOutbox reportingOutbox;
+    private final ReportingSyncProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final Semaphore inFlight;
+    private final ExecutorService senders;
+    private final Counter sent;
+    private final Counter outboxed;
+    private final Counter failed;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public ReportingSyncQueue(ReportingSyncClient reportingSyncClient,
+                              ReportingOutbox reportingOutbox,
+                              ReportingSyncProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.reportingSyncClient = reportingSyncClient;
+        this.reportingOutbox = reportingOutbox;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.inFlight = new Semaphore(properties.getMaxConcurrentRequests());
+
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(properties.getMaxConcurrentRequests(), runnable -> {
+            Thread thread = new Thread(runnable, "reporting-sync-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("reporting.sync.queue.depth", queue, BlockingQueue::size)
+                .description("Transactions waiting to be sent to the reporting service")
+                .register(meterRegistry);
+        Gauge.builder("reporting.sync.queue.oldest.age", this, ReportingSyncQueue::oldestAgeSeconds)
+                .description("Seconds the oldest queued transaction has been waiting")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.sent = Counter.builder("reporting.sync.sent")
+                .description("Transactions accepted by the reporting service")
+                .register(meterRegistry);
+        this.outboxed = Counter.builder("reporting.sync.outboxed")
+                .description("Transactions handed to the reporting outbox after the reporting service rejected them")
+                .register(meterRegistry);
+        this.failed = Counter.builder("reporting.sync.failed")
+                .description("Transactions dropped because neither the reporting service nor the outbox took them")
+                .register(meterRegistry);
+        this.lag = Timer.builder("reporting.sync.lag")
+                .description("Time between queueing a batch's oldest transaction and sending the batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = new Thread(this::dispatch, "reporting-sync-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Stops the dispatcher and sends whatever is still queued, or hands it to the outbox, before returning.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join();
+
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += properties.getBatchSize()) {
+            send(remaining.subList(from, Math.min(remaining.size(), from + properties.getBatchSize())));
+        }
+
+        senders.shutdown();
+        senders.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues transactions to be sent to the reporting service, blocking while the queue is full.
+     *
+     * @param dtos the transactions to send
+     * @throws IllegalStateException if the calling thread is interrupted while waiting for queue space
+     */
+    public void enqueue(List<FactTransactionDTO> dtos) {
+        long now = System.nanoTime();
+        try {
+            for (FactTransactionDTO dto : dtos) {
+                queue.put(new Pending(dto, now));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing reporting sync", e);
+        }
+    }
+
+    private void dispatch() {
+        while (running) {
+            List<Pending> batch = new ArrayList<>(properties.getBatchSize());
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getLingerMillis());
+
+                while (batch.size() < properties.getBatchSize()) {
+                    if (queue.drainTo(batch, properties.getBatchSize() - batch.size()) > 0) {
+                        continue;
+                    }
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                // Waits here while all senders are busy, which lets the queue fill up
+                inFlight.acquire();
+                senders.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                // Stopping; the batch being built is sent here, whatever is still queued is sent by stop()
+                if (!batch.isEmpty()) {
+                    send(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        lag.record(Duration.ofNanos(System.nanoTime() - batch.get(0).enqueuedAt()));
+
+        List<FactTransactionDTO> dtos = batch.stream().map(Pending::dto).toList();
+
+        try {
+            reportingSyncClient.send(ReportingSyncTarget.TRANSACTIONS, dtos);
+            sent.increment(dtos.size());
+        } catch (Exception e) {
+            logger.warn("Failed to sync batch of {} transactions to reporting service, handing it to the outbox: {}",
+                    dtos.size(), e.getMessage());
+            outbox(dtos, e);
+        }
+    }
+
+    private void outbox(List<FactTransactionDTO> dtos, Exception sendError) {
+        try {
+            reportingOutbox.addUnsentTransactions(dtos);
+            outboxed.increment(dtos.size());
+        } catch (Exception e) {
+            e.addSuppressed(sendError);
+            failed.increment(dtos.size());
+            logger.error("Failed to store batch of {} unsent transactions in the reporting outbox", dtos.size(), e);
+        }
+    }
+
+    private double oldestAgeSeconds() {
+        Pending oldest = queue.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedAt()) / 1e9;
+    }
+}
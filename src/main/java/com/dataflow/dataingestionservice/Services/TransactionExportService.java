@@ -0,0 +1,53 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Repositories.TransactionRepository;
+import com.dataflow.dataingestionservice.Utils.TransactionParquetWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exports the transactions of a user to files.
+ */
+@Service
+public class TransactionExportService {
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+
+    public TransactionExportService(TransactionRepository transactionRepository, EntityManager entityManager) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Writes the transactions of a user, by date, to a Parquet file.
+     * <p>
+     * The transactions are streamed from the database and written as they arrive; each one is detached once written,
+     * so neither the result set nor the persistence context grows with the number of transactions. The file only
+     * buffers the row group being written.
+     * </p>
+     *
+     * @param userId the user whose transactions are exported
+     * @param out    the stream the file is written to, which is left open
+     * @throws IOException if the file cannot be written
+     */
+    @Transactional(readOnly = true)
+    public void writeParquet(String userId, OutputStream out) throws IOException {
+        try (Stream<Transaction> transactions = transactionRepository.streamByUserId(userId);
+             TransactionParquetWriter writer = new TransactionParquetWriter(out)) {
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                writer.write(transaction);
+                entityManager.detach(transaction);
+            }
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
+import com.dataflow.dataingestionservice.Config.Staging.TransactionStagingTable;
+import com.dataflow.dataingestionservice.Config.TransactionBatchConfig;
+import com.dataflow.dataingestionservice.DTO.ImportErrorRowDTO;
+import com.dataflow.dataingestionservice.DTO.ImportResultDTO;
+import com.dataflow.dataingestionservice.DTO.ImportStatusDTO;
+import com.dataflow.dataingestionservice.Errors.BusinessConflictException;
+import com.dataflow.dataingestionservice.Errors.ForbiddenOperationException;
+import com.dataflow.dataingestionservice.Errors.ResourceNotFoundException;
+import com.dataflow.dataingestionservice.Errors.ServiceBusyException;
+import com.dataflow.dataingestionservice.Errors.UpstreamServiceException;
+import com.dataflow.dataingestionservice.Repositories.ImportFingerprintRepository;
+import com.dataflow.dataingestionservice.Utils.TransactionImportSkipListener;
+import com.dataflow.dataingestionservice.Utils.UploadPipeRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Launches transaction import jobs and turns their executions into API results.
+ * <p>
+ * Imports are either run on the calling thread, or handed to the bounded {@code asyncJobLauncher} and
+ * polled through {@link #getStatus(Long, String)} until they finish. Streamed uploads are always asynchronous,
+ * as the calling thread is busy feeding the request body to the job. They are only started when a launcher thread and
+ * a worker thread are free, as a queued job would leave the request blocked on the full pipe.
+ * </p>
+ * <p>
+ * A file import that failed or was stopped can be restarted through {@link #restartImport(Long, String)}. The
+ * restart is a new execution of the same job instance, which resumes every unfinished partition after its last
+ * committed chunk; its status, result and error report cover the rows of all runs. The uploaded file and staging
+ * table of a failed import are deleted {@code transaction.import.failed-import-retention-hours} after it ended.
+ * </p>
+ * <p>
+ * Uploaded files are fingerprinted with SHA-256 while they are stored. A user uploading a file they already imported
+ * gets the result of that import back without a new job, unless they ask for a new one.
+ * </p>
+ * <p>
+ * A dry run only validates the file. Its result counts the rows an import would write as imported rows, and its error
+ * report lists the rows an import would fail on.
+ * </p>
+ */
+@Service
+public class TransactionImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImportService.class);
+
+    /**
+     * The job parameter holding the fingerprint of the uploaded file. It does not identify the job instance.
+     */
+    public static final String FINGERPRINT_PARAMETER = "fingerprint";
+
+    /**
+     * An uploaded file stored for import, with the hex-encoded SHA-256 digest of its content.
+     */
+    public record StoredUpload(File file, String sha256) {
+    }
+
+    private final JobLauncher jobLauncher;
+    private final JobLauncher asyncJobLauncher;
+    private final ThreadPoolTaskExecutor importLauncherExecutor;
+    private final ThreadPoolTaskExecutor importTaskExecutor;
+    private final JobExplorer jobExplorer;
+    private final Job job;
+    private final ImportErrorReportService importErrorReportService;
+    private final UploadPipeRegistry uploadPipeRegistry;
+    private final TransactionStagingTable stagingTable;
+    private final ImportFingerprintRepository importFingerprintRepository;
+    private final int errorSampleSize;
+    private final Path uploadDirectory;
+    private final Duration failedImportRetention;
+
+    public TransactionImportService(JobLauncher jobLauncher,
+                                    @Qualifier("asyncJobLauncher") JobLauncher asyncJobLauncher,
+                                    @Qualifier("importLauncherExecutor") ThreadPoolTaskExecutor importLauncherExecutor,
+                                    @Qualifier("importTaskExecutor") ThreadPoolTaskExecutor importTaskExecutor,
+                                    JobExplorer jobExplorer,
+                                    @Qualifier("transactionJob") Job job,
+                                    ImportErrorReportService importErrorReportService,
+                                    UploadPipeRegistry uploadPipeRegistry,
+                                    TransactionStagingTable stagingTable,
+                                    ImportFingerprintRepository importFingerprintRepository,
+                                    TransactionImportProperties properties) {
+        this.jobLauncher = jobLauncher;
+        this.asyncJobLauncher = asyncJobLauncher;
+        this.importLauncherExecutor = importLauncherExecutor;
+        this.importTaskExecutor = importTaskExecutor;
+        this.jobExplorer = jobExplorer;
+        this.job = job;
+        this.importErrorReportService = importErrorReportService;
+        this.uploadPipeRegistry = uploadPipeRegistry;
+        this.stagingTable = stagingTable;
+        this.importFingerprintRepository = importFingerprintRepository;
+        this.errorSampleSize = properties.getErrorSampleSize();
+        this.uploadDirectory = Paths.get(properties.getUploadDirectory());
+        this.failedImportRetention = Duration.ofHours(properties.getFailedImportRetentionHours());
+    }
+
+    /**
+     * Stores an upload in {@code transaction.import.upload-directory} until it has been imported, computing its
+     * SHA-256 fingerprint while it is copied.
+     *
+     * @param upload    the content of the uploaded file
+     * @param extension the extension of the uploaded file, which selects its reader
+     * @return the stored file and its fingerprint
+     * @throws IOException if the file cannot be written
+     */
+    public StoredUpload storeUpload(InputStream upload, String extension) throws IOException {
+        Path file = Files.createTempFile(Files.createDirectories(uploadDirectory), "upload-", "." + extension);
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        try (InputStream in = new DigestInputStream(upload, digest)) {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new StoredUpload(file.toFile(), HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Runs the import job on the calling thread and returns its result.
+     *
+     * @param jobParameters the job parameters, including the uploaded file path and the user id
+     * @param reuseResult   whether to return the result of a completed import of the same file instead of running
+     *                      a new one
+     * @return the {@link ImportResultDTO} of the finished job
+     * @throws UpstreamServiceException if the job failed
+     */
+    public ImportResultDTO runImport(JobParameters jobParameters, boolean reuseResult) throws Exception {
+        Optional<JobExecution> previous = reuseResult ? findCompletedImport(jobParameters) : Optional.empty();
+        if (previous.isPresent()) {
+            deleteInputFile(jobParameters.getString("filePath"));
+            return toImportResult(previous.get(), getRuns(previous.get()));
+        }
+
+        JobExecution jobExecution = jobLauncher.run(job, jobParameters);
+
+        if (jobExecution.getStatus() == BatchStatus.FAILED) {
+            throw new UpstreamServiceException("File processing failed.");
+        }
+
+        return toImportResult(jobExecution, getRuns(jobExecution));
+    }
+
+    /**
+     * Submits the import job to the bounded launcher executor and returns immediately.
+     *
+     * @param jobParameters the job parameters, including the uploaded file path and the user id
+     * @param reuseResult   whether to return the status of a completed import of the same file instead of starting
+     *                      a new one
+     * @return the status of the newly created job execution, or of the completed import of the same file
+     * @throws ServiceBusyException if the maximum number of queued imports has been reached
+     */
+    public ImportStatusDTO startImport(JobParameters jobParameters, boolean reuseResult) throws Exception {
+        Optional<JobExecution> previous = reuseResult ? findCompletedImport(jobParameters) : Optional.empty();
+        if (previous.isPresent()) {
+            deleteInputFile(jobParameters.getString("filePath"));
+            return toImportStatus(previous.get());
+        }
+
+        JobExecution jobExecution = asyncJobLauncher.run(job, jobParameters);
+
+        if (wasRejected(jobExecution)) {
+            deleteInputFile(jobParameters.getString("filePath"));
+            throw new ServiceBusyException("Too many imports in progress.");
+        }
+
+        return toImportStatus(jobExecution);
+    }
+
+    /**
+     * Returns the last execution of the completed import of the same file by the same user, if the file was read
+     * with the same date-time format.
+     */
+    private Optional<JobExecution> findCompletedImport(JobParameters jobParameters) {
+        String fingerprint = jobParameters.getString(FINGERPRINT_PARAMETER);
+        String userId = jobParameters.getString("userId");
+        if (fingerprint == null || userId == null) {
+            return Optional.empty();
+        }
+
+        return importFingerprintRepository.findByUserIdAndSha256(userId, fingerprint)
+                .map(previous -> jobExplorer.getJobExecution(previous.getJobExecutionId()))
+                .map(previous -> jobExplorer.getLastJobExecution(previous.getJobInstance()))
+                .filter(previous -> previous.getStatus() == BatchStatus.COMPLETED)
+                .filter(previous -> Objects.equals(previous.getJobParameters().getString("formatDateTime"),
+                        jobParameters.getString("formatDateTime")));
+    }
+
+    /**
+     * Starts the import job on a streamed CSV upload and feeds it the upload while it is being received.
+     * <p>
+     * The job is started first, then the body is copied into a bounded pipe that the job's reader consumes,
+     * so this method returns once the whole body has been handed over. The job may still be processing the last rows.
+     * </p>
+     * <p>
+     * The pipe only drains while the job runs, so the upload is refused unless a launcher thread and a worker thread
+     * are free to start reading it right away.
+     * </p>
+     *
+     * @param jobParameters the job parameters, without a file path
+     * @param body          the request body containing the CSV
+     * @return the status of the newly created job execution
+     * @throws ServiceBusyException if no launcher or worker thread is free
+     */
+    public ImportStatusDTO startStreamingImport(JobParametersBuilder jobParameters, InputStream body) throws Exception {
+        if (!hasIdleThread(importLauncherExecutor) || !hasIdleThread(importTaskExecutor)) {
+            throw new ServiceBusyException("Too many imports in progress.");
+        }
+
+        String uploadId = uploadPipeRegistry.open();
+
+        ImportStatusDTO status;
+        try {
+            status = startImport(jobParameters.addString("uploadId", uploadId).toJobParameters(), false);
+        } catch (Exception e) {
+            uploadPipeRegistry.discard(uploadId);
+            throw e;
+        }
+
+        uploadPipeRegistry.transfer(uploadId, body);
+        return status;
+    }
+
+    /**
+     * Returns whether the launcher executor rejected the job. The launcher then marks the execution as failed with
+     * the rejection as its exit description; a job that was run and failed quickly is not a rejected one.
+     */
+    public static boolean wasRejected(JobExecution jobExecution) {
+        return jobExecution.getStatus() == BatchStatus.FAILED
+                && jobExecution.getExitStatus().getExitDescription().contains(TaskRejectedException.class.getName());
+    }
+
+    /**
+     * Returns whether the executor would run a task right away instead of queuing it.
+     */
+    public static boolean hasIdleThread(ThreadPoolTaskExecutor executor) {
+        return executor.getActiveCount() < executor.getMaxPoolSize() && executor.getQueueSize() == 0;
+    }
+
+    /**
+     * Restarts a failed or stopped file import from the last chunk committed by each of its partitions.
+     * <p>
+     * The restart is queued like an asynchronous upload and runs with the job parameters of the import, so it reads
+     * the file that was uploaded. Partitions that had completed are not read again.
+     * </p>
+     *
+     * @param executionId the id of the last execution of the import
+     * @param userId      the id of the user restarting the import
+     * @return the status of the new job execution
+     * @throws ResourceNotFoundException   if there is no import with this id
+     * @throws ForbiddenOperationException if the import belongs to another user
+     * @throws BusinessConflictException   if the import did not fail, was already restarted, was a streamed upload or
+     *                                     its file has been deleted
+     * @throws ServiceBusyException        if the maximum number of queued imports has been reached
+     */
+    public ImportStatusDTO restartImport(Long executionId, String userId) throws Exception {
+        JobExecution jobExecution = getJobExecution(executionId, userId);
+        JobParameters jobParameters = jobExecution.getJobParameters();
+
+        if (jobExecution.getStatus() != BatchStatus.FAILED && jobExecution.getStatus() != BatchStatus.STOPPED) {
+            throw new BusinessConflictException("Only failed or stopped imports can be restarted");
+        }
+
+        // A restart the executor rejected left an execution that never ran, so the import can be restarted again
+        JobExecution lastExecution = jobExplorer.getLastJobExecution(jobExecution.getJobInstance());
+        if (lastExecution != null && !lastExecution.getId().equals(jobExecution.getId()) && !wasRejected(lastExecution)) {
+            throw new BusinessConflictException("Import was already restarted as " + lastExecution.getId());
+        }
+
+        if (jobParameters.getString("uploadId") != null) {
+            throw new BusinessConflictException("Streamed uploads cannot be restarted");
+        }
+
+        String filePath = jobParameters.getString("filePath");
+        if (filePath == null || !new File(filePath).isFile()) {
+            throw new BusinessConflictException("The uploaded file of this import is no longer available");
+        }
+
+        JobExecution restarted = asyncJobLauncher.run(job, jobParameters);
+
+        // The file is kept for a later restart when the executor rejects this one
+        if (wasRejected(restarted)) {
+            throw new ServiceBusyException("Too many imports in progress.");
+        }
+
+        return toImportStatus(restarted);
+    }
+
+    /**
+     * Returns the progress of an import job, and its result once it has completed.
+     *
+     * @param executionId the id of the job execution
+     * @param userId      the id of the user asking for the status
+     * @return the {@link ImportStatusDTO} of the execution
+     * @throws ResourceNotFoundException   if there is no import with this id
+     * @throws ForbiddenOperationException if the import belongs to another user
+     */
+    public ImportStatusDTO getStatus(Long executionId, String userId) {
+        return toImportStatus(getJobExecution(executionId, userId));
+    }
+
+    /**
+     * Returns the writer of the CSV report of the rows an import could not import.
+     * <p>
+     * The report is read from the compressed error files of the import while it is written to the response,
+     * so it is never held in memory.
+     * </p>
+     *
+     * @param executionId the id of the job execution
+     * @param userId      the id of the user asking for the report
+     * @return the body writing the report
+     * @throws ResourceNotFoundException   if there is no import with this id
+     * @throws ForbiddenOperationException if the import belongs to another user
+     * @throws BusinessConflictException   if the import is still running
+     */
+    public StreamingResponseBody getErrorReport(Long executionId, String userId) {
+        JobExecution jobExecution = getJobExecution(executionId, userId);
+
+        if (jobExecution.isRunning()) {
+            throw new BusinessConflictException("Import is still running");
+        }
+
+        List<Long> runIds = getRuns(jobExecution).stream().map(JobExecution::getId).toList();
+        return out -> importErrorReportService.writeReport(runIds, out);
+    }
+
+    private JobExecution getJobExecution(Long executionId, String userId) {
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+
+        if (jobExecution == null || !job.getName().equals(jobExecution.getJobInstance().getJobName())) {
+            throw new ResourceNotFoundException("Import not found");
+        }
+
+        if (!Objects.equals(jobExecution.getJobParameters().getString("userId"), userId)) {
+            throw new ForbiddenOperationException("Not allowed to access this import");
+        }
+
+        return jobExecution;
+    }
+
+    private ImportStatusDTO toImportStatus(JobExecution jobExecution) {
+        List<JobExecution> runs = getRuns(jobExecution);
+        List<StepExecution> workerSteps = getWorkerSteps(runs);
+
+        ImportResultDTO result = jobExecution.getStatus() == BatchStatus.COMPLETED
+                ? toImportResult(jobExecution, runs)
+                : null;
+
+        return new ImportStatusDTO(
+                jobExecution.getId(),
+                jobExecution.getStatus().name(),
+                workerSteps.stream().mapToLong(StepExecution::getReadCount).sum(),
+                getImportedRows(workerSteps),
+                workerSteps.stream().mapToLong(TransactionImportService::getFailedRows).sum(),
+                result
+        );
+    }
+
+    private ImportResultDTO toImportResult(JobExecution jobExecution, List<JobExecution> runs) {
+        List<StepExecution> workerSteps = getWorkerSteps(runs);
+
+        int importedRows = Math.toIntExact(getImportedRows(workerSteps));
+        int unchangedRows = Math.toIntExact(workerSteps.stream().mapToLong(StepExecution::getFilterCount).sum());
+
+        List<ImportErrorRowDTO> errorSample = getErrorSample(runs, workerSteps);
+        int skippedRows = Math.toIntExact(workerSteps
+                .stream()
+                .mapToLong(TransactionImportService::getFailedRows)
+                .sum());
+
+        if (errorSample.isEmpty() && skippedRows > 0) {
+            errorSample.add(new ImportErrorRowDTO(
+                    null,
+                    null,
+                    "IMPORT",
+                    "Some rows were skipped during import. Check the service logs for detailed row-level errors.",
+                    ""
+            ));
+        }
+
+        int failedRows = skippedRows > 0 ? skippedRows : errorSample.size();
+
+        String errorReportFileName = null;
+        String errorReportUrl = null;
+
+        if (failedRows > 0) {
+            errorReportFileName = ImportErrorReportService.REPORT_FILE_NAME;
+            errorReportUrl = "/api/income/upload/" + jobExecution.getId() + "/errors";
+        }
+
+        String message;
+        if (Boolean.parseBoolean(jobExecution.getJobParameters().getString("dryRun"))) {
+            message = failedRows == 0
+                    ? "File validated successfully, nothing was imported."
+                    : "File validated with failed rows, nothing was imported.";
+        } else {
+            message = failedRows == 0
+                    ? "File imported successfully."
+                    : "File imported with skipped rows.";
+        }
+
+        return new ImportResultDTO(
+                message,
+                importedRows,
+                unchangedRows,
+                failedRows,
+                errorReportFileName,
+                errorReportUrl,
+                errorSample
+        );
+    }
+
+    /**
+     * Returns the executions of the job instance up to the given one, oldest first. An import that was never
+     * restarted has a single execution.
+     */
+    private List<JobExecution> getRuns(JobExecution jobExecution) {
+        List<JobExecution> runs = new ArrayList<>();
+        for (JobExecution run : jobExplorer.getJobExecutions(jobExecution.getJobInstance())) {
+            if (run.getId() < jobExecution.getId()) {
+                runs.add(run);
+            }
+        }
+        runs.sort(Comparator.comparing(JobExecution::getId));
+        runs.add(jobExecution);
+        return runs;
+    }
+
+    /**
+     * Returns the worker step executions of the runs of the job. The partition manager steps are left out, as they
+     * only aggregate the worker counts once all partitions have finished. Each run of a restarted worker only counts
+     * the chunks it committed, so the counts of all runs add up.
+     */
+    private List<StepExecution> getWorkerSteps(List<JobExecution> runs) {
+        return runs.stream()
+                .flatMap(run -> run.getStepExecutions().stream())
+                .filter(step -> !TransactionBatchConfig.IMPORT_STEP_NAME.equals(step.getStepName())
+                        && !TransactionBatchConfig.STAGE_STEP_NAME.equals(step.getStepName())
+                        && !TransactionBatchConfig.VALIDATE_STEP_NAME.equals(step.getStepName()))
+                .toList();
+    }
+
+    /**
+     * Returns the number of rows a step skipped or rejected with set-based checks.
+     */
+    private static long getFailedRows(StepExecution step) {
+        return step.getReadSkipCount() + step.getProcessSkipCount() + step.getWriteSkipCount()
+                + step.getExecutionContext().getLong(TransactionImportSkipListener.REJECTED_ROW_COUNT_CONTEXT_KEY, 0);
+    }
+
+    /**
+     * Returns the number of rows written to {@code transactions}, or that a dry run would write. The rows written by
+     * staging workers only went to the staging table; the merge step counts the ones that were imported.
+     */
+    private long getImportedRows(List<StepExecution> workerSteps) {
+        return workerSteps.stream()
+                .filter(step -> !step.getStepName().startsWith(TransactionBatchConfig.STAGE_WORKER_STEP_NAME))
+                .mapToLong(StepExecution::getWriteCount)
+                .sum();
+    }
+
+    /**
+     * Returns the first error rows of the import: the samples kept by the worker steps, followed by the first rows
+     * rejected by the set-based checks of a staging import. A restarted worker starts with the sample of its previous
+     * run, so only the last run of each worker is used.
+     */
+    @SuppressWarnings("unchecked")
+    private List<ImportErrorRowDTO> getErrorSample(List<JobExecution> runs, List<StepExecution> stepExecutions) {
+        List<ImportErrorRowDTO> sample = new ArrayList<>();
+
+        Map<String, StepExecution> lastWorkerRuns = new LinkedHashMap<>();
+        for (StepExecution stepExecution : stepExecutions) {
+            lastWorkerRuns.put(stepExecution.getStepName(), stepExecution);
+        }
+
+        for (StepExecution stepExecution : lastWorkerRuns.values()) {
+            Object value = stepExecution.getExecutionContext()
+                    .get(TransactionImportSkipListener.IMPORT_ERROR_SAMPLE_CONTEXT_KEY);
+
+            if (value instanceof List<?>) {
+                sample.addAll((List<ImportErrorRowDTO>) value);
+            }
+        }
+
+        for (JobExecution run : runs) {
+            if (sample.size() < errorSampleSize) {
+                sample.addAll(importErrorReportService.getRejectedRows(run.getId(), errorSampleSize - sample.size()));
+            }
+        }
+
+        return sample;
+    }
+
+    /**
+     * Deletes the uploaded files and staging tables kept for the restart of imports that ended longer than the
+     * retention period ago. Files of running imports are kept, however old they are.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1M")
+    public void deleteExpiredInputs() {
+        Instant expiry = Instant.now().minus(failedImportRetention);
+        Set<String> runningFiles = jobExplorer.findRunningJobExecutions(job.getName())
+                .stream()
+                .map(jobExecution -> jobExecution.getJobParameters().getString("filePath"))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (Files.isDirectory(uploadDirectory)) {
+            try (Stream<Path> files = Files.list(uploadDirectory)) {
+                for (Path file : files.toList()) {
+                    if (!runningFiles.contains(file.toAbsolutePath().toString())
+                            && Files.getLastModifiedTime(file).toInstant().isBefore(expiry)) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Failed to delete expired import uploads", e);
+            }
+        }
+
+        LocalDateTime expiryTime = LocalDateTime.now().minus(failedImportRetention);
+        for (Long jobInstanceId : stagingTable.findJobInstanceIds()) {
+            JobInstance jobInstance = jobExplorer.getJobInstance(jobInstanceId);
+            JobExecution lastExecution = jobInstance != null ? jobExplorer.getLastJobExecution(jobInstance) : null;
+            if (lastExecution == null || (!lastExecution.isRunning()
+                    && lastExecution.getEndTime() != null && lastExecution.getEndTime().isBefore(expiryTime))) {
+                stagingTable.drop(jobInstanceId);
+            }
+        }
+    }
+
+    private void deleteInputFile(String filePath) {
+        if (filePath != null && !new File(filePath).delete()) {
+            logger.error("Failed to delete " + filePath);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.dataflow.dataingestionservice.Services;
 
-import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingServiceApiProperties;
 import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
 import com.dataflow.dataingestionservice.DTO.TransactionDTO;
 import com.dataflow.dataingestionservice.DTO.TransactionFilter;
@@ -9,20 +8,16 @@ import com.dataflow.dataingestionservice.Models.Category;
 import com.dataflow.dataingestionservice.Models.Currency;
 import com.dataflow.dataingestionservice.Models.Transaction;
 import com.dataflow.dataingestionservice.Repositories.CategoryRepository;
-import com.dataflow.dataingestionservice.Repositories.CurrencyRepository;
 import com.dataflow.dataingestionservice.Repositories.TransactionRepository;
 import com.dataflow.dataingestionservice.Specifications.TransactionSpecifications;
 import com.dataflow.dataingestionservice.Utils.Constants.SyncOperation;
 import com.dataflow.dataingestionservice.Utils.SecurityUtils;
+import com.dataflow.dataingestionservice.Utils.TimeOrderedUuid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -31,21 +26,17 @@ import java.util.stream.Collectors;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
-    private final CurrencyRepository currencyRepository;
+    private final CurrencyRegistry currencyRegistry;
     private final CategoryRepository categoryRepository;
-    private final RestTemplate restTemplate;
+    private final ReportingOutbox reportingOutbox;
 
-    private final ReportingServiceApiProperties reportingServiceApiProperties;
     public TransactionService(TransactionRepository transactionRepository,
-                              CurrencyRepository currencyRepository, CategoryRepository categoryRepository,
-                              ReportingServiceApiProperties reportingServiceApiProperties,
-                              RestTemplate restTemplate) {
+                              CurrencyRegistry currencyRegistry, CategoryRepository categoryRepository,
+                              ReportingOutbox reportingOutbox) {
         this.transactionRepository = transactionRepository;
-        this.currencyRepository = currencyRepository;
+        this.currencyRegistry = currencyRegistry;
         this.categoryRepository = categoryRepository;
-        this.reportingServiceApiProperties = reportingServiceApiProperties;
-        this.restTemplate = restTemplate;
-
+        this.reportingOutbox = reportingOutbox;
     }
 
     @Transactional
@@ -58,9 +49,9 @@ public class TransactionService {
                 .map(dto -> {
                     Transaction tx = new Transaction();
 
-                    String id = dto.getId() != null
-                            ? dto.getId()
-                            : UUID.randomUUID().toString();
+                    UUID id = dto.getId() != null
+                            ? TimeOrderedUuid.parse(dto.getId())
+                            : TimeOrderedUuid.next();
 
                     tx.setId(id);
                     tx.setUserId(userId);
@@ -75,8 +66,7 @@ public class TransactionService {
                             .findById(dto.getCategoryId());
                     category.ifPresent(tx::setCategory);
 
-                    Currency currency = currencyRepository
-                            .findByCodeContainingIgnoreCase(dto.getCurrencyCode());
+                    Currency currency = currencyRegistry.findByCode(dto.getCurrencyCode());
                     tx.setCurrency(currency);
 
                     return tx;
@@ -89,12 +79,12 @@ public class TransactionService {
                 .map(tx -> mapToFactTransactionDTO(tx, SyncOperation.CREATE))
                 .toList();
 
-        sendToReportingService(factDtos);
+        reportingOutbox.addTransactions(factDtos);
     }
 
     @Transactional
     public void updateTransaction(TransactionDTO transactionDTO) {
-        Transaction existing = transactionRepository.findById(transactionDTO.getId())
+        Transaction existing = transactionRepository.findById(TimeOrderedUuid.parse(transactionDTO.getId()))
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
 
         existing.setAmount(transactionDTO.getAmount());
@@ -106,8 +96,7 @@ public class TransactionService {
                 .findById(transactionDTO.getCategoryId());
         category.ifPresent(existing::setCategory);
 
-        Currency currency = currencyRepository
-                .findByCodeContainingIgnoreCase(transactionDTO.getCurrencyCode());
+        Currency currency = currencyRegistry.findByCode(transactionDTO.getCurrencyCode());
         existing.setCurrency(currency);
 
         transactionRepository.save(existing);
@@ -115,7 +104,7 @@ public class TransactionService {
         FactTransactionDTO dto =
                 mapToFactTransactionDTO(existing, SyncOperation.UPDATE);
 
-        sendToReportingService(List.of(dto));
+        reportingOutbox.addTransactions(List.of(dto));
     }
 
     @Transactional
@@ -126,9 +115,9 @@ public class TransactionService {
 
         // Fetch all transactions in one query
         Map<String, Transaction> transactionMap = transactionRepository
-                .findAllById(allIds)
+                .findAllById(allIds.stream().map(TimeOrderedUuid::parse).toList())
                 .stream()
-                .collect(Collectors.toMap(Transaction::getId, t -> t));
+                .collect(Collectors.toMap(t -> t.getId().toString(), t -> t));
 
         List<Transaction> toSave = new ArrayList<>();
 
@@ -150,7 +139,7 @@ public class TransactionService {
                         .ifPresent(existing::setCategory);
             }
             if(transactionDTO.currencyCode() != null){
-                existing.setCurrency(currencyRepository.findByCodeContainingIgnoreCase(transactionDTO.currencyCode()));
+                existing.setCurrency(currencyRegistry.findByCode(transactionDTO.currencyCode()));
 
             }
 
@@ -162,15 +151,14 @@ public class TransactionService {
         List<FactTransactionDTO> factDTOs = saved.stream()
                 .map(t -> mapToFactTransactionDTO(t, SyncOperation.UPDATE))
                 .toList();
-        System.out.println(factDTOs);
-        sendToReportingService(factDTOs);
+        reportingOutbox.addTransactions(factDTOs);
     }
 
     @Transactional
     public void deleteTransactions(List<String> ids, String userId) {
         if (ids == null || ids.isEmpty()) return;
 
-        transactionRepository.deleteAllByIdAndUserId(ids, userId);
+        transactionRepository.deleteAllByIdAndUserId(ids.stream().map(TimeOrderedUuid::parse).toList(), userId);
 
         List<FactTransactionDTO> dtos = ids.stream()
                 .map(id -> {
@@ -181,12 +169,12 @@ public class TransactionService {
                 })
                 .toList();
 
-        sendToReportingService(dtos);
+        reportingOutbox.addTransactions(dtos);
     }
 
     public FactTransactionDTO mapToFactTransactionDTO(Transaction tx, SyncOperation operation) {
         FactTransactionDTO dto = new FactTransactionDTO();
-        dto.setId(tx.getId());
+        dto.setId(tx.getId().toString());
         dto.setAmount(tx.getAmount());
         dto.setCategoryId(tx.getCategory() != null ? tx.getCategory().getId() : null);
         dto.setTransaction_date(tx.getTransactionDate());
@@ -199,34 +187,13 @@ public class TransactionService {
         return dto;
     }
 
-    public void sendToReportingService(List<FactTransactionDTO> dtos) {
-        System.out.println(reportingServiceApiProperties.getApiBase());
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-REPORTING-API-KEY", reportingServiceApiProperties.getApiKey());
-
-        HttpEntity<List<FactTransactionDTO>> request = new HttpEntity<>(dtos,headers);
-
-        ResponseEntity<String> response = restTemplate.postForEntity(
-                reportingServiceApiProperties.getApiBase() + "/api/transactions/sync",
-                request,
-                String.class
-        );
-
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException(
-                    "Failed to sync with Reporting Service: " + response.getBody()
-            );
-        }
-    }
-
 
     public Page<TransactionDTO> getCurrentUserTransactions(Pageable pageable, TransactionFilter filter, String userId){
         Page<Transaction> transactions = transactionRepository.findAll(TransactionSpecifications.withFilters(filter,userId), pageable);
 
         var dtoList = transactions.stream()
                 .map(tx -> new TransactionDTO(
-                        tx.getId(),
+                        tx.getId().toString(),
                         tx.getTransactionDate(),
                         tx.getCategory() != null ? tx.getCategory().getId() : "",
                         tx.getDescription(),
@@ -0,0 +1,176 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded in-memory pipe connecting one writing thread to one reading thread.
+ * <p>
+ * Bytes written to {@link #getOutputStream()} are handed over in chunks through a bounded queue, so the writer blocks
+ * once {@code capacity} chunks are waiting to be read. Unlike {@link java.io.PipedInputStream}, the pipe does not
+ * depend on the liveness of the threads using it, which makes it safe to use with pooled threads.
+ * </p>
+ */
+public class BoundedPipe {
+
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks;
+    private final long writeTimeoutMillis;
+    private final PipeInputStream inputStream = new PipeInputStream();
+    private final PipeOutputStream outputStream = new PipeOutputStream();
+
+    private volatile boolean readerClosed;
+    private volatile IOException failure;
+
+    /**
+     * @param capacity           the maximum number of chunks buffered between writer and reader
+     * @param writeTimeoutMillis how long the writer may wait for free space before giving up
+     */
+    public BoundedPipe(int capacity, long writeTimeoutMillis) {
+        this.chunks = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.writeTimeoutMillis = writeTimeoutMillis;
+    }
+
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Aborts the pipe from the writing side. The reader receives {@code cause} once it reaches the end of the pipe.
+     *
+     * @param cause the reason the upload could not be completed
+     */
+    public void fail(IOException cause) {
+        failure = cause;
+        chunks.clear();
+        chunks.offer(END_OF_STREAM);
+    }
+
+    /**
+     * Closes the pipe from the reading side, releasing a writer that is blocked on a full pipe.
+     */
+    public void closeReader() {
+        readerClosed = true;
+        chunks.clear();
+    }
+
+    private void put(byte[] chunk) throws IOException {
+        long deadline = System.currentTimeMillis() + writeTimeoutMillis;
+        try {
+            while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                if (readerClosed) {
+                    throw new IOException("The import stopped reading the upload.");
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IOException("Timed out waiting for the import to read the upload.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing to the upload pipe.");
+        }
+    }
+
+    private class PipeOutputStream extends OutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("The upload pipe is closed.");
+            }
+            while (len > 0) {
+                int size = Math.min(len, CHUNK_SIZE);
+                byte[] chunk = new byte[size];
+                System.arraycopy(b, off, chunk, 0, size);
+                put(chunk);
+                off += size;
+                len -= size;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                put(END_OF_STREAM);
+            }
+        }
+    }
+
+    private class PipeInputStream extends InputStream {
+
+        private byte[] current;
+        private int position;
+        private boolean endOfStream;
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            return current[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int size = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, size);
+            position += size;
+            return size;
+        }
+
+        @Override
+        public void close() {
+            closeReader();
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (current != null && position < current.length) {
+                return true;
+            }
+            if (endOfStream) {
+                return false;
+            }
+            try {
+                current = chunks.take();
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading from the upload pipe.");
+            }
+            if (current == END_OF_STREAM) {
+                endOfStream = true;
+                if (failure != null) {
+                    throw failure;
+                }
+                return false;
+            }
+            return true;
+        }
+    }
+}
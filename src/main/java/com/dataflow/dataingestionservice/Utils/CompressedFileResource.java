@@ -0,0 +1,115 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A {@link FileSystemResource} that exposes the decompressed content of a compressed upload: a gzip
+ * ({@code .gz}) or Zstandard ({@code .zst}) file, or one entry of a {@code .zip} archive.
+ * <p>
+ * The content is inflated while it is read, so the uploaded file stays compressed on disk. Every call to
+ * {@link #getInputStream()} starts again from the beginning, which lets a restarted reader skip the rows it already
+ * read.
+ * </p>
+ */
+public class CompressedFileResource extends FileSystemResource {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String entryName;
+
+    /**
+     * @param path      the path to the compressed file
+     * @param entryName the entry to read from a {@code .zip} archive, or {@code null} for a gzip or Zstandard file
+     */
+    public CompressedFileResource(String path, String entryName) {
+        super(path);
+        if (entryName == null && isArchive(path)) {
+            throw new IllegalArgumentException("No entry given for archive " + path);
+        }
+        this.entryName = entryName;
+    }
+
+    /**
+     * Returns whether a file is compressed in one of the supported formats, judging by its name.
+     */
+    public static boolean isCompressed(String path) {
+        String name = path.toLowerCase();
+        return name.endsWith(".gz") || name.endsWith(".zst") || name.endsWith(".zip");
+    }
+
+    /**
+     * Returns whether a file is a {@code .zip} archive, whose entries are read separately.
+     */
+    public static boolean isArchive(String path) {
+        return path.toLowerCase().endsWith(".zip");
+    }
+
+    /**
+     * Returns the name of the decompressed file: the entry name for an archive entry, otherwise the file name
+     * without its compression extension, so {@code statement.csv.gz} is read as {@code statement.csv}.
+     */
+    public String getContentName() {
+        if (entryName != null) {
+            return entryName;
+        }
+        String name = getFilename();
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (entryName != null) {
+            return openEntry();
+        }
+
+        InputStream in = new BufferedInputStream(Files.newInputStream(getFile().toPath()), BUFFER_SIZE);
+        try {
+            return getFilename().toLowerCase().endsWith(".zst")
+                    ? new ZstdInputStream(in)
+                    : new GZIPInputStream(in, BUFFER_SIZE);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private InputStream openEntry() throws IOException {
+        ZipFile zipFile = new ZipFile(getFile());
+        try {
+            ZipEntry entry = zipFile.getEntry(entryName);
+            if (entry == null) {
+                throw new FileNotFoundException("No entry " + entryName + " in archive " + getPath());
+            }
+            // Closing the entry stream also closes the archive
+            return new FilterInputStream(new BufferedInputStream(zipFile.getInputStream(entry), BUFFER_SIZE)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        zipFile.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            zipFile.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return entryName != null ? super.getDescription() + " [entry " + entryName + "]" : super.getDescription();
+    }
+}
@@ -0,0 +1,20 @@
+package com.dataflow.dataingestionservice.Utils.Constants;
+
+/**
+ * How the transaction import job writes the parsed rows to the database.
+ */
+public enum ImportMode {
+    /** Rows are written in small chunks with one batched {@code INSERT ... ON DUPLICATE KEY UPDATE} per row. */
+    CHUNK,
+    /**
+     * Rows are written in large chunks, each streamed into a staging table with {@code LOAD DATA LOCAL INFILE}
+     * and merged into {@code transactions} with a single set-based statement. Needs a MySQL server with
+     * {@code local_infile} enabled.
+     */
+    BULK_LOAD,
+    /**
+     * Raw parsed rows are written to a per-job staging table, then validated, resolved and merged into
+     * {@code transactions} by a few set-based statements once the whole file has been read.
+     */
+    STAGING
+}
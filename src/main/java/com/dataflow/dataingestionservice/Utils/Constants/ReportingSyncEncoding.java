@@ -0,0 +1,13 @@
+package com.dataflow.dataingestionservice.Utils.Constants;
+
+/**
+ * Encodings of the request bodies sent to the reporting service sync endpoints.
+ */
+public enum ReportingSyncEncoding {
+    /** Plain JSON, understood by every reporting service version. */
+    JSON,
+    /** JSON compressed with gzip, sent with {@code Content-Encoding: gzip}. */
+    GZIP,
+    /** Binary Smile ({@code application/x-jackson-smile}), with repeated names and string values back-referenced. */
+    SMILE
+}
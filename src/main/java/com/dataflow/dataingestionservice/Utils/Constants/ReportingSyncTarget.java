@@ -0,0 +1,20 @@
+package com.dataflow.dataingestionservice.Utils.Constants;
+
+/**
+ * The reporting service sync endpoints, in the order the outbox relay drains them.
+ * Categories go first so that transactions never reference a category the reporting service has not seen yet.
+ */
+public enum ReportingSyncTarget {
+    CATEGORIES("/api/categories/sync"),
+    TRANSACTIONS("/api/transactions/sync");
+
+    private final String path;
+
+    ReportingSyncTarget(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,241 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import java.text.ParsePosition;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the date-time column of an import into {@link LocalDateTime} values.
+ * <p>
+ * An instance is meant to be reused for all the rows of one input. The first row that matches one of the supported
+ * layouts decides the layout that is tried first for every following row, so a file without a user-provided format
+ * no longer tries every format on every row. The supported layouts are parsed by hand, without allocating
+ * intermediate objects or throwing exceptions. Values the hand-written parsers are not sure about (e.g. fractional
+ * seconds, out-of-range fields) are handed to the matching {@link DateTimeFormatter}, so the accepted values and
+ * their results are the same as with the formatters alone.
+ * </p>
+ * <p>
+ * Instances are thread-safe without locking: the detected layout is the only mutable state, and it is published
+ * through a volatile field. Concurrent readers may detect it more than once, which is harmless.
+ * </p>
+ */
+public class DateTimeColumnParser {
+
+    /**
+     * The supported date-time layouts, keyed by the format identifiers accepted by the import endpoints.
+     */
+    enum Layout {
+        /** {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} (e.g. 2025-02-11T03:36:00) */
+        ISO("ISO", DateTimeFormatter.ISO_LOCAL_DATE_TIME) {
+            @Override
+            LocalDateTime fastParse(String value) {
+                return value.length() == 19 && value.charAt(10) == 'T'
+                        ? yearFirst(value, '-')
+                        : null;
+            }
+        },
+        /** Pattern "yyyy-MM-dd HH:mm:ss" (e.g. 2025-02-11 03:36:00) */
+        DASHED_YEAR_FIRST("YYYY-MM-DD HH:mm:ss", DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) {
+            @Override
+            LocalDateTime fastParse(String value) {
+                return value.length() == 19 && value.charAt(10) == ' '
+                        ? yearFirst(value, '-')
+                        : null;
+            }
+        },
+        /** Pattern "MM/dd/yyyy HH:mm:ss" (e.g. 02/11/2025 03:36:00) */
+        SLASHED_MONTH_FIRST("MM/DD/YYYY HH:mm:ss", DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss")) {
+            @Override
+            LocalDateTime fastParse(String value) {
+                return value.length() == 19 && value.charAt(2) == '/' && value.charAt(5) == '/' && value.charAt(10) == ' '
+                        ? of(digits(value, 6, 4), digits(value, 0, 2), digits(value, 3, 2), value, 11)
+                        : null;
+            }
+        },
+        /** Pattern "yyyy/MM/dd HH:mm:ss" (e.g. 2025/02/11 03:36:00) */
+        SLASHED_YEAR_FIRST("YYYY/MM/DD HH:mm:ss", DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss")) {
+            @Override
+            LocalDateTime fastParse(String value) {
+                return value.length() == 19 && value.charAt(10) == ' '
+                        ? yearFirst(value, '/')
+                        : null;
+            }
+        },
+        /** Pattern "M/d/yyyy HH:mm:ss" (e.g. 2/11/2025 03:36:00) */
+        SHORT_MONTH_FIRST("M/d/yyyy HH:mm:ss", DateTimeFormatter.ofPattern("M/d/yyyy HH:mm:ss")) {
+            @Override
+            LocalDateTime fastParse(String value) {
+                int monthEnd = value.indexOf('/');
+                if (monthEnd < 1 || monthEnd > 2) {
+                    return null;
+                }
+                int dayEnd = value.indexOf('/', monthEnd + 1);
+                if (dayEnd - monthEnd < 2 || dayEnd - monthEnd > 3
+                        || value.length() != dayEnd + 14 || value.charAt(dayEnd + 5) != ' ') {
+                    return null;
+                }
+                return of(digits(value, dayEnd + 1, 4),
+                        digits(value, 0, monthEnd),
+                        digits(value, monthEnd + 1, dayEnd - monthEnd - 1),
+                        value, dayEnd + 6);
+            }
+        };
+
+        private final String key;
+        private final DateTimeFormatter formatter;
+
+        Layout(String key, DateTimeFormatter formatter) {
+            this.key = key;
+            this.formatter = formatter;
+        }
+
+        /**
+         * Parses the value without the formatter.
+         *
+         * @return the parsed value, or {@code null} if the value does not have this layout or needs the formatter
+         */
+        abstract LocalDateTime fastParse(String value);
+
+        /**
+         * Parses the value with the formatter, without throwing for values of another layout.
+         *
+         * @return the parsed value, or {@code null} if the value does not have this layout
+         */
+        LocalDateTime parse(String value) {
+            ParsePosition position = new ParsePosition(0);
+            if (formatter.parseUnresolved(value, position) == null
+                    || position.getErrorIndex() >= 0
+                    || position.getIndex() != value.length()) {
+                return null;
+            }
+            try {
+                return LocalDateTime.parse(value, formatter);
+            } catch (DateTimeParseException e) {
+                // The value has this layout, but its fields are out of range
+                return null;
+            }
+        }
+
+        static Layout forKey(String key) {
+            for (Layout layout : values()) {
+                if (layout.key.equals(key)) {
+                    return layout;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Parses "yyyy?MM?dd HH:mm:ss", where '?' is the date separator. The character between the date and the time
+         * has already been checked by the caller.
+         */
+        private static LocalDateTime yearFirst(String value, char separator) {
+            if (value.charAt(4) != separator || value.charAt(7) != separator) {
+                return null;
+            }
+            return of(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2), value, 11);
+        }
+
+        /**
+         * Builds the value from the date fields and the "HH:mm:ss" time starting at {@code timeStart}.
+         * Fields the formatters would resolve differently (e.g. the 30th of February) are left to the formatter.
+         */
+        private static LocalDateTime of(int year, int month, int day, String value, int timeStart) {
+            if (value.charAt(timeStart + 2) != ':' || value.charAt(timeStart + 5) != ':') {
+                return null;
+            }
+            int hour = digits(value, timeStart, 2);
+            int minute = digits(value, timeStart + 3, 2);
+            int second = digits(value, timeStart + 6, 2);
+
+            if (year < 1 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                    || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return null;
+            }
+            if (day > 28 && day > Month.of(month).length(Year.isLeap(year))) {
+                return null;
+            }
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        }
+
+        /**
+         * @return the number made of {@code count} digits starting at {@code start}, or -1 if one of them is not a digit
+         */
+        private static int digits(String value, int start, int count) {
+            int result = 0;
+            for (int i = start; i < start + count; i++) {
+                int digit = value.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                result = result * 10 + digit;
+            }
+            return result;
+        }
+    }
+
+    private static final Layout[] ALL_LAYOUTS = Layout.values();
+
+    private final String userProvidedFormat;
+    private final Layout[] layouts;
+    private volatile Layout detected;
+
+    /**
+     * @param userProvidedFormat the key of the date-time format of the input (e.g. "ISO", "YYYY-MM-DD HH:mm:ss"),
+     *                           or {@code null} to detect it from the values
+     */
+    public DateTimeColumnParser(String userProvidedFormat) {
+        Layout provided = userProvidedFormat != null ? Layout.forKey(userProvidedFormat) : null;
+
+        this.userProvidedFormat = provided != null ? userProvidedFormat : null;
+        this.layouts = provided != null ? new Layout[]{provided} : ALL_LAYOUTS;
+        this.detected = provided;
+    }
+
+    /**
+     * Converts a date-time string into a {@link LocalDateTime}.
+     * <p>
+     * The layout detected on previous values is tried first. If the value does not match it, the other supported
+     * layouts are tried, and the first one that matches becomes the detected layout.
+     * </p>
+     *
+     * @param dateTime the date-time string to be converted; must not be {@code null} or empty
+     * @return the corresponding {@link LocalDateTime} object
+     * @throws IllegalArgumentException if the dateTime string is {@code null} or empty
+     * @throws DateTimeParseException   if the date-time string cannot be parsed with any of the supported formats
+     */
+    public LocalDateTime parse(String dateTime) {
+        if (dateTime == null || dateTime.isBlank()) {
+            throw new IllegalArgumentException("DateTime string is null or empty");
+        }
+        dateTime = dateTime.trim();
+
+        Layout current = detected;
+        LocalDateTime result;
+
+        if (current != null && (result = current.fastParse(dateTime)) != null) {
+            return result;
+        }
+
+        for (Layout layout : layouts) {
+            if (layout != current && (result = layout.fastParse(dateTime)) != null) {
+                detected = layout;
+                return result;
+            }
+        }
+
+        for (Layout layout : layouts) {
+            if ((result = layout.parse(dateTime)) != null) {
+                return result;
+            }
+        }
+
+        if (userProvidedFormat != null) {
+            throw new DateTimeParseException("Failed to parse using provided format: " + userProvidedFormat, dateTime, 0);
+        }
+        throw new DateTimeParseException("Unable to parse date: " + dateTime, dateTime, 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link FileSystemResource} that exposes only the bytes in {@code [start, end)} of the underlying file.
+ * <p>
+ * Used by the partitioned import step so that every worker can hand its own slice of the uploaded file
+ * to a regular {@code FlatFileItemReader}.
+ * </p>
+ */
+public class FileRangeResource extends FileSystemResource {
+
+    private final long start;
+    private final long end;
+
+    /**
+     * @param path  the path to the file
+     * @param start the offset of the first byte to expose (inclusive)
+     * @param end   the offset after the last byte to expose (exclusive)
+     */
+    public FileRangeResource(String path, long start, long end) {
+        super(path);
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid byte range [" + start + ", " + end + ")");
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        FileChannel channel = FileChannel.open(getFile().toPath(), StandardOpenOption.READ);
+        channel.position(start);
+        return BoundedInputStream.builder()
+                .setInputStream(Channels.newInputStream(channel))
+                .setMaxCount(end - start)
+                .get();
+    }
+
+    @Override
+    public long contentLength() {
+        return end - start;
+    }
+
+    @Override
+    public String getDescription() {
+        return super.getDescription() + " [bytes " + start + "-" + end + ")";
+    }
+}
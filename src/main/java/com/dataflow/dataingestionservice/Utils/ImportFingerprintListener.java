@@ -0,0 +1,60 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import com.dataflow.dataingestionservice.Models.ImportFingerprint;
+import com.dataflow.dataingestionservice.Repositories.ImportFingerprintRepository;
+import com.dataflow.dataingestionservice.Services.TransactionImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Points the fingerprint of an imported file to the import once it has completed.
+ * <p>
+ * An import that fails or is stopped leaves the fingerprint as it was, so a forced re-upload that fails does not hide
+ * the earlier import of the same file. A failed import that is restarted and completes is recorded then.
+ * </p>
+ */
+@Component
+public class ImportFingerprintListener implements JobExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportFingerprintListener.class);
+
+    private final ImportFingerprintRepository importFingerprintRepository;
+
+    public ImportFingerprintListener(ImportFingerprintRepository importFingerprintRepository) {
+        this.importFingerprintRepository = importFingerprintRepository;
+    }
+
+    /**
+     * Records the completed execution, replacing the import the fingerprint pointed to. The fingerprint only saves
+     * work, so a completed import stays completed if it cannot be recorded.
+     */
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        JobParameters jobParameters = jobExecution.getJobParameters();
+        String fingerprint = jobParameters.getString(TransactionImportService.FINGERPRINT_PARAMETER);
+        String userId = jobParameters.getString("userId");
+        if (jobExecution.getStatus() != BatchStatus.COMPLETED || fingerprint == null || userId == null) {
+            return;
+        }
+
+        ImportFingerprint record = importFingerprintRepository.findByUserIdAndSha256(userId, fingerprint)
+                .orElseGet(ImportFingerprint::new);
+        record.setUserId(userId);
+        record.setSha256(fingerprint);
+        record.setJobExecutionId(jobExecution.getId());
+        record.setCreatedAt(LocalDateTime.now());
+        try {
+            importFingerprintRepository.save(record);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Failed to record the fingerprint of import {}", jobExecution.getId(), e);
+        }
+    }
+}
@@ -1,30 +1,32 @@
 package com.dataflow.dataingestionservice.Utils;
 
-import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingServiceApiProperties;
 import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
 import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Services.ReportingSyncQueue;
 import com.dataflow.dataingestionservice.Utils.Constants.SyncOperation;
 import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.Chunk;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
+/**
+ * Hands every written chunk of imported transactions to the {@link ReportingSyncQueue}.
+ * <p>
+ * The chunk is queued once its transaction has committed, so rolled back chunks are never synced and a slow or
+ * unavailable reporting service no longer holds the chunk transaction open or rolls it back.
+ * </p>
+ */
 @Component
 @StepScope
 public class ReportingSyncItemWriteListener implements ItemWriteListener<Transaction> {
-    private final RestTemplate restTemplate;
-    private final ReportingServiceApiProperties props;
+    private final ReportingSyncQueue reportingSyncQueue;
 
-    public ReportingSyncItemWriteListener(
-            RestTemplate restTemplate, ReportingServiceApiProperties props) {
-        this.restTemplate = restTemplate;
-        this.props = props;
+    public ReportingSyncItemWriteListener(ReportingSyncQueue reportingSyncQueue) {
+        this.reportingSyncQueue = reportingSyncQueue;
     }
 
     @Override
@@ -36,7 +38,7 @@ public class ReportingSyncItemWriteListener implements ItemWriteListener<Transac
         List<FactTransactionDTO> dtos = transactions.stream()
                 .map(tx -> {
                     FactTransactionDTO dto = new FactTransactionDTO();
-                    dto.setId(tx.getId());
+                    dto.setId(tx.getId().toString());
                     dto.setAmount(tx.getAmount());
                     dto.setCategoryId(tx.getCategory() != null ? tx.getCategory().getId() : null);
                     dto.setTransaction_date(tx.getTransactionDate());
@@ -50,20 +52,17 @@ public class ReportingSyncItemWriteListener implements ItemWriteListener<Transac
                 })
                 .toList();
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-REPORTING-API-KEY", props.getApiKey());
-
-        HttpEntity<List<FactTransactionDTO>> request = new HttpEntity<>(dtos,headers);
-
-        ResponseEntity<Void> response = restTemplate.postForEntity(
-                props.getApiBase() + "/api/transactions/sync",
-                request,
-                Void.class
-        );
-
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new RuntimeException("Failed to sync batch to reporting service");
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reportingSyncQueue.enqueue(dtos);
+            return;
         }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reportingSyncQueue.enqueue(dtos);
+            }
+        });
     }
 
 }
@@ -0,0 +1,179 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A compact, append-only table of the shared strings of a spreadsheet, looked up by index.
+ * <p>
+ * The strings are stored back to back as UTF-8 bytes with one offset per string, instead of one {@link String}
+ * object (and, in POI, one rich text object) per entry. Once the bytes exceed {@code memoryLimit}, they are moved to
+ * a temporary file and the strings added afterwards are appended to it; lookups then read the string from the file.
+ * Only the offsets stay on the heap, eight bytes per string. A small cache keeps the last looked up strings, as the
+ * columns of an import repeat the same few categories, currencies and payment modes.
+ * </p>
+ * <p>
+ * The table is filled by one thread; {@link #seal()} must be called before the first lookup. Lookups are not
+ * thread-safe.
+ * </p>
+ */
+public class SharedStringStore implements Closeable {
+
+    private static final int CACHE_SIZE = 1024;
+
+    private final long memoryLimit;
+
+    private long[] offsets = new long[1024];
+    private int size;
+    private long length;
+    private byte[] bytes = new byte[8 * 1024];
+
+    private Path file;
+    private OutputStream fileOutput;
+    private FileChannel channel;
+
+    private final String[] cachedValues = new String[CACHE_SIZE];
+    private final int[] cachedIndexes = new int[CACHE_SIZE];
+
+    /**
+     * @param memoryLimit the number of string bytes kept on the heap before the table is moved to a temporary file
+     */
+    public SharedStringStore(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+        Arrays.fill(cachedIndexes, -1);
+    }
+
+    /**
+     * Appends a string to the table. Its index is the number of strings added before it.
+     */
+    public void add(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        offsets[size++] = length;
+
+        try {
+            if (file == null && length + encoded.length > memoryLimit) {
+                spill();
+            }
+            if (file != null) {
+                fileOutput.write(encoded);
+            } else {
+                if (length + encoded.length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(Math.max(bytes.length * 2L, length + encoded.length), Integer.MAX_VALUE - 8));
+                }
+                System.arraycopy(encoded, 0, bytes, (int) length, encoded.length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write shared strings to " + file, e);
+        }
+        length += encoded.length;
+    }
+
+    /**
+     * Ends the filling of the table, making it ready for lookups.
+     */
+    public void seal() throws IOException {
+        if (fileOutput != null) {
+            fileOutput.close();
+            fileOutput = null;
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+    }
+
+    /**
+     * Returns the string with the given index.
+     *
+     * @throws IllegalArgumentException if there is no string with that index
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("No shared string with index " + index + ", the table has " + size);
+        }
+
+        int slot = index & (CACHE_SIZE - 1);
+        if (cachedIndexes[slot] == index) {
+            return cachedValues[slot];
+        }
+
+        long start = offsets[index];
+        int count = (int) ((index + 1 < size ? offsets[index + 1] : length) - start);
+        String value = file == null
+                ? new String(bytes, (int) start, count, StandardCharsets.UTF_8)
+                : read(start, count);
+
+        cachedIndexes[slot] = index;
+        cachedValues[slot] = value;
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the strings have been moved to a temporary file.
+     */
+    public boolean isFileBacked() {
+        return file != null;
+    }
+
+    private void spill() throws IOException {
+        file = Files.createTempFile("shared-strings-", ".bin");
+        fileOutput = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.WRITE), 64 * 1024);
+        fileOutput.write(bytes, 0, (int) length);
+        bytes = null;
+    }
+
+    private String read(long position, int count) {
+        if (channel == null) {
+            throw new IllegalStateException("The shared strings have not been sealed");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(count);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read shared strings from " + file, e);
+        }
+        return new String(buffer.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Releases the table, deleting its temporary file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (fileOutput != null) {
+                fileOutput.close();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            fileOutput = null;
+            channel = null;
+            if (file != null) {
+                Files.deleteIfExists(file);
+                file = null;
+            }
+            bytes = null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered version 7 UUIDs (RFC 9562) and converts UUIDs to and from their 16-byte binary form.
+ * <p>
+ * The first 48 bits hold the Unix time in milliseconds and the following 12 bits a counter, so ids generated by this
+ * process sort in generation order, even within the same millisecond. When the counter overflows, the timestamp is
+ * moved one millisecond ahead instead of waiting for the clock. The remaining 62 bits are random.
+ * </p>
+ * <p>
+ * Stored as {@code BINARY(16)} in big-endian order, the ids of new rows land at the end of the primary key index
+ * instead of in random pages. The generator is lock-free: the only shared state is the last timestamp and counter,
+ * advanced with a compare-and-set.
+ * </p>
+ */
+public final class TimeOrderedUuid {
+
+    private static final int COUNTER_BITS = 12;
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    /** The timestamp of the last id, shifted left by {@link #COUNTER_BITS}, plus its counter. */
+    private static final AtomicLong last = new AtomicLong();
+
+    private TimeOrderedUuid() {
+    }
+
+    /**
+     * @return a new version 7 UUID, greater than all the ones previously returned by this method
+     */
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long timeAndCounter = last.accumulateAndGet(now, (previous, current) -> Math.max(current, previous + 1));
+
+        long mostSigBits = (timeAndCounter >>> COUNTER_BITS) << 16 | VERSION | (timeAndCounter & 0xFFF);
+        long leastSigBits = ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * @return the 16 bytes of the UUID in big-endian order, as stored in {@code BINARY(16)} columns
+     */
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * @param bytes the 16 bytes of a {@code BINARY(16)} column, or {@code null}
+     * @return the UUID, or {@code null} if {@code bytes} is {@code null}
+     * @throws IllegalArgumentException if {@code bytes} is not 16 bytes long
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("A UUID has 16 bytes, got " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Parses an id received through the API.
+     *
+     * @throws IllegalArgumentException if {@code id} is not a UUID
+     */
+    public static UUID parse(String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Id is missing");
+        }
+        return UUID.fromString(id);
+    }
+}
@@ -1,35 +1,98 @@
 package com.dataflow.dataingestionservice.Utils;
 
+import com.dataflow.dataingestionservice.Config.Partitioner.TransactionFilePartitioner;
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
 import com.dataflow.dataingestionservice.DTO.ImportErrorRowDTO;
 import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Services.ImportErrorReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.core.scope.context.StepSynchronizationManager;
 import org.springframework.batch.item.file.FlatFileParseException;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Records the rows skipped by a transaction import step.
+ * <p>
+ * Every error row is appended to the step's compressed error file through the {@link ImportErrorReportService} as it
+ * occurs. Only the number of error rows and the first {@code transaction.import.error-sample-size} of them are kept in
+ * memory and in the step execution context, so the context stays small however many rows are skipped.
+ * </p>
+ * <p>
+ * Steps reading one sheet of an Excel workbook tag their error rows with the sheet; their row numbers are those of the
+ * sheet. Steps reading one entry of a {@code .zip} archive likewise tag them with the entry, in the same column.
+ * </p>
+ */
 @Component
 @StepScope
 public class TransactionImportSkipListener implements SkipListener<Transaction, Transaction>, StepExecutionListener {
 
-    public static final String IMPORT_ERRORS_CONTEXT_KEY = "transactionImportErrors";
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImportSkipListener.class);
 
-    private final List<ImportErrorRowDTO> errors = new ArrayList<>();
+    public static final String IMPORT_ERROR_COUNT_CONTEXT_KEY = "transactionImportErrorCount";
+    public static final String IMPORT_ERROR_SAMPLE_CONTEXT_KEY = "transactionImportErrorSample";
 
+    /**
+     * The number of rows a step rejected with set-based checks. These rows bypass the chunk processor, which counts
+     * the skips, so they are counted in the execution context instead, which is restored when a chunk rolls back.
+     */
+    public static final String REJECTED_ROW_COUNT_CONTEXT_KEY = "transactionImportRejectedRowCount";
+
+    private final ImportErrorReportService importErrorReportService;
+    private final int sampleSize;
+
+    private final List<ImportErrorRowDTO> sample = new ArrayList<>();
+    private int errorCount;
+    private ImportErrorReportService.ErrorFileWriter errorFile;
+    private boolean errorFileFailed;
+
+    private StepExecution stepExecution;
+
+    // Number of file lines preceding the partition read by this step
+    private long lineOffset;
+
+    // Sheet read by this step, for Excel imports split by sheet, or entry, for archives split by entry
+    private String sheetName;
+
+    public TransactionImportSkipListener(ImportErrorReportService importErrorReportService,
+                                         TransactionImportProperties properties) {
+        this.importErrorReportService = importErrorReportService;
+        this.sampleSize = properties.getErrorSampleSize();
+    }
+
+    /**
+     * Starts counting the errors of the step. A restarted step starts with the count and sample saved by the last
+     * commit of its previous run.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public void beforeStep(StepExecution stepExecution) {
-        errors.clear();
+        this.stepExecution = stepExecution;
+        var executionContext = stepExecution.getExecutionContext();
+        sample.clear();
+        if (executionContext.get(IMPORT_ERROR_SAMPLE_CONTEXT_KEY) instanceof List<?> restored) {
+            sample.addAll((List<ImportErrorRowDTO>) restored);
+        }
+        errorCount = executionContext.getInt(IMPORT_ERROR_COUNT_CONTEXT_KEY, 0);
+        errorFileFailed = false;
+        lineOffset = executionContext.getLong(TransactionFilePartitioner.LINE_OFFSET_KEY, 0L);
+        sheetName = executionContext.getString(TransactionFilePartitioner.SHEET_NAME_KEY,
+                executionContext.getString(TransactionFilePartitioner.ENTRY_NAME_KEY, null));
     }
 
     @Override
     public ExitStatus afterStep(StepExecution stepExecution) {
-        stepExecution.getExecutionContext().put(IMPORT_ERRORS_CONTEXT_KEY, new ArrayList<>(errors));
+        closeErrorFile();
+        stepExecution.getExecutionContext().putInt(IMPORT_ERROR_COUNT_CONTEXT_KEY, errorCount);
+        stepExecution.getExecutionContext().put(IMPORT_ERROR_SAMPLE_CONTEXT_KEY, new ArrayList<>(sample));
         return stepExecution.getExitStatus();
     }
 
@@ -39,40 +102,65 @@ public class TransactionImportSkipListener implements SkipListener<Transaction,
         String rawData = "";
 
         if (t instanceof FlatFileParseException ex) {
-            rowNumber = ex.getLineNumber();
+            rowNumber = Math.toIntExact(ex.getLineNumber() + lineOffset);
             rawData = ex.getInput();
         }
 
-        addError(new ImportErrorRowDTO(rowNumber, "READ", cleanMessage(t), rawData));
+        addError(new ImportErrorRowDTO(sheetName, rowNumber, "READ", cleanMessage(t), rawData));
     }
 
     @Override
     public void onSkipInProcess(Transaction item, Throwable t) {
-        addError(new ImportErrorRowDTO(null, "PROCESS", cleanMessage(t), describe(item)));
+        addError(new ImportErrorRowDTO(sheetName, null, "PROCESS", cleanMessage(t), describe(item)));
     }
 
     @Override
     public void onSkipInWrite(Transaction item, Throwable t) {
-        addError(new ImportErrorRowDTO(null, "WRITE", cleanMessage(t), describe(item)));
+        addError(new ImportErrorRowDTO(sheetName, null, "WRITE", cleanMessage(t), describe(item)));
     }
 
-    @SuppressWarnings("unchecked")
     private void addError(ImportErrorRowDTO error) {
-        errors.add(error);
+        errorCount++;
+        writeToErrorFile(error);
+
+        var executionContext = stepExecution.getExecutionContext();
+        executionContext.putInt(IMPORT_ERROR_COUNT_CONTEXT_KEY, errorCount);
+        if (sample.size() < sampleSize) {
+            sample.add(error);
+            executionContext.put(IMPORT_ERROR_SAMPLE_CONTEXT_KEY, new ArrayList<>(sample));
+        }
+    }
 
-        var context = StepSynchronizationManager.getContext();
-        if (context == null) {
+    /**
+     * Appends the row to the error file, opening it on the first error. The import goes on if the file cannot be
+     * written; the report then only has the rows written before the failure.
+     */
+    private void writeToErrorFile(ImportErrorRowDTO error) {
+        if (errorFileFailed) {
             return;
         }
+        try {
+            if (errorFile == null) {
+                errorFile = importErrorReportService.openErrorFile(stepExecution.getJobExecutionId(), stepExecution.getStepName());
+            }
+            errorFile.write(error);
+        } catch (IOException e) {
+            logger.error("Failed to write the error report of step {}", stepExecution.getStepName(), e);
+            errorFileFailed = true;
+            closeErrorFile();
+        }
+    }
 
-        var executionContext = context.getStepExecution().getExecutionContext();
-        Object current = executionContext.get(IMPORT_ERRORS_CONTEXT_KEY);
-        List<ImportErrorRowDTO> contextErrors = current instanceof List<?>
-                ? (List<ImportErrorRowDTO>) current
-                : new ArrayList<>();
-
-        contextErrors.add(error);
-        executionContext.put(IMPORT_ERRORS_CONTEXT_KEY, new ArrayList<>(contextErrors));
+    private void closeErrorFile() {
+        if (errorFile == null) {
+            return;
+        }
+        try {
+            errorFile.close();
+        } catch (IOException e) {
+            logger.error("Failed to close the error report of step {}", stepExecution.getStepName(), e);
+        }
+        errorFile = null;
     }
 
     private String cleanMessage(Throwable t) {
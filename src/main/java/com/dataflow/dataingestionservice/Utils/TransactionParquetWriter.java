@@ -0,0 +1,245 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Writes {@link Transaction}s to a Parquet file streamed to an {@link OutputStream}, such as an HTTP response.
+ * <p>
+ * The columns are named as the import reads them, so an export can be imported again: {@code id} (UUID),
+ * {@code transactionDate} and {@code createdAt} (local timestamps in microseconds), {@code categoryName},
+ * {@code description}, {@code amount} (a decimal with the two digits of the stored amounts), {@code currencyCode},
+ * {@code paymentMode} and {@code type}. The columns with few distinct values, categories, currencies, payment modes and
+ * types, are dictionary-encoded; the others, mostly distinct, are not, which saves building dictionaries that would be
+ * thrown away. Pages are compressed with Zstandard.
+ * </p>
+ * <p>
+ * Parquet only writes forward, so the file goes straight to the stream. A row group is buffered until it reaches
+ * {@value #ROW_GROUP_SIZE} bytes, which bounds the memory of an export.
+ * </p>
+ */
+public class TransactionParquetWriter implements Closeable {
+
+    /**
+     * The media type of Parquet files.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.apache.parquet";
+
+    static final long ROW_GROUP_SIZE = 16 * 1024 * 1024;
+
+    private static final int AMOUNT_SCALE = 2;
+
+    public static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY).length(16).as(LogicalTypeAnnotation.uuidType()).named("id")
+            .required(PrimitiveTypeName.INT64).as(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS)).named("transactionDate")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("categoryName")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("description")
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.decimalType(AMOUNT_SCALE, 38)).named("amount")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("currencyCode")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("paymentMode")
+            .required(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("type")
+            .optional(PrimitiveTypeName.INT64).as(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS)).named("createdAt")
+            .named("transaction");
+
+    private final ParquetWriter<Transaction> writer;
+
+    /**
+     * @param out the stream the file is written to; it is flushed but not closed when the writer is closed
+     * @throws IOException if the file cannot be started
+     */
+    public TransactionParquetWriter(OutputStream out) throws IOException {
+        this.writer = new Builder(new StreamOutputFile(out))
+                .withConf(new PlainParquetConfiguration())
+                .withCompressionCodec(CompressionCodecName.ZSTD)
+                .withRowGroupSize(ROW_GROUP_SIZE)
+                .withDictionaryEncoding(false)
+                .withDictionaryEncoding("categoryName", true)
+                .withDictionaryEncoding("currencyCode", true)
+                .withDictionaryEncoding("paymentMode", true)
+                .withDictionaryEncoding("type", true)
+                .build();
+    }
+
+    /**
+     * Appends a transaction. Its category and currency must be loaded.
+     */
+    public void write(Transaction transaction) throws IOException {
+        writer.write(transaction);
+    }
+
+    /**
+     * Writes the last row group and the footer.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static long micros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static class Builder extends ParquetWriter.Builder<Transaction, Builder> {
+
+        Builder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        /**
+         * Still abstract in the builder, but never called: the writer is configured with a {@link ParquetConfiguration}.
+         */
+        @Deprecated
+        @Override
+        protected WriteSupport<Transaction> getWriteSupport(Configuration conf) {
+            throw new UnsupportedOperationException("Hadoop configurations are not supported");
+        }
+
+        @Override
+        protected WriteSupport<Transaction> getWriteSupport(ParquetConfiguration conf) {
+            return new TransactionWriteSupport();
+        }
+    }
+
+    private static class TransactionWriteSupport extends WriteSupport<Transaction> {
+
+        private RecordConsumer consumer;
+
+        /**
+         * Still abstract in the write support, but never called: the writer is configured with a {@link ParquetConfiguration}.
+         */
+        @Deprecated
+        @Override
+        public WriteContext init(Configuration configuration) {
+            throw new UnsupportedOperationException("Hadoop configurations are not supported");
+        }
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(SCHEMA, Map.of());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(Transaction transaction) {
+            consumer.startMessage();
+            writeField(0, "id", Binary.fromConstantByteArray(TimeOrderedUuid.toBytes(transaction.getId())));
+            writeField(1, "transactionDate", micros(transaction.getTransactionDate()));
+            writeField(2, "categoryName", transaction.getCategory() != null ? transaction.getCategory().getName() : null);
+            writeField(3, "description", transaction.getDescription());
+            // Amounts are stored with two decimals, so they are never rounded
+            writeField(4, "amount", Binary.fromConstantByteArray(
+                    transaction.getAmount().setScale(AMOUNT_SCALE, RoundingMode.UNNECESSARY).unscaledValue().toByteArray()));
+            writeField(5, "currencyCode", transaction.getCurrency() != null ? transaction.getCurrency().getCode() : null);
+            writeField(6, "paymentMode", transaction.getPaymentMode() != null ? transaction.getPaymentMode().name() : null);
+            writeField(7, "type", transaction.getType().name());
+            if (transaction.getCreatedAt() != null) {
+                writeField(8, "createdAt", micros(transaction.getCreatedAt()));
+            }
+            consumer.endMessage();
+        }
+
+        private void writeField(int index, String name, String value) {
+            if (value != null) {
+                writeField(index, name, Binary.fromString(value));
+            }
+        }
+
+        private void writeField(int index, String name, Binary value) {
+            consumer.startField(name, index);
+            consumer.addBinary(value);
+            consumer.endField(name, index);
+        }
+
+        private void writeField(int index, String name, long value) {
+            consumer.startField(name, index);
+            consumer.addLong(value);
+            consumer.endField(name, index);
+        }
+    }
+
+    /**
+     * An {@link OutputFile} writing forward to a stream, counting the bytes written for the offsets of the footer.
+     */
+    private record StreamOutputFile(OutputStream out) implements OutputFile {
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // The stream belongs to the caller
+                    out.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
+import com.dataflow.dataingestionservice.Errors.BusinessConflictException;
+import com.dataflow.dataingestionservice.Errors.ResourceNotFoundException;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the {@link BoundedPipe}s of uploads that are streamed straight into a batch job.
+ * <p>
+ * The request thread writes the request body into the pipe with {@link #transfer(String, InputStream)} while the
+ * job's reader consumes it through {@link #resource(String)}, so upload and parsing overlap and the upload is
+ * never copied to disk. Jobs find their pipe through the {@code uploadId} job parameter.
+ * </p>
+ */
+@Component
+public class UploadPipeRegistry {
+
+    private final Map<String, BoundedPipe> pipes = new ConcurrentHashMap<>();
+    private final TransactionImportProperties properties;
+
+    public UploadPipeRegistry(TransactionImportProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Creates a new pipe sized by {@code transaction.import.stream-buffer-size}.
+     *
+     * @return the id of the new pipe, to be passed to the job as the {@code uploadId} parameter
+     */
+    public String open() {
+        String uploadId = UUID.randomUUID().toString();
+        int capacity = Math.max(1, properties.getStreamBufferSize() / BoundedPipe.CHUNK_SIZE);
+        pipes.put(uploadId, new BoundedPipe(capacity, properties.getStreamWriteTimeoutMillis()));
+        return uploadId;
+    }
+
+    /**
+     * Returns a single-use {@link Resource} reading from the pipe.
+     *
+     * @param uploadId the id returned by {@link #open()}
+     * @return a {@link Resource} over the reading end of the pipe
+     */
+    public Resource resource(String uploadId) {
+        return new InputStreamResource(get(uploadId).getInputStream(), "upload " + uploadId);
+    }
+
+    /**
+     * Copies the upload into the pipe, blocking whenever the pipe is full, and signals the end of the upload.
+     * If the upload cannot be read, the pipe is failed so that the job does not treat a truncated upload as complete.
+     *
+     * @param uploadId the id returned by {@link #open()}
+     * @param body     the request body
+     * @throws IOException if the upload could not be read or the job stopped reading it
+     * @throws BusinessConflictException if the job has already ended and discarded the pipe
+     */
+    public void transfer(String uploadId, InputStream body) throws IOException {
+        BoundedPipe pipe = pipes.get(uploadId);
+        if (pipe == null) {
+            throw new BusinessConflictException("The import stopped before the upload could be read");
+        }
+        OutputStream out = pipe.getOutputStream();
+        byte[] buffer = new byte[BoundedPipe.CHUNK_SIZE];
+        try {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            out.close();
+        } catch (IOException e) {
+            pipe.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the pipe and releases a writer that may still be blocked on it.
+     *
+     * @param uploadId the id returned by {@link #open()}
+     */
+    public void discard(String uploadId) {
+        BoundedPipe pipe = pipes.remove(uploadId);
+        if (pipe != null) {
+            pipe.closeReader();
+        }
+    }
+
+    private BoundedPipe get(String uploadId) {
+        BoundedPipe pipe = pipes.get(uploadId);
+        if (pipe == null) {
+            throw new ResourceNotFoundException("Upload not found");
+        }
+        return pipe;
+    }
+}
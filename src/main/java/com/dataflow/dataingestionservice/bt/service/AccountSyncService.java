@@ -4,13 +4,15 @@ import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
 import com.dataflow.dataingestionservice.Models.Currency;
 import com.dataflow.dataingestionservice.Models.Expense;
 import com.dataflow.dataingestionservice.Models.Transaction;
-import com.dataflow.dataingestionservice.Repositories.CurrencyRepository;
 import com.dataflow.dataingestionservice.Repositories.ExpenseRepository;
 import com.dataflow.dataingestionservice.Repositories.TransactionRepository;
+import com.dataflow.dataingestionservice.Services.CurrencyRegistry;
+import com.dataflow.dataingestionservice.Services.ReportingOutbox;
 import com.dataflow.dataingestionservice.Services.TransactionService;
 import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
 import com.dataflow.dataingestionservice.Utils.Constants.SyncOperation;
 import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
+import com.dataflow.dataingestionservice.Utils.TimeOrderedUuid;
 import com.dataflow.dataingestionservice.bt.config.BtApiProperties;
 import com.dataflow.dataingestionservice.bt.model.BankAccount;
 import com.dataflow.dataingestionservice.bt.model.UserBtDetail;
@@ -18,6 +20,7 @@ import com.dataflow.dataingestionservice.bt.repository.BankAccountRepository;
 import com.dataflow.dataingestionservice.bt.repository.UserBtDetailRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -38,7 +41,8 @@ public class AccountSyncService {
     private final TransactionService transactionService;
     private final BankAccountRepository bankAccountRepository;
     private final TransactionRepository transactionRepository;
-    private final CurrencyRepository currencyRepository;
+    private final CurrencyRegistry currencyRegistry;
+    private final ReportingOutbox reportingOutbox;
 
     private final AuthService authService;
     private final DateTimeFormatter[] POSSIBLE_DATE_FORMATS = new DateTimeFormatter[] {
@@ -48,19 +52,21 @@ public class AccountSyncService {
             DateTimeFormatter.ISO_LOCAL_DATE
     };
 
-    public AccountSyncService(RestTemplate restTemplate, BtApiProperties props,
+    public AccountSyncService(@Qualifier("btRestTemplate") RestTemplate restTemplate, BtApiProperties props,
                               BankAccountRepository bankAccountRepository,
                               TransactionRepository transactionRepository,
-                              CurrencyRepository currencyRepository,
+                              CurrencyRegistry currencyRegistry,
                               AuthService authService,
-                              TransactionService transactionService) {
+                              TransactionService transactionService,
+                              ReportingOutbox reportingOutbox) {
         this.restTemplate = restTemplate;
         this.props = props;
         this.bankAccountRepository = bankAccountRepository;
         this.transactionRepository = transactionRepository;
-        this.currencyRepository = currencyRepository;
+        this.currencyRegistry = currencyRegistry;
         this.authService = authService;
         this.transactionService = transactionService;
+        this.reportingOutbox = reportingOutbox;
     }
 
     /**
@@ -232,7 +238,7 @@ public class AccountSyncService {
                 continue;
             }
             String currencyCode = amountNode.path("currency").asText(null);
-            Currency currencyEntity = currencyCode != null ? currencyRepository.findByCodeContainingIgnoreCase(currencyCode) : null;
+            Currency currencyEntity = currencyRegistry.findByCode(currencyCode);
 
             String transactionDetails = txNode.path("details").asText();
 
@@ -251,7 +257,7 @@ public class AccountSyncService {
             //positive -> income
 
              Transaction t = new Transaction();
-             t.setId(UUID.randomUUID().toString());
+             t.setId(TimeOrderedUuid.next());
              t.setBtTransactionId(btId);
              t.setUserId(userBtDetail.getUserId());
              t.setTransactionDate(syntheticDateTime);
@@ -271,7 +277,7 @@ public class AccountSyncService {
         // bulk save (filtered for duplicates)
         if (!txsToSave.isEmpty()) {
             transactionRepository.saveAll(txsToSave);
-            transactionService.sendToReportingService(txsToSync);
+            reportingOutbox.addTransactions(txsToSync);
             System.out.println("Saved " + txsToSave.size() + " transactions for account " + account.getIban());
         }
 
@@ -3,6 +3,7 @@ package com.dataflow.dataingestionservice.bt.service;
 import com.dataflow.dataingestionservice.bt.config.BtApiProperties;
 import com.dataflow.dataingestionservice.bt.model.UserBtDetail;
 import com.dataflow.dataingestionservice.bt.repository.UserBtDetailRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
@@ -18,7 +19,7 @@ public class AuthService {
 
     private final UserBtDetailRepository userBtDetailRepository;
 
-    public AuthService(BtApiProperties props, RestTemplate restTemplate, UserBtDetailRepository userBtDetailRepository){
+    public AuthService(BtApiProperties props, @Qualifier("btRestTemplate") RestTemplate restTemplate, UserBtDetailRepository userBtDetailRepository){
         this.props = props;
         this.restTemplate = restTemplate;
         this.userBtDetailRepository = userBtDetailRepository;
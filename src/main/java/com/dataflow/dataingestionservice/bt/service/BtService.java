@@ -1,7 +1,7 @@
 package com.dataflow.dataingestionservice.bt.service;
 
 import com.dataflow.dataingestionservice.Models.Currency;
-import com.dataflow.dataingestionservice.Repositories.CurrencyRepository;
+import com.dataflow.dataingestionservice.Services.CurrencyRegistry;
 import com.dataflow.dataingestionservice.Utils.SecurityUtils;
 import com.dataflow.dataingestionservice.bt.config.BtApiProperties;
 import com.dataflow.dataingestionservice.bt.dto.BankAccountDTO;
@@ -13,6 +13,7 @@ import com.dataflow.dataingestionservice.bt.util.PkceUtil;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
@@ -29,13 +30,13 @@ public class BtService {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final UserBtDetailRepository btUserDetailRepository;
-    private final CurrencyRepository currencyRepository;
+    private final CurrencyRegistry currencyRegistry;
     private final BankAccountRepository bankAccountRepository;
     private final AccountSyncService accountSyncService;
     private final AuthService authService;
-    public BtService(BtApiProperties props, RestTemplate restTemplate,
+    public BtService(BtApiProperties props, @Qualifier("btRestTemplate") RestTemplate restTemplate,
                      UserBtDetailRepository btUserDetailRepository,
-                     CurrencyRepository currencyRepository,
+                     CurrencyRegistry currencyRegistry,
                      BankAccountRepository bankAccountRepository,
                      ObjectMapper objectMapper,
                      AuthService authService,
@@ -43,7 +44,7 @@ public class BtService {
         this.props = props;
         this.restTemplate = restTemplate;
         this.btUserDetailRepository = btUserDetailRepository;
-        this.currencyRepository = currencyRepository;
+        this.currencyRegistry = currencyRegistry;
         this.objectMapper = objectMapper;
         this.bankAccountRepository = bankAccountRepository;
         this.authService = authService;
@@ -218,7 +219,7 @@ public class BtService {
 
                         BankAccount bankAccountExists = bankAccountRepository.getBankAccountByResourceId(newBankAccountDTO.getResourceId());
                         if(bankAccountExists == null) {
-                            Currency currency = currencyRepository.findByCodeContainingIgnoreCase(newBankAccountDTO.getCurrency());
+                            Currency currency = currencyRegistry.findByCode(newBankAccountDTO.getCurrency());
 
 
                             BankAccount bankAccount = new BankAccount();
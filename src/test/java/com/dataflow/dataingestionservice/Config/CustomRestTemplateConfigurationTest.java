@@ -0,0 +1,39 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.HttpClientProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import javax.net.ssl.SSLContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomRestTemplateConfigurationTest {
+
+    @Test
+    void publishesPoolLimitsPerClient() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getReporting().setMaxConnections(20);
+        properties.getReporting().setMaxConnectionsPerHost(8);
+        properties.getBt().setMaxConnections(6);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        HttpComponentsClientHttpRequestFactory reporting = CustomRestTemplateConfiguration.pooledRequestFactory(
+                "reporting", properties.getReporting(), SSLContext.getDefault(), meterRegistry);
+        HttpComponentsClientHttpRequestFactory bt = CustomRestTemplateConfiguration.pooledRequestFactory(
+                "bt", properties.getBt(), SSLContext.getDefault(), meterRegistry);
+
+        try {
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "reporting").gauge().value()).isEqualTo(20);
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.route.max.default")
+                    .tag("httpclient", "reporting").gauge().value()).isEqualTo(8);
+            assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "bt").gauge().value()).isEqualTo(6);
+        } finally {
+            reporting.destroy();
+            bt.destroy();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.dataflow.dataingestionservice.Config.ItemProcessor;
+
+import com.dataflow.dataingestionservice.Models.Category;
+import com.dataflow.dataingestionservice.Repositories.CategoryRepository;
+import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CategoryCacheTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final CategoryCache cache = new CategoryCache(categoryRepository);
+
+    @Test
+    void resolvesPreloadedNamesIgnoringCase() {
+        Category food = new Category("c1", "Food", TransactionType.EXPENSE, "u1", null, LocalDateTime.now());
+        when(categoryRepository.findAllByUserId("u1")).thenReturn(List.of(food));
+
+        cache.preload("u1");
+
+        assertThat(cache.resolve("u1", "FOOD")).isSameAs(food);
+        assertThat(cache.resolve("u1", "food")).isSameAs(food);
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isZero();
+    }
+
+    @Test
+    void looksUpUnknownNamesOnce() {
+        when(categoryRepository.findAllByUserId("u1")).thenReturn(List.of());
+
+        cache.preload("u1");
+
+        assertThat(cache.resolve("u1", "Rent")).isNull();
+        assertThat(cache.resolve("u1", "rent")).isNull();
+        verify(categoryRepository, times(1)).findFirstByUserIdAndNameIgnoreCaseOrderByIdAsc("u1", "Rent");
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void namesDifferingOnlyInCaseResolveToTheSmallestId() {
+        Category upper = new Category("c2", "FOOD", TransactionType.EXPENSE, "u1", null, LocalDateTime.now());
+        Category lower = new Category("c1", "food", TransactionType.EXPENSE, "u1", null, LocalDateTime.now());
+        when(categoryRepository.findAllByUserId("u1")).thenReturn(List.of(lower, upper));
+        when(categoryRepository.findAllByUserIdAndLowerNameIn("u1", Set.of("food"))).thenReturn(List.of(upper, lower));
+
+        cache.preload("u1");
+        CategoryCache loaded = new CategoryCache(categoryRepository);
+        loaded.load("u1", List.of("Food"));
+
+        assertThat(cache.resolve("u1", "Food")).isSameAs(lower);
+        assertThat(loaded.resolve("u1", "Food")).isSameAs(lower);
+    }
+
+    @Test
+    void loadsMissingNamesOfAChunkWithOneQuery() {
+        Category food = new Category("c1", "Food", TransactionType.EXPENSE, "u1", null, LocalDateTime.now());
+        when(categoryRepository.findAllByUserIdAndLowerNameIn("u1", Set.of("food", "rent"))).thenReturn(List.of(food));
+
+        cache.load("u1", List.of("Food", "FOOD", "Rent"));
+        cache.load("u1", List.of("food", "rent"));
+
+        assertThat(cache.resolve("u1", "food")).isSameAs(food);
+        assertThat(cache.resolve("u1", "RENT")).isNull();
+        verify(categoryRepository, times(1)).findAllByUserIdAndLowerNameIn("u1", Set.of("food", "rent"));
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+}
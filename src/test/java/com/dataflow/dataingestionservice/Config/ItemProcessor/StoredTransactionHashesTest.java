@@ -0,0 +1,70 @@
+package com.dataflow.dataingestionservice.Config.ItemProcessor;
+
+import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StoredTransactionHashesTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final StoredTransactionHashes hashes = new StoredTransactionHashes(jdbcTemplate, "u1");
+
+    @Test
+    void hashIgnoresCategoryCaseAndAmountScale() {
+        assertThat(StoredTransactionHashes.hash("Food", "Lunch", new BigDecimal("12.5"), "c1", "CARD", "EXPENSE"))
+                .isEqualTo(StoredTransactionHashes.hash("food", "Lunch", new BigDecimal("12.50"), "c1", "CARD", "EXPENSE"));
+        assertThat(StoredTransactionHashes.hash("", "Lunch", BigDecimal.TEN, "c1", "CARD", "EXPENSE"))
+                .isEqualTo(StoredTransactionHashes.hash(null, "Lunch", BigDecimal.TEN, "c1", "CARD", "EXPENSE"));
+    }
+
+    @Test
+    void hashSeparatesColumns() {
+        assertThat(StoredTransactionHashes.hash("ab", "c", BigDecimal.ONE, "c1", "CARD", "EXPENSE"))
+                .isNotEqualTo(StoredTransactionHashes.hash("a", "bc", BigDecimal.ONE, "c1", "CARD", "EXPENSE"));
+        assertThat(StoredTransactionHashes.hash("Food", "", BigDecimal.ONE, "c1", "CARD", "EXPENSE"))
+                .isNotEqualTo(StoredTransactionHashes.hash("Food", null, BigDecimal.ONE, "c1", "CARD", "EXPENSE"));
+    }
+
+    @Test
+    void repeatOfAWrittenRowIsUnchangedAndMonthIsLoadedOnce() {
+        Transaction first = transaction(LocalDateTime.of(2024, 3, 1, 10, 0), "12.50");
+        Transaction repeated = transaction(LocalDateTime.of(2024, 3, 1, 10, 0), "12.5");
+        Transaction edited = transaction(LocalDateTime.of(2024, 3, 1, 10, 0), "13");
+
+        assertThat(hashes.isUnchanged(first)).isFalse();
+        // Checking a row does not record it, so a chunk processed again after a skip is not filtered out
+        assertThat(hashes.isUnchanged(first)).isFalse();
+        hashes.record(first);
+        assertThat(hashes.isUnchanged(repeated)).isTrue();
+        assertThat(hashes.isUnchanged(edited)).isFalse();
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), any(), any(), any());
+    }
+
+    private static Transaction transaction(LocalDateTime date, String amount) {
+        Currency currency = new Currency();
+        currency.setId("c1");
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDate(date);
+        transaction.setCategoryName("Food");
+        transaction.setDescription("Lunch");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setCurrency(currency);
+        transaction.setPaymentMode(PaymentMethod.CARD);
+        transaction.setType(TransactionType.EXPENSE);
+        return transaction;
+    }
+}
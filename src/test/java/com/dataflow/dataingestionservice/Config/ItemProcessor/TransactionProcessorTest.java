@@ -0,0 +1,70 @@
+package com.dataflow.dataingestionservice.Config.ItemProcessor;
+
+import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Services.CurrencyRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.tasklet.TaskletStep;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionProcessorTest {
+
+    @Test
+    void rowsOfAChunkWithASkippedRowAreAllWritten() throws Exception {
+        Currency ron = new Currency();
+        ron.setId("c1");
+        ron.setCode("RON");
+        CurrencyRegistry currencyRegistry = mock(CurrencyRegistry.class);
+        when(currencyRegistry.findByCode("RON")).thenReturn(ron);
+        TransactionProcessor processor = new TransactionProcessor(currencyRegistry, "u1",
+                new StoredTransactionHashes(mock(JdbcTemplate.class), "u1"));
+
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Transaction row = new Transaction();
+            row.setTransactionDate(LocalDateTime.of(2024, 3, i, 10, 0));
+            row.setAmount(BigDecimal.valueOf(i));
+            // The third row has an unknown currency and is skipped
+            row.setCurrencyCode(i == 3 ? "XXX" : "RON");
+            rows.add(row);
+        }
+        List<BigDecimal> written = new ArrayList<>();
+
+        ResourcelessJobRepository jobRepository = new ResourcelessJobRepository();
+        TaskletStep step = new StepBuilder("step", jobRepository)
+                .<Transaction, Transaction>chunk(5, new ResourcelessTransactionManager())
+                .reader(new ListItemReader<>(rows))
+                .processor(processor)
+                .writer(chunk -> chunk.forEach(item -> written.add(item.getAmount())))
+                .faultTolerant()
+                .skip(Exception.class)
+                .skipLimit(10)
+                .listener((ItemWriteListener<Transaction>) processor)
+                .build();
+        JobExecution jobExecution = jobRepository.createJobExecution("job", new JobParameters());
+        StepExecution stepExecution = jobExecution.createStepExecution("step");
+
+        step.execute(stepExecution);
+
+        assertThat(written).containsExactly(BigDecimal.valueOf(1), BigDecimal.valueOf(2), BigDecimal.valueOf(4), BigDecimal.valueOf(5));
+        assertThat(stepExecution.getFilterCount()).isZero();
+        assertThat(stepExecution.getProcessSkipCount()).isEqualTo(1);
+    }
+}
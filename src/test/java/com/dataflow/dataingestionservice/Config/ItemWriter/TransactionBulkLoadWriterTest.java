@@ -0,0 +1,51 @@
+package com.dataflow.dataingestionservice.Config.ItemWriter;
+
+import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionBulkLoadWriterTest {
+
+    @Test
+    void encodesRowsForLoadData() {
+        Currency currency = new Currency();
+        currency.setId("currency-1");
+
+        Transaction first = new Transaction();
+        first.setId(UUID.fromString("0192f3c4-5b6a-7d8e-9f01-23456789abcd"));
+        first.setUserId("user-1");
+        first.setTransactionDate(LocalDateTime.of(2025, 2, 11, 3, 36));
+        first.setDescription("tab\there\\ and\nnewline");
+        first.setAmount(new BigDecimal("1E+3"));
+        first.setCurrency(currency);
+        first.setPaymentMode(PaymentMethod.values()[0]);
+        first.setCreatedAt(LocalDateTime.of(2025, 2, 12, 10, 0, 0, 123_456_000));
+        first.setType(TransactionType.INCOME);
+
+        Transaction second = new Transaction();
+        second.setId(UUID.fromString("0192f3c4-5b6a-7d8e-9f01-23456789abce"));
+        second.setUserId("user-1");
+        second.setTransactionDate(LocalDateTime.of(2025, 2, 11, 3, 37));
+        second.setAmount(new BigDecimal("-5.50"));
+        second.setCurrency(currency);
+        second.setCreatedAt(LocalDateTime.of(2025, 2, 12, 10, 0));
+        second.setType(TransactionType.EXPENSE);
+
+        String rows = new String(TransactionBulkLoadWriter.encode(List.of(first, second)), StandardCharsets.UTF_8);
+
+        assertThat(rows).isEqualTo(
+                "0\t0192f3c45b6a7d8e9f0123456789abcd\tuser-1\t2025-02-11 03:36:00.000000\t\\N\ttab\\there\\\\ and\\nnewline\t1000\tcurrency-1\t"
+                        + PaymentMethod.values()[0].name() + "\t2025-02-12 10:00:00.123456\tINCOME\n"
+                        + "1\t0192f3c45b6a7d8e9f0123456789abce\tuser-1\t2025-02-11 03:37:00.000000\t\\N\t\\N\t-5.50\tcurrency-1\t\\N\t2025-02-12 10:00:00.000000\tEXPENSE\n");
+    }
+}
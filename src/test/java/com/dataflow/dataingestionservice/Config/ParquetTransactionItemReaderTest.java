@@ -0,0 +1,187 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Category;
+import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.dataflow.dataingestionservice.Utils.Constants.TransactionType;
+import com.dataflow.dataingestionservice.Utils.TimeOrderedUuid;
+import com.dataflow.dataingestionservice.Utils.TransactionParquetWriter;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParquetTransactionItemReaderTest {
+
+    private static final MessageType TEXT_SCHEMA = MessageTypeParser.parseMessageType("""
+            message transaction {
+              optional binary transaction_date (STRING);
+              optional binary category (STRING);
+              optional double amount;
+              optional int32 unused;
+            }
+            """);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsTheFilesOfTheExport() throws Exception {
+        Category food = new Category();
+        food.setName("Food");
+        Currency ron = new Currency();
+        ron.setCode("RON");
+        Path file = tempDir.resolve("export.parquet");
+        try (OutputStream out = Files.newOutputStream(file);
+             TransactionParquetWriter writer = new TransactionParquetWriter(out)) {
+            writer.write(transaction(LocalDateTime.of(2025, 2, 11, 3, 36, 0, 123_456_000), food, "Lunch", "-12.50", ron, PaymentMethod.CARD));
+            writer.write(transaction(LocalDateTime.of(2025, 2, 12, 10, 0), null, null, "100", ron, null));
+            writer.write(transaction(LocalDateTime.of(2025, 2, 13, 10, 0), food, "Dinner", "-7.25", ron, PaymentMethod.CASH));
+        }
+
+        ParquetTransactionItemReader reader = open(file, 0, Files.size(file), null);
+
+        Transaction first = reader.read();
+        assertThat(first.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 11, 3, 36, 0, 123_456_000));
+        assertThat(first.getCategoryName()).isEqualTo("Food");
+        assertThat(first.getDescription()).isEqualTo("Lunch");
+        assertThat(first.getAmount()).isEqualTo(new BigDecimal("-12.50"));
+        assertThat(first.getCurrencyCode()).isEqualTo("RON");
+        assertThat(first.getPaymentMode()).isEqualTo(PaymentMethod.CARD);
+
+        Transaction second = reader.read();
+        assertThat(second.getCategoryName()).isNull();
+        assertThat(second.getDescription()).isNull();
+        assertThat(second.getAmount()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(second.getPaymentMode()).isNull();
+
+        // Dictionary-encoded values are decoded into each row
+        Transaction third = reader.read();
+        assertThat(third.getCategoryName()).isEqualTo("Food");
+        assertThat(third.getPaymentMode()).isEqualTo(PaymentMethod.CASH);
+
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void invalidRowsAreSkippableAndReadingContinues() throws Exception {
+        Path file = writeTextFile("yesterday", "2025-02-11 03:36:00");
+
+        ParquetTransactionItemReader reader = open(file, 0, Files.size(file), "YYYY-MM-DD HH:mm:ss");
+
+        assertThatThrownBy(reader::read)
+                .isInstanceOfSatisfying(FlatFileParseException.class, e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(1);
+                    assertThat(e.getInput()).isEqualTo("transaction_date=yesterday");
+                });
+        Transaction transaction = reader.read();
+        assertThat(transaction.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 11, 3, 36));
+        assertThat(transaction.getCategoryName()).isEqualTo("Rent");
+        assertThat(transaction.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(2));
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void readsOnlyTheRowGroupsOfItsRange() throws Exception {
+        Path file = writeTextFile("2025-02-11 00:00:00", "2025-02-11 00:00:01", "2025-02-11 00:00:02");
+        List<BlockMetaData> rowGroups = ParquetTransactionItemReader.findRowGroups(file.toFile());
+        assertThat(rowGroups).hasSize(3);
+
+        BlockMetaData second = rowGroups.get(1);
+        ParquetTransactionItemReader reader = open(file, second.getStartingPos(),
+                second.getStartingPos() + second.getCompressedSize(), null);
+
+        assertThat(reader.read().getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 11, 0, 0, 1));
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void restartedReaderResumesAfterTheSavedRows() throws Exception {
+        Path file = writeTextFile("2025-02-11 00:00:00", "not a date", "2025-02-11 00:00:02");
+        ExecutionContext executionContext = new ExecutionContext();
+        ParquetTransactionItemReader reader = new ParquetTransactionItemReader(
+                new FileSystemResource(file), 0, Files.size(file), null);
+        reader.open(executionContext);
+        reader.read();
+        assertThatThrownBy(reader::read).isInstanceOf(FlatFileParseException.class);
+        reader.update(executionContext);
+        reader.close();
+
+        ParquetTransactionItemReader restarted = new ParquetTransactionItemReader(
+                new FileSystemResource(file), 0, Files.size(file), null);
+        restarted.open(executionContext);
+
+        assertThat(restarted.read().getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 11, 0, 0, 2));
+        assertThat(restarted.read()).isNull();
+        restarted.close();
+    }
+
+    /**
+     * Writes a file with text dates, one row per row group.
+     */
+    private Path writeTextFile(String... dates) throws IOException {
+        Path file = tempDir.resolve("upload.parquet");
+        SimpleGroupFactory groups = new SimpleGroupFactory(TEXT_SCHEMA);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file))
+                .withConf(new PlainParquetConfiguration())
+                .withType(TEXT_SCHEMA)
+                .withRowGroupSize(1L)
+                .withMinRowCountForPageSizeCheck(1)
+                .build()) {
+            for (String date : dates) {
+                writer.write(groups.newGroup()
+                        .append("transaction_date", date)
+                        .append("category", "Rent")
+                        .append("amount", 2.0)
+                        .append("unused", 7));
+            }
+        }
+        return file;
+    }
+
+    private static Transaction transaction(LocalDateTime date, Category category, String description, String amount,
+                                           Currency currency, PaymentMethod paymentMode) {
+        Transaction transaction = new Transaction();
+        transaction.setId(TimeOrderedUuid.next());
+        transaction.setTransactionDate(date);
+        transaction.setCategory(category);
+        transaction.setDescription(description);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setCurrency(currency);
+        transaction.setPaymentMode(paymentMode);
+        transaction.setType(TransactionType.INCOME);
+        return transaction;
+    }
+
+    private static ParquetTransactionItemReader open(Path file, long start, long end, String formatDateTime) {
+        ParquetTransactionItemReader reader = new ParquetTransactionItemReader(new FileSystemResource(file), start, end, formatDateTime);
+        reader.setSaveState(false);
+        reader.open(new ExecutionContext());
+        return reader;
+    }
+}
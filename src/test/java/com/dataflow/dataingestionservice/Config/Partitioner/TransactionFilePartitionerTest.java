@@ -0,0 +1,234 @@
+package com.dataflow.dataingestionservice.Config.Partitioner;
+
+import com.dataflow.dataingestionservice.Config.ParquetTransactionItemReader;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionFilePartitionerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void csvPartitionsAreLineAlignedAndCoverTheWholeFile() throws IOException {
+        StringBuilder csv = new StringBuilder("transactionDate,categoryName,description,amount,currencyCode,paymentMode\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append("2025-02-11 03:36:").append(i % 60).append(",Food,row ").append(i).append(",-").append(i).append(",RON,CARD\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("upload.csv"), bytes);
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file.toString(), 4).partition(1);
+
+        assertThat(partitions).hasSize(4);
+        List<ExecutionContext> contexts = new ArrayList<>(partitions.values());
+        long expectedStart = 0;
+        for (ExecutionContext context : contexts) {
+            long start = context.getLong(TransactionFilePartitioner.START_OFFSET_KEY);
+            long end = context.getLong(TransactionFilePartitioner.END_OFFSET_KEY);
+            long lineOffset = context.getLong(TransactionFilePartitioner.LINE_OFFSET_KEY);
+
+            assertThat(start).isEqualTo(expectedStart);
+            assertThat(start == 0 || bytes[(int) start - 1] == '\n').isTrue();
+            assertThat(lineOffset).isEqualTo(countLines(bytes, start));
+            expectedStart = end;
+        }
+        assertThat(expectedStart).isEqualTo(bytes.length);
+    }
+
+    @Test
+    void csvPartitionsNeverStartInsideAQuotedField() throws IOException {
+        StringBuilder csv = new StringBuilder("transactionDate,categoryName,description,amount,currencyCode,paymentMode\n");
+        for (int i = 0; i < 20; i++) {
+            // Each description spans many lines and holds an escaped quote
+            csv.append("2025-02-11 03:36:").append(i).append(",Food,\"row ").append(i).append(" said \"\"hi\"\"")
+                    .append("\nsecond line\n".repeat(10)).append("\",-").append(i).append(",RON,CARD\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("upload.csv"), bytes);
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file.toString(), 4).partition(1);
+
+        assertThat(partitions).hasSize(4);
+        for (ExecutionContext context : partitions.values()) {
+            long start = context.getLong(TransactionFilePartitioner.START_OFFSET_KEY);
+            // Records start with their date
+            assertThat(start == 0 || new String(bytes, (int) start, 10, StandardCharsets.UTF_8).equals("2025-02-11")).isTrue();
+            assertThat(context.getLong(TransactionFilePartitioner.LINE_OFFSET_KEY)).isEqualTo(countLines(bytes, start));
+        }
+    }
+
+    @Test
+    void ndjsonFilesAreSplitAtLineBoundaries() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            ndjson.append("{\"transactionDate\":\"2025-02-11T03:36:00\",\"amount\":").append(i).append("}\n");
+        }
+        byte[] bytes = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(tempDir.resolve("upload.ndjson"), bytes);
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file.toString(), 4).partition(1);
+
+        assertThat(partitions).hasSize(4);
+        for (ExecutionContext context : partitions.values()) {
+            long start = context.getLong(TransactionFilePartitioner.START_OFFSET_KEY);
+            assertThat(start == 0 || bytes[(int) start - 1] == '\n').isTrue();
+            assertThat(context.getLong(TransactionFilePartitioner.LINE_OFFSET_KEY)).isEqualTo(countLines(bytes, start));
+        }
+    }
+
+    @Test
+    void nonCsvFilesAreNotSplit() throws IOException {
+        Path file = Files.write(tempDir.resolve("upload.xml"), new byte[1024]);
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file.toString(), 8).partition(1);
+
+        assertThat(partitions).hasSize(1);
+        assertThat(partitions.get("partition0").getLong(TransactionFilePartitioner.END_OFFSET_KEY)).isEqualTo(1024);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"upload.xlsx", "upload.xls"})
+    void workbooksGetOnePartitionPerDataSheet(String fileName) throws IOException {
+        Path file = tempDir.resolve(fileName);
+        try (Workbook workbook = fileName.endsWith(".xlsx") ? new XSSFWorkbook() : new HSSFWorkbook()) {
+            dataSheet(workbook, "January");
+            // Only a header, nothing to import
+            workbook.createSheet("Notes").createRow(0).createCell(0).setCellValue("Exported by the bank");
+            dataSheet(workbook, "February");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file.toString(), 1).partition(1);
+
+        assertThat(partitions).hasSize(2);
+        assertThat(partitions.get("partition0").getString(TransactionFilePartitioner.SHEET_NAME_KEY)).isEqualTo("January");
+        assertThat(partitions.get("partition1").getString(TransactionFilePartitioner.SHEET_NAME_KEY)).isEqualTo("February");
+        assertThat(partitions.get("partition1").getLong(TransactionFilePartitioner.LINE_OFFSET_KEY)).isZero();
+        // Both sheets number their lines from the start, so their rows are told apart by the partition index
+        assertThat(partitions.get("partition0").getInt(TransactionFilePartitioner.PARTITION_INDEX_KEY)).isZero();
+        assertThat(partitions.get("partition1").getInt(TransactionFilePartitioner.PARTITION_INDEX_KEY)).isEqualTo(1);
+    }
+
+    @Test
+    void archivesGetOnePartitionPerStatementEntry() throws IOException {
+        Path file = tempDir.resolve("upload.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (String name : List.of("2024/", "2024/january.csv", "__MACOSX/2024/._january.csv", "README.txt", "2024/february.XML")) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.closeEntry();
+            }
+        }
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file.toString(), 8).partition(1);
+
+        assertThat(partitions).hasSize(2);
+        assertThat(partitions.get("partition0").getString(TransactionFilePartitioner.ENTRY_NAME_KEY)).isEqualTo("2024/january.csv");
+        assertThat(partitions.get("partition1").getString(TransactionFilePartitioner.ENTRY_NAME_KEY)).isEqualTo("2024/february.XML");
+        assertThat(partitions.get("partition1").getLong(TransactionFilePartitioner.START_OFFSET_KEY)).isZero();
+    }
+
+    @Test
+    void archiveWithoutStatementsIsRejected() throws IOException {
+        Path file = tempDir.resolve("upload.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("README.txt"));
+            zip.closeEntry();
+        }
+
+        assertThatThrownBy(() -> new TransactionFilePartitioner(file.toString(), 1).partition(1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("no CSV, XML or NDJSON file");
+    }
+
+    @Test
+    void compressedFilesAreNotSplit() throws IOException {
+        Path file = Files.write(tempDir.resolve("upload.csv.gz"), new byte[1024]);
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file.toString(), 8).partition(1);
+
+        assertThat(partitions).hasSize(1);
+    }
+
+    @Test
+    void parquetFilesAreSplitBetweenRowGroups() throws IOException {
+        MessageType schema = MessageTypeParser.parseMessageType("message transaction { required int64 amount; }");
+        Path file = tempDir.resolve("upload.parquet");
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new LocalOutputFile(file))
+                .withConf(new PlainParquetConfiguration())
+                .withType(schema)
+                .withRowGroupSize(1L)
+                .withMinRowCountForPageSizeCheck(1)
+                .build()) {
+            for (int i = 0; i < 5; i++) {
+                writer.write(new SimpleGroupFactory(schema).newGroup().append("amount", (long) i));
+            }
+        }
+        List<BlockMetaData> rowGroups = ParquetTransactionItemReader.findRowGroups(file.toFile());
+        assertThat(rowGroups).hasSize(5);
+
+        List<ExecutionContext> contexts = new ArrayList<>(new TransactionFilePartitioner(file.toString(), 2).partition(1).values());
+
+        assertThat(contexts).hasSize(2);
+        assertThat(contexts.get(0).getLong(TransactionFilePartitioner.START_OFFSET_KEY)).isEqualTo(rowGroups.get(0).getStartingPos());
+        assertThat(contexts.get(0).getLong(TransactionFilePartitioner.LINE_OFFSET_KEY)).isZero();
+        long split = contexts.get(1).getLong(TransactionFilePartitioner.START_OFFSET_KEY);
+        assertThat(contexts.get(0).getLong(TransactionFilePartitioner.END_OFFSET_KEY)).isEqualTo(split);
+        assertThat(split).isEqualTo(rowGroups.get(2).getStartingPos());
+        assertThat(contexts.get(1).getLong(TransactionFilePartitioner.LINE_OFFSET_KEY)).isEqualTo(2);
+        BlockMetaData last = rowGroups.get(4);
+        assertThat(contexts.get(1).getLong(TransactionFilePartitioner.END_OFFSET_KEY))
+                .isEqualTo(last.getStartingPos() + last.getCompressedSize());
+
+        // Never more partitions than row groups
+        assertThat(new TransactionFilePartitioner(file.toString(), 8).partition(1)).hasSize(5);
+    }
+
+    private static void dataSheet(Workbook workbook, String name) {
+        Sheet sheet = workbook.createSheet(name);
+        sheet.createRow(0).createCell(0).setCellValue("transactionDate");
+        sheet.createRow(1).createCell(0).setCellValue("2025-02-11 03:36:00");
+    }
+
+    private long countLines(byte[] bytes, long end) {
+        long lines = 0;
+        for (int i = 0; i < end; i++) {
+            if (bytes[i] == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+}
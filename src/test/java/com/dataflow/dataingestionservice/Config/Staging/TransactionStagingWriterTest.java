@@ -0,0 +1,91 @@
+package com.dataflow.dataingestionservice.Config.Staging;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Config.Partitioner.TransactionFilePartitioner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TransactionStagingWriterTest {
+
+    @Test
+    void numbersRowsWithTheirLineInTheFile() throws Exception {
+        TransactionStagingTable stagingTable = mock(TransactionStagingTable.class);
+        // A partition preceded by the header and 99 data lines
+        TransactionStagingWriter writer = new TransactionStagingWriter(stagingTable, 7L, 2, null, 100);
+
+        Transaction first = transaction(1);
+        // The second item of the partition was skipped by the reader
+        Transaction third = transaction(3);
+
+        writer.write(new Chunk<>(first, third));
+
+        verify(stagingTable).insert(eq(7L), eq(2), isNull(), eq(List.of(first, third)), aryEq(new long[]{101, 103}));
+    }
+
+    @Test
+    void rowsOfTwoSheetsWithTheSameLinesAreStoredWithTheirPartition() throws Exception {
+        TransactionStagingTable stagingTable = mock(TransactionStagingTable.class);
+        // Both sheets start with a header line
+        TransactionStagingWriter january = new TransactionStagingWriter(stagingTable, 7L, 0, "January", 1);
+        TransactionStagingWriter february = new TransactionStagingWriter(stagingTable, 7L, 1, "February", 1);
+
+        Transaction januaryRow = transaction(1);
+        Transaction februaryRow = transaction(1);
+        january.write(new Chunk<>(januaryRow));
+        february.write(new Chunk<>(februaryRow));
+
+        verify(stagingTable).insert(eq(7L), eq(0), eq("January"), eq(List.of(januaryRow)), aryEq(new long[]{2}));
+        verify(stagingTable).insert(eq(7L), eq(1), eq("February"), eq(List.of(februaryRow)), aryEq(new long[]{2}));
+    }
+
+    @Test
+    void rowsOfTwoArchiveEntriesAreStoredWithTheirPartitionAndEntry(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("upload.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (String name : List.of("january.csv", "february.csv")) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write("transactionDate,amount,currencyCode\n2025-02-11 03:36:00,-1,RON\n".getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        TransactionStagingTable stagingTable = mock(TransactionStagingTable.class);
+
+        List<Transaction> rows = new ArrayList<>();
+        for (ExecutionContext context : new TransactionFilePartitioner(file.toString(), 1).partition(1).values()) {
+            // Both entries start with a header line
+            TransactionStagingWriter writer = new TransactionStagingWriter(stagingTable, 7L,
+                    context.getInt(TransactionFilePartitioner.PARTITION_INDEX_KEY),
+                    context.getString(TransactionFilePartitioner.ENTRY_NAME_KEY),
+                    context.getLong(TransactionFilePartitioner.LINE_OFFSET_KEY) + 1);
+            Transaction row = transaction(1);
+            rows.add(row);
+            writer.write(new Chunk<>(row));
+        }
+
+        verify(stagingTable).insert(eq(7L), eq(0), eq("january.csv"), eq(List.of(rows.get(0))), aryEq(new long[]{2}));
+        verify(stagingTable).insert(eq(7L), eq(1), eq("february.csv"), eq(List.of(rows.get(1))), aryEq(new long[]{2}));
+    }
+
+    private static Transaction transaction(int itemCount) {
+        Transaction transaction = new Transaction();
+        transaction.setItemCount(itemCount);
+        transaction.setDescription("row " + itemCount);
+        return transaction;
+    }
+}
@@ -0,0 +1,84 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Config.ItemProcessor.StoredTransactionHashes;
+import com.dataflow.dataingestionservice.Config.ItemProcessor.TransactionProcessor;
+import com.dataflow.dataingestionservice.Config.ItemWriter.TransactionEnrichmentWriter;
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
+import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Repositories.CategoryRepository;
+import com.dataflow.dataingestionservice.Services.CurrencyRegistry;
+import com.dataflow.dataingestionservice.Services.ImportErrorReportService;
+import com.dataflow.dataingestionservice.Utils.TransactionImportSkipListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionBatchConfigTest {
+
+    @Test
+    void dryRunReportsMoreInvalidRowsThanTheImportSkipLimit() throws Exception {
+        Currency ron = new Currency();
+        ron.setId("c1");
+        ron.setCode("RON");
+        CurrencyRegistry currencyRegistry = mock(CurrencyRegistry.class);
+        when(currencyRegistry.findByCode("RON")).thenReturn(ron);
+        TransactionProcessor processor = new TransactionProcessor(currencyRegistry, "u1",
+                new StoredTransactionHashes(mock(JdbcTemplate.class), "u1"));
+
+        List<Transaction> rows = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            Transaction row = new Transaction();
+            row.setTransactionDate(LocalDateTime.of(2024, 3, 1, 10, 0).plusMinutes(i));
+            row.setAmount(BigDecimal.valueOf(i + 1));
+            // All but every fifth row have an unknown currency and are skipped
+            row.setCurrencyCode(i % 5 == 0 ? "RON" : "XXX");
+            rows.add(row);
+        }
+        ListItemReader<Transaction> rowReader = new ListItemReader<>(rows);
+        ItemStreamReader<Transaction> reader = rowReader::read;
+
+        ImportErrorReportService importErrorReportService = mock(ImportErrorReportService.class);
+        when(importErrorReportService.openErrorFile(anyLong(), anyString()))
+                .thenReturn(mock(ImportErrorReportService.ErrorFileWriter.class));
+        TransactionImportProperties properties = new TransactionImportProperties();
+
+        ResourcelessJobRepository jobRepository = new ResourcelessJobRepository();
+        Step step = new TransactionBatchConfig().validateWorkerStep(jobRepository,
+                new ResourcelessTransactionManager(),
+                new SimpleCompletionPolicy(50),
+                reader,
+                processor,
+                new TransactionEnrichmentWriter(mock(CategoryRepository.class), "u1", 0, chunk -> {
+                }),
+                new TransactionImportSkipListener(importErrorReportService, properties));
+        JobExecution jobExecution = jobRepository.createJobExecution("job", new JobParameters());
+        StepExecution stepExecution = jobExecution.createStepExecution(step.getName());
+
+        step.execute(stepExecution);
+
+        assertThat(stepExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(stepExecution.getProcessSkipCount()).isEqualTo(1200);
+        assertThat(stepExecution.getWriteCount()).isEqualTo(300);
+    }
+}
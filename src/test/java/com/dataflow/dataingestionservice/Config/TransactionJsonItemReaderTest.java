@@ -0,0 +1,99 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionJsonItemReaderTest {
+
+    @Test
+    void mapsObjectFieldsToTransactionFields() throws Exception {
+        TransactionJsonItemReader reader = open("""
+                {"transactionDate":"2025-02-11 03:36:00","categoryName":"Food","description":"Lunch \\"&\\" dinner","amount":-12.50,"currencyCode":"RON","paymentMode":"card","tags":["a",{"b":1}]}
+
+                {"transaction_date":"2025-02-12 10:00:00","category":"Rent","amount":null,"currency":"EUR","payment_mode":"TRANSFER"}
+                """, "YYYY-MM-DD HH:mm:ss");
+
+        Transaction first = reader.read();
+        assertThat(first.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 11, 3, 36));
+        assertThat(first.getCategoryName()).isEqualTo("Food");
+        assertThat(first.getDescription()).isEqualTo("Lunch \"&\" dinner");
+        assertThat(first.getAmount()).isEqualTo(new BigDecimal("-12.50"));
+        assertThat(first.getCurrencyCode()).isEqualTo("RON");
+        assertThat(first.getPaymentMode()).isEqualTo(PaymentMethod.CARD);
+
+        Transaction second = reader.read();
+        assertThat(second.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 12, 10, 0));
+        assertThat(second.getCategoryName()).isEqualTo("Rent");
+        assertThat(second.getAmount()).isNull();
+        assertThat(second.getCurrencyCode()).isEqualTo("EUR");
+        assertThat(second.getPaymentMode()).isEqualTo(PaymentMethod.TRANSFER);
+
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void invalidLinesAreSkippableAndReadingContinues() throws Exception {
+        TransactionJsonItemReader reader = open("""
+                {"transactionDate":"yesterday","amount":"1"}
+                {"transactionDate":"2025-02-11T03:36:00","amount":
+                {"transactionDate":"2025-02-11T03:36:00","amount":"2"}
+                """, null);
+
+        assertThatThrownBy(reader::read)
+                .isInstanceOfSatisfying(FlatFileParseException.class, e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(1);
+                    assertThat(e.getInput()).isEqualTo("{\"transactionDate\":\"yesterday\",\"amount\":\"1\"}");
+                });
+        // Truncated JSON only loses its own line
+        assertThatThrownBy(reader::read)
+                .isInstanceOfSatisfying(FlatFileParseException.class, e -> assertThat(e.getLineNumber()).isEqualTo(2));
+        assertThat(reader.read().getAmount()).isEqualByComparingTo(BigDecimal.valueOf(2));
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void restartedReaderResumesAfterTheSavedLines() throws Exception {
+        String ndjson = """
+                {"transactionDate":"2025-02-11T03:36:00","amount":"1"}
+                not json
+                {"transactionDate":"2025-02-11T03:36:00","amount":"3"}
+                """;
+        ExecutionContext executionContext = new ExecutionContext();
+        TransactionJsonItemReader reader = new TransactionJsonItemReader(
+                new ByteArrayResource(ndjson.getBytes(StandardCharsets.UTF_8)), null);
+        reader.open(executionContext);
+        reader.read();
+        assertThatThrownBy(reader::read).isInstanceOf(FlatFileParseException.class);
+        reader.update(executionContext);
+        reader.close();
+
+        TransactionJsonItemReader restarted = new TransactionJsonItemReader(
+                new ByteArrayResource(ndjson.getBytes(StandardCharsets.UTF_8)), null);
+        restarted.open(executionContext);
+
+        assertThat(restarted.read().getAmount()).isEqualByComparingTo(BigDecimal.valueOf(3));
+        assertThat(restarted.read()).isNull();
+        restarted.close();
+    }
+
+    private static TransactionJsonItemReader open(String ndjson, String formatDateTime) {
+        TransactionJsonItemReader reader = new TransactionJsonItemReader(
+                new ByteArrayResource(ndjson.getBytes(StandardCharsets.UTF_8)), formatDateTime);
+        reader.setSaveState(false);
+        reader.open(new ExecutionContext());
+        return reader;
+    }
+}
@@ -0,0 +1,132 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.ColumnFormatter;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+
+import java.beans.PropertyEditor;
+import java.beans.PropertyEditorSupport;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TransactionLineMapper} with the {@code DelimitedLineTokenizer}/{@code BeanWrapperFieldSetMapper}
+ * setup it replaced. Run the {@link #main(String[])} method from the test classpath, adding {@code -prof gc}
+ * to the options to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionLineMapperBenchmark {
+
+    private static final int LINES = 1024;
+
+    @Param({"YYYY-MM-DD HH:mm:ss"})
+    public String formatDateTime;
+
+    private String[] lines;
+    private LineMapper<Transaction> beanWrapperMapper;
+    private LineMapper<Transaction> transactionLineMapper;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TransactionLineMapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        lines = new String[LINES];
+        for (int i = 0; i < LINES; i++) {
+            lines[i] = String.format("2025-02-%02d %02d:%02d:%02d,Groceries,Card payment %d,-%d.%02d,RON,card",
+                    i % 28 + 1, i % 24, i % 60, i % 60, i, i, i % 100);
+        }
+        beanWrapperMapper = beanWrapperLineMapper(formatDateTime);
+        transactionLineMapper = new TransactionLineMapper(formatDateTime);
+
+        // Both mappers must agree before their speed is worth comparing
+        for (int i = 0; i < LINES; i++) {
+            String expected = describe(beanWrapperMapper.mapLine(lines[i], i));
+            String actual = describe(transactionLineMapper.mapLine(lines[i], i));
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Mappers disagree on line " + lines[i] + ": " + expected + " vs " + actual);
+            }
+        }
+    }
+
+    @Benchmark
+    public void beanWrapperFieldSetMapper(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < LINES; i++) {
+            blackhole.consume(beanWrapperMapper.mapLine(lines[i], i));
+        }
+    }
+
+    @Benchmark
+    public void transactionLineMapper(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < LINES; i++) {
+            blackhole.consume(transactionLineMapper.mapLine(lines[i], i));
+        }
+    }
+
+    /**
+     * The line mapper configuration used by {@link TransactionBatchConfig} before {@link TransactionLineMapper}.
+     */
+    private static LineMapper<Transaction> beanWrapperLineMapper(String formatDateTime) {
+        DefaultLineMapper<Transaction> lineMapper = new DefaultLineMapper<>();
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+
+        tokenizer.setDelimiter(",");
+        tokenizer.setNames("transactionDate", "categoryName", "description", "amount", "currencyCode", "paymentMode");
+        tokenizer.setStrict(false);
+
+        BeanWrapperFieldSetMapper<Transaction> mapper = new BeanWrapperFieldSetMapper<>();
+        mapper.setTargetType(Transaction.class);
+
+        Map<Class<?>, PropertyEditor> customEditors = new HashMap<>();
+        customEditors.put(LocalDateTime.class, new PropertyEditorSupport() {
+            @Override
+            public void setAsText(String text) {
+                setValue(ColumnFormatter.convertToLocalDateTime(text, formatDateTime));
+            }
+        });
+        customEditors.put(PaymentMethod.class, new PropertyEditorSupport() {
+            @Override
+            public void setAsText(String text) {
+                setValue(PaymentMethod.valueOf(text.toUpperCase()));
+            }
+        });
+        mapper.setCustomEditors(customEditors);
+
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(mapper);
+        return lineMapper;
+    }
+
+    private static String describe(Transaction transaction) {
+        return transaction.getTransactionDate() + "|" + transaction.getCategoryName() + "|" + transaction.getDescription()
+                + "|" + transaction.getAmount() + "|" + transaction.getCurrencyCode() + "|" + transaction.getPaymentMode();
+    }
+}
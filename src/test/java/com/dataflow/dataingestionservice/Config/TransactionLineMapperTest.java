@@ -0,0 +1,51 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionLineMapperTest {
+
+    private final TransactionLineMapper mapper = new TransactionLineMapper("YYYY-MM-DD HH:mm:ss");
+
+    @Test
+    void mapsAllSixColumns() throws Exception {
+        Transaction transaction = mapper.mapLine("2025-02-11 03:36:00,Food,Lunch,-12.50,RON,card", 2);
+
+        assertThat(transaction.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 11, 3, 36));
+        assertThat(transaction.getCategoryName()).isEqualTo("Food");
+        assertThat(transaction.getDescription()).isEqualTo("Lunch");
+        assertThat(transaction.getAmount()).isEqualByComparingTo(new BigDecimal("-12.50"));
+        assertThat(transaction.getCurrencyCode()).isEqualTo("RON");
+        assertThat(transaction.getPaymentMode()).isEqualTo(PaymentMethod.CARD);
+    }
+
+    @Test
+    void quotedFieldsMayContainDelimiters() throws Exception {
+        Transaction transaction = mapper.mapLine("2025-02-11 03:36:00,Food,\"Lunch, dinner\",\" 1 000 \",RON,CASH", 2);
+
+        assertThat(transaction.getDescription()).isEqualTo("Lunch, dinner");
+        assertThat(transaction.getAmount()).isEqualByComparingTo(new BigDecimal("1000"));
+    }
+
+    @Test
+    void blankAmountMapsToNullAndExtraColumnsAreIgnored() throws Exception {
+        Transaction transaction = mapper.mapLine("2025-02-11 03:36:00,,, ,RON,transfer,ignored", 2);
+
+        assertThat(transaction.getCategoryName()).isEmpty();
+        assertThat(transaction.getAmount()).isNull();
+        assertThat(transaction.getPaymentMode()).isEqualTo(PaymentMethod.TRANSFER);
+    }
+
+    @Test
+    void missingPaymentModeIsRejected() {
+        assertThatThrownBy(() -> mapper.mapLine("2025-02-11 03:36:00,Food,Lunch,-12.50,RON", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
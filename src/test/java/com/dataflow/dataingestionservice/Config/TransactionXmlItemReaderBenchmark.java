@@ -0,0 +1,137 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import com.thoughtworks.xstream.security.AnyTypePermission;
+import com.thoughtworks.xstream.security.TypePermission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.xml.StaxEventItemReader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.oxm.xstream.XStreamMarshaller;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link TransactionXmlItemReader} with the {@code StaxEventItemReader}/{@code XStreamMarshaller} setup it
+ * replaced, reading a generated export of one million {@code <transaction>} elements. Run the {@link #main(String[])}
+ * method from the test classpath, adding {@code -prof gc} to the options to compare allocation rates.
+ * <p>
+ * The generated elements are named after the {@link Transaction} fields with ISO dates and upper-case payment modes,
+ * the only layout the XStream setup could read.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class TransactionXmlItemReaderBenchmark {
+
+    @Param({"1000000"})
+    public int transactions;
+
+    private File file;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TransactionXmlItemReaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = File.createTempFile("transactions-", ".xml");
+        PaymentMethod[] paymentMethods = PaymentMethod.values();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<transactions>\n");
+            for (int i = 0; i < transactions; i++) {
+                writer.write(String.format("  <transaction>%n"
+                                + "    <transactionDate>2025-02-%02dT%02d:%02d:%02d</transactionDate>%n"
+                                + "    <categoryName>Groceries</categoryName>%n"
+                                + "    <description>Card payment %d</description>%n"
+                                + "    <amount>-%d.%02d</amount>%n"
+                                + "    <currencyCode>RON</currencyCode>%n"
+                                + "    <paymentMode>%s</paymentMode>%n"
+                                + "  </transaction>%n",
+                        i % 28 + 1, i % 24, i % 60, i / 60 % 60, i, i % 1000, i % 100, paymentMethods[i % paymentMethods.length]));
+            }
+            writer.write("</transactions>\n");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public void xStreamMarshaller(Blackhole blackhole) throws Exception {
+        readAll(xStreamItemReader(), blackhole);
+    }
+
+    @Benchmark
+    public void transactionXmlItemReader(Blackhole blackhole) throws Exception {
+        TransactionXmlItemReader reader = new TransactionXmlItemReader(new FileSystemResource(file), "ISO");
+        reader.setSaveState(false);
+        readAll(reader, blackhole);
+    }
+
+    private void readAll(ItemStreamReader<Transaction> reader, Blackhole blackhole) throws Exception {
+        reader.open(new ExecutionContext());
+        int count = 0;
+        Transaction transaction;
+        while ((transaction = reader.read()) != null) {
+            blackhole.consume(transaction);
+            count++;
+        }
+        reader.close();
+
+        if (count != transactions) {
+            throw new IllegalStateException("Read " + count + " of " + transactions + " transactions");
+        }
+    }
+
+    /**
+     * The XML reader configuration used by {@link TransactionBatchConfig} before {@link TransactionXmlItemReader}.
+     */
+    private StaxEventItemReader<Transaction> xStreamItemReader() throws Exception {
+        XStreamMarshaller marshaller = new XStreamMarshaller();
+        marshaller.setAliases(Map.of("transaction", Transaction.class));
+        marshaller.setTypePermissions(new TypePermission[]{AnyTypePermission.ANY});
+        marshaller.afterPropertiesSet();
+
+        StaxEventItemReader<Transaction> reader = new StaxEventItemReader<>();
+        reader.setResource(new FileSystemResource(file));
+        reader.setFragmentRootElementName("transaction");
+        reader.setUnmarshaller(marshaller);
+        reader.setSaveState(false);
+        reader.afterPropertiesSet();
+        return reader;
+    }
+}
@@ -0,0 +1,97 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.step.skip.NonSkippableReadException;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionXmlItemReaderTest {
+
+    @Test
+    void mapsChildElementsToTransactionFields() throws Exception {
+        TransactionXmlItemReader reader = open("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <transactions>
+                  <transaction>
+                    <transactionDate>2025-02-11 03:36:00</transactionDate>
+                    <categoryName>Food</categoryName>
+                    <description><![CDATA[Lunch & dinner]]></description>
+                    <amount> -12.50 </amount>
+                    <currencyCode>RON</currencyCode>
+                    <paymentMode>card</paymentMode>
+                    <note><b>ignored</b></note>
+                  </transaction>
+                  <transaction>
+                    <transaction_date>2025-02-12 10:00:00</transaction_date>
+                    <category>Rent</category>
+                    <amount></amount>
+                    <currency>EUR</currency>
+                    <payment_mode>TRANSFER</payment_mode>
+                  </transaction>
+                </transactions>
+                """, "YYYY-MM-DD HH:mm:ss");
+
+        Transaction first = reader.read();
+        assertThat(first.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 11, 3, 36));
+        assertThat(first.getCategoryName()).isEqualTo("Food");
+        assertThat(first.getDescription()).isEqualTo("Lunch & dinner");
+        assertThat(first.getAmount()).isEqualByComparingTo(new BigDecimal("-12.50"));
+        assertThat(first.getCurrencyCode()).isEqualTo("RON");
+        assertThat(first.getPaymentMode()).isEqualTo(PaymentMethod.CARD);
+
+        Transaction second = reader.read();
+        assertThat(second.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 12, 10, 0));
+        assertThat(second.getCategoryName()).isEqualTo("Rent");
+        assertThat(second.getAmount()).isNull();
+        assertThat(second.getCurrencyCode()).isEqualTo("EUR");
+        assertThat(second.getPaymentMode()).isEqualTo(PaymentMethod.TRANSFER);
+
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void invalidTransactionIsSkippableAndReadingContinues() throws Exception {
+        TransactionXmlItemReader reader = open("""
+                <transactions>
+                  <transaction><transactionDate>yesterday</transactionDate><amount>1</amount></transaction>
+                  <transaction><transactionDate>2025-02-11T03:36:00</transactionDate><amount>2</amount></transaction>
+                </transactions>
+                """, null);
+
+        assertThatThrownBy(reader::read)
+                .isInstanceOfSatisfying(FlatFileParseException.class, e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(2);
+                    assertThat(e.getInput()).isEqualTo("transactionDate=yesterday, amount=1");
+                });
+        assertThat(reader.read().getAmount()).isEqualByComparingTo(BigDecimal.valueOf(2));
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void malformedXmlIsNotSkippable() throws Exception {
+        TransactionXmlItemReader reader = open("<transactions><transaction><amount>1</transaction>", null);
+
+        assertThatThrownBy(reader::read).isInstanceOf(NonSkippableReadException.class);
+        reader.close();
+    }
+
+    private static TransactionXmlItemReader open(String xml, String formatDateTime) {
+        TransactionXmlItemReader reader = new TransactionXmlItemReader(
+                new ByteArrayResource(xml.getBytes(StandardCharsets.UTF_8)), formatDateTime);
+        reader.setSaveState(false);
+        reader.open(new ExecutionContext());
+        return reader;
+    }
+}
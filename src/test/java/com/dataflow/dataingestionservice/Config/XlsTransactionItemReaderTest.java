@@ -0,0 +1,161 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XlsTransactionItemReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mapsTheRowsOfAllSheets() throws Exception {
+        Path file = directory.resolve("transactions.xls");
+        try (Workbook workbook = new HSSFWorkbook()) {
+            Sheet january = workbook.createSheet("January");
+            header(january);
+            Row row = january.createRow(1);
+            row.createCell(0).setCellValue(LocalDateTime.of(2025, 1, 11, 3, 36));
+            row.createCell(1).setCellValue("Food");
+            row.createCell(2).setCellValue("Lunch");
+            row.createCell(3).setCellValue(-12.5);
+            row.createCell(4).setCellValue("RON");
+            row.createCell(5).setCellFormula("\"ca\"&\"rd\"");
+            row.createCell(8).setCellValue("ignored");
+            // Empty rows are skipped
+            january.createRow(3).createCell(2).setCellValue("");
+            row = january.createRow(4);
+            row.createCell(0).setCellValue("2025-01-20 08:00:00");
+            row.createCell(3).setCellValue(1000);
+            row.createCell(5).setCellValue("CASH");
+
+            Sheet february = workbook.createSheet("February");
+            header(february);
+            row = february.createRow(1);
+            row.createCell(0).setCellValue("2025-02-12 10:00:00");
+            row.createCell(1).setCellValue("Food");
+            row.createCell(3).setCellFormula("0.1+0.2");
+            row.createCell(4).setCellValue("EUR");
+            row.createCell(5).setCellValue("TRANSFER");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            write(workbook, file);
+        }
+
+        XlsTransactionItemReader reader = open(file);
+
+        Transaction first = reader.read();
+        assertThat(first.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 1, 11, 3, 36));
+        assertThat(first.getCategoryName()).isEqualTo("Food");
+        assertThat(first.getDescription()).isEqualTo("Lunch");
+        assertThat(first.getAmount()).isEqualByComparingTo(new BigDecimal("-12.5"));
+        assertThat(first.getCurrencyCode()).isEqualTo("RON");
+        assertThat(first.getPaymentMode()).isEqualTo(PaymentMethod.CARD);
+
+        Transaction second = reader.read();
+        assertThat(second.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 1, 20, 8, 0));
+        assertThat(second.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(1000));
+        assertThat(second.getPaymentMode()).isEqualTo(PaymentMethod.CASH);
+
+        Transaction third = reader.read();
+        assertThat(third.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 12, 10, 0));
+        assertThat(third.getDescription()).isNull();
+        assertThat(third.getAmount()).isEqualByComparingTo(new BigDecimal("0.3"));
+        assertThat(third.getCurrencyCode()).isEqualTo("EUR");
+        assertThat(third.getPaymentMode()).isEqualTo(PaymentMethod.TRANSFER);
+
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void invalidRowIsSkippableAndReadingContinues() throws Exception {
+        Path file = directory.resolve("invalid.xls");
+        try (Workbook workbook = new HSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            header(sheet);
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("yesterday");
+            row.createCell(3).setCellValue(1);
+            row.createCell(5).setCellValue("CASH");
+            row = sheet.createRow(2);
+            row.createCell(0).setCellValue("2025-02-11T03:36:00");
+            row.createCell(3).setCellValue(2);
+            row.createCell(5).setCellValue("CASH");
+            write(workbook, file);
+        }
+
+        XlsTransactionItemReader reader = open(file);
+
+        assertThatThrownBy(reader::read)
+                .isInstanceOfSatisfying(FlatFileParseException.class, e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(2);
+                    assertThat(e.getInput()).isEqualTo("yesterday,,,1,,CASH");
+                });
+        assertThat(reader.read().getAmount()).isEqualByComparingTo(BigDecimal.valueOf(2));
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void readsOnlyTheGivenSheet() throws Exception {
+        Path file = directory.resolve("sheets.xls");
+        try (Workbook workbook = new HSSFWorkbook()) {
+            for (String name : new String[]{"January", "February", "March"}) {
+                Sheet sheet = workbook.createSheet(name);
+                header(sheet);
+                Row row = sheet.createRow(1);
+                row.createCell(0).setCellValue("2025-02-11T03:36:00");
+                row.createCell(1).setCellValue(name);
+                row.createCell(5).setCellValue("CASH");
+            }
+            write(workbook, file);
+        }
+
+        XlsTransactionItemReader reader = new XlsTransactionItemReader(new FileSystemResource(file), "February", null);
+        reader.setSaveState(false);
+        reader.open(new ExecutionContext());
+
+        assertThat(reader.read().getCategoryName()).isEqualTo("February");
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    private static void header(Sheet sheet) {
+        Row header = sheet.createRow(0);
+        String[] columns = {"Date", "Category", "Description", "Amount", "Currency", "Payment mode"};
+        for (int i = 0; i < columns.length; i++) {
+            header.createCell(i).setCellValue(columns[i]);
+        }
+    }
+
+    private static void write(Workbook workbook, Path file) throws Exception {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
+        }
+    }
+
+    private static XlsTransactionItemReader open(Path file) {
+        XlsTransactionItemReader reader = new XlsTransactionItemReader(new FileSystemResource(file), null, null);
+        reader.setSaveState(false);
+        reader.open(new ExecutionContext());
+        return reader;
+    }
+}
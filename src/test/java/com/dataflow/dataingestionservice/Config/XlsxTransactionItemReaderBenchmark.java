@@ -0,0 +1,167 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Reads a generated workbook of one million rows, each with its own description in the shared strings table, with
+ * {@link XlsxTransactionItemReader} in a 256 MB heap. Run the {@link #main(String[])} method from the test classpath,
+ * adding {@code -prof gc} to the options to compare allocation rates. The {@code sharedStringsMemoryLimit} parameter
+ * compares the in-memory table with the file-backed one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx256m")
+public class XlsxTransactionItemReaderBenchmark {
+
+    @Param({"1000000"})
+    public int transactions;
+
+    @Param({"16777216", "0"})
+    public long sharedStringsMemoryLimit;
+
+    private File file;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(XlsxTransactionItemReaderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * Writes the parts of the workbook straight into the package, as POI's own writers keep the shared strings table
+     * on the heap.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = File.createTempFile("transactions-", ".xlsx");
+        PaymentMethod[] paymentMethods = PaymentMethod.values();
+
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+            Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            entry(zip, writer, "[Content_Types].xml", """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+                    <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+                    <Default Extension="xml" ContentType="application/xml"/>
+                    <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+                    <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+                    <Override PartName="/xl/sharedStrings.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml"/>
+                    </Types>""");
+            entry(zip, writer, "_rels/.rels", """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                    <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+                    </Relationships>""");
+            entry(zip, writer, "xl/workbook.xml", """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+                    <sheets><sheet name="Transactions" sheetId="1" r:id="rId1"/></sheets>
+                    </workbook>""");
+            entry(zip, writer, "xl/_rels/workbook.xml.rels", """
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                    <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+                    <Relationship Id="rId2" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings" Target="sharedStrings.xml"/>
+                    </Relationships>""");
+
+            // Strings 0-4 are the header and the repeated values, 5 + i - 1 the description of row i
+            zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">");
+            for (String value : new String[]{"Date", "Groceries", "Description", "RON", "Payment mode"}) {
+                writer.write("<si><t>" + value + "</t></si>");
+            }
+            for (int i = 1; i <= transactions; i++) {
+                writer.write("<si><t>Card payment " + i + "</t></si>");
+            }
+            writer.write("</sst>");
+            writer.flush();
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                    + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+                    + "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"C1\" t=\"s\"><v>2</v></c><c r=\"F1\" t=\"s\"><v>4</v></c></row>");
+            for (int i = 1; i <= transactions; i++) {
+                int r = i + 1;
+                writer.write("<row r=\"" + r + "\">"
+                        + "<c r=\"A" + r + "\"><v>" + (45000 + i / 1440 + (i % 1440) / 1440.0) + "</v></c>"
+                        + "<c r=\"B" + r + "\" t=\"s\"><v>1</v></c>"
+                        + "<c r=\"C" + r + "\" t=\"s\"><v>" + (4 + i) + "</v></c>"
+                        + "<c r=\"D" + r + "\"><v>" + -(i % 100_000) / 100.0 + "</v></c>"
+                        + "<c r=\"E" + r + "\" t=\"s\"><v>3</v></c>"
+                        + "<c r=\"F" + r + "\" t=\"inlineStr\"><is><t>" + paymentMethods[i % paymentMethods.length] + "</t></is></c>"
+                        + "</row>");
+            }
+            writer.write("</sheetData></worksheet>");
+            writer.flush();
+            zip.closeEntry();
+        }
+    }
+
+    private static void entry(ZipOutputStream zip, Writer writer, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public void xlsxTransactionItemReader(Blackhole blackhole) throws Exception {
+        XlsxTransactionItemReader reader = new XlsxTransactionItemReader(
+                new FileSystemResource(file), null, null, sharedStringsMemoryLimit);
+        reader.setSaveState(false);
+        reader.open(new ExecutionContext());
+        int count = 0;
+        Transaction transaction;
+        while ((transaction = reader.read()) != null) {
+            blackhole.consume(transaction);
+            count++;
+        }
+        reader.close();
+
+        if (count != transactions) {
+            throw new IllegalStateException("Read " + count + " of " + transactions + " transactions");
+        }
+    }
+}
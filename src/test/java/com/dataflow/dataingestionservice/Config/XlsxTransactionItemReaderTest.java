@@ -0,0 +1,225 @@
+package com.dataflow.dataingestionservice.Config;
+
+import com.dataflow.dataingestionservice.Models.Transaction;
+import com.dataflow.dataingestionservice.Utils.Constants.PaymentMethod;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XlsxTransactionItemReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mapsTheRowsOfAllSheets() throws Exception {
+        Path file = directory.resolve("transactions.xlsx");
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet january = workbook.createSheet("January");
+            header(january);
+            Row row = january.createRow(1);
+            row.createCell(0).setCellValue(LocalDateTime.of(2025, 1, 11, 3, 36));
+            row.createCell(1).setCellValue("Food");
+            row.createCell(2).setCellValue("Lunch");
+            row.createCell(3).setCellValue(-12.5);
+            row.createCell(4).setCellValue("RON");
+            row.createCell(5).setCellValue("card");
+            row.createCell(8).setCellValue("ignored");
+            // Empty rows are skipped
+            january.createRow(3).createCell(2).setCellValue("");
+
+            Sheet february = workbook.createSheet("February");
+            header(february);
+            row = february.createRow(1);
+            row.createCell(0).setCellValue("2025-02-12 10:00:00");
+            row.createCell(1).setCellValue("Food");
+            row.createCell(3).setCellFormula("0.1+0.2");
+            row.createCell(4).setCellValue("EUR");
+            row.createCell(5).setCellValue("TRANSFER");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            write(workbook, file);
+        }
+
+        XlsxTransactionItemReader reader = open(file, 100);
+
+        Transaction first = reader.read();
+        assertThat(first.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 1, 11, 3, 36));
+        assertThat(first.getCategoryName()).isEqualTo("Food");
+        assertThat(first.getDescription()).isEqualTo("Lunch");
+        assertThat(first.getAmount()).isEqualByComparingTo(new BigDecimal("-12.5"));
+        assertThat(first.getCurrencyCode()).isEqualTo("RON");
+        assertThat(first.getPaymentMode()).isEqualTo(PaymentMethod.CARD);
+
+        Transaction second = reader.read();
+        assertThat(second.getTransactionDate()).isEqualTo(LocalDateTime.of(2025, 2, 12, 10, 0));
+        assertThat(second.getDescription()).isNull();
+        // The cached result of the formula, as Excel shows it
+        assertThat(second.getAmount()).isEqualByComparingTo(new BigDecimal("0.3"));
+        assertThat(second.getCurrencyCode()).isEqualTo("EUR");
+        assertThat(second.getPaymentMode()).isEqualTo(PaymentMethod.TRANSFER);
+
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void readsSharedStringsFromATemporaryFile() throws Exception {
+        Path file = directory.resolve("many-strings.xlsx");
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            header(sheet);
+            for (int i = 1; i <= 500; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("2025-02-11T03:36:00");
+                row.createCell(1).setCellValue("Category " + i % 10);
+                row.createCell(2).setCellValue("Description " + i);
+                row.createCell(3).setCellValue(i);
+                row.createCell(4).setCellValue("RON");
+                row.createCell(5).setCellValue("CASH");
+            }
+            write(workbook, file);
+        }
+
+        XlsxTransactionItemReader reader = open(file, 64);
+        for (int i = 1; i <= 500; i++) {
+            Transaction transaction = reader.read();
+            assertThat(transaction.getCategoryName()).isEqualTo("Category " + i % 10);
+            assertThat(transaction.getDescription()).isEqualTo("Description " + i);
+            assertThat(transaction.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(i));
+        }
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void invalidRowIsSkippableAndReadingContinues() throws Exception {
+        Path file = directory.resolve("invalid.xlsx");
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            header(sheet);
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("yesterday");
+            row.createCell(3).setCellValue(1);
+            row.createCell(5).setCellValue("CASH");
+            row = sheet.createRow(2);
+            row.createCell(0).setCellValue("2025-02-11T03:36:00");
+            row.createCell(3).setCellValue(2);
+            row.createCell(5).setCellValue("CASH");
+            write(workbook, file);
+        }
+
+        XlsxTransactionItemReader reader = open(file, 1024);
+
+        assertThatThrownBy(reader::read)
+                .isInstanceOfSatisfying(FlatFileParseException.class, e -> {
+                    assertThat(e.getLineNumber()).isEqualTo(2);
+                    assertThat(e.getInput()).isEqualTo("yesterday,,,1,,CASH");
+                });
+        assertThat(reader.read().getAmount()).isEqualByComparingTo(BigDecimal.valueOf(2));
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    @Test
+    void restartedReaderResumesAfterTheSavedRows() throws Exception {
+        Path file = directory.resolve("restart.xlsx");
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            header(sheet);
+            for (int i = 1; i <= 4; i++) {
+                Row row = sheet.createRow(i);
+                // The second row cannot be converted
+                row.createCell(0).setCellValue(i == 2 ? "yesterday" : "2025-02-11T03:36:00");
+                row.createCell(3).setCellValue(i);
+                row.createCell(5).setCellValue("CASH");
+            }
+            write(workbook, file);
+        }
+
+        ExecutionContext executionContext = new ExecutionContext();
+        XlsxTransactionItemReader reader = new XlsxTransactionItemReader(new FileSystemResource(file), null, null, 1024);
+        reader.open(executionContext);
+        reader.read();
+        assertThatThrownBy(reader::read).isInstanceOf(FlatFileParseException.class);
+        reader.read();
+        reader.update(executionContext);
+        reader.close();
+
+        XlsxTransactionItemReader restarted = new XlsxTransactionItemReader(new FileSystemResource(file), null, null, 1024);
+        restarted.open(executionContext);
+
+        Transaction transaction = restarted.read();
+        assertThat(transaction.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(4));
+        assertThat(transaction.getItemCount()).isEqualTo(4);
+        assertThat(restarted.read()).isNull();
+        restarted.close();
+    }
+
+    @Test
+    void convertsCellReferencesToColumnIndexes() {
+        assertThat(XlsxTransactionItemReader.columnIndex("A1")).isZero();
+        assertThat(XlsxTransactionItemReader.columnIndex("F12")).isEqualTo(5);
+        assertThat(XlsxTransactionItemReader.columnIndex("AA3")).isEqualTo(26);
+    }
+
+    @Test
+    void readsOnlyTheGivenSheet() throws Exception {
+        Path file = directory.resolve("sheets.xlsx");
+        try (Workbook workbook = new XSSFWorkbook()) {
+            for (String name : new String[]{"January", "February", "March"}) {
+                Sheet sheet = workbook.createSheet(name);
+                header(sheet);
+                Row row = sheet.createRow(1);
+                row.createCell(0).setCellValue("2025-02-11T03:36:00");
+                row.createCell(1).setCellValue(name);
+                row.createCell(5).setCellValue("CASH");
+            }
+            write(workbook, file);
+        }
+
+        XlsxTransactionItemReader reader = new XlsxTransactionItemReader(new FileSystemResource(file), "February", null, 1024);
+        reader.setSaveState(false);
+        reader.open(new ExecutionContext());
+
+        assertThat(reader.read().getCategoryName()).isEqualTo("February");
+        assertThat(reader.read()).isNull();
+        reader.close();
+    }
+
+    private static void header(Sheet sheet) {
+        Row header = sheet.createRow(0);
+        String[] columns = {"Date", "Category", "Description", "Amount", "Currency", "Payment mode"};
+        for (int i = 0; i < columns.length; i++) {
+            header.createCell(i).setCellValue(columns[i]);
+        }
+    }
+
+    private static void write(Workbook workbook, Path file) throws Exception {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
+        }
+    }
+
+    private static XlsxTransactionItemReader open(Path file, long sharedStringsMemoryLimit) {
+        XlsxTransactionItemReader reader = new XlsxTransactionItemReader(
+                new FileSystemResource(file), null, null, sharedStringsMemoryLimit);
+        reader.setSaveState(false);
+        reader.open(new ExecutionContext());
+        return reader;
+    }
+}
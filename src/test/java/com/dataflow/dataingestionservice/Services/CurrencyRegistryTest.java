@@ -0,0 +1,52 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Models.Currency;
+import com.dataflow.dataingestionservice.Repositories.CurrencyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CurrencyRegistryTest {
+
+    private final CurrencyRepository currencyRepository = mock(CurrencyRepository.class);
+    private final CurrencyRegistry registry = new CurrencyRegistry(currencyRepository);
+
+    @Test
+    void resolvesCodesAndIdsFromOneLoad() {
+        Currency ron = new Currency("id-ron", "RON", "Romanian leu");
+        when(currencyRepository.findAll()).thenReturn(List.of(ron));
+
+        assertThat(registry.findByCode(" ron ")).isSameAs(ron);
+        assertThat(registry.findById("id-ron")).isSameAs(ron);
+        assertThat(registry.findByCode("EUR")).isNull();
+        assertThat(registry.findByCode(null)).isNull();
+        verify(currencyRepository, times(1)).findAll();
+    }
+
+    @Test
+    void currenciesWithoutACodeAreOnlyFoundById() {
+        Currency ron = new Currency("id-ron", "RON", "Romanian leu");
+        Currency unnamed = new Currency("id-none", null, "Unknown");
+        when(currencyRepository.findAll()).thenReturn(List.of(unnamed, ron));
+
+        assertThat(registry.findByCode("RON")).isSameAs(ron);
+        assertThat(registry.findById("id-none")).isSameAs(unnamed);
+    }
+
+    @Test
+    void refreshReplacesTheSnapshot() {
+        Currency ron = new Currency("id-ron", "RON", "Romanian leu");
+        Currency eur = new Currency("id-eur", "EUR", "Euro");
+        when(currencyRepository.findAll()).thenReturn(List.of(ron), List.of(ron, eur));
+
+        assertThat(registry.findByCode("EUR")).isNull();
+        registry.refresh();
+        assertThat(registry.findByCode("EUR")).isSameAs(eur);
+    }
+}
@@ -0,0 +1,145 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
+import com.dataflow.dataingestionservice.DTO.ImportErrorRowDTO;
+import com.dataflow.dataingestionservice.Models.TransactionImportError;
+import com.dataflow.dataingestionservice.Repositories.TransactionImportErrorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImportErrorReportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private TransactionImportErrorRepository repository;
+    private ImportErrorReportService service;
+
+    @BeforeEach
+    void setUp() {
+        TransactionImportProperties properties = new TransactionImportProperties();
+        properties.setErrorReportDirectory(directory.toString());
+        repository = mock(TransactionImportErrorRepository.class);
+        when(repository.findByJobExecutionIdAndIdGreaterThanOrderByIdAsc(anyLong(), anyLong(), any())).thenReturn(List.of());
+        service = new ImportErrorReportService(properties, repository);
+    }
+
+    @Test
+    void streamsTheErrorFilesOfAllStepsAndTheRejectedRows() throws Exception {
+        try (var writer = service.openErrorFile(7L, "insertWorkerStep:partition0")) {
+            writer.write(new ImportErrorRowDTO(null, 2, "READ", "Unparseable, line", "a,b"));
+        }
+        // A restarted step appends to its file
+        try (var writer = service.openErrorFile(7L, "insertWorkerStep:partition0")) {
+            writer.write(new ImportErrorRowDTO(null, 3, "PROCESS", "Currency not found", "x"));
+        }
+        try (var writer = service.openErrorFile(7L, "insertWorkerStep:partition1")) {
+            writer.write(new ImportErrorRowDTO("March, 2025", null, "WRITE", "say \"no\"", ""));
+        }
+        TransactionImportError rejected = new TransactionImportError();
+        rejected.setId(1L);
+        rejected.setRowNumber(9);
+        rejected.setPhase("VALIDATE");
+        rejected.setError("Amount is missing");
+        rejected.setRawData("amount=null");
+        when(repository.findByJobExecutionIdAndIdGreaterThanOrderByIdAsc(eq(7L), eq(0L), any())).thenReturn(List.of(rejected));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeReport(List.of(7L), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "sheet,rowNumber,phase,error,rawData\n"
+                        + ",2,READ,\"Unparseable, line\",\"a,b\"\n"
+                        + ",3,PROCESS,Currency not found,x\n"
+                        + "\"March, 2025\",,WRITE,\"say \"\"no\"\"\",\n"
+                        + ",9,VALIDATE,Amount is missing,amount=null\n");
+    }
+
+    @Test
+    void writesOnlyTheHeaderForImportsWithoutErrors() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeReport(List.of(8L), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("sheet,rowNumber,phase,error,rawData\n");
+    }
+
+    @Test
+    void reportsTheErrorsOfAllRunsOfARestartedImport() throws Exception {
+        try (var writer = service.openErrorFile(3L, "insertWorkerStep:partition0")) {
+            writer.write(new ImportErrorRowDTO(null, 2, "READ", "first run", ""));
+        }
+        try (var writer = service.openErrorFile(4L, "insertWorkerStep:partition0")) {
+            writer.write(new ImportErrorRowDTO(null, 5, "READ", "restart", ""));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeReport(List.of(3L, 4L), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "sheet,rowNumber,phase,error,rawData\n"
+                        + ",2,READ,first run,\n"
+                        + ",5,READ,restart,\n");
+    }
+
+    @Test
+    void reportsTheCompleteRowsOfATruncatedErrorFile() throws Exception {
+        try (var writer = service.openErrorFile(5L, "insertWorkerStep:partition0")) {
+            for (int i = 1; i <= 200; i++) {
+                writer.write(new ImportErrorRowDTO(null, i, "READ", "error " + i, "row " + i));
+            }
+        }
+        // A crashed step leaves its last gzip member without its end
+        Path file = directory.resolve("5").resolve("insertWorkerStep_partition0.csv.gz");
+        byte[] compressed = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(compressed, compressed.length - 20));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeReport(List.of(5L), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).isEqualTo("sheet,rowNumber,phase,error,rawData");
+        assertThat(lines).hasSizeBetween(2, 201);
+        assertThat(out.toString(StandardCharsets.UTF_8)).endsWith("\n");
+        for (int i = 1; i < lines.size(); i++) {
+            assertThat(lines.get(i)).isEqualTo("," + i + ",READ,error " + i + ",row " + i);
+        }
+    }
+
+    @Test
+    void deletesReportsOlderThanTheRetention() throws Exception {
+        try (var writer = service.openErrorFile(1L, "old")) {
+            writer.write(new ImportErrorRowDTO(null, 1, "READ", "old", ""));
+        }
+        try (var writer = service.openErrorFile(2L, "recent")) {
+            writer.write(new ImportErrorRowDTO(null, 1, "READ", "recent", ""));
+        }
+        FileTime expired = FileTime.from(Instant.now().minus(25, ChronoUnit.HOURS));
+        Files.setLastModifiedTime(directory.resolve("1").resolve("old.csv.gz"), expired);
+        Files.setLastModifiedTime(directory.resolve("1"), expired);
+
+        service.deleteExpiredReports();
+
+        assertThat(directory.resolve("1")).doesNotExist();
+        assertThat(directory.resolve("2")).exists();
+        verify(repository).deleteCreatedBefore(any());
+    }
+}
@@ -0,0 +1,105 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingOutboxProperties;
+import com.dataflow.dataingestionservice.Models.ReportingOutboxEvent;
+import com.dataflow.dataingestionservice.Repositories.ReportingOutboxRepository;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportingOutboxRelayTest {
+
+    private final ReportingOutboxRepository repository = mock(ReportingOutboxRepository.class);
+    private final ReportingSyncClient client = mock(ReportingSyncClient.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ReportingOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new ReportingOutboxRelay(repository, new ReportingOutboxProperties(), client, objectMapper);
+        when(repository.findByTargetAndDeadLetteredAtIsNullOrderByIdAsc(eq(ReportingSyncTarget.CATEGORIES), any(Pageable.class))).thenReturn(List.of());
+    }
+
+    @Test
+    void sendsPayloadsAsOneBatchAndDeletesThem() throws Exception {
+        when(repository.findByTargetAndDeadLetteredAtIsNullOrderByIdAsc(eq(ReportingSyncTarget.TRANSACTIONS), any(Pageable.class)))
+                .thenReturn(List.of(event(1L, "{\"id\":\"a\"}"), event(2L, "{\"id\":\"b\"}")));
+
+        relay.relay();
+
+        verify(client).send(ReportingSyncTarget.TRANSACTIONS,
+                List.of(objectMapper.readTree("{\"id\":\"a\"}"), objectMapper.readTree("{\"id\":\"b\"}")));
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void schedulesARetryWhenTheReportingServiceFails() {
+        when(repository.findByTargetAndDeadLetteredAtIsNullOrderByIdAsc(eq(ReportingSyncTarget.TRANSACTIONS), any(Pageable.class)))
+                .thenReturn(List.of(event(1L, "{}")));
+        doThrow(new ResourceAccessException("down")).when(client).send(eq(ReportingSyncTarget.TRANSACTIONS), any());
+
+        relay.relay();
+
+        var nextAttempt = forClass(LocalDateTime.class);
+        verify(repository).scheduleRetry(eq(List.of(1L)), nextAttempt.capture());
+        assertThat(nextAttempt.getValue()).isAfter(LocalDateTime.now());
+        verify(repository, never()).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    void deadLettersARejectedEventAndSendsTheEventsBehindIt() throws Exception {
+        when(repository.findByTargetAndDeadLetteredAtIsNullOrderByIdAsc(eq(ReportingSyncTarget.TRANSACTIONS), any(Pageable.class)))
+                .thenReturn(List.of(event(1L, "{\"id\":\"bad\"}"), event(2L, "{\"id\":\"b\"}"), event(3L, "{\"id\":\"c\"}")));
+        doThrow(new HttpClientErrorException(HttpStatus.UNPROCESSABLE_ENTITY))
+                .when(client).send(eq(ReportingSyncTarget.TRANSACTIONS), argThat(body -> body.toString().contains("bad")));
+
+        relay.relay();
+
+        verify(repository).deadLetter(eq(List.of(1L)), anyString(), any(LocalDateTime.class));
+        verify(client).send(ReportingSyncTarget.TRANSACTIONS, List.of(objectMapper.readTree("{\"id\":\"b\"}")));
+        verify(repository).deleteAllByIdInBatch(List.of(2L));
+        verify(repository).deleteAllByIdInBatch(List.of(3L));
+        verify(repository, never()).scheduleRetry(anyList(), any());
+    }
+
+    @Test
+    void deadLettersABatchThatKeepsFailingAfterTheLastAttempt() {
+        ReportingOutboxEvent event = event(1L, "{}");
+        event.setAttempts(new ReportingOutboxProperties().getMaxAttempts() - 1);
+        when(repository.findByTargetAndDeadLetteredAtIsNullOrderByIdAsc(eq(ReportingSyncTarget.TRANSACTIONS), any(Pageable.class)))
+                .thenReturn(List.of(event));
+        doThrow(new ResourceAccessException("down")).when(client).send(eq(ReportingSyncTarget.TRANSACTIONS), any());
+
+        relay.relay();
+
+        verify(repository).deadLetter(eq(List.of(1L)), eq("down"), any(LocalDateTime.class));
+        verify(repository, never()).scheduleRetry(anyList(), any());
+    }
+
+    private static ReportingOutboxEvent event(Long id, String payload) {
+        ReportingOutboxEvent event = new ReportingOutboxEvent(ReportingSyncTarget.TRANSACTIONS, payload, LocalDateTime.now().minusSeconds(1));
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,58 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingServiceApiProperties;
+import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingSyncProperties;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportingSyncClientTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private ReportingSyncClient client;
+
+    @BeforeEach
+    void setUp() {
+        ReportingServiceApiProperties apiProperties = new ReportingServiceApiProperties();
+        apiProperties.setApiBase("http://reporting");
+        client = new ReportingSyncClient(restTemplate, apiProperties, new ReportingSyncProperties(), new ObjectMapper());
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    void fallsBackToJsonWhenSmileIsRejected() {
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "", null, null, null))
+                .thenReturn(ResponseEntity.ok("ok"));
+
+        client.send(ReportingSyncTarget.TRANSACTIONS, List.of(Map.of("id", "a")));
+        client.send(ReportingSyncTarget.TRANSACTIONS, List.of(Map.of("id", "b")));
+
+        var requests = forClass(HttpEntity.class);
+        verify(restTemplate, times(3)).postForEntity(eq("http://reporting/api/transactions/sync"), requests.capture(), eq(String.class));
+        List<HttpEntity> sent = requests.getAllValues();
+        assertThat(sent.get(0).getHeaders().getContentType()).isEqualTo(ReportingSyncClient.APPLICATION_SMILE);
+        assertThat(sent.get(1).getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(new String((byte[]) sent.get(2).getBody())).isEqualTo("[{\"id\":\"b\"}]");
+    }
+}
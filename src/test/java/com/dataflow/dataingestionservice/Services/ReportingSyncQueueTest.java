@@ -0,0 +1,78 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.ReportingSyncProperties;
+import com.dataflow.dataingestionservice.DTO.FactTransactionDTO;
+import com.dataflow.dataingestionservice.Utils.Constants.ReportingSyncTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ReportingSyncQueueTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void coalescesQueuedTransactionsIntoBatches() throws Exception {
+        ReportingSyncClient client = mock(ReportingSyncClient.class);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<FactTransactionDTO> batch = invocation.getArgument(1);
+            batchSizes.add(batch.size());
+            return null;
+        }).when(client).send(eq(ReportingSyncTarget.TRANSACTIONS), any());
+
+        ReportingSyncProperties properties = new ReportingSyncProperties();
+        properties.setBatchSize(3);
+        properties.setLingerMillis(50);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        ReportingSyncQueue queue = new ReportingSyncQueue(client, mock(ReportingOutbox.class), properties, meterRegistry);
+        queue.start();
+        queue.enqueue(IntStream.range(0, 7).mapToObj(i -> new FactTransactionDTO()).toList());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (batchSizes.stream().mapToInt(Integer::intValue).sum() < 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        queue.stop();
+
+        assertThat(batchSizes).hasSize(3).allMatch(size -> size <= 3);
+        assertThat(meterRegistry.get("reporting.sync.sent").counter().count()).isEqualTo(7);
+        assertThat(meterRegistry.get("reporting.sync.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handsBatchesTheReportingServiceRejectsToTheOutbox() throws Exception {
+        ReportingSyncClient client = mock(ReportingSyncClient.class);
+        doThrow(new ResourceAccessException("down")).when(client).send(eq(ReportingSyncTarget.TRANSACTIONS), any());
+        ReportingOutbox outbox = mock(ReportingOutbox.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        ReportingSyncQueue queue = new ReportingSyncQueue(client, outbox, new ReportingSyncProperties(), meterRegistry);
+        List<FactTransactionDTO> dtos = List.of(new FactTransactionDTO(), new FactTransactionDTO());
+        queue.start();
+        queue.enqueue(dtos);
+        queue.stop();
+
+        // The dispatcher may split the transactions across batches, so all of them must end up in the outbox
+        var outboxed = forClass(List.class);
+        verify(outbox, atLeastOnce()).addUnsentTransactions(outboxed.capture());
+        assertThat(outboxed.getAllValues()).flatMap(batch -> batch).containsExactlyElementsOf(dtos);
+        assertThat(meterRegistry.get("reporting.sync.outboxed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("reporting.sync.failed").counter().count()).isZero();
+    }
+}
@@ -0,0 +1,322 @@
+package com.dataflow.dataingestionservice.Services;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
+import com.dataflow.dataingestionservice.Config.TransactionBatchConfig;
+import com.dataflow.dataingestionservice.Config.Staging.TransactionStagingTable;
+import com.dataflow.dataingestionservice.DTO.ImportStatusDTO;
+import com.dataflow.dataingestionservice.Errors.BusinessConflictException;
+import com.dataflow.dataingestionservice.Errors.ServiceBusyException;
+import com.dataflow.dataingestionservice.Models.ImportFingerprint;
+import com.dataflow.dataingestionservice.Repositories.ImportFingerprintRepository;
+import com.dataflow.dataingestionservice.Services.TransactionImportService.StoredUpload;
+import com.dataflow.dataingestionservice.Utils.TransactionImportSkipListener;
+import com.dataflow.dataingestionservice.Utils.UploadPipeRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionImportServiceTest {
+
+    private static final String USER_ID = "user";
+
+    @TempDir
+    Path directory;
+
+    private JobLauncher asyncJobLauncher;
+    private JobExplorer jobExplorer;
+    private Job job;
+    private TransactionImportService service;
+    private JobInstance jobInstance;
+    private ImportFingerprintRepository importFingerprintRepository;
+    private ThreadPoolTaskExecutor importLauncherExecutor;
+    private ThreadPoolTaskExecutor importTaskExecutor;
+
+    @BeforeEach
+    void setUp() {
+        asyncJobLauncher = mock(JobLauncher.class);
+        jobExplorer = mock(JobExplorer.class);
+        job = mock(Job.class);
+        when(job.getName()).thenReturn("insertJob");
+        jobInstance = new JobInstance(1L, "insertJob");
+        importFingerprintRepository = mock(ImportFingerprintRepository.class);
+
+        TransactionImportProperties properties = new TransactionImportProperties();
+        properties.setUploadDirectory(directory.toString());
+        importLauncherExecutor = idleExecutor();
+        importTaskExecutor = idleExecutor();
+        service = new TransactionImportService(mock(JobLauncher.class), asyncJobLauncher, importLauncherExecutor,
+                importTaskExecutor, jobExplorer, job,
+                mock(ImportErrorReportService.class), mock(UploadPipeRegistry.class), mock(TransactionStagingTable.class),
+                importFingerprintRepository, properties);
+    }
+
+    @Test
+    void restartsAFailedImportWithItsJobParameters() throws Exception {
+        Path file = Files.createFile(directory.resolve("upload-1.csv"));
+        JobParameters jobParameters = fileParameters(file.toString());
+        JobExecution failed = execution(10L, jobParameters, BatchStatus.FAILED);
+        StepExecution failedWorker = failed.createStepExecution("insertWorkerStep:partition0");
+        failedWorker.setReadCount(1800);
+        failedWorker.setWriteCount(1800);
+
+        JobExecution restarted = execution(11L, jobParameters, BatchStatus.STARTING);
+        when(jobExplorer.getJobExecution(10L)).thenReturn(failed);
+        when(jobExplorer.getLastJobExecution(jobInstance)).thenReturn(failed);
+        when(jobExplorer.getJobExecutions(jobInstance)).thenReturn(List.of(restarted, failed));
+        when(asyncJobLauncher.run(job, jobParameters)).thenReturn(restarted);
+
+        ImportStatusDTO status = service.restartImport(10L, USER_ID);
+
+        assertThat(status.executionId()).isEqualTo(11L);
+        // The rows committed before the restart are counted
+        assertThat(status.readCount()).isEqualTo(1800);
+        assertThat(status.writeCount()).isEqualTo(1800);
+    }
+
+    @Test
+    void restartRejectedByABusyExecutorCanBeRetried() throws Exception {
+        Path file = Files.createFile(directory.resolve("upload-8.csv"));
+        JobParameters jobParameters = fileParameters(file.toString());
+        JobExecution failed = execution(10L, jobParameters, BatchStatus.FAILED);
+        JobExecution rejected = execution(11L, jobParameters, BatchStatus.FAILED);
+        rejected.setExitStatus(ExitStatus.FAILED.addExitDescription(new TaskRejectedException("Queue is full")));
+        when(jobExplorer.getJobExecution(10L)).thenReturn(failed);
+        when(jobExplorer.getLastJobExecution(jobInstance)).thenReturn(failed);
+        when(asyncJobLauncher.run(job, jobParameters)).thenReturn(rejected);
+
+        assertThatThrownBy(() -> service.restartImport(10L, USER_ID)).isInstanceOf(ServiceBusyException.class);
+
+        // The rejected restart is now the last execution of the import
+        JobExecution restarted = execution(12L, jobParameters, BatchStatus.STARTING);
+        when(jobExplorer.getLastJobExecution(jobInstance)).thenReturn(rejected);
+        when(jobExplorer.getJobExecutions(jobInstance)).thenReturn(List.of(restarted, rejected, failed));
+        when(asyncJobLauncher.run(job, jobParameters)).thenReturn(restarted);
+
+        assertThat(service.restartImport(10L, USER_ID).executionId()).isEqualTo(12L);
+        assertThat(file).exists();
+    }
+
+    @Test
+    void completedImportCannotBeRestarted() throws Exception {
+        Path file = Files.createFile(directory.resolve("upload-2.csv"));
+        when(jobExplorer.getJobExecution(10L)).thenReturn(execution(10L, fileParameters(file.toString()), BatchStatus.COMPLETED));
+
+        assertThatThrownBy(() -> service.restartImport(10L, USER_ID)).isInstanceOf(BusinessConflictException.class);
+        verify(asyncJobLauncher, never()).run(any(), any());
+    }
+
+    @Test
+    void importWhoseFileExpiredCannotBeRestarted() throws Exception {
+        JobExecution failed = execution(10L, fileParameters(directory.resolve("deleted.csv").toString()), BatchStatus.FAILED);
+        when(jobExplorer.getJobExecution(10L)).thenReturn(failed);
+        when(jobExplorer.getLastJobExecution(jobInstance)).thenReturn(failed);
+
+        assertThatThrownBy(() -> service.restartImport(10L, USER_ID))
+                .isInstanceOf(BusinessConflictException.class)
+                .hasMessageContaining("no longer available");
+        verify(asyncJobLauncher, never()).run(any(), any());
+    }
+
+    @Test
+    void streamedUploadCannotBeRestarted() throws Exception {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("userId", USER_ID)
+                .addString("uploadId", "pipe")
+                .toJobParameters();
+        JobExecution failed = execution(10L, jobParameters, BatchStatus.FAILED);
+        when(jobExplorer.getJobExecution(10L)).thenReturn(failed);
+        when(jobExplorer.getLastJobExecution(jobInstance)).thenReturn(failed);
+
+        assertThatThrownBy(() -> service.restartImport(10L, USER_ID)).isInstanceOf(BusinessConflictException.class);
+        verify(asyncJobLauncher, never()).run(any(), any());
+    }
+
+    @Test
+    void storesUploadWithItsSha256() throws Exception {
+        StoredUpload upload = service.storeUpload(
+                new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8)), "csv");
+
+        assertThat(upload.file()).hasContent("abc").hasExtension("csv");
+        assertThat(upload.file().toPath().getParent()).isEqualTo(directory);
+        assertThat(upload.sha256()).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    void reuploadOfACompletedImportReturnsItsStatusWithoutANewJob() throws Exception {
+        Path file = Files.createFile(directory.resolve("upload-3.csv"));
+        JobParameters jobParameters = fingerprintedParameters(file.toString());
+        JobExecution completed = execution(10L, jobParameters, BatchStatus.COMPLETED);
+        ImportFingerprint fingerprint = new ImportFingerprint();
+        fingerprint.setJobExecutionId(10L);
+        when(importFingerprintRepository.findByUserIdAndSha256(USER_ID, "f1")).thenReturn(Optional.of(fingerprint));
+        when(jobExplorer.getJobExecution(10L)).thenReturn(completed);
+        when(jobExplorer.getLastJobExecution(jobInstance)).thenReturn(completed);
+        when(jobExplorer.getJobExecutions(jobInstance)).thenReturn(List.of(completed));
+
+        ImportStatusDTO status = service.startImport(jobParameters, true);
+
+        assertThat(status.executionId()).isEqualTo(10L);
+        assertThat(status.status()).isEqualTo("COMPLETED");
+        assertThat(file).doesNotExist();
+        verify(asyncJobLauncher, never()).run(any(), any());
+    }
+
+    @Test
+    void forcedReuploadStartsANewJobWithoutRepointingTheFingerprint() throws Exception {
+        Path file = Files.createFile(directory.resolve("upload-4.csv"));
+        JobParameters jobParameters = fingerprintedParameters(file.toString());
+        ImportFingerprint fingerprint = new ImportFingerprint();
+        fingerprint.setJobExecutionId(10L);
+        when(importFingerprintRepository.findByUserIdAndSha256(USER_ID, "f1")).thenReturn(Optional.of(fingerprint));
+        JobExecution started = execution(11L, jobParameters, BatchStatus.STARTING);
+        when(asyncJobLauncher.run(job, jobParameters)).thenReturn(started);
+
+        ImportStatusDTO status = service.startImport(jobParameters, false);
+
+        // The fingerprint keeps pointing to the completed import until the new one completes
+        assertThat(status.executionId()).isEqualTo(11L);
+        assertThat(fingerprint.getJobExecutionId()).isEqualTo(10L);
+        verify(importFingerprintRepository, never()).save(any());
+    }
+
+    @Test
+    void dryRunCountsTheRowsAnImportWouldWriteWithoutRecordingAFingerprint() throws Exception {
+        Path file = Files.createFile(directory.resolve("upload-5.csv"));
+        JobParameters jobParameters = new JobParametersBuilder(fileParameters(file.toString()))
+                .addString("dryRun", "true")
+                .toJobParameters();
+        JobExecution completed = execution(12L, jobParameters, BatchStatus.COMPLETED);
+        completed.createStepExecution("validateStep").setWriteCount(900);
+        StepExecution worker = completed.createStepExecution("validateWorkerStep:partition0");
+        worker.setReadCount(1000);
+        worker.setWriteCount(900);
+        worker.setProcessSkipCount(100);
+        when(asyncJobLauncher.run(job, jobParameters)).thenReturn(completed);
+
+        ImportStatusDTO status = service.startImport(jobParameters, true);
+
+        // The partition manager step only repeats the worker counts
+        assertThat(status.result().importedRows()).isEqualTo(900);
+        assertThat(status.result().failedRows()).isEqualTo(100);
+        assertThat(status.result().message()).contains("nothing was imported");
+        assertThat(status.result().errorReportUrl()).isEqualTo("/api/income/upload/12/errors");
+        verify(importFingerprintRepository, never()).save(any());
+    }
+
+    @Test
+    void stagingImportCountsTheRowsRejectedByTheMergeAsFailed() throws Exception {
+        Path file = Files.createFile(directory.resolve("upload-6.csv"));
+        JobParameters jobParameters = new JobParametersBuilder(fileParameters(file.toString()))
+                .addString("importMode", "STAGING")
+                .toJobParameters();
+        JobExecution completed = execution(13L, jobParameters, BatchStatus.COMPLETED);
+        StepExecution worker = completed.createStepExecution("stageWorkerStep:partition0");
+        worker.setReadCount(1000);
+        worker.setWriteCount(1000);
+        StepExecution merge = completed.createStepExecution(TransactionBatchConfig.MERGE_STEP_NAME);
+        merge.setWriteCount(990);
+        merge.getExecutionContext().putLong(TransactionImportSkipListener.REJECTED_ROW_COUNT_CONTEXT_KEY, 10);
+        when(asyncJobLauncher.run(job, jobParameters)).thenReturn(completed);
+
+        ImportStatusDTO status = service.startImport(jobParameters, false);
+
+        assertThat(status.skipCount()).isEqualTo(10);
+        assertThat(status.result().importedRows()).isEqualTo(990);
+        assertThat(status.result().failedRows()).isEqualTo(10);
+    }
+
+    @Test
+    void onlyARejectedLaunchIsReportedAsBusy() throws Exception {
+        Path file = Files.createFile(directory.resolve("upload-7.csv"));
+        JobParameters jobParameters = fileParameters(file.toString());
+        // The job ran and failed before the launcher returned
+        JobExecution failed = execution(14L, jobParameters, BatchStatus.FAILED);
+        failed.setExitStatus(ExitStatus.FAILED);
+        when(asyncJobLauncher.run(job, jobParameters)).thenReturn(failed);
+
+        assertThat(service.startImport(jobParameters, false).status()).isEqualTo("FAILED");
+        assertThat(file).exists();
+
+        JobExecution rejected = execution(15L, jobParameters, BatchStatus.FAILED);
+        rejected.setExitStatus(ExitStatus.FAILED.addExitDescription(new TaskRejectedException("Queue is full")));
+        when(asyncJobLauncher.run(job, jobParameters)).thenReturn(rejected);
+
+        assertThatThrownBy(() -> service.startImport(jobParameters, false)).isInstanceOf(ServiceBusyException.class);
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void refusesAStreamedUploadWhileAllWorkerThreadsAreBusy() throws Exception {
+        ThreadPoolTaskExecutor busy = mock(ThreadPoolTaskExecutor.class);
+        when(busy.getMaxPoolSize()).thenReturn(2);
+        when(busy.getActiveCount()).thenReturn(2);
+        UploadPipeRegistry uploadPipeRegistry = mock(UploadPipeRegistry.class);
+        TransactionImportService service = new TransactionImportService(mock(JobLauncher.class), asyncJobLauncher,
+                importLauncherExecutor, busy, jobExplorer, job, mock(ImportErrorReportService.class), uploadPipeRegistry,
+                mock(TransactionStagingTable.class), importFingerprintRepository, new TransactionImportProperties());
+
+        // A queued job would leave the upload blocked on the full pipe
+        assertThatThrownBy(() -> service.startStreamingImport(new JobParametersBuilder(),
+                new ByteArrayInputStream(new byte[0])))
+                .isInstanceOf(ServiceBusyException.class);
+        verify(uploadPipeRegistry, never()).open();
+        verify(asyncJobLauncher, never()).run(any(), any());
+    }
+
+    private JobExecution execution(long id, JobParameters jobParameters, BatchStatus status) {
+        JobExecution jobExecution = new JobExecution(jobInstance, id, jobParameters);
+        jobExecution.setStatus(status);
+        return jobExecution;
+    }
+
+    /**
+     * An executor that was never started, so it has no active thread and no queued task.
+     */
+    private static ThreadPoolTaskExecutor idleExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setMaxPoolSize(1);
+        return executor;
+    }
+
+    private static JobParameters fileParameters(String filePath) {
+        return new JobParametersBuilder()
+                .addString("filePath", filePath)
+                .addString("userId", USER_ID)
+                .addString("importMode", "CHUNK")
+                .toJobParameters();
+    }
+
+    private static JobParameters fingerprintedParameters(String filePath) {
+        return new JobParametersBuilder(fileParameters(filePath))
+                .addString("formatDateTime", "")
+                .addString(TransactionImportService.FINGERPRINT_PARAMETER, "f1", false)
+                .toJobParameters();
+    }
+}
@@ -0,0 +1,92 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPipeTest {
+
+    @Test
+    void bytesArriveInOrderAcrossChunkBoundaries() throws Exception {
+        byte[] data = new byte[2 * BoundedPipe.CHUNK_SIZE + 123];
+        new Random(42).nextBytes(data);
+        BoundedPipe pipe = new BoundedPipe(1, 5_000);
+
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            try (OutputStream out = pipe.getOutputStream()) {
+                // Odd-sized writes, so chunks and writes do not line up
+                for (int off = 0; off < data.length; off += 1000) {
+                    out.write(data, off, Math.min(1000, data.length - off));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        try (InputStream in = pipe.getInputStream()) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+        writer.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void fullPipeBlocksTheWriterUntilItTimesOut() throws Exception {
+        BoundedPipe pipe = new BoundedPipe(1, 200);
+        OutputStream out = pipe.getOutputStream();
+        out.write(new byte[10]);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> out.write(new byte[10]))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Timed out");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(200);
+    }
+
+    @Test
+    void closingTheReaderReleasesABlockedWriter() throws Exception {
+        BoundedPipe pipe = new BoundedPipe(1, 10_000);
+        OutputStream out = pipe.getOutputStream();
+        out.write(new byte[10]);
+
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            try {
+                out.write(new byte[10]);
+                out.write(new byte[10]);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertThat(writer).isNotDone();
+
+        pipe.closeReader();
+
+        assertThatThrownBy(() -> writer.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .rootCause()
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("stopped reading");
+    }
+
+    @Test
+    void failedPipeThrowsTheCauseAtTheEndOfTheStream() throws Exception {
+        BoundedPipe pipe = new BoundedPipe(4, 1_000);
+        IOException cause = new IOException("client went away");
+
+        pipe.getOutputStream().write(new byte[10]);
+        pipe.fail(cause);
+
+        InputStream in = pipe.getInputStream();
+        assertThatThrownBy(in::readAllBytes).isSameAs(cause);
+        assertThat(in.read()).isEqualTo(-1);
+    }
+}
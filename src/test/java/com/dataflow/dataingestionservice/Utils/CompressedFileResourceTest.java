@@ -0,0 +1,79 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedFileResourceTest {
+
+    private static final String CSV = "transactionDate,categoryName,description,amount,currencyCode,paymentMode\n"
+            + "2025-02-11 03:36:00,Food,Lunch,-12.5,RON,CARD\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsGzipFiles() throws IOException {
+        Path file = tempDir.resolve("upload.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        CompressedFileResource resource = new CompressedFileResource(file.toString(), null);
+
+        assertThat(resource.getContentName()).isEqualTo("upload.csv");
+        assertThat(read(resource)).isEqualTo(CSV);
+        // Every stream starts again from the beginning
+        assertThat(read(resource)).isEqualTo(CSV);
+    }
+
+    @Test
+    void readsZstandardFiles() throws IOException {
+        Path file = tempDir.resolve("upload.csv.zst");
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(file))) {
+            out.write(CSV.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(read(new CompressedFileResource(file.toString(), null))).isEqualTo(CSV);
+    }
+
+    @Test
+    void readsOneEntryOfAnArchive() throws IOException {
+        Path file = tempDir.resolve("upload.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("january.csv"));
+            zip.write("other".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("february.csv"));
+            zip.write(CSV.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        CompressedFileResource resource = new CompressedFileResource(file.toString(), "february.csv");
+
+        assertThat(resource.getContentName()).isEqualTo("february.csv");
+        assertThat(resource.getDescription()).contains("[entry february.csv]");
+        assertThat(read(resource)).isEqualTo(CSV);
+        assertThatThrownBy(() -> new CompressedFileResource(file.toString(), "march.csv").getInputStream())
+                .isInstanceOf(FileNotFoundException.class);
+    }
+
+    private static String read(CompressedFileResource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
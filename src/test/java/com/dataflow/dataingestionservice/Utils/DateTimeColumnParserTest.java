@@ -0,0 +1,52 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DateTimeColumnParserTest {
+
+    private static final LocalDateTime EXPECTED = LocalDateTime.of(2025, 2, 11, 3, 36);
+
+    @Test
+    void detectsEverySupportedFormat() {
+        DateTimeColumnParser parser = new DateTimeColumnParser(null);
+
+        assertThat(parser.parse("2025-02-11T03:36:00")).isEqualTo(EXPECTED);
+        assertThat(parser.parse("2025-02-11 03:36:00")).isEqualTo(EXPECTED);
+        assertThat(parser.parse("02/11/2025 03:36:00")).isEqualTo(EXPECTED);
+        assertThat(parser.parse("2025/02/11 03:36:00")).isEqualTo(EXPECTED);
+        assertThat(parser.parse(" 2/11/2025 03:36:00 ")).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void leavesUnusualValuesToTheFormatters() {
+        DateTimeColumnParser parser = new DateTimeColumnParser(null);
+
+        assertThat(parser.parse("2025-02-11T03:36")).isEqualTo(EXPECTED);
+        assertThat(parser.parse("2025-02-11T03:36:00.5")).isEqualTo(EXPECTED.withNano(500_000_000));
+        // The pattern formatters resolve smartly, the ISO formatter strictly
+        assertThat(parser.parse("2025-02-30 03:36:00")).isEqualTo(LocalDateTime.of(2025, 2, 28, 3, 36));
+        assertThatThrownBy(() -> parser.parse("2025-02-30T03:36:00")).isInstanceOf(DateTimeParseException.class);
+    }
+
+    @Test
+    void providedFormatRejectsOtherFormats() {
+        DateTimeColumnParser parser = new DateTimeColumnParser("YYYY/MM/DD HH:mm:ss");
+
+        assertThat(parser.parse("2025/02/11 03:36:00")).isEqualTo(EXPECTED);
+        assertThatThrownBy(() -> parser.parse("2025-02-11 03:36:00"))
+                .isInstanceOf(DateTimeParseException.class)
+                .hasMessageContaining("provided format");
+    }
+
+    @Test
+    void rejectsBlankValues() {
+        assertThatThrownBy(() -> new DateTimeColumnParser(null).parse(" "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
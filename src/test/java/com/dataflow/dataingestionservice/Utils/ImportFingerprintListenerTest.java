@@ -0,0 +1,63 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import com.dataflow.dataingestionservice.Models.ImportFingerprint;
+import com.dataflow.dataingestionservice.Repositories.ImportFingerprintRepository;
+import com.dataflow.dataingestionservice.Services.TransactionImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImportFingerprintListenerTest {
+
+    private final ImportFingerprintRepository repository = mock(ImportFingerprintRepository.class);
+    private final ImportFingerprintListener listener = new ImportFingerprintListener(repository);
+
+    @Test
+    void completedImportRepointsTheFingerprint() {
+        ImportFingerprint fingerprint = previousImport();
+
+        listener.afterJob(execution(11L, BatchStatus.COMPLETED));
+
+        assertThat(fingerprint.getJobExecutionId()).isEqualTo(11L);
+        verify(repository).save(fingerprint);
+    }
+
+    @Test
+    void failedImportKeepsThePreviousCompletedImport() {
+        ImportFingerprint fingerprint = previousImport();
+
+        listener.afterJob(execution(11L, BatchStatus.FAILED));
+
+        assertThat(fingerprint.getJobExecutionId()).isEqualTo(10L);
+        verify(repository, never()).save(any());
+    }
+
+    private ImportFingerprint previousImport() {
+        ImportFingerprint fingerprint = new ImportFingerprint();
+        fingerprint.setJobExecutionId(10L);
+        when(repository.findByUserIdAndSha256("u1", "f1")).thenReturn(Optional.of(fingerprint));
+        return fingerprint;
+    }
+
+    private static JobExecution execution(Long id, BatchStatus status) {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("userId", "u1")
+                .addString(TransactionImportService.FINGERPRINT_PARAMETER, "f1", false)
+                .toJobParameters();
+        JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution("insertJob", 1L, id, jobParameters);
+        jobExecution.setStatus(status);
+        return jobExecution;
+    }
+}
@@ -0,0 +1,53 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SharedStringStoreTest {
+
+    @Test
+    void keepsSmallTablesInMemory() throws Exception {
+        try (SharedStringStore store = new SharedStringStore(1024)) {
+            store.add("Groceries");
+            store.add("");
+            store.add("Café");
+            store.seal();
+
+            assertThat(store.isFileBacked()).isFalse();
+            assertThat(store.size()).isEqualTo(3);
+            assertThat(store.get(0)).isEqualTo("Groceries");
+            assertThat(store.get(1)).isEmpty();
+            assertThat(store.get(2)).isEqualTo("Café");
+        }
+    }
+
+    @Test
+    void movesLargeTablesToATemporaryFile() throws Exception {
+        SharedStringStore store = new SharedStringStore(100);
+        for (int i = 0; i < 5000; i++) {
+            store.add("Description " + i);
+        }
+        store.seal();
+
+        assertThat(store.isFileBacked()).isTrue();
+        // Read twice so that both the file and the cache are used
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 4999; i >= 0; i -= 7) {
+                assertThat(store.get(i)).isEqualTo("Description " + i);
+            }
+        }
+        store.close();
+    }
+
+    @Test
+    void rejectsUnknownIndexes() throws Exception {
+        try (SharedStringStore store = new SharedStringStore(1024)) {
+            store.add("only");
+            store.seal();
+
+            assertThatThrownBy(() -> store.get(1)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void generatesVersion7UuidsWithTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        // The counter may have moved the timestamp a few milliseconds ahead
+        assertThat(uuid.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 100);
+    }
+
+    @Test
+    void binaryFormSortsInGenerationOrder() {
+        List<byte[]> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(TimeOrderedUuid.toBytes(TimeOrderedUuid.next()));
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Arrays.compareUnsigned(ids.get(i - 1), ids.get(i))).isNegative();
+        }
+    }
+
+    @Test
+    void generatesUniqueIdsConcurrently() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(TimeOrderedUuid.next()));
+
+        assertThat(ids).hasSize(100_000);
+    }
+
+    @Test
+    void convertsToAndFromBytes() {
+        UUID uuid = UUID.fromString("0192f3c4-5b6a-7d8e-9f01-23456789abcd");
+
+        byte[] bytes = TimeOrderedUuid.toBytes(uuid);
+
+        assertThat(bytes).hasSize(16).startsWith((byte) 0x01, (byte) 0x92, (byte) 0xf3);
+        assertThat(TimeOrderedUuid.fromBytes(bytes)).isEqualTo(uuid);
+        assertThat(TimeOrderedUuid.fromBytes(null)).isNull();
+        assertThatThrownBy(() -> TimeOrderedUuid.fromBytes(new byte[15])).isInstanceOf(IllegalArgumentException.class);
+    }
+}
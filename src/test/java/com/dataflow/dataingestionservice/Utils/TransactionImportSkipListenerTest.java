@@ -0,0 +1,49 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
+import com.dataflow.dataingestionservice.DTO.ImportErrorRowDTO;
+import com.dataflow.dataingestionservice.Services.ImportErrorReportService;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionImportSkipListenerTest {
+
+    @Test
+    void restartedStepGoesOnWithTheErrorsOfItsPreviousRun() throws Exception {
+        TransactionImportProperties properties = new TransactionImportProperties();
+        properties.setErrorSampleSize(2);
+        ImportErrorReportService importErrorReportService = mock(ImportErrorReportService.class);
+        when(importErrorReportService.openErrorFile(anyLong(), anyString()))
+                .thenReturn(mock(ImportErrorReportService.ErrorFileWriter.class));
+        TransactionImportSkipListener listener = new TransactionImportSkipListener(importErrorReportService, properties);
+
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        stepExecution.getExecutionContext().putInt(TransactionImportSkipListener.IMPORT_ERROR_COUNT_CONTEXT_KEY, 5);
+        stepExecution.getExecutionContext().put(TransactionImportSkipListener.IMPORT_ERROR_SAMPLE_CONTEXT_KEY,
+                new ArrayList<>(List.of(new ImportErrorRowDTO(null, 2, "READ", "first run", ""))));
+
+        listener.beforeStep(stepExecution);
+        listener.onSkipInRead(new FlatFileParseException("restart", "a,b", 9));
+        listener.onSkipInRead(new FlatFileParseException("not sampled", "c,d", 10));
+        listener.afterStep(stepExecution);
+
+        assertThat(stepExecution.getExecutionContext().getInt(TransactionImportSkipListener.IMPORT_ERROR_COUNT_CONTEXT_KEY))
+                .isEqualTo(7);
+        assertThat(stepExecution.getExecutionContext().get(TransactionImportSkipListener.IMPORT_ERROR_SAMPLE_CONTEXT_KEY))
+                .asInstanceOf(InstanceOfAssertFactories.LIST)
+                .extracting("error")
+                .containsExactly("first run", "restart");
+    }
+}
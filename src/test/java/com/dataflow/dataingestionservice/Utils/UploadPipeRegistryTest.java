@@ -0,0 +1,22 @@
+package com.dataflow.dataingestionservice.Utils;
+
+import com.dataflow.dataingestionservice.Config.ServiceProperties.TransactionImportProperties;
+import com.dataflow.dataingestionservice.Errors.BusinessConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadPipeRegistryTest {
+
+    @Test
+    void uploadToAPipeTheJobHasDiscardedIsAConflict() {
+        UploadPipeRegistry registry = new UploadPipeRegistry(new TransactionImportProperties());
+        String uploadId = registry.open();
+        registry.discard(uploadId);
+
+        assertThatThrownBy(() -> registry.transfer(uploadId, new ByteArrayInputStream(new byte[10])))
+                .isInstanceOf(BusinessConflictException.class);
+    }
+}